@@ -7,14 +7,17 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class LegendmeUsersSvcApplication {
 
+	private static final String[] DOTENV_KEYS = {"DB_URL", "DB_USERNAME", "DB_PASSWORD", "API_KEY"};
 
 	public static void main(String[] args) {
-		Dotenv dotenv = Dotenv.load();
-
-		System.setProperty("DB_URL", dotenv.get("DB_URL"));
-		System.setProperty("DB_USERNAME", dotenv.get("DB_USERNAME"));
-		System.setProperty("DB_PASSWORD", dotenv.get("DB_PASSWORD"));
-		System.setProperty("API_KEY", dotenv.get("API_KEY"));
+		// El .env solo existe en local: en los contenedores las variables llegan del entorno.
+		Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+		for (String key : DOTENV_KEYS) {
+			String value = dotenv.get(key);
+			if (value != null && System.getenv(key) == null && System.getProperty(key) == null) {
+				System.setProperty(key, value);
+			}
+		}
 
 		SpringApplication.run(LegendmeUsersSvcApplication.class, args);
 	}
@@ -0,0 +1,296 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.application.service.FindUserService;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.infrastructure.compression.ContentCoding;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caché de las respuestas masivas ({@code GET /all} y {@code POST /search}) en su forma final de bytes.
+ *
+ * <p>Cada combinación de endpoint, formato ({@code Accept}) y proyección ({@code fields}) guarda el
+ * cuerpo serializado junto a la {@link UserTableVersion} con la que se generó, y sus versiones gzip y
+ * zstd, que se calculan la primera vez que un cliente las pide. Mientras la versión de la tabla no
+ * cambie, una petición repetida cuesta la consulta de la versión (nada con el directorio activo) y una
+ * única escritura del buffer: no se leen los usuarios, no pasan por {@code UserRestMapper} ni se
+ * vuelven a serializar. Cuando la versión cambia, solo una petición por combinación regenera el cuerpo;
+ * las demás esperan y reutilizan el resultado.</p>
+ *
+ * <p>La serialización usa los mismos convertidores que Spring MVC (y el filtro de {@link UserFields}),
+ * de modo que la respuesta es idéntica byte a byte a la que se obtendría sin caché. La versión se lee
+ * antes que los usuarios: si una escritura se cuela entre ambas lecturas, el cuerpo guardado es más
+ * nuevo que su versión y se regenera en la siguiente petición.</p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(BulkResponseProperties.class)
+public class BulkResponseCache {
+
+    /** Respuestas masivas que se cachean, con el tipo declarado que ve el convertidor. */
+    public enum Endpoint {
+        ALL(ResolvableType.forClassWithGenerics(List.class, UserResponse.class).getType()),
+        SEARCH(UserSearchResponse.class);
+
+        private final Type type;
+        private final Class<?> rawType;
+
+        Endpoint(Type type) {
+            this.type = type;
+            this.rawType = ResolvableType.forType(type).toClass();
+        }
+    }
+
+    private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+    private final FindUserService findUserService;
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final BulkResponseProperties properties;
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    private final Map<Endpoint, List<Producer>> producers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param findUserService Servicio de lectura de usuarios (versión de la tabla y lectura completa).
+     * @param handlerAdapter  Adaptador de Spring MVC del que se toman los convertidores de mensajes.
+     * @param properties      Configuración de la caché y la compresión.
+     */
+    public BulkResponseCache(FindUserService findUserService,
+                             ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+                             BulkResponseProperties properties) {
+        this.findUserService = findUserService;
+        this.handlerAdapter = handlerAdapter;
+        this.properties = properties;
+    }
+
+    /**
+     * Construye la respuesta de un endpoint masivo.
+     *
+     * @param endpoint   Endpoint que responde.
+     * @param projection Campos pedidos.
+     * @param request    Petición actual (cabeceras Accept y Accept-Encoding).
+     * @param body       Lectura y mapeo de los usuarios; solo se invoca si la versión cambió.
+     * @return Los bytes ya serializados y comprimidos, o el cuerpo sin serializar si la caché está
+     *         desactivada o el {@code Accept} no corresponde a ningún formato conocido (Spring MVC lo
+     *         negocia entonces como cualquier otra respuesta).
+     */
+    public ResponseEntity<?> respond(Endpoint endpoint, UserProjection projection, HttpServletRequest request,
+                                     Supplier<?> body) {
+        if (!properties.enabled()) {
+            return ResponseEntity.ok(body.get());
+        }
+        Producer producer = select(endpoint, request.getHeader(HttpHeaders.ACCEPT));
+        if (producer == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        UserTableVersion version = findUserService.tableVersion();
+        Key key = new Key(endpoint, producer.mediaType(), projection);
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            if (slots.size() >= properties.maxEntries()) {
+                return write(new Entry(version, producer.serialize(endpoint, projection, body.get())), producer, request);
+            }
+            slot = slots.computeIfAbsent(key, k -> new Slot());
+        }
+        return write(slot.current(version, () -> producer.serialize(endpoint, projection, body.get())), producer, request);
+    }
+
+    private ResponseEntity<byte[]> write(Entry entry, Producer producer, HttpServletRequest request) {
+        ContentCoding coding = ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = entry.encoded(coding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(producer.mediaType())
+                .contentLength(bytes.length)
+                .header(HttpHeaders.VARY, VARY);
+        if (bytes != entry.identity) {
+            response.header(HttpHeaders.CONTENT_ENCODING, coding.token());
+        }
+        return response.body(bytes);
+    }
+
+    /**
+     * Elige el formato como lo haría Spring MVC: el tipo aceptado de mayor peso que algún convertidor
+     * puede escribir, y a igual peso el orden de los convertidores (JSON primero).
+     */
+    private Producer select(Endpoint endpoint, String accept) {
+        List<MediaType> accepted = new ArrayList<>();
+        if (accept == null || accept.isBlank()) {
+            accepted.add(MediaType.ALL);
+        } else {
+            try {
+                accepted.addAll(MediaType.parseMediaTypes(accept));
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        }
+        List<Producer> candidates = producers.computeIfAbsent(endpoint, this::producersFor);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (Producer candidate : candidates) {
+                if (type.isCompatibleWith(candidate.mediaType())) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<Producer> producersFor(Endpoint endpoint) {
+        List<Producer> result = new ArrayList<>();
+        for (HttpMessageConverter<?> converter : handlerAdapter.getObject().getMessageConverters()) {
+            if (!(converter instanceof GenericHttpMessageConverter<?> generic)
+                    || !generic.canWrite(endpoint.type, endpoint.rawType, null)) {
+                continue;
+            }
+            for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+                if (mediaType.isConcrete() && generic.canWrite(endpoint.type, endpoint.rawType, mediaType)) {
+                    @SuppressWarnings("unchecked")
+                    GenericHttpMessageConverter<Object> writer = (GenericHttpMessageConverter<Object>) generic;
+                    result.add(new Producer(mediaType, writer));
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private record Key(Endpoint endpoint, MediaType mediaType, UserProjection projection) {}
+
+    /** Un formato concreto y el convertidor que lo escribe. */
+    private record Producer(MediaType mediaType, GenericHttpMessageConverter<Object> converter) {
+
+        byte[] serialize(Endpoint endpoint, UserProjection projection, Object body) {
+            Object value = body;
+            if (!projection.isAll() && converter instanceof AbstractJackson2HttpMessageConverter) {
+                MappingJacksonValue container = new MappingJacksonValue(body);
+                container.setFilters(UserFields.filters(projection));
+                value = container;
+            } else if (!projection.isAll() && converter instanceof UserJsonHttpMessageConverter) {
+                value = new UserJsonHttpMessageConverter.Projected(body, projection);
+            }
+            BufferedOutputMessage message = new BufferedOutputMessage();
+            try {
+                converter.write(value, endpoint.type, mediaType, message);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return message.body.toByteArray();
+        }
+    }
+
+    /** Entrada de una combinación; solo un hilo a la vez la regenera. */
+    private final class Slot {
+
+        private volatile Entry entry;
+
+        Entry current(UserTableVersion version, Supplier<byte[]> serializer) {
+            Entry current = entry;
+            if (current != null && current.version.equals(version)) {
+                return current;
+            }
+            synchronized (this) {
+                current = entry;
+                if (current == null || !current.version.equals(version)) {
+                    current = new Entry(version, serializer.get());
+                    if (current.identity.length <= properties.maxBodySize().toBytes()) {
+                        entry = current;
+                    }
+                    log.info("Respuesta masiva regenerada: {} bytes, {} usuarios", current.identity.length, version.count());
+                }
+                return current;
+            }
+        }
+    }
+
+    /** Cuerpo de una versión de la tabla, sin comprimir y comprimido. */
+    private final class Entry {
+
+        private final UserTableVersion version;
+        private final byte[] identity;
+        private volatile byte[] gzip;
+        private volatile byte[] zstd;
+
+        Entry(UserTableVersion version, byte[] identity) {
+            this.version = version;
+            this.identity = identity;
+        }
+
+        /**
+         * Cuerpo en la codificación pedida; si el cuerpo no llega al umbral o comprimido no ocupa
+         * menos, devuelve el cuerpo sin comprimir.
+         */
+        byte[] encoded(ContentCoding coding) {
+            if (coding == ContentCoding.IDENTITY || identity.length < properties.compressionThreshold().toBytes()) {
+                return identity;
+            }
+            byte[] encoded = coding == ContentCoding.ZSTD ? zstd : gzip;
+            if (encoded == null) {
+                synchronized (this) {
+                    encoded = coding == ContentCoding.ZSTD ? zstd : gzip;
+                    if (encoded == null) {
+                        int level = coding == ContentCoding.ZSTD ? properties.zstdLevel() : properties.gzipLevel();
+                        encoded = coding.encode(identity, level);
+                        if (encoded.length >= identity.length) {
+                            encoded = identity;
+                        }
+                        if (coding == ContentCoding.ZSTD) {
+                            zstd = encoded;
+                        } else {
+                            gzip = encoded;
+                        }
+                    }
+                }
+            }
+            return encoded;
+        }
+    }
+
+    /** Mensaje HTTP en memoria en el que escriben los convertidores. */
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuración de las respuestas masivas ({@code GET /all} y {@code POST /search}) ya serializadas.
+ *
+ * @param enabled              activa la caché; desactivada, las respuestas se serializan en cada petición
+ * @param maxEntries           combinaciones de endpoint, formato y {@code fields} que se mantienen a la vez
+ * @param maxBodySize          cuerpos más grandes se sirven sin guardarlos
+ * @param compressionThreshold cuerpos más pequeños se envían sin comprimir
+ * @param gzipLevel            nivel de gzip (1-9)
+ * @param zstdLevel            nivel de zstd (1-22)
+ */
+@ConfigurationProperties(prefix = "legendme.bulk-response")
+public record BulkResponseProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("16") int maxEntries,
+        @DefaultValue("64MB") DataSize maxBodySize,
+        @DefaultValue("2KB") DataSize compressionThreshold,
+        @DefaultValue("6") int gzipLevel,
+        @DefaultValue("3") int zstdLevel
+) {}
@@ -0,0 +1,51 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.infrastructure.ratelimit.CreateRateLimiter;
+import com.legendme.users.svc.infrastructure.security.S2SAuthFilter;
+import com.legendme.users.svc.shared.exceptions.RateLimitExceededException;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Limita las altas por email normalizado en cuanto se lee el cuerpo de
+ * {@link CreateUserRequest}, antes de entrar al controlador (y por tanto antes del hash de la
+ * contraseña y de las consultas). El límite por IP ya se aplicó en el filtro.
+ */
+@ControllerAdvice(assignableTypes = UserController.class)
+public class CreateRateLimitAdvice extends RequestBodyAdviceAdapter {
+
+    private final CreateRateLimiter limiter;
+
+    /**
+     * Constructor para la inyección del limitador.
+     *
+     * @param limiter Límite de los endpoints de alta.
+     */
+    public CreateRateLimitAdvice(CreateRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return targetType == CreateUserRequest.class;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        if (body instanceof CreateUserRequest request && !S2SAuthFilter.isInternalRequest()) {
+            long retryAfter = limiter.checkEmail(request.email());
+            if (retryAfter > 0) {
+                throw new RateLimitExceededException(retryAfter);
+            }
+        }
+        return body;
+    }
+}
@@ -2,15 +2,23 @@ package com.legendme.users.svc.adapter.in.rest;
 
 import com.legendme.users.svc.adapter.in.rest.dto.*;
 import com.legendme.users.svc.adapter.in.rest.mapper.UserRestMapper;
+import com.legendme.users.svc.infrastructure.logging.PayloadLogSampler;
 import com.legendme.users.svc.infrastructure.security.JwtUtils;
+import com.legendme.users.svc.application.service.CredentialVerificationService;
 import com.legendme.users.svc.application.service.FindUserService;
 import com.legendme.users.svc.application.service.RegisterUserService;
+import com.legendme.users.svc.application.stats.UserStatsService;
 import com.legendme.users.svc.domain.model.User;
-import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserStats;
+import com.legendme.users.svc.domain.model.UsernameAvailability;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,6 +29,9 @@ import java.util.stream.Collectors;
  * Proporciona endpoints para crear, buscar, actualizar y desactivar usuarios.
  * Utiliza servicios de aplicación para realizar las operaciones necesarias y mapea
  * los datos entre los modelos de dominio y los DTOs de la API REST.
+ * Los errores no se capturan aquí: los registra y traduce {@link com.legendme.users.svc.shared.GlobalExceptionHandler}.
+ * El contenido de peticiones y respuestas solo se registra para la muestra que decide {@link PayloadLogSampler}.
+ * Las lecturas aceptan {@code fields} para devolver y leer de la base solo algunos campos (ver {@link UserFields}).
  */
 @Slf4j
 @RestController
@@ -38,22 +49,53 @@ public class UserController {
      */
     private final FindUserService findUserService;
 
+    /**
+     * Servicio para verificar credenciales de usuarios locales.
+     */
+    private final CredentialVerificationService credentialVerificationService;
+
     /**
      * Utilidad para manejar JWT y extraer información del token.
      */
     private final JwtUtils jwtUtils;
 
+    /**
+     * Muestreo de los logs con el contenido de peticiones y respuestas.
+     */
+    private final PayloadLogSampler payloadLogs;
+
+    /**
+     * Respuestas masivas ya serializadas y comprimidas.
+     */
+    private final BulkResponseCache bulkResponses;
+
+    /**
+     * Estadísticas de usuarios mantenidas con contadores.
+     */
+    private final UserStatsService userStatsService;
+
     /**
      * Constructor para la inyección de dependencias de los servicios y utilidades necesarias.
      *
      * @param registerUserService Servicio para registrar y gestionar usuarios.
      * @param findUserService     Servicio para buscar y verificar usuarios.
+     * @param credentialVerificationService Servicio para verificar credenciales.
      * @param jwtUtils            Utilidad para manejar JWT.
+     * @param payloadLogs         Muestreo de los logs de contenido.
+     * @param bulkResponses       Caché de las respuestas masivas.
+     * @param userStatsService    Estadísticas de usuarios.
      */
-    public UserController(RegisterUserService registerUserService, FindUserService findUserService, JwtUtils jwtUtils) {
+    public UserController(RegisterUserService registerUserService, FindUserService findUserService,
+                          CredentialVerificationService credentialVerificationService,
+                          JwtUtils jwtUtils, PayloadLogSampler payloadLogs, BulkResponseCache bulkResponses,
+                          UserStatsService userStatsService) {
         this.registerUserService = registerUserService;
         this.findUserService = findUserService;
+        this.credentialVerificationService = credentialVerificationService;
         this.jwtUtils = jwtUtils;
+        this.payloadLogs = payloadLogs;
+        this.bulkResponses = bulkResponses;
+        this.userStatsService = userStatsService;
     }
 
     /**
@@ -64,16 +106,16 @@ public class UserController {
      */
     @PostMapping("/create")
     public UserResponse createUser(@RequestBody CreateUserRequest request) {
-        log.info("Entrada a createUser con request: {}", request.toString());
-        try {
-            User user = registerUserService.registerLocalUser(request);
-            UserResponse response = UserRestMapper.toUserResponse(user);
-            log.info("Salida de createUser con respuesta: {}", response.toString());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en createUser: {}", e.getMessage(), e);
-            throw e;
+        boolean sampled = payloadLogs.sample("createUser");
+        if (sampled) {
+            log.info("Entrada a createUser con request: {}", request);
+        }
+        User user = registerUserService.registerLocalUser(request);
+        UserResponse response = UserRestMapper.toUserResponse(user);
+        if (sampled) {
+            log.info("Salida de createUser con respuesta: {}", response);
         }
+        return response;
     }
 
     /**
@@ -84,60 +126,77 @@ public class UserController {
      */
     @PostMapping("/create/google-user")
     public UserResponse upsertGoogle(@RequestBody CreateUserRequest request) {
-        log.info("Iniciando upsertGoogle con request: {}", request.toString());
-        try {
-            User user = registerUserService.upsertGoogleUser(request);
-            UserResponse response = UserRestMapper.toUserResponse(user);
-            log.info("upsertGoogle terminado exitosamente con respuesta: {}", response.toString());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en upsertGoogle: {}", e.getMessage(), e);
-            throw e;
+        boolean sampled = payloadLogs.sample("upsertGoogle");
+        if (sampled) {
+            log.info("Iniciando upsertGoogle con request: {}", request);
         }
+        User user = registerUserService.upsertGoogleUser(request);
+        UserResponse response = UserRestMapper.toUserResponse(user);
+        if (sampled) {
+            log.info("upsertGoogle terminado exitosamente con respuesta: {}", response);
+        }
+        return response;
     }
 
     /**
      * Endpoint para buscar todos los usuarios.
+     * La respuesta se sirve ya serializada y comprimida mientras la tabla no cambie (ver {@link BulkResponseCache}).
      *
+     * @param fields      Campos de cada usuario a devolver, separados por comas (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
-     * @return DTO con la lista de usuarios encontrados y el total.
+     * @return DTO con la lista de usuarios encontrados y el total (o sus bytes ya serializados).
      */
     @PostMapping("/search")
-    public UserSearchResponse searchUsers(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> searchUsers(@RequestParam(required = false) String fields, HttpServletRequest httpRequest) {
         log.info("Iniciando searchUsers");
-        try {
-            List<User> users = findUserService.findAll();
-            UserSearchResponse response = new UserSearchResponse(
+        UserProjection projection = UserFields.resolve(fields, httpRequest);
+        ResponseEntity<?> response = bulkResponses.respond(BulkResponseCache.Endpoint.SEARCH, projection, httpRequest, () -> {
+            List<User> users = findUserService.findAll(projection);
+            return new UserSearchResponse(
                     users.stream().map(UserRestMapper::toUserResponse).collect(Collectors.toList()),
                     users.size()
             );
-            log.info("searchUsers finalizado exitosamente con {} usuarios encontrados", users.size());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en searchUsers: {}", e.getMessage(), e);
-            throw e;
-        }
+        });
+        log.info("searchUsers finalizado exitosamente");
+        return response;
     }
 
     /**
      * Endpoint para buscar un usuario por su ID.
+     * Soporta peticiones condicionales: si el ETag o la fecha enviada por el cliente
+     * coinciden con la versión vigente, responde 304 sin cargar ni serializar el usuario.
+     * Sin validadores, el usuario se lee una sola vez; en ambos casos el ETag de una respuesta
+     * con cuerpo sale de la fila devuelta.
      *
+     * @param fields      Campos a devolver, separados por comas (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
-     * @return DTO con los datos del usuario encontrado.
+     * @param webRequest  Solicitud usada para evaluar If-None-Match / If-Modified-Since.
+     * @return DTO con los datos del usuario encontrado, o null si la respuesta es 304.
      */
     @GetMapping("/search/by-id/{id}")
-    public UserResponse getUserById(@PathVariable UUID id, HttpServletRequest httpRequest) {
+    public UserResponse getUserById(@PathVariable UUID id, @RequestParam(required = false) String fields,
+                                    HttpServletRequest httpRequest, WebRequest webRequest) {
         log.info("Iniciando getUserById con id: {}", id);
-        try {
-            UserResponse response = findUserService.findById(id)
-                    .map(UserRestMapper::toUserResponse)
-                    .orElseThrow(() -> new ErrorException("Usuario no encontrado", "USER-FIND-ID-01", HttpStatus.BAD_REQUEST));
-            log.info("getUserById finalizado exitosamente con usuario: {}", response.toString());
-            return response;
-        } catch (Exception e) {
-            log.error("Error en getUserById: {}", e.getMessage(), e);
-            throw e;
+        UserProjection projection = UserFields.resolve(fields, httpRequest);
+        boolean conditional = UserETags.isConditional(webRequest);
+        if (conditional && findUserService.findVersionById(id)
+                .filter(version -> UserETags.checkNotModified(webRequest, version))
+                .isPresent()) {
+            log.info("getUserById sin cambios para id: {}", id);
+            return null;
+        }
+        User user = findUserService.findById(id, UserETags.withVersion(projection))
+                .orElseThrow(() -> UserErrors.USER_NOT_FOUND_BY_ID);
+        if (conditional) {
+            UserETags.describe(webRequest, UserETags.versionOf(user));
+        } else {
+            UserETags.checkNotModified(webRequest, UserETags.versionOf(user));
         }
+        UserResponse response = UserRestMapper.toUserResponse(projection.apply(user));
+        if (payloadLogs.sample("getUserById")) {
+            log.info("getUserById finalizado exitosamente con usuario: {}", response);
+        }
+        return response;
     }
 
     /**
@@ -149,35 +208,33 @@ public class UserController {
     @PatchMapping("/{id}/desactivate")
     public void deactivateUser(@PathVariable UUID id, HttpServletRequest httpRequest) {
         log.info("Iniciando deactivateUser con id: {}", id);
-        try {
-            registerUserService.deactivateUser(id);
-            log.info("Usuario desactivado correctamente: {}", id);
-        } catch (ErrorException e) {
-            log.error("Error en deactivateUser: {}", e.getMessage(), e);
-            throw e;
-        }
+        registerUserService.deactivateUser(id);
+        log.info("Usuario desactivado correctamente: {}", id);
     }
 
     /**
      * Endpoint para buscar un usuario por su email.
      *
      * @param request     DTO con el email del usuario a buscar.
+     * @param fields      Campos a devolver, separados por comas (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
      * @return DTO con los datos del usuario encontrado.
      */
     @PostMapping("/search/by-email")
-    public UserResponse getUserByEmail(@RequestBody EmailRequest request, HttpServletRequest httpRequest) {
-        log.info("Iniciando getUserByEmail con request: {}", request.toString());
-        try {
-            UserResponse response = findUserService.findByEmail(request.email())
-                    .map(UserRestMapper::toUserResponse)
-                    .orElseThrow(() -> new ErrorException("Usuario no encontrado", "USER-FIND-EMAIL-03", HttpStatus.BAD_REQUEST));
-            log.info("Salida de getUserByEmail con respuesta: {}", response.toString());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en getUserByEmail: {}", e.getMessage(), e);
-            throw e;
+    public UserResponse getUserByEmail(@RequestBody EmailRequest request, @RequestParam(required = false) String fields,
+                                       HttpServletRequest httpRequest) {
+        boolean sampled = payloadLogs.sample("getUserByEmail");
+        if (sampled) {
+            log.info("Iniciando getUserByEmail con request: {}", request);
+        }
+        UserProjection projection = UserFields.resolve(fields, httpRequest);
+        UserResponse response = findUserService.findByEmail(request.email(), projection)
+                .map(UserRestMapper::toUserResponse)
+                .orElseThrow(() -> UserErrors.USER_NOT_FOUND_BY_EMAIL);
+        if (sampled) {
+            log.info("Salida de getUserByEmail con respuesta: {}", response);
         }
+        return response;
     }
 
     /**
@@ -189,87 +246,181 @@ public class UserController {
      */
     @PostMapping("/exists-by-email")
     public ExistsResponse existsByEmail(@RequestBody EmailRequest request, HttpServletRequest httpRequest) {
-        log.info("Iniciando existsByEmail con request: {}", request.toString());
-        try {
-            boolean exists = findUserService.existsByEmail(request.email());
-            ExistsResponse response = new ExistsResponse(exists);
-            log.info("existsByEmail finalizado exitosamente con resultado: {}", response.toString());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en existsByEmail: {}", e.getMessage(), e);
-            throw e;
+        boolean sampled = payloadLogs.sample("existsByEmail");
+        if (sampled) {
+            log.info("Iniciando existsByEmail con request: {}", request);
+        }
+        boolean exists = findUserService.existsByEmail(request.email());
+        ExistsResponse response = new ExistsResponse(exists);
+        if (sampled) {
+            log.info("existsByEmail finalizado exitosamente con resultado: {}", response);
+        }
+        return response;
+    }
+
+    /**
+     * Endpoint con las estadísticas de los usuarios (totales por estado y proveedor, altas por día).
+     * Se responde desde contadores en memoria, sin consultar la base, en lugar de leer todos los
+     * usuarios con {@code /search} para quedarse con {@code total}.
+     *
+     * @return DTO con las estadísticas.
+     */
+    @GetMapping("/stats")
+    public UserStatsResponse stats() {
+        UserStats stats = userStatsService.current();
+        return new UserStatsResponse(stats.total(), stats.active(), stats.inactive(), stats.byProvider(),
+                stats.signupsPerDay(), stats.reconciledAt());
+    }
+
+    /**
+     * Endpoint para comprobar si un nombre de usuario está libre antes de crear o actualizar un
+     * usuario, con alternativas libres para no tener que probarlas una a una.
+     *
+     * @param username    Nombre de usuario a comprobar.
+     * @param suggestions Número de alternativas libres (entre 0 y 10, por defecto 5).
+     * @return DTO con la disponibilidad y las alternativas.
+     */
+    @GetMapping("/username-availability")
+    public UsernameAvailabilityResponse usernameAvailability(@RequestParam("u") String username,
+                                                             @RequestParam(name = "n", defaultValue = "5") int suggestions) {
+        boolean sampled = payloadLogs.sample("usernameAvailability");
+        if (sampled) {
+            log.info("Iniciando usernameAvailability con username: {}", username);
+        }
+        UsernameAvailability availability = findUserService.checkUsernameAvailability(username, suggestions);
+        UsernameAvailabilityResponse response = new UsernameAvailabilityResponse(
+                availability.username(), availability.available(), availability.suggestions());
+        if (sampled) {
+            log.info("usernameAvailability finalizado con respuesta: {}", response);
+        }
+        return response;
+    }
+
+    /**
+     * Endpoint interno (solo S2S) para cruzar la agenda de un usuario con los usuarios registrados
+     * a partir de los hashes de los emails, sin recibir los emails en claro. Sustituye a una
+     * llamada a {@link #existsByEmail} por contacto.
+     *
+     * @param request DTO con hasta 5000 hashes de email.
+     * @return DTO con los hashes encontrados y el ID de su usuario.
+     */
+    @PostMapping("/match-email-hashes")
+    public EmailHashMatchResponse matchEmailHashes(@RequestBody EmailHashesRequest request) {
+        boolean sampled = payloadLogs.sample("matchEmailHashes");
+        if (sampled) {
+            log.info("Iniciando matchEmailHashes con {} hashes", request.hashes() == null ? 0 : request.hashes().size());
         }
+        EmailHashMatchResponse response = new EmailHashMatchResponse(findUserService.matchEmailHashes(request.hashes()));
+        if (sampled) {
+            log.info("matchEmailHashes finalizado con {} coincidencias", response.matches().size());
+        }
+        return response;
+    }
+
+    /**
+     * Endpoint interno (solo S2S) para verificar el email y la contraseña de un usuario local.
+     * Una contraseña incorrecta, un email desconocido o una cuenta inactiva responden
+     * {@code valid=false} sin distinguir el motivo.
+     *
+     * @param request DTO con el email y la contraseña.
+     * @return DTO con el resultado y el ID del usuario verificado.
+     */
+    @PostMapping("/verify-credentials")
+    public VerifyCredentialsResponse verifyCredentials(@RequestBody VerifyCredentialsRequest request) {
+        log.info("Iniciando verifyCredentials");
+        VerifyCredentialsResponse response = credentialVerificationService.verify(request.email(), request.password())
+                .map(id -> new VerifyCredentialsResponse(true, id))
+                .orElseGet(() -> new VerifyCredentialsResponse(false, null));
+        log.info("verifyCredentials finalizado con resultado: {}", response.valid());
+        return response;
     }
 
     /**
      * Endpoint para buscar un usuario por su nombre de usuario.
+     * Soporta peticiones condicionales del mismo modo que {@link #getUserById}.
      *
      * @param username    Nombre de usuario a buscar.
+     * @param fields      Campos a devolver, separados por comas (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
-     * @return DTO con los datos del usuario encontrado.
+     * @param webRequest  Solicitud usada para evaluar If-None-Match / If-Modified-Since.
+     * @return DTO con los datos del usuario encontrado, o null si la respuesta es 304.
      */
     @GetMapping("/search/by-username/{username}")
-    public UserResponse getUserByUsername(@PathVariable String username, HttpServletRequest httpRequest) {
+    public UserResponse getUserByUsername(@PathVariable String username, @RequestParam(required = false) String fields,
+                                          HttpServletRequest httpRequest, WebRequest webRequest) {
         log.info("Iniciando getUserByUsername con username: {}", username);
-        try {
-            UserResponse response = findUserService.findByUsername(username)
-                    .map(UserRestMapper::toUserResponse)
-                    .orElseThrow(() -> new ErrorException("Usuario no encontrado", "USER-FIND-USERNAME-03", HttpStatus.BAD_REQUEST));
-            log.info("getUserByUsername finalizado con respuesta: {}", response.toString());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en getUserByUsername: {}", e.getMessage(), e);
-            throw e;
+        UserProjection projection = UserFields.resolve(fields, httpRequest);
+        boolean conditional = UserETags.isConditional(webRequest);
+        if (conditional && findUserService.findVersionByUsername(username)
+                .filter(version -> UserETags.checkNotModified(webRequest, version))
+                .isPresent()) {
+            log.info("getUserByUsername sin cambios para username: {}", username);
+            return null;
         }
+        User user = findUserService.findByUsername(username, UserETags.withVersion(projection))
+                .orElseThrow(() -> UserErrors.USER_NOT_FOUND_BY_USERNAME);
+        if (conditional) {
+            UserETags.describe(webRequest, UserETags.versionOf(user));
+        } else {
+            UserETags.checkNotModified(webRequest, UserETags.versionOf(user));
+        }
+        UserResponse response = UserRestMapper.toUserResponse(projection.apply(user));
+        if (payloadLogs.sample("getUserByUsername")) {
+            log.info("getUserByUsername finalizado con respuesta: {}", response);
+        }
+        return response;
     }
 
     /**
      * Endpoint para obtener todos los usuarios.
+     * La respuesta se sirve ya serializada y comprimida mientras la tabla no cambie (ver {@link BulkResponseCache}).
      *
+     * @param fields      Campos de cada usuario a devolver, separados por comas (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
-     * @return Lista de DTOs con los datos de todos los usuarios.
+     * @return Lista de DTOs con los datos de todos los usuarios (o sus bytes ya serializados).
      */
     @GetMapping("/all")
-    public List<UserResponse> getAllUsers(HttpServletRequest httpRequest) {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String fields, HttpServletRequest httpRequest) {
         log.info("Iniciando getAllUsers");
-        try {
-            List<UserResponse> response = findUserService.findAll()
-                    .stream()
-                    .map(UserRestMapper::toUserResponse)
-                    .toList();
-            log.info("getAllUsers finalizado con exitosamente con {} usuarios", response.size());
-            return response;
-        } catch (ErrorException e) {
-            log.error("Error en getAllUsers: {}", e.getMessage(), e);
-            throw e;
-        }
+        UserProjection projection = UserFields.resolve(fields, httpRequest);
+        ResponseEntity<?> response = bulkResponses.respond(BulkResponseCache.Endpoint.ALL, projection, httpRequest,
+                () -> findUserService.findAll(projection)
+                        .stream()
+                        .map(UserRestMapper::toUserResponse)
+                        .toList());
+        log.info("getAllUsers finalizado exitosamente");
+        return response;
     }
 
     /**
      * Endpoint para actualizar parcialmente un usuario por su ID.
+     * Si se envía If-Match con el ETag del usuario, la actualización solo se aplica
+     * sobre esa versión (412 en caso contrario).
      *
      * @param request     DTO con los campos a actualizar (pueden ser nulos).
+     * @param ifMatch     ETag de la versión que el cliente espera modificar (opcional).
      * @param httpRequest Solicitud HTTP para extraer el token JWT.
      * @return DTO con los datos del usuario actualizado.
      */
     @PatchMapping("/update")
-    public UserResponse updateUser(@RequestBody UpdateUserRequest request, HttpServletRequest httpRequest) {
-        log.info("Iniciando updateUser con request: {}", request);
-
-        try {
-            UUID authUserId = UUID.fromString(jwtUtils.getUserIdFromRequest(httpRequest));
-            log.info("Usuario autenticado haciendo PATCH /update: {}", authUserId);
+    public UserResponse updateUser(@RequestBody UpdateUserRequest request,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                   HttpServletRequest httpRequest) {
+        boolean sampled = payloadLogs.sample("updateUser");
+        if (sampled) {
+            log.info("Iniciando updateUser con request: {}", request);
+        }
+        UUID authUserId = UUID.fromString(jwtUtils.getUserIdFromRequest(httpRequest));
+        log.info("Usuario autenticado haciendo PATCH /update: {}", authUserId);
 
-            User updatedUser = registerUserService.updateUserPartial(authUserId, request);
+        Long expectedVersion = UserETags.expectedVersion(ifMatch, authUserId);
+        User updatedUser = registerUserService.updateUserPartial(authUserId, request, expectedVersion);
 
-            UserResponse response = UserRestMapper.toUserResponse(updatedUser);
+        UserResponse response = UserRestMapper.toUserResponse(updatedUser);
+        if (sampled) {
             log.info("Salida de updateUser con respuesta: {}", response);
-            return response;
-
-        } catch (ErrorException e) {
-            log.error("Error en updateUser: {}", e.getMessage(), e);
-            throw e;
         }
+        return response;
     }
 
 }
@@ -0,0 +1,211 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserVersion;
+import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Utilidad para resolver peticiones condicionales sobre usuarios.
+ * Deriva un ETag fuerte a partir del ID y la versión de la fila del usuario y del formato de la
+ * respuesta, delega en {@link WebRequest#checkNotModified(String, long)} la evaluación
+ * de las cabeceras If-None-Match / If-Modified-Since y traduce If-Match
+ * a la versión esperada para las actualizaciones.
+ * JSON, CBOR y Protobuf comparten la versión con bytes distintos, así que cada formato tiene su
+ * propio ETag ({@code "<id>-<version>-cbor"}) y la respuesta va con {@code Vary: Accept};
+ * {@code fields} forma parte de la URL.
+ */
+public class UserETags {
+
+    private UserETags() {
+    }
+
+    private static final int VERSION_FIELDS = UserProjection.bit(UserField.ID)
+            | UserProjection.bit(UserField.UPDATED_AT) | UserProjection.bit(UserField.VERSION);
+
+    private static final String JSON = "json";
+
+    /** Tipos que producen los convertidores de usuarios, en su orden en MVC. */
+    private static final List<Map.Entry<MediaType, String>> REPRESENTATIONS = List.of(
+            Map.entry(MediaType.APPLICATION_JSON, JSON),
+            Map.entry(new MediaType("application", "*+json"), JSON),
+            Map.entry(MediaType.APPLICATION_CBOR, "cbor"),
+            Map.entry(UserProtobufHttpMessageConverter.PROTOBUF, "protobuf"),
+            Map.entry(new MediaType("application", "protobuf"), "protobuf"));
+
+    private static final Set<String> SUFFIXES = Set.of("-" + JSON, "-cbor", "-protobuf");
+
+    /** Construye el ETag de una versión de usuario en un formato.
+     * @param version La versión del usuario.
+     * @param representation El formato de la respuesta ({@code json}, {@code cbor} o {@code protobuf}).
+     * @return El ETag entre comillas, por ejemplo {@code "<id>-<version>-json"}.
+     */
+    public static String of(UserVersion version, String representation) {
+        return of(version.id(), version.version(), representation);
+    }
+
+    /** Construye el ETag fuerte a partir del ID, la versión de la fila y el formato.
+     * @param id El UUID del usuario.
+     * @param version La versión de la fila (null se trata como 0).
+     * @param representation El formato de la respuesta.
+     * @return El ETag, por ejemplo {@code "<id>-<version>-json"}.
+     */
+    public static String of(UUID id, Long version, String representation) {
+        return "\"" + id + "-" + (version != null ? version : 0L) + "-" + representation + "\"";
+    }
+
+    /** Formato en que se escribirá la respuesta según la cabecera Accept, con el mismo criterio
+     * que la negociación de MVC: mayor calidad, después el tipo más concreto y, a igualdad, el
+     * orden de los convertidores (JSON, CBOR, Protobuf). Sin Accept, o si no coincide ninguno, JSON.
+     * @param webRequest La petición actual.
+     * @return {@code json}, {@code cbor} o {@code protobuf}.
+     */
+    public static String representation(WebRequest webRequest) {
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (Map.Entry<MediaType, String> producible : REPRESENTATIONS) {
+                if (type.isCompatibleWith(producible.getKey())) {
+                    return producible.getValue();
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /** Versión de un usuario ya cargado.
+     * @param user Usuario leído con {@link #withVersion} (al menos ID, versión y fecha de modificación).
+     * @return Su versión.
+     */
+    public static UserVersion versionOf(User user) {
+        return new UserVersion(user.id(), user.updatedAt(), user.version());
+    }
+
+    /** Amplía una proyección con los campos que forman el ETag, para leer la fila una sola vez.
+     * El usuario leído se recorta después con {@link UserProjection#apply}.
+     * @param projection La proyección pedida.
+     * @return La proyección con ID, versión y fecha de modificación.
+     */
+    public static UserProjection withVersion(UserProjection projection) {
+        return projection.isAll() ? projection : UserProjection.ofMask(projection.mask() | VERSION_FIELDS);
+    }
+
+    /** Indica si la petición trae validadores (If-None-Match / If-Modified-Since).
+     * Solo entonces merece la pena consultar la versión antes de cargar el usuario.
+     * @param webRequest La petición actual.
+     * @return true si es una petición condicional.
+     */
+    public static boolean isConditional(WebRequest webRequest) {
+        return webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /** Evalúa la petición condicional contra la versión del usuario.
+     * Si el cliente ya tiene la versión vigente, la respuesta queda marcada como 304;
+     * en cualquier caso se añaden las cabeceras ETag, Last-Modified y Vary.
+     * @param webRequest La petición actual.
+     * @param version La versión vigente del usuario.
+     * @return true si la respuesta es 304 y no se debe generar cuerpo.
+     */
+    public static boolean checkNotModified(WebRequest webRequest, UserVersion version) {
+        long lastModified = version.updatedAt() != null ? version.updatedAt().toEpochMilli() : 0L;
+        HttpServletResponse response = response(webRequest);
+        if (response != null) {
+            varyOnAccept(response);
+        }
+        return webRequest.checkNotModified(of(version, representation(webRequest)), lastModified);
+    }
+
+    /** Fija ETag y Last-Modified a los de la versión leída, sustituyendo los que hubiera.
+     * Cuando el If-None-Match no coincide, el cuerpo sale de una segunda lectura (la caché de
+     * usuarios calientes u otra réplica pueden ir por detrás o por delante de la consulta de
+     * versión), y las cabeceras deben describir ese cuerpo.
+     * @param webRequest La petición actual.
+     * @param version La versión del usuario que se devuelve.
+     */
+    public static void describe(WebRequest webRequest, UserVersion version) {
+        HttpServletResponse response = response(webRequest);
+        if (response == null) {
+            return;
+        }
+        varyOnAccept(response);
+        response.setHeader(HttpHeaders.ETAG, of(version, representation(webRequest)));
+        if (version.updatedAt() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, version.updatedAt().toEpochMilli());
+        }
+    }
+
+    private static HttpServletResponse response(WebRequest webRequest) {
+        return webRequest instanceof NativeWebRequest nativeRequest
+                ? nativeRequest.getNativeResponse(HttpServletResponse.class)
+                : null;
+    }
+
+    private static void varyOnAccept(HttpServletResponse response) {
+        if (!response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    /** Obtiene la versión esperada a partir de la cabecera If-Match.
+     * If-Match exige comparación fuerte (RFC 9110, 13.1.1): un ETag débil nunca coincide.
+     * Se acepta el ETag de cualquier formato, y el anterior sin formato, porque todos
+     * identifican la misma versión de la fila.
+     * @param ifMatch El valor de la cabecera (puede ser null).
+     * @param id El UUID del usuario que se va a modificar.
+     * @return La versión esperada, o null si no hay cabecera o es {@code *}.
+     * @throws ErrorException con estado 412 si el ETag es débil o no corresponde a este usuario.
+     */
+    public static Long expectedVersion(String ifMatch, UUID id) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (!value.startsWith(prefix) || !value.endsWith("\"") || value.length() <= prefix.length()) {
+            throw UserErrors.IF_MATCH_MISMATCH;
+        }
+        String version = value.substring(prefix.length(), value.length() - 1);
+        int dash = version.indexOf('-');
+        if (dash >= 0) {
+            if (!SUFFIXES.contains(version.substring(dash))) {
+                throw UserErrors.IF_MATCH_MISMATCH;
+            }
+            version = version.substring(0, dash);
+        }
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            throw UserErrors.IF_MATCH_MISMATCH;
+        }
+    }
+}
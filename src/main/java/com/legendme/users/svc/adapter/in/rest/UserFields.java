@@ -0,0 +1,106 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Utilidad para el parámetro {@code fields} de las lecturas de usuarios
+ * (por ejemplo {@code ?fields=username,active}).
+ * La lista de campos permitidos se construye a partir de los componentes de {@link UserResponse},
+ * de modo que un campo nuevo en el DTO sin su {@link UserField} falla al arrancar.
+ * La proyección resuelta se guarda en la petición para que {@link UserFieldsResponseAdvice}
+ * filtre la serialización.
+ */
+public class UserFields {
+
+    /** Atributo de la petición con la {@link UserProjection} pedida. */
+    public static final String ATTRIBUTE = UserFields.class.getName() + ".projection";
+
+    /** Identificador del filtro de Jackson aplicado a {@link UserResponse}. */
+    public static final String FILTER = "userFields";
+
+    private static final Map<String, UserField> ALLOWED = allowList();
+
+    private static final ConcurrentHashMap<UserProjection, FilterProvider> FILTERS = new ConcurrentHashMap<>();
+
+    private UserFields() {
+    }
+
+    /** Resuelve el parámetro {@code fields} y guarda la proyección en la petición.
+     * @param fields Valor del parámetro: nombres de campo de UserResponse separados por comas (puede ser null).
+     * @param request La petición actual.
+     * @return La proyección pedida, o {@link UserProjection#ALL} si no hay parámetro.
+     * @throws com.legendme.users.svc.shared.exceptions.BusinessException con estado 400 si algún campo no existe.
+     */
+    public static UserProjection resolve(String fields, HttpServletRequest request) {
+        UserProjection projection = parse(fields);
+        if (!projection.isAll()) {
+            request.setAttribute(ATTRIBUTE, projection);
+        }
+        return projection;
+    }
+
+    /** Convierte el parámetro {@code fields} en una proyección.
+     * @param fields Nombres de campo separados por comas (puede ser null o vacío).
+     * @return La proyección compartida de esa combinación de campos.
+     */
+    public static UserProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return UserProjection.ALL;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            String trimmed = name.strip();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            UserField field = ALLOWED.get(trimmed);
+            if (field == null) {
+                throw UserErrors.FIELDS_INVALID;
+            }
+            mask |= UserProjection.bit(field);
+        }
+        return UserProjection.ofMask(mask);
+    }
+
+    /** Filtro de Jackson que solo escribe los campos de la proyección.
+     * Se construye una vez por proyección y se reutiliza.
+     * @param projection La proyección pedida.
+     * @return Proveedor con el filtro {@link #FILTER}.
+     */
+    public static FilterProvider filters(UserProjection projection) {
+        return FILTERS.computeIfAbsent(projection, UserFields::filterFor);
+    }
+
+    private static FilterProvider filterFor(UserProjection projection) {
+        String[] properties = projection.fields().stream().map(UserField::property).toArray(String[]::new);
+        return new SimpleFilterProvider().addFilter(FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(properties));
+    }
+
+    private static Map<String, UserField> allowList() {
+        Map<String, UserField> byProperty = Arrays.stream(UserField.values())
+                .collect(Collectors.toMap(UserField::property, Function.identity()));
+        return Arrays.stream(UserResponse.class.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), name -> {
+                    UserField field = byProperty.get(name);
+                    if (field == null) {
+                        throw new IllegalStateException("UserResponse." + name + " no tiene un UserField asociado");
+                    }
+                    return field;
+                }));
+    }
+}
@@ -0,0 +1,54 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.legendme.users.svc.domain.model.UserProjection;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Aplica el parámetro {@code fields} a la serialización Jackson (JSON y CBOR) de las respuestas
+ * de {@link UserController}: solo se escriben las propiedades de {@code UserResponse} incluidas
+ * en la proyección que {@link UserFields#resolve} dejó en la petición.
+ * El filtro de cada proyección se construye una vez ({@link UserFields#filters}).
+ * {@link UserJsonHttpMessageConverter} recibe la proyección envuelta en
+ * {@link UserJsonHttpMessageConverter.Projected}. Protobuf no lo necesita: los campos no leídos
+ * llegan a null y se omiten.
+ */
+@ControllerAdvice(assignableTypes = UserController.class)
+public class UserFieldsResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    /** Mix-in que asocia {@code UserResponse} al filtro {@link UserFields#FILTER}. */
+    @JsonFilter(UserFields.FILTER)
+    public interface FilterMixIn {
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+                || UserJsonHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(servletRequest.getServletRequest().getAttribute(UserFields.ATTRIBUTE) instanceof UserProjection projection)) {
+            return body;
+        }
+        if (UserJsonHttpMessageConverter.class.isAssignableFrom(selectedConverterType)) {
+            return projection.isAll() ? body : new UserJsonHttpMessageConverter.Projected(body, projection);
+        }
+        MappingJacksonValue value = body instanceof MappingJacksonValue container ? container : new MappingJacksonValue(body);
+        value.setFilters(UserFields.filters(projection));
+        return value;
+    }
+}
@@ -0,0 +1,152 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.EmailRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.ExistsResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UpdateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.adapter.in.rest.mapper.UserJsonCodec;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.shared.dto.Error;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Lee y escribe en JSON los DTOs de {@link UserController} y los errores con
+ * {@link UserJsonCodec}, directamente sobre el cuerpo de la petición o la respuesta y con los
+ * buffers reciclados de Jackson. Va delante de {@code MappingJackson2HttpMessageConverter}, que
+ * sigue atendiendo el resto de tipos y los charsets distintos de UTF-8.
+ *
+ * <p>Tipos soportados: {@link UserResponse}, {@link UserSearchResponse}, {@link ExistsResponse},
+ * {@link Error} y {@code List<UserResponse>} al escribir; {@link CreateUserRequest},
+ * {@link UpdateUserRequest} y {@link EmailRequest} al leer. La proyección de {@code fields} llega
+ * envuelta en {@link Projected}.</p>
+ */
+public class UserJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /**
+     * Cuerpo de respuesta con la proyección que se debe escribir.
+     *
+     * @param body       El DTO.
+     * @param projection Los campos de {@link UserResponse} a escribir.
+     */
+    public record Projected(Object body, UserProjection projection) {}
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    /**
+     * Constructor que registra {@code application/json} y {@code application/*+json}.
+     *
+     * @param objectMapper ObjectMapper de la aplicación: configura el parser y el generador
+     *                     (p. ej. la indentación) y resuelve los valores poco habituales al leer.
+     */
+    public UserJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.reader();
+        this.writer = objectMapper.writer();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == UserResponse.class || clazz == UserSearchResponse.class || clazz == ExistsResponse.class
+                || clazz == Error.class || List.class.isAssignableFrom(clazz)
+                || clazz == CreateUserRequest.class || clazz == UpdateUserRequest.class || clazz == EmailRequest.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        Class<?> target = ResolvableType.forType(type).resolve();
+        return (target == CreateUserRequest.class || target == UpdateUserRequest.class || target == EmailRequest.class)
+                && !objectMapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                && isUtf8(mediaType) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Class<?> target = type != null ? ResolvableType.forType(type).resolve(clazz) : clazz;
+        if (target == null || !(target == UserResponse.class || target == UserSearchResponse.class
+                || target == ExistsResponse.class || target == Error.class || List.class.isAssignableFrom(target))) {
+            return false;
+        }
+        if (List.class.isAssignableFrom(target)
+                && (type == null || ResolvableType.forType(type).resolveGeneric(0) != UserResponse.class)) {
+            return false;
+        }
+        return isUtf8(mediaType) && canWrite(mediaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        UserProjection projection = UserProjection.ALL;
+        if (body instanceof Projected projected) {
+            body = projected.body();
+            projection = projected.projection();
+        }
+        try (JsonGenerator gen = writer.createGenerator(StreamUtils.nonClosing(outputMessage.getBody()), JsonEncoding.UTF8)) {
+            switch (body) {
+                case UserResponse user -> UserJsonCodec.write(user, projection, gen);
+                case UserSearchResponse response -> UserJsonCodec.write(response, projection, gen);
+                case ExistsResponse response -> UserJsonCodec.write(response, gen);
+                case Error error -> UserJsonCodec.write(error, gen);
+                case List<?> users -> UserJsonCodec.write((List<UserResponse>) users, projection, gen);
+                default -> throw new HttpMessageNotWritableException("Tipo no soportado en JSON: " + body.getClass());
+            }
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        Class<?> target = ResolvableType.forType(type).resolve();
+        try (JsonParser parser = reader.createParser(inputMessage.getBody())) {
+            if (target == CreateUserRequest.class) {
+                return UserJsonCodec.readCreateUserRequest(parser, objectMapper);
+            }
+            if (target == UpdateUserRequest.class) {
+                return UserJsonCodec.readUpdateUserRequest(parser, objectMapper);
+            }
+            if (target == EmailRequest.class) {
+                return UserJsonCodec.readEmailRequest(parser, objectMapper);
+            }
+            throw new HttpMessageNotReadableException("Tipo no soportado en JSON: " + type, inputMessage);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    /** El codec solo trabaja en UTF-8 (el charset de JSON por defecto); el resto queda para Jackson. */
+    private static boolean isUtf8(MediaType mediaType) {
+        Charset charset = mediaType != null ? mediaType.getCharset() : null;
+        return charset == null || charset.equals(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.google.protobuf.Message;
+import com.legendme.users.svc.adapter.in.rest.dto.ExistsResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.adapter.in.rest.mapper.UserProtoMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Escribe las respuestas de lectura de {@link UserController} en {@code application/x-protobuf}
+ * con los mensajes de {@code users.proto}. Solo escribe: los endpoints no aceptan cuerpos Protobuf.
+ *
+ * <p>Tipos soportados: {@link UserResponse}, {@link UserSearchResponse}, {@link ExistsResponse}
+ * y {@code List<UserResponse>} (mensaje {@code UserList}).</p>
+ */
+public class UserProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    /** Tipo de contenido principal. */
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    /** Constructor que registra {@code application/x-protobuf} y {@code application/protobuf}. */
+    public UserProtobufHttpMessageConverter() {
+        super(PROTOBUF, new MediaType("application", "protobuf"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == UserResponse.class || clazz == UserSearchResponse.class || clazz == ExistsResponse.class
+                || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Class<?> target = type != null ? ResolvableType.forType(type).resolve(clazz) : clazz;
+        if (target == null || !supports(target)) {
+            return false;
+        }
+        if (List.class.isAssignableFrom(target)
+                && (type == null || ResolvableType.forType(type).resolveGeneric(0) != UserResponse.class)) {
+            return false;
+        }
+        return canWrite(mediaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Message message = switch (body) {
+            case UserResponse user -> UserProtoMapper.toProto(user);
+            case UserSearchResponse response -> UserProtoMapper.toProto(response);
+            case ExistsResponse response -> UserProtoMapper.toProto(response);
+            case List<?> users -> UserProtoMapper.toProto((List<UserResponse>) users);
+            default -> throw new HttpMessageNotWritableException("Tipo no soportado en Protobuf: " + body.getClass());
+        };
+        outputMessage.getHeaders().setContentLength(message.getSerializedSize());
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf solo se admite en respuestas", inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf solo se admite en respuestas", inputMessage);
+    }
+}
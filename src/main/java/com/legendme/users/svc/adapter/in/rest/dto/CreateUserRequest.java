@@ -1,6 +1,6 @@
 package com.legendme.users.svc.adapter.in.rest.dto;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * DTO para solicitudes de creación de usuarios.
@@ -16,7 +16,7 @@ import java.util.Date;
  * @param email correo electrónico
  * @param provider proveedor de autenticación
  * @param active estado de la cuenta
- * @param password contraseña del usuario
+ * @param password contraseña del usuario (nunca aparece en {@link #toString()})
  */
 
 
@@ -24,9 +24,17 @@ public record CreateUserRequest (
     String name,
     String lastname,
     String username,
-    Date birthDate,
+    LocalDate birthDate,
     String email,
     String provider,
     Boolean active,
     String password
-) {}
+) {
+
+    @Override
+    public String toString() {
+        return "CreateUserRequest[name=" + name + ", lastname=" + lastname + ", username=" + username
+                + ", birthDate=" + birthDate + ", email=" + email + ", provider=" + provider
+                + ", active=" + active + ", password=" + (password == null ? null : "***") + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * DTO que representa el resultado de un cruce de contactos por hash de email.
+ *
+ * @param matches hashes encontrados (en minúsculas) con el ID de su usuario; los que no
+ *                corresponden a ningún usuario no aparecen
+ */
+public record EmailHashMatchResponse(Map<String, UUID> matches) {
+
+}
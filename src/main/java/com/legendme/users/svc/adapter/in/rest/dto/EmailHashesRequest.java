@@ -0,0 +1,14 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+import java.util.List;
+
+/**
+ * DTO que representa una solicitud de cruce de contactos por hash de email.
+ *
+ * @param hashes SHA-256 en hexadecimal de cada email normalizado (sin espacios y en minúsculas),
+ *               hasta 5000 por llamada
+ */
+public record EmailHashesRequest(
+    List<String> hashes
+) {
+}
@@ -1,6 +1,6 @@
 package com.legendme.users.svc.adapter.in.rest.dto;
 
-import java.util.Date;
+import java.time.LocalDate;
 /**
  * DTO para actualizar los datos personales de un usuario registrado.
  *
@@ -22,5 +22,5 @@ public record UpdateUserRequest (
     String lastname,
     String username,
     String email,
-    Date birthDate
+    LocalDate birthDate
 ){ }
@@ -1,6 +1,6 @@
 package com.legendme.users.svc.adapter.in.rest.dto;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * Está clase representa el DTO para la solicitud de creación o actualización de un usuario.
@@ -17,6 +17,6 @@ import java.util.Date;
  * @param provider
  */
 
-public record UserRequest(String name, String lastname, Date birthDate, String username, String email, String password, String provider) {
+public record UserRequest(String name, String lastname, LocalDate birthDate, String username, String email, String password, String provider) {
 
 }
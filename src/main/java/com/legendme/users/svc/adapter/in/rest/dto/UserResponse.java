@@ -1,6 +1,7 @@
 package com.legendme.users.svc.adapter.in.rest.dto;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 /**
 *Esta clase representa la respuesta que se envía al cliente cuando se solicita información de un usuario.
@@ -17,6 +18,7 @@ import java.util.UUID;
 * @param active estado de la cuenta
 * @param createdAt fecha de creación de la cuenta
 * @param updatedAt fecha de la última actualización de la cuenta
+* @param version versión de la fila, usada en If-Match para actualizaciones condicionales
  */
-public record UserResponse(UUID id, String name, String lastname, Date birthDate, String username, String email, String provider, boolean active, Date createdAt, Date updatedAt) {
+public record UserResponse(UUID id, String name, String lastname, LocalDate birthDate, String username, String email, String provider, boolean active, Instant createdAt, Instant updatedAt, Long version) {
 }
@@ -0,0 +1,20 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO que representa las estadísticas agregadas de los usuarios.
+ *
+ * @param total         usuarios registrados
+ * @param active        usuarios activos
+ * @param inactive      usuarios desactivados
+ * @param byProvider    usuarios por proveedor de autenticación
+ * @param signupsPerDay altas por día (solo los días con alguna), en orden
+ * @param reconciledAt  última reconciliación de los contadores con la base
+ */
+public record UserStatsResponse(long total, long active, long inactive, Map<String, Long> byProvider,
+                                Map<LocalDate, Long> signupsPerDay, Instant reconciledAt) {
+
+}
@@ -0,0 +1,14 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+import java.util.List;
+
+/**
+ * DTO que representa la disponibilidad de un nombre de usuario.
+ *
+ * @param username    nombre de usuario consultado, en minúsculas
+ * @param available   true si nadie lo usa
+ * @param suggestions alternativas libres en orden de preferencia (vacía si no se pidieron)
+ */
+public record UsernameAvailabilityResponse(String username, boolean available, List<String> suggestions) {
+
+}
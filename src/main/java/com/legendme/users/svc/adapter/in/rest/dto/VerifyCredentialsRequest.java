@@ -0,0 +1,20 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+/**
+ * DTO para solicitudes de verificación de credenciales.
+ *
+ * Lo envía el servicio de login para comprobar el email y la contraseña de un usuario local.
+ *
+ * @param email correo electrónico del usuario
+ * @param password contraseña en texto plano (nunca aparece en {@link #toString()})
+ */
+public record VerifyCredentialsRequest(
+    String email,
+    String password
+) {
+
+    @Override
+    public String toString() {
+        return "VerifyCredentialsRequest[email=" + email + ", password=" + (password == null ? null : "***") + "]";
+    }
+}
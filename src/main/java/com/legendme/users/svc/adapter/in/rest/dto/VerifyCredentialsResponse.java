@@ -0,0 +1,13 @@
+package com.legendme.users.svc.adapter.in.rest.dto;
+
+import java.util.UUID;
+
+/**
+ * DTO que representa el resultado de una verificación de credenciales.
+ *
+ * @param valid true si la contraseña es correcta y la cuenta está activa
+ * @param userId ID del usuario verificado, o null si la verificación falló
+ */
+public record VerifyCredentialsResponse(boolean valid, UUID userId) {
+
+}
@@ -0,0 +1,371 @@
+package com.legendme.users.svc.adapter.in.rest.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.EmailRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.ExistsResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UpdateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.infrastructure.json.IsoTime;
+import com.legendme.users.svc.shared.dto.Error;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Este mapper escribe y lee en JSON los DTOs más frecuentes de la API con el API de streaming de
+ * Jackson, campo a campo, sin la introspección de records ni los serializadores por reflexión de
+ * {@code ObjectMapper}. Los nombres de campo van precodificados en UTF-8.
+ *
+ * <p>La salida es idéntica a la de Jackson con la configuración de la aplicación: mismos campos,
+ * mismo orden (el de los componentes del record), nulls incluidos y fechas de
+ * {@link com.legendme.users.svc.infrastructure.json.IsoTimeModule}. Con una proyección solo se
+ * escriben sus campos de {@link UserResponse}, como el filtro de {@code UserFields}.</p>
+ *
+ * <p>La lectura resuelve los casos habituales (cadenas, booleanos, nulls, fechas
+ * {@code yyyy-MM-dd}) y delega en el {@code ObjectMapper} cualquier otro valor, para conservar
+ * sus coerciones y sus errores. Los campos desconocidos se ignoran.</p>
+ *
+ * @see UserProtoMapper
+ */
+public final class UserJsonCodec {
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString LASTNAME = new SerializedString("lastname");
+    private static final SerializableString BIRTH_DATE = new SerializedString("birthDate");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PROVIDER = new SerializedString("provider");
+    private static final SerializableString ACTIVE = new SerializedString("active");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString USERS = new SerializedString("users");
+    private static final SerializableString TOTAL = new SerializedString("total");
+    private static final SerializableString EXISTS = new SerializedString("exists");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString ERROR_CODE = new SerializedString("errorCode");
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int UUID_LENGTH = 36;
+    private static final int ISO_DATE_LENGTH = 10;
+
+    private UserJsonCodec() {
+    }
+
+    /** Escribe un UserResponse.
+     * @param user       El DTO a escribir.
+     * @param projection Los campos a escribir.
+     * @param gen        Destino.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(UserResponse user, UserProjection projection, JsonGenerator gen) throws IOException {
+        write(user, projection, gen, new char[IsoTime.MAX_INSTANT_LENGTH]);
+    }
+
+    /** Escribe un UserSearchResponse.
+     * @param response   El DTO a escribir.
+     * @param projection Los campos de cada usuario.
+     * @param gen        Destino.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(UserSearchResponse response, UserProjection projection, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(USERS);
+        write(response.users(), projection, gen);
+        gen.writeFieldName(TOTAL);
+        gen.writeNumber(response.total());
+        gen.writeEndObject();
+    }
+
+    /** Escribe la lista de GET /all.
+     * @param users      Los DTOs a escribir (puede ser null).
+     * @param projection Los campos de cada usuario.
+     * @param gen        Destino.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(List<UserResponse> users, UserProjection projection, JsonGenerator gen) throws IOException {
+        if (users == null) {
+            gen.writeNull();
+            return;
+        }
+        char[] buffer = new char[IsoTime.MAX_INSTANT_LENGTH];
+        gen.writeStartArray();
+        for (UserResponse user : users) {
+            if (user == null) {
+                gen.writeNull();
+            } else {
+                write(user, projection, gen, buffer);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    /** Escribe un ExistsResponse.
+     * @param response El DTO a escribir.
+     * @param gen      Destino.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(ExistsResponse response, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(EXISTS);
+        gen.writeBoolean(response.exists());
+        gen.writeEndObject();
+    }
+
+    /** Escribe el cuerpo de un error.
+     * @param error El error a escribir.
+     * @param gen   Destino.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(Error error, JsonGenerator gen) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(STATUS);
+        gen.writeNumber(error.status());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(error.message());
+        gen.writeFieldName(ERROR_CODE);
+        gen.writeString(error.errorCode());
+        gen.writeEndObject();
+    }
+
+    /** Lee un CreateUserRequest.
+     * @param parser   Origen, antes del primer token.
+     * @param fallback ObjectMapper para los valores que no son del tipo habitual.
+     * @return El DTO, o null si el cuerpo es {@code null}.
+     * @throws IOException si el JSON no es válido o un valor no se puede convertir.
+     */
+    public static CreateUserRequest readCreateUserRequest(JsonParser parser, ObjectMapper fallback) throws IOException {
+        JsonToken start = parser.nextToken();
+        if (start == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (start != JsonToken.START_OBJECT) {
+            return fallback.readValue(parser, CreateUserRequest.class);
+        }
+        String name = null;
+        String lastname = null;
+        String username = null;
+        LocalDate birthDate = null;
+        String email = null;
+        String provider = null;
+        Boolean active = null;
+        String password = null;
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = string(parser, fallback);
+                case "lastname" -> lastname = string(parser, fallback);
+                case "username" -> username = string(parser, fallback);
+                case "birthDate" -> birthDate = localDate(parser, fallback);
+                case "email" -> email = string(parser, fallback);
+                case "provider" -> provider = string(parser, fallback);
+                case "active" -> active = bool(parser, fallback);
+                case "password" -> password = string(parser, fallback);
+                default -> parser.skipChildren();
+            }
+        }
+        return new CreateUserRequest(name, lastname, username, birthDate, email, provider, active, password);
+    }
+
+    /** Lee un UpdateUserRequest.
+     * @param parser   Origen, antes del primer token.
+     * @param fallback ObjectMapper para los valores que no son del tipo habitual.
+     * @return El DTO, o null si el cuerpo es {@code null}.
+     * @throws IOException si el JSON no es válido o un valor no se puede convertir.
+     */
+    public static UpdateUserRequest readUpdateUserRequest(JsonParser parser, ObjectMapper fallback) throws IOException {
+        JsonToken start = parser.nextToken();
+        if (start == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (start != JsonToken.START_OBJECT) {
+            return fallback.readValue(parser, UpdateUserRequest.class);
+        }
+        String name = null;
+        String lastname = null;
+        String username = null;
+        String email = null;
+        LocalDate birthDate = null;
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = string(parser, fallback);
+                case "lastname" -> lastname = string(parser, fallback);
+                case "username" -> username = string(parser, fallback);
+                case "email" -> email = string(parser, fallback);
+                case "birthDate" -> birthDate = localDate(parser, fallback);
+                default -> parser.skipChildren();
+            }
+        }
+        return new UpdateUserRequest(name, lastname, username, email, birthDate);
+    }
+
+    /** Lee un EmailRequest.
+     * @param parser   Origen, antes del primer token.
+     * @param fallback ObjectMapper para los valores que no son del tipo habitual.
+     * @return El DTO, o null si el cuerpo es {@code null}.
+     * @throws IOException si el JSON no es válido o un valor no se puede convertir.
+     */
+    public static EmailRequest readEmailRequest(JsonParser parser, ObjectMapper fallback) throws IOException {
+        JsonToken start = parser.nextToken();
+        if (start == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (start != JsonToken.START_OBJECT) {
+            return fallback.readValue(parser, EmailRequest.class);
+        }
+        String email = null;
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            parser.nextToken();
+            if (field.equals("email")) {
+                email = string(parser, fallback);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new EmailRequest(email);
+    }
+
+    private static void write(UserResponse user, UserProjection projection, JsonGenerator gen, char[] buffer) throws IOException {
+        gen.writeStartObject();
+        if (projection.includes(UserField.ID)) {
+            gen.writeFieldName(ID);
+            if (user.id() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(buffer, 0, uuid(user.id(), buffer));
+            }
+        }
+        if (projection.includes(UserField.NAME)) {
+            gen.writeFieldName(NAME);
+            gen.writeString(user.name());
+        }
+        if (projection.includes(UserField.LASTNAME)) {
+            gen.writeFieldName(LASTNAME);
+            gen.writeString(user.lastname());
+        }
+        if (projection.includes(UserField.BIRTH_DATE)) {
+            gen.writeFieldName(BIRTH_DATE);
+            write(user.birthDate(), gen, buffer);
+        }
+        if (projection.includes(UserField.USERNAME)) {
+            gen.writeFieldName(USERNAME);
+            gen.writeString(user.username());
+        }
+        if (projection.includes(UserField.EMAIL)) {
+            gen.writeFieldName(EMAIL);
+            gen.writeString(user.email());
+        }
+        if (projection.includes(UserField.PROVIDER)) {
+            gen.writeFieldName(PROVIDER);
+            gen.writeString(user.provider());
+        }
+        if (projection.includes(UserField.ACTIVE)) {
+            gen.writeFieldName(ACTIVE);
+            gen.writeBoolean(user.active());
+        }
+        if (projection.includes(UserField.CREATED_AT)) {
+            gen.writeFieldName(CREATED_AT);
+            write(user.createdAt(), gen, buffer);
+        }
+        if (projection.includes(UserField.UPDATED_AT)) {
+            gen.writeFieldName(UPDATED_AT);
+            write(user.updatedAt(), gen, buffer);
+        }
+        if (projection.includes(UserField.VERSION)) {
+            gen.writeFieldName(VERSION);
+            if (user.version() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(user.version());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void write(Instant instant, JsonGenerator gen, char[] buffer) throws IOException {
+        if (instant == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(buffer, 0, IsoTime.write(instant, buffer, 0));
+        }
+    }
+
+    private static void write(LocalDate date, JsonGenerator gen, char[] buffer) throws IOException {
+        if (date == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(buffer, 0, IsoTime.write(date, buffer, 0));
+        }
+    }
+
+    /** Forma canónica del UUID ({@code 8-4-4-4-12} en minúsculas), como {@link UUID#toString()}. */
+    private static int uuid(UUID id, char[] buffer) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        hex(msb >>> 32, 8, buffer, 0);
+        buffer[8] = '-';
+        hex(msb >>> 16, 4, buffer, 9);
+        buffer[13] = '-';
+        hex(msb, 4, buffer, 14);
+        buffer[18] = '-';
+        hex(lsb >>> 48, 4, buffer, 19);
+        buffer[23] = '-';
+        hex(lsb, 12, buffer, 24);
+        return UUID_LENGTH;
+    }
+
+    private static void hex(long value, int digits, char[] buffer, int offset) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static String string(JsonParser parser, ObjectMapper fallback) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NULL -> null;
+            default -> fallback.readValue(parser, String.class);
+        };
+    }
+
+    private static Boolean bool(JsonParser parser, ObjectMapper fallback) throws IOException {
+        return switch (parser.currentToken()) {
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> fallback.readValue(parser, Boolean.class);
+        };
+    }
+
+    private static LocalDate localDate(JsonParser parser, ObjectMapper fallback) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING && parser.getTextLength() == ISO_DATE_LENGTH) {
+            try {
+                return LocalDate.parse(parser.getText());
+            } catch (DateTimeParseException e) {
+                // Jackson genera el error con su formato habitual.
+            }
+        }
+        return fallback.readValue(parser, LocalDate.class);
+    }
+}
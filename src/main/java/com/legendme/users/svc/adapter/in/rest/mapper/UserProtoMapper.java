@@ -0,0 +1,121 @@
+package com.legendme.users.svc.adapter.in.rest.mapper;
+
+import com.google.protobuf.ByteString;
+import com.legendme.users.svc.adapter.in.rest.dto.ExistsResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.adapter.in.rest.proto.UsersProto;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Este mapper convierte los DTOs de respuesta a los mensajes Protobuf de
+ * {@code src/main/proto/legendme/users/v1/users.proto} y viceversa.
+ * Los valores null se omiten (campos {@code optional}); el UUID viaja como 16 bytes
+ * y las fechas como milisegundos desde epoch (la de nacimiento, a medianoche UTC).
+ *
+ * @see UserRestMapper
+ */
+public class UserProtoMapper {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private UserProtoMapper() {
+    }
+
+    /** Convierte un UserResponse a su mensaje Protobuf.
+     * @param user El DTO a convertir.
+     * @return El mensaje equivalente.
+     */
+    public static UsersProto.UserResponse toProto(UserResponse user) {
+        UsersProto.UserResponse.Builder builder = UsersProto.UserResponse.newBuilder()
+                .setActive(user.active());
+        if (user.id() != null) {
+            builder.setId(ByteString.copyFrom(ByteBuffer.allocate(16)
+                    .putLong(user.id().getMostSignificantBits())
+                    .putLong(user.id().getLeastSignificantBits())
+                    .flip()));
+        }
+        if (user.name() != null) builder.setName(user.name());
+        if (user.lastname() != null) builder.setLastname(user.lastname());
+        if (user.birthDate() != null) builder.setBirthDate(user.birthDate().toEpochDay() * MILLIS_PER_DAY);
+        if (user.username() != null) builder.setUsername(user.username());
+        if (user.email() != null) builder.setEmail(user.email());
+        if (user.provider() != null) builder.setProvider(user.provider());
+        if (user.createdAt() != null) builder.setCreatedAt(user.createdAt().toEpochMilli());
+        if (user.updatedAt() != null) builder.setUpdatedAt(user.updatedAt().toEpochMilli());
+        if (user.version() != null) builder.setVersion(user.version());
+        return builder.build();
+    }
+
+    /** Convierte un UserSearchResponse a su mensaje Protobuf.
+     * @param response El DTO a convertir.
+     * @return El mensaje equivalente.
+     */
+    public static UsersProto.UserSearchResponse toProto(UserSearchResponse response) {
+        UsersProto.UserSearchResponse.Builder builder = UsersProto.UserSearchResponse.newBuilder()
+                .setTotal(response.total());
+        if (response.users() != null) {
+            response.users().forEach(user -> builder.addUsers(toProto(user)));
+        }
+        return builder.build();
+    }
+
+    /** Convierte la lista de GET /all a su mensaje Protobuf.
+     * @param users Los DTOs a convertir.
+     * @return El mensaje {@code UserList} equivalente.
+     */
+    public static UsersProto.UserList toProto(List<UserResponse> users) {
+        UsersProto.UserList.Builder builder = UsersProto.UserList.newBuilder();
+        users.forEach(user -> builder.addUsers(toProto(user)));
+        return builder.build();
+    }
+
+    /** Convierte un ExistsResponse a su mensaje Protobuf.
+     * @param response El DTO a convertir.
+     * @return El mensaje equivalente.
+     */
+    public static UsersProto.ExistsResponse toProto(ExistsResponse response) {
+        return UsersProto.ExistsResponse.newBuilder().setExists(response.exists()).build();
+    }
+
+    /** Convierte un mensaje Protobuf a UserResponse.
+     * @param user El mensaje a convertir.
+     * @return El DTO equivalente.
+     */
+    public static UserResponse toUserResponse(UsersProto.UserResponse user) {
+        UUID id = null;
+        if (user.getId().size() == 16) {
+            ByteBuffer bytes = user.getId().asReadOnlyByteBuffer();
+            id = new UUID(bytes.getLong(), bytes.getLong());
+        }
+        return new UserResponse(
+                id,
+                user.hasName() ? user.getName() : null,
+                user.hasLastname() ? user.getLastname() : null,
+                user.hasBirthDate() ? LocalDate.ofEpochDay(Math.floorDiv(user.getBirthDate(), MILLIS_PER_DAY)) : null,
+                user.hasUsername() ? user.getUsername() : null,
+                user.hasEmail() ? user.getEmail() : null,
+                user.hasProvider() ? user.getProvider() : null,
+                user.getActive(),
+                user.hasCreatedAt() ? Instant.ofEpochMilli(user.getCreatedAt()) : null,
+                user.hasUpdatedAt() ? Instant.ofEpochMilli(user.getUpdatedAt()) : null,
+                user.hasVersion() ? user.getVersion() : null
+        );
+    }
+
+    /** Convierte un mensaje Protobuf a UserSearchResponse.
+     * @param response El mensaje a convertir.
+     * @return El DTO equivalente.
+     */
+    public static UserSearchResponse toUserSearchResponse(UsersProto.UserSearchResponse response) {
+        List<UserResponse> users = new ArrayList<>(response.getUsersCount());
+        response.getUsersList().forEach(user -> users.add(toUserResponse(user)));
+        return new UserSearchResponse(users, response.getTotal());
+    }
+}
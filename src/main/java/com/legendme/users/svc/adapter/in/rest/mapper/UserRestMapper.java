@@ -29,6 +29,7 @@ public class UserRestMapper {
                 request.provider(),
                 true,
                 null,
+                null,
                 null
         );
     }
@@ -48,7 +49,8 @@ public class UserRestMapper {
                 user.provider(),
                 user.active(),
                 user.createdAt(),
-                user.updatedAt()
+                user.updatedAt(),
+                user.version()
         );
     }
 }
@@ -0,0 +1,71 @@
+package com.legendme.users.svc.adapter.out.db;
+
+import com.legendme.users.svc.domain.model.EmailHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Calcula al arrancar la columna email_hash de los usuarios guardados antes de que existiera.
+ * Los usuarios nuevos o modificados la reciben de {@code UserPersistenceMapper}; este runner solo
+ * recorre, por páginas, las filas con email y sin hash, por lo que tras la primera ejecución
+ * completa es una única consulta vacía.
+ */
+@Slf4j
+@Component
+@Order(0)
+@ConditionalOnProperty(prefix = "legendme.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class EmailHashBackfill implements ApplicationRunner {
+
+    private static final int PAGE_SIZE = 500;
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param dataSource DataSource de la base principal.
+     */
+    public EmailHashBackfill(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long updated = backfill();
+            if (updated > 0) {
+                log.info("Hash del email calculado para {} usuarios existentes", updated);
+            }
+        } catch (DataAccessException e) {
+            log.warn("No se pudo completar la columna email_hash: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula el hash de todas las filas que no lo tienen.
+     *
+     * @return Filas actualizadas.
+     */
+    long backfill() {
+        long updated = 0;
+        while (true) {
+            List<Object[]> page = jdbc.query(
+                    "select id, email from users where email_hash is null and email is not null limit " + PAGE_SIZE,
+                    (rs, rowNum) -> new Object[]{EmailHash.digest(rs.getString(2)), rs.getBytes(1)});
+            if (page.isEmpty()) {
+                return updated;
+            }
+            jdbc.batchUpdate("update users set email_hash = ? where id = ?", page);
+            updated += page.size();
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.legendme.users.svc.adapter.out.db;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,4 +27,23 @@ public interface SpringDataUserRepository extends JpaRepository<UserJpaEntity, U
     Optional<UserJpaEntity> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    @Query("select u.username from UserJpaEntity u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    Optional<UserVersionView> findVersionById(UUID id);
+    Optional<UserVersionView> findVersionByUsername(String username);
+    Optional<UserCredentialsView> findCredentialsByEmail(String email);
+    List<UserJpaEntity> findByUpdatedAtGreaterThanEqual(Instant since);
+    List<UserJpaEntity> findByOrderByIdAsc(Limit limit);
+    List<UserJpaEntity> findByIdGreaterThanOrderByIdAsc(UUID after, Limit limit);
+    List<UserJpaEntity> findByUpdatedAtGreaterThanEqualOrderByIdAsc(Instant since, Limit limit);
+    List<UserJpaEntity> findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(Instant since, UUID after, Limit limit);
+
+    @Query("select count(u) as count, max(u.updatedAt) as maxUpdatedAt from UserJpaEntity u")
+    UserTableVersionView findTableVersion();
+
+    @Modifying
+    @Query("update UserJpaEntity u set u.password = :newHash where u.id = :id and u.password = :currentHash")
+    int updatePasswordHash(@Param("id") UUID id, @Param("currentHash") String currentHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,15 @@
+package com.legendme.users.svc.adapter.out.db;
+
+import java.util.UUID;
+
+/**
+ * Proyección de Spring Data que solo lee el ID, el hash de la contraseña y el estado
+ * de la tabla "users". Es lo único que necesita la verificación de credenciales.
+ *
+ * @see SpringDataUserRepository
+ */
+public interface UserCredentialsView {
+    UUID getId();
+    String getPassword();
+    Boolean getActive();
+}
@@ -4,15 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_users_email_hash", columnList = "email_hash")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
@@ -31,11 +36,13 @@ import java.util.UUID;
  * @param birthDate fecha de nacimiento del usuario
  * @param username nombre de usuario único
  * @param email correo electrónico del usuario
+ * @param emailHash SHA-256 del email normalizado (ver EmailHash), para buscar por hash sin el email en claro
  * @param password contraseña del usuario
  * @param provider proveedor de autenticación
  * @param active estado de la cuenta
  * @param createdAt fecha de creación de la cuenta
  * @param updatedAt fecha de la última actualización de la cuenta
+ * @param version versión de la fila para control de concurrencia optimista
  *
  */
 public class UserJpaEntity {
@@ -47,20 +54,29 @@ public class UserJpaEntity {
 
     private String name;
     private String lastname;
-    private Date birthDate;
+    private LocalDate birthDate;
     private String username;
     private String email;
+
+    @Column(name = "email_hash", columnDefinition = "BINARY(32)")
+    private byte[] emailHash;
+
     private String password;
     private String provider;
     private boolean active;
 
     @CreatedDate
     @Column(name = "created_at",updatable = false)
-    private Date createdAt;
+    private Instant createdAt;
 
     @LastModifiedDate
     @Column(name = "updated_at")
-    private Date updatedAt;
+    private Instant updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
 
 
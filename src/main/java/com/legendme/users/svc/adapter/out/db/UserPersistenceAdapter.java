@@ -2,20 +2,45 @@ package com.legendme.users.svc.adapter.out.db;
 
 import com.legendme.users.svc.adapter.out.db.mapper.UserPersistenceMapper;
 import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.EmailHash;
 import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.domain.model.UserVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 
 /** * UserPersistenceAdapter
  * Implementa la interfaz UserRepository para interactuar con la base de datos utilizando Spring Data JPA.
+ * Se desactiva cuando el particionado está activo ({@code legendme.sharding.enabled=true}).
  */
 @Slf4j
 @Component
+@Qualifier(UserRepository.STORE)
+@ConditionalOnProperty(prefix = "legendme.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class UserPersistenceAdapter implements UserRepository {
 
     /** Repositorio de datos de usuario basado en Spring Data JPA.
@@ -23,25 +48,64 @@ public class UserPersistenceAdapter implements UserRepository {
      * @see SpringDataUserRepository
      */
     private final SpringDataUserRepository springDataUserRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
 
-    public UserPersistenceAdapter(SpringDataUserRepository springDataUserRepository) {
+    /** Consultas JPQL proyectadas, una por combinación de campos y tipo de búsqueda.
+     * Hibernate cachea el plan por texto de la consulta, así que reutilizar el mismo texto
+     * evita volver a interpretarla en cada petición.
+     */
+    private final ConcurrentHashMap<Integer, String> projectedQueries = new ConcurrentHashMap<>();
+
+    private static final String EMAIL_HASH_QUERY =
+            "select u.id, u.emailHash from UserJpaEntity u where u.emailHash in :hashes";
+
+    private static final String COUNT_BY_PROVIDER_QUERY =
+            "select u.provider, u.active, count(u) from UserJpaEntity u group by u.provider, u.active";
+
+    private static final String SIGNUPS_PER_DAY_QUERY =
+            "select cast(u.createdAt as LocalDate), count(u) from UserJpaEntity u "
+                    + "where u.createdAt >= :since group by cast(u.createdAt as LocalDate)";
+
+    private static final int BY_ID = 0;
+    private static final int BY_EMAIL = 1;
+    private static final int BY_USERNAME = 2;
+    private static final int ALL = 3;
+
+    public UserPersistenceAdapter(SpringDataUserRepository springDataUserRepository, PasswordEncoder passwordEncoder,
+                                  EntityManager entityManager) {
         this.springDataUserRepository = springDataUserRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
     }
 
     /**
      * Guarda un usuario en la base de datos.
      * Si se proporciona una contraseña, se cifra antes de guardarla.
+     * Si el usuario ya existe, se actualiza la entidad gestionada (conservando la contraseña
+     * almacenada) y se valida la versión: si el usuario trae una versión distinta a la
+     * almacenada, o la fila cambia antes del commit, se lanza un conflicto de concurrencia.
      * @param user El objeto User a guardar.
      * @param password La contraseña en texto plano (opcional).
      * @return El usuario guardado con su ID generado.
+     * @throws ObjectOptimisticLockingFailureException si la versión del usuario no es la vigente.
      */
     @Override
+    @Transactional
     public User save(User user, String password){
         String hashed = password != null ? passwordEncoder.encode(password) : null;
-        UserJpaEntity entity = UserPersistenceMapper.toEntity(user, hashed);
-        UserJpaEntity saved = springDataUserRepository.save(entity);
-        return UserPersistenceMapper.toDomainModel(saved);
+        if (user.id() == null) {
+            UserJpaEntity saved = springDataUserRepository.save(UserPersistenceMapper.toEntity(user, hashed));
+            return UserPersistenceMapper.toDomainModel(saved);
+        }
+
+        UserJpaEntity entity = springDataUserRepository.findById(user.id())
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(UserJpaEntity.class, user.id()));
+        if (user.version() != null && !user.version().equals(entity.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(UserJpaEntity.class, user.id());
+        }
+        UserPersistenceMapper.copyToEntity(user, hashed, entity);
+        return UserPersistenceMapper.toDomainModel(springDataUserRepository.saveAndFlush(entity));
     }
 
     /**
@@ -89,6 +153,163 @@ public class UserPersistenceAdapter implements UserRepository {
                 .toList();
     }
 
+    /**
+     * Busca un usuario por su ID leyendo solo las columnas de la proyección.
+     * @param id El UUID del usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findById(UUID id, UserProjection projection){
+        return projection.isAll() ? findById(id) : findOne(BY_ID, id, projection);
+    }
+
+    /**
+     * Busca un usuario por su email leyendo solo las columnas de la proyección.
+     * @param email El email del usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByEmail(String email, UserProjection projection){
+        return projection.isAll() ? findByEmail(email) : findOne(BY_EMAIL, email, projection);
+    }
+
+    /**
+     * Busca un usuario por su nombre de usuario leyendo solo las columnas de la proyección.
+     * @param username El nombre de usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByUsername(String username, UserProjection projection){
+        return projection.isAll() ? findByUsername(username) : findOne(BY_USERNAME, username, projection);
+    }
+
+    /**
+     * Obtiene todos los usuarios leyendo solo las columnas de la proyección.
+     * @param projection Los campos a leer.
+     * @return Una lista de todos los usuarios proyectados.
+     */
+    @Override
+    public List<User> findAll(UserProjection projection){
+        if (projection.isAll()) {
+            return findAll();
+        }
+        return entityManager.createQuery(projectedQuery(ALL, projection), Tuple.class)
+                .getResultStream()
+                .map(tuple -> UserPersistenceMapper.toDomainModel(tuple, projection))
+                .toList();
+    }
+
+    private Optional<User> findOne(int lookup, Object key, UserProjection projection){
+        return entityManager.createQuery(projectedQuery(lookup, projection), Tuple.class)
+                .setParameter("key", key)
+                .getResultStream()
+                .findFirst()
+                .map(tuple -> UserPersistenceMapper.toDomainModel(tuple, projection));
+    }
+
+    private String projectedQuery(int lookup, UserProjection projection){
+        return projectedQueries.computeIfAbsent(projection.mask() << 2 | lookup, key -> {
+            String select = projection.fields().stream()
+                    .map(field -> "u." + field.property() + " as " + field.property())
+                    .collect(Collectors.joining(", ", "select ", " from UserJpaEntity u"));
+            return switch (lookup) {
+                case BY_ID -> select + " where u.id = :key";
+                case BY_EMAIL -> select + " where u.email = :key";
+                case BY_USERNAME -> select + " where u.username = :key";
+                default -> select;
+            };
+        });
+    }
+
+    /**
+     * Obtiene la versión de la tabla (número de filas y última actualización) sin leer los usuarios.
+     * @return La versión actual de la tabla.
+     */
+    @Override
+    public UserTableVersion tableVersion(){
+        UserTableVersionView view = springDataUserRepository.findTableVersion();
+        return new UserTableVersion(view.getCount(), view.getMaxUpdatedAt());
+    }
+
+    /**
+     * Cuenta los usuarios por proveedor y estado con una consulta agrupada.
+     * @return Un recuento por cada combinación presente.
+     */
+    @Override
+    public List<UserCount> countByProviderAndActive() {
+        return entityManager.createQuery(COUNT_BY_PROVIDER_QUERY, Object[].class)
+                .getResultList()
+                .stream()
+                .map(row -> new UserCount((String) row[0], Boolean.TRUE.equals(row[1]), (Long) row[2]))
+                .toList();
+    }
+
+    /**
+     * Cuenta las altas por día de creación desde una fecha con una consulta agrupada.
+     * @param since Fecha mínima de creación (inclusive).
+     * @return Altas de cada día con alguna.
+     */
+    @Override
+    public Map<LocalDate, Long> countSignupsPerDay(Instant since) {
+        List<Object[]> rows = entityManager.createQuery(SIGNUPS_PER_DAY_QUERY, Object[].class)
+                .setParameter("since", since)
+                .getResultList();
+        Map<LocalDate, Long> signups = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            signups.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return signups;
+    }
+
+    /**
+     * Obtiene los usuarios modificados desde una fecha.
+     * @param since Fecha mínima de actualización (inclusive).
+     * @return Los usuarios con updated_at mayor o igual a la fecha.
+     */
+    @Override
+    public List<User> findUpdatedSince(Instant since){
+        return springDataUserRepository.findByUpdatedAtGreaterThanEqual(since)
+                .stream()
+                .map(UserPersistenceMapper::toDomainModel)
+                .toList();
+    }
+
+    /**
+     * Obtiene una página de usuarios ordenados por ID.
+     * @param after ID del último usuario de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Los usuarios con ID mayor que after, en orden de ID.
+     */
+    @Override
+    public List<User> findPage(UUID after, int limit){
+        List<UserJpaEntity> page = after == null
+                ? springDataUserRepository.findByOrderByIdAsc(Limit.of(limit))
+                : springDataUserRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+        return page.stream()
+                .map(UserPersistenceMapper::toDomainModel)
+                .toList();
+    }
+
+    /**
+     * Obtiene una página de los usuarios modificados desde una fecha, ordenados por ID.
+     * @param since Fecha mínima de actualización (inclusive).
+     * @param after ID del último usuario de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Los usuarios modificados con ID mayor que after, en orden de ID.
+     */
+    @Override
+    public List<User> findUpdatedSince(Instant since, UUID after, int limit){
+        List<UserJpaEntity> page = after == null
+                ? springDataUserRepository.findByUpdatedAtGreaterThanEqualOrderByIdAsc(since, Limit.of(limit))
+                : springDataUserRepository.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(since, after, Limit.of(limit));
+        return page.stream()
+                .map(UserPersistenceMapper::toDomainModel)
+                .toList();
+    }
+
     /**
      * Elimina un usuario por su ID.
      * @param id El UUID del usuario a eliminar.
@@ -117,4 +338,89 @@ public class UserPersistenceAdapter implements UserRepository {
     public boolean existsByUsername(String username) {
         return springDataUserRepository.existsByUsername(username.toLowerCase());
     }
+
+    /**
+     * Verifica qué usernames están registrados con una sola consulta {@code IN} sobre la columna
+     * indexada username.
+     * @param usernames Los nombres de usuario, en minúsculas.
+     * @return Los que ya existen.
+     */
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(springDataUserRepository.findExistingUsernames(usernames));
+    }
+
+    /**
+     * Busca los IDs de los usuarios cuyo email tiene alguno de los hashes, con una consulta
+     * {@code IN} sobre la columna indexada email_hash que solo lee ID y hash. Las filas se leen
+     * como arrays y no como proyección de Spring Data, que crea un proxy por fila.
+     * @param emailHashes Hashes en hexadecimal (ver EmailHash).
+     * @return Los hashes encontrados, en minúsculas, con el ID de su usuario.
+     */
+    @Override
+    public Map<String, UUID> findIdsByEmailHashes(Collection<String> emailHashes) {
+        if (emailHashes.isEmpty()) {
+            return Map.of();
+        }
+        List<byte[]> hashes = emailHashes.stream().map(EmailHash::toBytes).toList();
+        List<Object[]> rows = entityManager.createQuery(EMAIL_HASH_QUERY, Object[].class)
+                .setParameter("hashes", hashes)
+                .getResultList();
+        Map<String, UUID> ids = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            ids.put(EmailHash.toHex((byte[]) row[1]), (UUID) row[0]);
+        }
+        return ids;
+    }
+
+    /**
+     * Obtiene solo la versión (ID y fecha de actualización) de un usuario por su ID.
+     * @param id El UUID del usuario.
+     * @return Un Optional con la versión del usuario, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserVersion> findVersionById(UUID id) {
+        return springDataUserRepository.findVersionById(id)
+                .map(UserPersistenceMapper::toVersion);
+    }
+
+    /**
+     * Obtiene solo la versión (ID y fecha de actualización) de un usuario por su nombre de usuario.
+     * @param username El nombre de usuario.
+     * @return Un Optional con la versión del usuario, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserVersion> findVersionByUsername(String username) {
+        return springDataUserRepository.findVersionByUsername(username)
+                .map(UserPersistenceMapper::toVersion);
+    }
+
+    /**
+     * Obtiene solo las credenciales (ID, hash y estado) de un usuario por su email.
+     * @param email El email del usuario.
+     * @return Un Optional con las credenciales, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return springDataUserRepository.findCredentialsByEmail(email)
+                .map(UserPersistenceMapper::toCredentials);
+    }
+
+    /**
+     * Reemplaza el hash de la contraseña solo si el almacenado sigue siendo {@code currentHash},
+     * de modo que un rehash tardío nunca pisa un cambio de contraseña posterior.
+     * No modifica la versión ni la fecha de actualización: el hash no forma parte de la representación pública.
+     * @param id El UUID del usuario.
+     * @param currentHash El hash que se verificó.
+     * @param newHash El nuevo hash.
+     * @return true si se actualizó la fila.
+     */
+    @Override
+    @Transactional
+    public boolean updatePasswordHash(UUID id, String currentHash, String newHash) {
+        return springDataUserRepository.updatePasswordHash(id, currentHash, newHash) > 0;
+    }
 }
@@ -0,0 +1,155 @@
+package com.legendme.users.svc.adapter.out.db;
+
+import com.legendme.users.svc.application.port.out.UserStatsStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Implementación del puerto UserStatsStore sobre la tabla user_stats de la base principal
+ * (también con sharding, como el directorio). Cada fila es un slot de un contador; los nodos
+ * suman en su propio slot con un upsert por lotes, de modo que no compiten por la misma fila.
+ * La tabla user_stats_reconciliation guarda por slot la última reconciliación; las sumas la leen
+ * con {@code select ... for update} sobre su slot y las reconciliaciones sobre todos.
+ * Las tablas las crea la migración {@code db/migration/V06__user_stats.sql}.
+ */
+@Component
+public class UserStatsPersistenceAdapter implements UserStatsStore {
+
+    private static final String ADD =
+            "insert into user_stats (stat_key, slot, stat_value) values (?, ?, ?) "
+                    + "on duplicate key update stat_value = stat_value + values(stat_value)";
+
+    private static final Reconciliation NONE = new Reconciliation(0, Instant.EPOCH);
+
+    private static final RowMapper<Reconciliation> RECONCILIATION_ROW_MAPPER =
+            (rs, rowNum) -> new Reconciliation(rs.getLong(1), Instant.ofEpochMilli(rs.getLong(2)));
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param dataSource DataSource de la base principal.
+     */
+    public UserStatsPersistenceAdapter(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Crea la marca de los slots que no la tienen, con la última reconciliación.
+     *
+     * @param slots Número de slots.
+     * @return La última reconciliación.
+     */
+    @Override
+    @Transactional
+    public Reconciliation initialize(int slots) {
+        Reconciliation latest = latest(jdbc.query("select reconciliation, counted_at from user_stats_reconciliation",
+                RECONCILIATION_ROW_MAPPER));
+        List<Object[]> rows = IntStream.range(0, slots)
+                .mapToObj(slot -> new Object[]{slot, latest.number(), latest.countedAt().toEpochMilli()})
+                .toList();
+        jdbc.batchUpdate("insert into user_stats_reconciliation (slot, reconciliation, counted_at) values (?, ?, ?) "
+                + "on duplicate key update slot = slot", rows);
+        return latest;
+    }
+
+    /**
+     * Lee todos los contadores sumando sus slots.
+     *
+     * @return El valor de cada contador.
+     */
+    @Override
+    public Map<String, Long> load() {
+        Map<String, Long> values = new HashMap<>();
+        jdbc.query("select stat_key, sum(stat_value) from user_stats group by stat_key",
+                rs -> {
+                    values.put(rs.getString(1), rs.getLong(2));
+                });
+        return values;
+    }
+
+    /**
+     * Bloquea la marca del slot y suma en él los incrementos calculados para la última
+     * reconciliación, con un único lote de upserts.
+     *
+     * @param slot   Slot de este nodo.
+     * @param deltas Incremento de cada contador según la última reconciliación.
+     * @return La última reconciliación.
+     */
+    @Override
+    @Transactional
+    public Reconciliation add(int slot, Function<Reconciliation, Map<String, Long>> deltas) {
+        Reconciliation latest = latest(jdbc.query(
+                "select reconciliation, counted_at from user_stats_reconciliation where slot = ? for update",
+                RECONCILIATION_ROW_MAPPER, slot));
+        add(slot, deltas.apply(latest));
+        return latest;
+    }
+
+    /**
+     * Bloquea las marcas de todos los slots, de modo que ninguna suma se confirma durante el
+     * recuento, y suma a cada contador la diferencia entre el recuento y su valor.
+     *
+     * @param slot      Slot donde se suman las correcciones.
+     * @param notBefore Si la última reconciliación empezó en este instante o después no se hace otra.
+     * @param recount   Calcula el valor de cada contador.
+     * @return La nueva reconciliación, o vacío si no se hizo.
+     */
+    @Override
+    @Transactional
+    public Optional<Reconciliation> reconcile(int slot, Instant notBefore, Supplier<Map<String, Long>> recount) {
+        Reconciliation latest = latest(jdbc.query(
+                "select reconciliation, counted_at from user_stats_reconciliation order by slot for update",
+                RECONCILIATION_ROW_MAPPER));
+        if (!latest.countedAt().isBefore(notBefore)) {
+            return Optional.empty();
+        }
+        Map<String, Long> stored = load();
+        Instant countedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        Map<String, Long> counted = recount.get();
+
+        Map<String, Long> corrections = new HashMap<>();
+        counted.forEach((key, value) -> {
+            long correction = value - stored.getOrDefault(key, 0L);
+            if (correction != 0) {
+                corrections.put(key, correction);
+            }
+        });
+        List<Object[]> removed = stored.keySet().stream()
+                .filter(key -> !counted.containsKey(key))
+                .map(key -> new Object[]{key})
+                .toList();
+        jdbc.batchUpdate("delete from user_stats where stat_key = ?", removed);
+        add(slot, corrections);
+
+        Reconciliation reconciliation = new Reconciliation(latest.number() + 1, countedAt);
+        jdbc.update("update user_stats_reconciliation set reconciliation = ?, counted_at = ?",
+                reconciliation.number(), countedAt.toEpochMilli());
+        return Optional.of(reconciliation);
+    }
+
+    private void add(int slot, Map<String, Long> deltas) {
+        List<Object[]> rows = deltas.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), slot, entry.getValue()})
+                .toList();
+        jdbc.batchUpdate(ADD, rows);
+    }
+
+    private static Reconciliation latest(List<Reconciliation> reconciliations) {
+        return reconciliations.stream().max(Comparator.comparingLong(Reconciliation::number)).orElse(NONE);
+    }
+}
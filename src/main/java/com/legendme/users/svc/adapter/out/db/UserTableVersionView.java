@@ -0,0 +1,14 @@
+package com.legendme.users.svc.adapter.out.db;
+
+import java.time.Instant;
+
+/**
+ * Proyección de Spring Data con el número de filas y la fecha de actualización más reciente
+ * de la tabla "users". La fecha la resuelve el índice idx_users_updated_at.
+ *
+ * @see SpringDataUserRepository
+ */
+public interface UserTableVersionView {
+    long getCount();
+    Instant getMaxUpdatedAt();
+}
@@ -0,0 +1,17 @@
+package com.legendme.users.svc.adapter.out.db;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Proyección de Spring Data que solo lee el ID, la fecha de actualización y la versión
+ * de la tabla "users". Evita cargar la entidad completa (incluida la contraseña)
+ * cuando únicamente se necesita conocer la versión del usuario.
+ *
+ * @see SpringDataUserRepository
+ */
+public interface UserVersionView {
+    UUID getId();
+    Instant getUpdatedAt();
+    Long getVersion();
+}
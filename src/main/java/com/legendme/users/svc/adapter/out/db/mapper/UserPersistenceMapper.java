@@ -1,7 +1,19 @@
 package com.legendme.users.svc.adapter.out.db.mapper;
 
+import com.legendme.users.svc.adapter.out.db.UserCredentialsView;
 import com.legendme.users.svc.adapter.out.db.UserJpaEntity;
+import com.legendme.users.svc.adapter.out.db.UserVersionView;
+import jakarta.persistence.Tuple;
+import com.legendme.users.svc.domain.model.EmailHash;
 import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserVersion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
 
 /**
  * Este mapper se encarga de convertir entre la entidad JPA y el modelo de dominio.
@@ -28,10 +40,38 @@ public class UserPersistenceMapper {
                 entity.getProvider(),
                 entity.isActive(),
                 entity.getCreatedAt(),
-                entity.getUpdatedAt()
+                entity.getUpdatedAt(),
+                entity.getVersion()
+        );
+    }
+
+    /** Convierte una fila proyectada a un modelo de dominio.
+     * Cada campo incluido en la proyección viene en la tupla con el alias de su propiedad;
+     * los demás quedan a null (o false).
+     * @param tuple La fila de la consulta proyectada.
+     * @param projection Los campos seleccionados.
+     * @return Un nuevo objeto User con los campos de la proyección.
+     */
+    public static User toDomainModel(Tuple tuple, UserProjection projection){
+        return new User(
+                (UUID) get(tuple, projection, UserField.ID),
+                (String) get(tuple, projection, UserField.NAME),
+                (String) get(tuple, projection, UserField.LASTNAME),
+                (LocalDate) get(tuple, projection, UserField.BIRTH_DATE),
+                (String) get(tuple, projection, UserField.USERNAME),
+                (String) get(tuple, projection, UserField.EMAIL),
+                (String) get(tuple, projection, UserField.PROVIDER),
+                Boolean.TRUE.equals(get(tuple, projection, UserField.ACTIVE)),
+                (Instant) get(tuple, projection, UserField.CREATED_AT),
+                (Instant) get(tuple, projection, UserField.UPDATED_AT),
+                (Long) get(tuple, projection, UserField.VERSION)
         );
     }
 
+    private static Object get(Tuple tuple, UserProjection projection, UserField field){
+        return projection.includes(field) ? tuple.get(field.property()) : null;
+    }
+
     /** Convierte un modelo de dominio a una entidad JPA.
      * @param user El objeto User a convertir.
      * @param hashedPassword La contraseña hasheada del usuario (puede ser null si no se actualiza).
@@ -40,16 +80,47 @@ public class UserPersistenceMapper {
     public static UserJpaEntity toEntity(User user, String hashedPassword){
         UserJpaEntity entity = new UserJpaEntity();
         entity.setId(user.id());
+        entity.setVersion(user.version());
+        copyToEntity(user, hashedPassword, entity);
+        return entity;
+    }
+
+    /** Copia los datos del modelo de dominio sobre una entidad JPA existente.
+     * No modifica el ID ni la versión, que son gestionados por JPA, y conserva
+     * la contraseña almacenada cuando no se proporciona una nueva. El hash del email
+     * se recalcula a partir del email.
+     * @param user El objeto User con los datos a copiar.
+     * @param hashedPassword La contraseña hasheada del usuario (puede ser null si no se actualiza).
+     * @param entity La entidad destino.
+     */
+    public static void copyToEntity(User user, String hashedPassword, UserJpaEntity entity){
         entity.setName(user.name());
         entity.setLastname(user.lastname());
         entity.setBirthDate(user.birthDate());
         entity.setUsername(user.username());
         entity.setEmail(user.email());
+        entity.setEmailHash(user.email() != null ? EmailHash.digest(user.email()) : null);
         if(hashedPassword != null) entity.setPassword(hashedPassword);
         entity.setProvider(user.provider());
         entity.setActive(user.active());
         entity.setCreatedAt(user.createdAt());
         entity.setUpdatedAt(user.updatedAt());
-        return entity;
+    }
+
+    /** Convierte una proyección de versión a su modelo de dominio.
+     * @param view La proyección UserVersionView a convertir.
+     * @return Un nuevo objeto UserVersion con el ID y la fecha de actualización.
+     */
+    public static UserVersion toVersion(UserVersionView view){
+        return new UserVersion(view.getId(), view.getUpdatedAt(), view.getVersion());
+    }
+
+    /**
+     * Convierte una proyección de credenciales a su modelo de dominio.
+     * @param view La proyección con ID, hash de la contraseña y estado.
+     * @return Las credenciales del usuario.
+     */
+    public static UserCredentials toCredentials(UserCredentialsView view){
+        return new UserCredentials(view.getId(), view.getPassword(), view.getActive());
     }
 }
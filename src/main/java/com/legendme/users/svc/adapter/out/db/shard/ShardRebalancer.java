@@ -0,0 +1,165 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import com.legendme.users.svc.domain.model.EmailHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+/**
+ * Herramienta de carga y reparticionado de usuarios entre shards.
+ * <ul>
+ *     <li>{@link #backfill}: copia una tabla "users" sin particionar (la tabla JPA de la base
+ *     principal) a los shards y reconstruye el directorio.</li>
+ *     <li>{@link #reshard}: mueve los usuarios de una distribución de shards a otra; con jump
+ *     consistent hash solo se mueven los usuarios cuyo shard cambia.</li>
+ *     <li>{@link #indexEmailHashes}: completa la tabla hash del email→id de un directorio creado
+ *     antes de que existiera, a partir de la tabla email→id.</li>
+ * </ul>
+ * Ambas operaciones recorren el origen por páginas ordenadas por ID y escriben con upsert,
+ * por lo que son idempotentes y se pueden relanzar si se interrumpen.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final int PAGE_SIZE = 500;
+
+    private static final String ALL_COLUMNS = ShardedUserRepository.USER_COLUMNS + ", password";
+
+    private static final RowMapper<Object[]> ROW_MAPPER = (rs, rowNum) -> new Object[]{
+            rs.getBytes("id"), rs.getString("name"), rs.getString("lastname"), rs.getTimestamp("birth_date"),
+            rs.getString("username"), rs.getString("email"), rs.getString("provider"), rs.getBoolean("active"),
+            rs.getTimestamp("created_at"), rs.getTimestamp("updated_at"), rs.getLong("version"), rs.getString("password")
+    };
+
+    private static final String UPSERT_USER = "insert into users (" + ALL_COLUMNS + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "on duplicate key update name = values(name), lastname = values(lastname), birth_date = values(birth_date), "
+            + "username = values(username), email = values(email), provider = values(provider), active = values(active), "
+            + "created_at = values(created_at), updated_at = values(updated_at), version = values(version), password = values(password)";
+
+    private final JdbcTemplate directory;
+
+    /**
+     * Resultado de una ejecución.
+     *
+     * @param scanned usuarios leídos del origen
+     * @param moved   usuarios escritos en un shard distinto al de origen
+     */
+    public record Report(long scanned, long moved) {
+    }
+
+    /**
+     * Constructor con el directorio de búsquedas globales.
+     *
+     * @param directory Base con las tablas email→id, hash del email→id y username→id.
+     */
+    public ShardRebalancer(JdbcTemplate directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Copia todos los usuarios de una tabla sin particionar a los shards indicados.
+     *
+     * @param source Base con la tabla "users" original.
+     * @param shards Shards destino.
+     * @return Resumen de la ejecución.
+     */
+    public Report backfill(JdbcTemplate source, List<JdbcTemplate> shards) {
+        Report report = copy(source, shards, false);
+        log.info("Backfill a {} shards completado: {} usuarios copiados", shards.size(), report.moved());
+        return report;
+    }
+
+    /**
+     * Mueve los usuarios de la distribución actual a una nueva distribución de shards.
+     * Los usuarios se borran del shard de origen solo después de escribirse en el destino.
+     *
+     * @param current Shards vigentes.
+     * @param target  Nueva distribución de shards (puede incluir los vigentes).
+     * @return Resumen de la ejecución.
+     */
+    public Report reshard(List<JdbcTemplate> current, List<JdbcTemplate> target) {
+        long scanned = 0;
+        long moved = 0;
+        for (JdbcTemplate source : current) {
+            Report report = copy(source, target, true);
+            scanned += report.scanned();
+            moved += report.moved();
+        }
+        log.info("Reparticionado de {} a {} shards completado: {} leídos, {} movidos", current.size(), target.size(), scanned, moved);
+        return new Report(scanned, moved);
+    }
+
+    /**
+     * Completa la tabla hash del email→id si tiene menos entradas que la tabla email→id.
+     *
+     * @return Entradas de email recorridas (0 si la tabla ya estaba completa).
+     */
+    public long indexEmailHashes() {
+        Long emails = directory.queryForObject("select count(*) from user_email_index", Long.class);
+        Long hashes = directory.queryForObject("select count(*) from user_email_hash_index", Long.class);
+        if (emails == null || hashes == null || hashes >= emails) {
+            return 0;
+        }
+        long scanned = 0;
+        String lastEmail = "";
+        while (true) {
+            List<Object[]> page = directory.query("select email, user_id from user_email_index where email > ? order by email limit " + PAGE_SIZE,
+                    (rs, rowNum) -> new Object[]{rs.getString(1), rs.getBytes(2)}, lastEmail);
+            if (page.isEmpty()) {
+                log.info("Índice de hashes de email completado: {} emails recorridos", scanned);
+                return scanned;
+            }
+            for (Object[] row : page) {
+                indexEmailHash((String) row[0], (byte[]) row[1]);
+                lastEmail = (String) row[0];
+                scanned++;
+            }
+        }
+    }
+
+    private Report copy(JdbcTemplate source, List<JdbcTemplate> target, boolean deleteMoved) {
+        long scanned = 0;
+        long moved = 0;
+        byte[] lastId = new byte[16];
+        while (true) {
+            List<Object[]> page = source.query("select " + ALL_COLUMNS + " from users where id > ? order by id limit " + PAGE_SIZE,
+                    ROW_MAPPER, (Object) lastId);
+            if (page.isEmpty()) {
+                return new Report(scanned, moved);
+            }
+            for (Object[] row : page) {
+                byte[] id = (byte[]) row[0];
+                JdbcTemplate destination = target.get(ShardRouter.shardOf(UuidBytes.fromBytes(id), target.size()));
+                scanned++;
+                if (destination.getDataSource() != source.getDataSource()) {
+                    destination.update(UPSERT_USER, row);
+                    if (deleteMoved) {
+                        source.update("delete from users where id = ?", (Object) id);
+                    }
+                    moved++;
+                }
+                indexDirectory(id, (String) row[5], (String) row[4]);
+                lastId = id;
+            }
+        }
+    }
+
+    private void indexDirectory(byte[] id, String email, String username) {
+        if (email != null) {
+            directory.update("insert into user_email_index (email, user_id) values (?, ?) on duplicate key update user_id = values(user_id)",
+                    email, id);
+            indexEmailHash(email, id);
+        }
+        if (username != null) {
+            directory.update("insert into user_username_index (username, user_id) values (?, ?) on duplicate key update user_id = values(user_id)",
+                    username, id);
+        }
+    }
+
+    private void indexEmailHash(String email, byte[] id) {
+        directory.update("insert into user_email_hash_index (email_hash, user_id) values (?, ?) on duplicate key update user_id = values(user_id)",
+                EmailHash.digest(email), id);
+    }
+}
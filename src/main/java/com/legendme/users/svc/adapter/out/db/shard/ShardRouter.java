@@ -0,0 +1,37 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import java.util.UUID;
+
+/**
+ * Calcula el shard de un usuario a partir de su UUID.
+ * Usa jump consistent hash: al pasar de N a N+1 shards solo se mueve ~1/(N+1) de los usuarios,
+ * lo que mantiene acotado el trabajo del {@link ShardRebalancer}.
+ */
+public final class ShardRouter {
+
+    private ShardRouter() {
+    }
+
+    /** Obtiene el índice de shard de un usuario.
+     * @param id El UUID del usuario.
+     * @param shardCount Número de shards (mayor que cero).
+     * @return El índice del shard, entre 0 y shardCount - 1.
+     */
+    public static int shardOf(UUID id, int shardCount) {
+        return jumpHash(id.getMostSignificantBits() ^ id.getLeastSignificantBits(), shardCount);
+    }
+
+    /**
+     * Jump consistent hash (Lamping y Veach, 2014).
+     */
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
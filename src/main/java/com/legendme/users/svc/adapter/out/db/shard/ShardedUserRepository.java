@@ -0,0 +1,679 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.domain.model.UserVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Implementación particionada del puerto UserRepository.
+ * Cada usuario vive en el shard que indica {@link ShardRouter} según su UUID, y las tablas
+ * globales email→id y username→id del directorio permiten que las búsquedas por email o
+ * username consulten un único shard. La tabla hash del email→id responde el cruce de contactos
+ * sin consultar ningún shard. Los listados completos se consultan en paralelo en
+ * todos los shards y se combinan ordenados por fecha de creación.
+ *
+ * <p>Las reservas del directorio no dependen de una transacción: se confirman una a una, y
+ * si falla cualquier paso posterior (otra reserva o la escritura en el shard) se liberan las
+ * entradas ya reservadas por este ID. La liberación solo borra entradas de este usuario, por lo
+ * que la reserva que falló por pertenecer a otro no se toca. La unicidad de email y username la
+ * garantizan las claves primarias del directorio.</p>
+ *
+ * @see ShardRouter
+ * @see ShardRebalancer
+ */
+@Slf4j
+public class ShardedUserRepository implements UserRepository, AutoCloseable {
+
+    static final String USER_COLUMNS =
+            "id, name, lastname, birth_date, username, email, provider, active, created_at, updated_at, version";
+
+    static final RowMapper<User> USER_ROW_MAPPER = (rs, rowNum) -> new User(
+            UuidBytes.fromBytes(rs.getBytes("id")),
+            rs.getString("name"),
+            rs.getString("lastname"),
+            localDate(rs, "birth_date"),
+            rs.getString("username"),
+            rs.getString("email"),
+            rs.getString("provider"),
+            rs.getBoolean("active"),
+            instant(rs, "created_at"),
+            instant(rs, "updated_at"),
+            rs.getLong("version")
+    );
+
+    private static final RowMapper<UserVersion> VERSION_ROW_MAPPER = (rs, rowNum) -> new UserVersion(
+            UuidBytes.fromBytes(rs.getBytes("id")),
+            instant(rs, "updated_at"),
+            rs.getLong("version")
+    );
+
+    private static final RowMapper<UserCredentials> CREDENTIALS_ROW_MAPPER = (rs, rowNum) -> new UserCredentials(
+            UuidBytes.fromBytes(rs.getBytes("id")),
+            rs.getString("password"),
+            rs.getBoolean("active")
+    );
+
+    private static final RowMapper<UUID> ID_ROW_MAPPER = (rs, rowNum) -> UuidBytes.fromBytes(rs.getBytes(1));
+
+    /** Consultas y RowMapper de cada proyección, construidos una vez por combinación de campos. */
+    private static final ConcurrentHashMap<UserProjection, ProjectedSelect> PROJECTED = new ConcurrentHashMap<>();
+
+    private record ProjectedSelect(String byId, String all, RowMapper<User> mapper) {
+
+        static ProjectedSelect of(UserProjection projection) {
+            String columns = projection.fields().stream()
+                    .map(ShardedUserRepository::column)
+                    .collect(Collectors.joining(", "));
+            RowMapper<User> mapper = (rs, rowNum) -> new User(
+                    projection.includes(UserField.ID) ? UuidBytes.fromBytes(rs.getBytes("id")) : null,
+                    projection.includes(UserField.NAME) ? rs.getString("name") : null,
+                    projection.includes(UserField.LASTNAME) ? rs.getString("lastname") : null,
+                    projection.includes(UserField.BIRTH_DATE) ? localDate(rs, "birth_date") : null,
+                    projection.includes(UserField.USERNAME) ? rs.getString("username") : null,
+                    projection.includes(UserField.EMAIL) ? rs.getString("email") : null,
+                    projection.includes(UserField.PROVIDER) ? rs.getString("provider") : null,
+                    projection.includes(UserField.ACTIVE) && rs.getBoolean("active"),
+                    projection.includes(UserField.CREATED_AT) ? instant(rs, "created_at") : null,
+                    projection.includes(UserField.UPDATED_AT) ? instant(rs, "updated_at") : null,
+                    projection.includes(UserField.VERSION) ? rs.getLong("version") : null
+            );
+            return new ProjectedSelect("select " + columns + " from users where id = ?", "select " + columns + " from users", mapper);
+        }
+    }
+
+    private final List<JdbcTemplate> shards;
+    private final JdbcTemplate directory;
+    private final ExecutorService scatterExecutor;
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Constructor con los shards y el directorio de búsquedas globales.
+     *
+     * @param shards          Shards vigentes; el orden define el índice de cada uno.
+     * @param directory       Base con las tablas email→id, hash del email→id y username→id.
+     * @param passwordEncoder Codificador de las contraseñas guardadas.
+     */
+    public ShardedUserRepository(List<JdbcTemplate> shards, JdbcTemplate directory, PasswordEncoder passwordEncoder) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Se requiere al menos un shard");
+        }
+        this.shards = List.copyOf(shards);
+        this.directory = directory;
+        this.passwordEncoder = passwordEncoder;
+        this.scatterExecutor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "user-shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Guarda un usuario en su shard y mantiene las entradas del directorio.
+     * Las actualizaciones validan la versión igual que el adaptador JPA.
+     *
+     * @param user     El objeto User a guardar.
+     * @param password La contraseña en texto plano (opcional).
+     * @return El usuario guardado.
+     * @throws OptimisticLockingFailureException si la versión del usuario no es la vigente.
+     */
+    @Override
+    public User save(User user, String password) {
+        String hashed = password != null ? passwordEncoder.encode(password) : null;
+        return user.id() == null ? insert(user, hashed) : update(user, hashed);
+    }
+
+    private User insert(User user, String hashed) {
+        UUID id = UUID.randomUUID();
+        Timestamp now = Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+        try {
+            claimEmail(user.email(), id);
+            claimUsername(user.username(), id);
+            shardFor(id).update("insert into users (" + USER_COLUMNS + ", password) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)",
+                    UuidBytes.toBytes(id), user.name(), user.lastname(), user.birthDate(), user.username(),
+                    user.email(), user.provider(), user.active(), now, now, hashed);
+        } catch (RuntimeException e) {
+            releaseEmail(user.email(), id);
+            releaseUsername(user.username(), id);
+            throw e;
+        }
+        return findById(id).orElseThrow();
+    }
+
+    private User update(User user, String hashed) {
+        User current = findById(user.id())
+                .orElseThrow(() -> new OptimisticLockingFailureException("El usuario " + user.id() + " ya no existe"));
+        if (user.version() != null && !user.version().equals(current.version())) {
+            throw new OptimisticLockingFailureException("La versión del usuario " + user.id() + " no es la vigente");
+        }
+
+        boolean emailChanged = !Objects.equals(user.email(), current.email());
+        boolean usernameChanged = !Objects.equals(user.username(), current.username());
+        int rows;
+        try {
+            if (emailChanged) claimEmail(user.email(), user.id());
+            if (usernameChanged) claimUsername(user.username(), user.id());
+            rows = shardFor(user.id()).update(
+                    "update users set name = ?, lastname = ?, birth_date = ?, username = ?, email = ?, provider = ?, active = ?, "
+                            + "updated_at = ?, password = coalesce(?, password), version = version + 1 where id = ? and version = ?",
+                    user.name(), user.lastname(), user.birthDate(), user.username(), user.email(), user.provider(),
+                    user.active(), Timestamp.from(Instant.now().truncatedTo(ChronoUnit.MILLIS)), hashed, UuidBytes.toBytes(user.id()), current.version());
+        } catch (RuntimeException e) {
+            releaseChanged(user, emailChanged, usernameChanged);
+            throw e;
+        }
+        if (rows == 0) {
+            releaseChanged(user, emailChanged, usernameChanged);
+            throw new OptimisticLockingFailureException("El usuario " + user.id() + " fue modificado concurrentemente");
+        }
+
+        if (emailChanged) releaseEmail(current.email(), user.id());
+        if (usernameChanged) releaseUsername(current.username(), user.id());
+        return findById(user.id()).orElseThrow();
+    }
+
+    private void releaseChanged(User user, boolean emailChanged, boolean usernameChanged) {
+        if (emailChanged) releaseEmail(user.email(), user.id());
+        if (usernameChanged) releaseUsername(user.username(), user.id());
+    }
+
+    /**
+     * Busca un usuario por su ID en su shard.
+     *
+     * @param id El UUID del usuario a buscar.
+     * @return Un Optional que contiene el usuario si se encuentra, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findById(UUID id) {
+        return shardFor(id).query("select " + USER_COLUMNS + " from users where id = ?", USER_ROW_MAPPER, UuidBytes.toBytes(id))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Busca un usuario por su email: resuelve el ID en el directorio y consulta un único shard.
+     *
+     * @param email El email del usuario a buscar.
+     * @return Un Optional que contiene el usuario si se encuentra, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return idByEmail(email).flatMap(this::findById);
+    }
+
+    /**
+     * Busca un usuario por su username: resuelve el ID en el directorio y consulta un único shard.
+     *
+     * @param username El nombre de usuario a buscar.
+     * @return Un Optional que contiene el usuario si se encuentra, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return idByUsername(username).flatMap(this::findById);
+    }
+
+    /**
+     * Obtiene todos los usuarios consultando todos los shards en paralelo.
+     *
+     * @return Una lista de todos los usuarios, ordenada por fecha de creación.
+     */
+    @Override
+    public List<User> findAll() {
+        return scatter("select " + USER_COLUMNS + " from users");
+    }
+
+    /**
+     * Obtiene los usuarios modificados desde una fecha consultando todos los shards en paralelo.
+     *
+     * @param since Fecha mínima de actualización (inclusive).
+     * @return Los usuarios modificados, ordenados por fecha de creación.
+     */
+    @Override
+    public List<User> findUpdatedSince(Instant since) {
+        return scatter("select " + USER_COLUMNS + " from users where updated_at >= ?", Timestamp.from(since));
+    }
+
+    /**
+     * Obtiene una página de usuarios ordenados por ID: cada shard devuelve su propia página y se
+     * mezclan en el orden de bytes de la columna, el mismo que usan las bases.
+     *
+     * @param after ID del último usuario de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Los usuarios con ID mayor que after, en orden de ID.
+     */
+    @Override
+    public List<User> findPage(UUID after, int limit) {
+        return after == null
+                ? page("select " + USER_COLUMNS + " from users order by id limit ?", limit, limit)
+                : page("select " + USER_COLUMNS + " from users where id > ? order by id limit ?", limit,
+                        UuidBytes.toBytes(after), limit);
+    }
+
+    /**
+     * Obtiene una página de los usuarios modificados desde una fecha, ordenados por ID.
+     *
+     * @param since Fecha mínima de actualización (inclusive).
+     * @param after ID del último usuario de la página anterior, o null para la primera.
+     * @param limit Tamaño máximo de la página.
+     * @return Los usuarios modificados con ID mayor que after, en orden de ID.
+     */
+    @Override
+    public List<User> findUpdatedSince(Instant since, UUID after, int limit) {
+        return after == null
+                ? page("select " + USER_COLUMNS + " from users where updated_at >= ? order by id limit ?", limit,
+                        Timestamp.from(since), limit)
+                : page("select " + USER_COLUMNS + " from users where updated_at >= ? and id > ? order by id limit ?", limit,
+                        Timestamp.from(since), UuidBytes.toBytes(after), limit);
+    }
+
+    /**
+     * Busca un usuario por su ID en su shard leyendo solo las columnas de la proyección.
+     *
+     * @param id         El UUID del usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findById(UUID id, UserProjection projection) {
+        if (projection.isAll()) {
+            return findById(id);
+        }
+        ProjectedSelect select = PROJECTED.computeIfAbsent(projection, ProjectedSelect::of);
+        return shardFor(id).query(select.byId(), select.mapper(), UuidBytes.toBytes(id))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Busca un usuario por su email leyendo solo las columnas de la proyección.
+     *
+     * @param email      El email del usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByEmail(String email, UserProjection projection) {
+        return idByEmail(email).flatMap(id -> findById(id, projection));
+    }
+
+    /**
+     * Busca un usuario por su username leyendo solo las columnas de la proyección.
+     *
+     * @param username   El nombre de usuario a buscar.
+     * @param projection Los campos a leer.
+     * @return Un Optional que contiene el usuario proyectado, o vacío si no existe.
+     */
+    @Override
+    public Optional<User> findByUsername(String username, UserProjection projection) {
+        return idByUsername(username).flatMap(id -> findById(id, projection));
+    }
+
+    /**
+     * Obtiene todos los usuarios leyendo solo las columnas de la proyección. El ID y la fecha de
+     * creación se leen siempre porque ordenan la combinación de los shards.
+     *
+     * @param projection Los campos a leer.
+     * @return Una lista de todos los usuarios proyectados, ordenada por fecha de creación.
+     */
+    @Override
+    public List<User> findAll(UserProjection projection) {
+        if (projection.isAll()) {
+            return findAll();
+        }
+        UserProjection sortable = UserProjection.ofMask(projection.mask()
+                | UserProjection.bit(UserField.ID) | UserProjection.bit(UserField.CREATED_AT));
+        ProjectedSelect select = PROJECTED.computeIfAbsent(sortable, ProjectedSelect::of);
+        return scatter(select.all(), select.mapper()).stream()
+                .map(projection::apply)
+                .toList();
+    }
+
+    /**
+     * Obtiene la versión de la tabla sumando el número de filas y tomando la última
+     * actualización de todos los shards, consultados en paralelo.
+     *
+     * @return La versión actual de la tabla particionada.
+     */
+    @Override
+    public UserTableVersion tableVersion() {
+        List<CompletableFuture<UserTableVersion>> parts = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> shard.queryForObject(
+                        "select count(*), max(updated_at) from users",
+                        (rs, rowNum) -> new UserTableVersion(rs.getLong(1), instant(rs.getTimestamp(2)))), scatterExecutor))
+                .toList();
+
+        long count = 0;
+        Instant maxUpdatedAt = null;
+        for (CompletableFuture<UserTableVersion> part : parts) {
+            UserTableVersion version = part.join();
+            count += version.count();
+            if (version.maxUpdatedAt() != null && (maxUpdatedAt == null || version.maxUpdatedAt().isAfter(maxUpdatedAt))) {
+                maxUpdatedAt = version.maxUpdatedAt();
+            }
+        }
+        return new UserTableVersion(count, maxUpdatedAt);
+    }
+
+    /**
+     * Cuenta los usuarios por proveedor y estado agrupando en cada shard, en paralelo, y
+     * sumando los recuentos.
+     *
+     * @return Un recuento por cada combinación presente.
+     */
+    @Override
+    public List<UserCount> countByProviderAndActive() {
+        Map<Map.Entry<String, Boolean>, Long> counts = new HashMap<>();
+        for (UserCount part : scatterRows("select provider, active, count(*) from users group by provider, active",
+                (rs, rowNum) -> new UserCount(rs.getString(1), rs.getBoolean(2), rs.getLong(3)))) {
+            counts.merge(new AbstractMap.SimpleImmutableEntry<>(part.provider(), part.active()), part.count(), Long::sum);
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new UserCount(entry.getKey().getKey(), entry.getKey().getValue(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Cuenta las altas por día agrupando en cada shard, en paralelo, y sumando los recuentos.
+     *
+     * @param since Fecha mínima de creación (inclusive).
+     * @return Altas de cada día con alguna.
+     */
+    @Override
+    public Map<LocalDate, Long> countSignupsPerDay(Instant since) {
+        Map<LocalDate, Long> signups = new HashMap<>();
+        for (Map.Entry<LocalDate, Long> part : scatterRows(
+                "select cast(created_at as date), count(*) from users where created_at >= ? group by cast(created_at as date)",
+                (rs, rowNum) -> Map.entry(rs.getObject(1, LocalDate.class), rs.getLong(2)), Timestamp.from(since))) {
+            signups.merge(part.getKey(), part.getValue(), Long::sum);
+        }
+        return signups;
+    }
+
+    /**
+     * Lee una columna DATETIME como instante. El valor se interpreta en la zona de la JVM, igual
+     * que lo escriben {@link Timestamp#from} y Hibernate, de modo que ambos adaptadores leen lo mismo.
+     */
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        return instant(rs.getTimestamp(column));
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+
+    /** Lee una columna de fecha (DATE o DATETIME, según la antigüedad de la tabla) como fecha local. */
+    private static LocalDate localDate(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDate.class);
+    }
+
+    private static String column(UserField field) {
+        return switch (field) {
+            case ID -> "id";
+            case NAME -> "name";
+            case LASTNAME -> "lastname";
+            case BIRTH_DATE -> "birth_date";
+            case USERNAME -> "username";
+            case EMAIL -> "email";
+            case PROVIDER -> "provider";
+            case ACTIVE -> "active";
+            case CREATED_AT -> "created_at";
+            case UPDATED_AT -> "updated_at";
+            case VERSION -> "version";
+        };
+    }
+
+    private List<User> scatter(String sql, Object... args) {
+        return scatter(sql, USER_ROW_MAPPER, args);
+    }
+
+    private List<User> scatter(String sql, RowMapper<User> mapper, Object... args) {
+        List<User> merged = scatterRows(sql, mapper, args);
+        merged.sort(Comparator.comparing(User::createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(User::id));
+        return merged;
+    }
+
+    private List<User> page(String sql, int limit, Object... args) {
+        List<User> merged = scatterRows(sql, USER_ROW_MAPPER, args);
+        merged.sort(Comparator.comparing(user -> UuidBytes.toBytes(user.id()), Arrays::compareUnsigned));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private <T> List<T> scatterRows(String sql, RowMapper<T> mapper, Object... args) {
+        List<CompletableFuture<List<T>>> parts = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(
+                        () -> shard.query(sql, mapper, args), scatterExecutor))
+                .toList();
+
+        List<T> merged = new ArrayList<>();
+        for (CompletableFuture<List<T>> part : parts) {
+            merged.addAll(part.join());
+        }
+        return merged;
+    }
+
+    /**
+     * Elimina un usuario de su shard y sus entradas del directorio.
+     *
+     * @param id El UUID del usuario a eliminar.
+     */
+    @Override
+    public void delete(UUID id) {
+        findById(id).ifPresent(user -> {
+            shardFor(id).update("delete from users where id = ?", UuidBytes.toBytes(id));
+            releaseEmail(user.email(), id);
+            releaseUsername(user.username(), id);
+        });
+    }
+
+    /**
+     * Verifica si un email está registrado consultando solo el directorio.
+     *
+     * @param email El email a verificar.
+     * @return true si el usuario existe, false en caso contrario.
+     */
+    @Override
+    public boolean existsByEmail(String email) {
+        return idByEmail(email.toLowerCase()).isPresent();
+    }
+
+    /**
+     * Verifica si un username está registrado consultando solo el directorio.
+     *
+     * @param username El nombre de usuario a verificar.
+     * @return true si el usuario existe, false en caso contrario.
+     */
+    @Override
+    public boolean existsByUsername(String username) {
+        return idByUsername(username.toLowerCase()).isPresent();
+    }
+
+    /**
+     * Verifica qué usernames están registrados con una consulta {@code IN} sobre el directorio,
+     * sin consultar los shards.
+     *
+     * @param usernames Los nombres de usuario, en minúsculas.
+     * @return Los que ya existen.
+     */
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return Set.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(usernames.size(), "?"));
+        return new HashSet<>(directory.queryForList("select username from user_username_index where username in (" + placeholders + ")",
+                String.class, usernames.toArray()));
+    }
+
+    /**
+     * Busca los IDs de los usuarios cuyo email tiene alguno de los hashes con una consulta
+     * {@code IN} sobre el directorio, sin consultar los shards.
+     *
+     * @param emailHashes Hashes en hexadecimal (ver EmailHash).
+     * @return Los hashes encontrados, en minúsculas, con el ID de su usuario.
+     */
+    @Override
+    public Map<String, UUID> findIdsByEmailHashes(Collection<String> emailHashes) {
+        if (emailHashes.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emailHashes.size(), "?"));
+        Object[] args = emailHashes.stream().map(EmailHash::toBytes).toArray();
+        Map<String, UUID> ids = new HashMap<>();
+        directory.query("select email_hash, user_id from user_email_hash_index where email_hash in (" + placeholders + ")",
+                rs -> {
+                    ids.put(EmailHash.toHex(rs.getBytes(1)), UuidBytes.fromBytes(rs.getBytes(2)));
+                }, args);
+        return ids;
+    }
+
+    /**
+     * Obtiene solo la versión de un usuario por su ID.
+     *
+     * @param id El UUID del usuario.
+     * @return Un Optional con la versión del usuario, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserVersion> findVersionById(UUID id) {
+        return shardFor(id).query("select id, updated_at, version from users where id = ?", VERSION_ROW_MAPPER, UuidBytes.toBytes(id))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Obtiene solo la versión de un usuario por su username.
+     *
+     * @param username El nombre de usuario.
+     * @return Un Optional con la versión del usuario, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserVersion> findVersionByUsername(String username) {
+        return idByUsername(username).flatMap(this::findVersionById);
+    }
+
+    /**
+     * Obtiene solo las credenciales de un usuario por su email: resuelve el ID en el directorio
+     * y lee ID, hash y estado de un único shard.
+     *
+     * @param email El email del usuario.
+     * @return Un Optional con las credenciales, o vacío si no existe.
+     */
+    @Override
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return idByEmail(email).flatMap(id -> shardFor(id)
+                .query("select id, password, active from users where id = ?", CREDENTIALS_ROW_MAPPER, UuidBytes.toBytes(id))
+                .stream()
+                .findFirst());
+    }
+
+    /**
+     * Reemplaza el hash de la contraseña solo si el almacenado sigue siendo {@code currentHash}.
+     *
+     * @param id          El UUID del usuario.
+     * @param currentHash El hash que se verificó.
+     * @param newHash     El nuevo hash.
+     * @return true si se actualizó la fila.
+     */
+    @Override
+    public boolean updatePasswordHash(UUID id, String currentHash, String newHash) {
+        return shardFor(id).update("update users set password = ? where id = ? and password = ?",
+                newHash, UuidBytes.toBytes(id), currentHash) > 0;
+    }
+
+    /**
+     * Obtiene los shards vigentes, en el orden que define su índice.
+     *
+     * @return Los shards vigentes.
+     */
+    public List<JdbcTemplate> shards() {
+        return shards;
+    }
+
+    /**
+     * Detiene el pool usado para las consultas en paralelo.
+     */
+    @Override
+    public void close() {
+        scatterExecutor.shutdown();
+    }
+
+    private JdbcTemplate shardFor(UUID id) {
+        return shards.get(ShardRouter.shardOf(id, shards.size()));
+    }
+
+    private Optional<UUID> idByEmail(String email) {
+        return directory.query("select user_id from user_email_index where email = ?", ID_ROW_MAPPER, email)
+                .stream()
+                .findFirst();
+    }
+
+    private Optional<UUID> idByUsername(String username) {
+        return directory.query("select user_id from user_username_index where username = ?", ID_ROW_MAPPER, username)
+                .stream()
+                .findFirst();
+    }
+
+    private void claimEmail(String email, UUID id) {
+        if (email != null) {
+            directory.update("insert into user_email_index (email, user_id) values (?, ?)", email, UuidBytes.toBytes(id));
+            directory.update("insert into user_email_hash_index (email_hash, user_id) values (?, ?)",
+                    EmailHash.digest(email), UuidBytes.toBytes(id));
+        }
+    }
+
+    private void claimUsername(String username, UUID id) {
+        if (username != null) {
+            directory.update("insert into user_username_index (username, user_id) values (?, ?)", username, UuidBytes.toBytes(id));
+        }
+    }
+
+    private void releaseEmail(String email, UUID id) {
+        if (email != null) {
+            directory.update("delete from user_email_index where email = ? and user_id = ?", email, UuidBytes.toBytes(id));
+            directory.update("delete from user_email_hash_index where email_hash = ? and user_id = ?",
+                    EmailHash.digest(email), UuidBytes.toBytes(id));
+        }
+    }
+
+    private void releaseUsername(String username, UUID id) {
+        if (username != null) {
+            directory.update("delete from user_username_index where username = ? and user_id = ?", username, UuidBytes.toBytes(id));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.infrastructure.sql.SlowQueryLog;
+import com.legendme.users.svc.infrastructure.sql.SqlStatementCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Configuración del particionado de usuarios.
+ * Con {@code legendme.sharding.enabled=true} el puerto UserRepository lo implementa
+ * {@link ShardedUserRepository} en lugar del adaptador JPA. Al arrancar ejecuta, si se pide,
+ * el reparticionado (antes de servir peticiones) o el backfill. Las tablas no se crean aquí: los
+ * shards se migran con {@code db/shard-migration} y el directorio con {@code db/migration}.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "legendme.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    /**
+     * Crea el repositorio particionado sobre los shards configurados.
+     * El directorio vive en la base principal.
+     *
+     * <p>Con {@code reshard-on-startup} los usuarios se mueven a {@code target-shards} aquí, al
+     * crear el bean y antes de que el servidor web acepte peticiones, y el repositorio nace ya
+     * enrutando con la nueva distribución: no hay un intervalo en el que un usuario movido
+     * responda 404 por buscarse en su shard anterior. Después hay que pasar {@code target-shards}
+     * a {@code shards} en la configuración; el resto de nodos debe arrancar con ella.</p>
+     *
+     * @param properties Configuración de los shards.
+     * @param dataSource DataSource de la base principal.
+     * @param passwordEncoder Codificador de las contraseñas guardadas.
+     * @param slowQueries Registro de consultas lentas, que también mide los shards.
+     * @param rebalancer Herramienta de reparticionado.
+     * @return El repositorio particionado.
+     */
+    @Bean
+    @Qualifier(UserRepository.STORE)
+    ShardedUserRepository shardedUserRepository(ShardingProperties properties, DataSource dataSource,
+                                                PasswordEncoder passwordEncoder, SlowQueryLog slowQueries,
+                                                ShardRebalancer rebalancer) {
+        List<JdbcTemplate> current = connect(properties.shards(), slowQueries);
+        List<JdbcTemplate> routing = current;
+        if (properties.reshardOnStartup()) {
+            if (properties.targetShards().isEmpty()) {
+                log.warn("reshard-on-startup activo pero legendme.sharding.target-shards está vacío");
+            } else {
+                List<String> currentUrls = properties.shards().stream().map(ShardingProperties.Shard::url).toList();
+                List<JdbcTemplate> target = properties.targetShards().stream()
+                        .map(shard -> currentUrls.contains(shard.url())
+                                ? current.get(currentUrls.indexOf(shard.url()))
+                                : connect(shard, slowQueries))
+                        .toList();
+                rebalancer.reshard(current, target);
+                log.warn("Usuarios repartidos en legendme.sharding.target-shards; este nodo ya enruta con esa distribución. "
+                        + "Copia target-shards en shards antes de arrancar otros nodos");
+                routing = target;
+            }
+        }
+        return new ShardedUserRepository(routing, new JdbcTemplate(dataSource), passwordEncoder);
+    }
+
+    /**
+     * Herramienta de backfill y reparticionado.
+     *
+     * @param dataSource DataSource de la base principal, donde vive el directorio.
+     * @return El rebalanceador.
+     */
+    @Bean
+    ShardRebalancer shardRebalancer(DataSource dataSource) {
+        return new ShardRebalancer(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * Ejecuta al arrancar el backfill desde la tabla JPA, si se pide, tras completar los hashes
+     * de email de un directorio anterior a ellos. Copia a los shards con los que enruta el
+     * repositorio, que tras un reparticionado ({@link #shardedUserRepository}) ya son los nuevos.
+     * Se ejecuta antes que el resto de runners (p. ej. la carga del directorio en memoria).
+     *
+     * @param properties Configuración de los shards.
+     * @param repository Repositorio particionado con los shards vigentes.
+     * @param rebalancer Herramienta de backfill.
+     * @param dataSource DataSource de la base principal.
+     * @return El runner de mantenimiento.
+     */
+    @Bean
+    @Order(0)
+    ApplicationRunner shardMaintenanceRunner(ShardingProperties properties, ShardedUserRepository repository,
+                                             ShardRebalancer rebalancer, DataSource dataSource) {
+        return args -> {
+            rebalancer.indexEmailHashes();
+            if (properties.backfillOnStartup()) {
+                rebalancer.backfill(new JdbcTemplate(dataSource), repository.shards());
+            }
+        };
+    }
+
+    private static List<JdbcTemplate> connect(List<ShardingProperties.Shard> shards, SlowQueryLog slowQueries) {
+        return shards.stream().map(shard -> connect(shard, slowQueries)).toList();
+    }
+
+    private static JdbcTemplate connect(ShardingProperties.Shard shard, SlowQueryLog slowQueries) {
+        DataSource dataSource = DataSourceBuilder.create()
+                .url(shard.url())
+                .username(shard.username())
+                .password(shard.password())
+                .build();
+        return new JdbcTemplate(SqlStatementCounter.proxy(dataSource, shard.url(), slowQueries));
+    }
+}
@@ -0,0 +1,38 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuración del particionado horizontal de la tabla "users".
+ * Las tablas de búsqueda email→id y username→id viven en la base principal
+ * ({@code spring.datasource.*}); los usuarios se reparten entre los shards.
+ *
+ * @param enabled           activa el repositorio particionado en lugar del adaptador JPA
+ * @param shards            shards vigentes; el orden define el índice de cada shard
+ * @param targetShards      nueva distribución de shards para el reparticionado
+ * @param backfillOnStartup copia al arrancar la tabla "users" de la base principal a los shards
+ * @param reshardOnStartup  mueve al arrancar, antes de servir peticiones, los usuarios de {@code shards} a
+ *                          {@code targetShards} y enruta con {@code targetShards}
+ */
+@ConfigurationProperties(prefix = "legendme.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Shard> shards,
+        @DefaultValue List<Shard> targetShards,
+        @DefaultValue("false") boolean backfillOnStartup,
+        @DefaultValue("false") boolean reshardOnStartup
+) {
+
+    /**
+     * Conexión a un shard.
+     *
+     * @param url      URL JDBC del shard
+     * @param username usuario de conexión
+     * @param password contraseña de conexión
+     */
+    public record Shard(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Conversión entre UUID y el formato BINARY(16) usado en las columnas de ID.
+ */
+final class UuidBytes {
+
+    private UuidBytes() {
+    }
+
+    static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
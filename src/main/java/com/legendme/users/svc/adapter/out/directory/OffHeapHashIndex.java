@@ -0,0 +1,189 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.IntPredicate;
+
+/**
+ * Índice hash de direccionamiento abierto (sondeo lineal) fuera del heap que asocia el hash
+ * de una clave con el slot del usuario en {@link OffHeapUserStore}.
+ * Cada entrada ocupa un {@code long}: los 32 bits altos guardan el hash completo de la clave,
+ * para descartar colisiones sin leer el slot, y los bajos el slot + 1 (0 marca una entrada libre).
+ * El borrado desplaza hacia atrás las entradas siguientes, por lo que no quedan lápidas.
+ * No es thread-safe; la sincronización la hace {@link OffHeapUserStore}.
+ */
+final class OffHeapHashIndex {
+
+    private static final double MAX_LOAD = 0.6;
+    private static final int MAX_CAPACITY = 1 << 28;
+
+    private ByteBuffer table;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean shared;
+
+    OffHeapHashIndex(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.min(MAX_CAPACITY, expectedEntries / MAX_LOAD)) - 1) << 1;
+        allocate(Math.min(capacity, MAX_CAPACITY));
+    }
+
+    /**
+     * Adopta una tabla ya poblada (p. ej. una región de un snapshot mapeado en memoria).
+     *
+     * @param table Tabla con capacidad potencia de dos, en orden little-endian.
+     * @param size  Entradas ocupadas.
+     */
+    OffHeapHashIndex(ByteBuffer table, int size) {
+        int capacity = table.capacity() >>> 3;
+        if (Integer.bitCount(capacity) != 1 || size > capacity) {
+            throw new IllegalArgumentException("Tabla de índice inválida: capacidad " + capacity + ", tamaño " + size);
+        }
+        this.table = table.order(ByteOrder.LITTLE_ENDIAN);
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * MAX_LOAD);
+        this.size = size;
+    }
+
+    /** Tabla completa, para volcarla en un snapshot. */
+    ByteBuffer table() {
+        return table;
+    }
+
+    /**
+     * Vista de la tabla actual para una captura del directorio. Hasta {@link #unshare()}, la
+     * primera escritura copia la tabla antes, de modo que la vista no cambia.
+     */
+    OffHeapHashIndex share() {
+        shared = true;
+        return new OffHeapHashIndex(table, size);
+    }
+
+    /** Ninguna captura usa ya la tabla: las escrituras vuelven a hacerse en el sitio. */
+    void unshare() {
+        shared = false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Bytes reservados fuera del heap. */
+    long capacity() {
+        return (long) table.capacity();
+    }
+
+    /**
+     * Busca el slot cuya clave tiene el hash indicado y cumple {@code matches}.
+     *
+     * @param hash    Hash de la clave.
+     * @param matches Comprueba si la clave guardada en el slot es la buscada.
+     * @return El slot, o -1 si no está.
+     */
+    int find(int hash, IntPredicate matches) {
+        ByteBuffer entries = table;
+        int m = mask;
+        for (int i = hash & m, probes = 0; probes <= m; i = (i + 1) & m, probes++) {
+            long entry = entries.getLong(i << 3);
+            if (entry == 0L) {
+                return -1;
+            }
+            if ((int) (entry >>> 32) == hash && matches.test((int) entry - 1)) {
+                return (int) entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    void insert(int hash, int slot) {
+        if (size + 1 > threshold) {
+            resize();
+        }
+        copyIfShared();
+        place(table, mask, entry(hash, slot));
+        size++;
+    }
+
+    /**
+     * Elimina la entrada exacta (hash, slot).
+     *
+     * @return true si existía.
+     */
+    boolean remove(int hash, int slot) {
+        copyIfShared();
+        long target = entry(hash, slot);
+        int i = hash & mask;
+        while (true) {
+            long entry = table.getLong(i << 3);
+            if (entry == 0L) {
+                return false;
+            }
+            if (entry == target) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        // Desplazamiento hacia atrás: las entradas de la misma cadena ocupan el hueco.
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long entry = table.getLong(j << 3);
+            if (entry == 0L) {
+                break;
+            }
+            int home = (int) (entry >>> 32) & mask;
+            boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                table.putLong(hole << 3, entry);
+                hole = j;
+            }
+        }
+        table.putLong(hole << 3, 0L);
+        size--;
+        return true;
+    }
+
+    private void resize() {
+        if (mask + 1 >= MAX_CAPACITY) {
+            throw new IllegalStateException("El índice alcanzó su capacidad máxima");
+        }
+        ByteBuffer old = table;
+        int oldCapacity = mask + 1;
+        allocate(oldCapacity << 1);
+        for (int i = 0; i < oldCapacity; i++) {
+            long entry = old.getLong(i << 3);
+            if (entry != 0L) {
+                place(table, mask, entry);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = ByteBuffer.allocateDirect(capacity << 3).order(ByteOrder.LITTLE_ENDIAN);
+        mask = capacity - 1;
+        threshold = (int) (capacity * MAX_LOAD);
+        shared = false;
+    }
+
+    private void copyIfShared() {
+        if (shared) {
+            ByteBuffer copy = ByteBuffer.allocateDirect(table.capacity()).order(ByteOrder.LITTLE_ENDIAN);
+            copy.put(0, table, 0, table.capacity());
+            table = copy;
+            shared = false;
+        }
+    }
+
+    private static void place(ByteBuffer entries, int mask, long entry) {
+        int i = (int) (entry >>> 32) & mask;
+        while (entries.getLong(i << 3) != 0L) {
+            i = (i + 1) & mask;
+        }
+        entries.putLong(i << 3, entry);
+    }
+
+    private static long entry(int hash, int slot) {
+        return ((long) hash << 32) | ((slot + 1) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,153 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Memoria fuera del heap direccionable con posiciones {@code long}, formada por bloques
+ * {@link ByteBuffer} directos de tamaño fijo (potencia de dos) que se reservan bajo demanda.
+ * Un {@code ByteBuffer} no supera 2 GiB; los bloques permiten superar ese límite sin
+ * depender de la API de memoria externa, que en Java 21 sigue en preview.
+ * Los valores nunca cruzan el límite de un bloque: quien escribe se encarga de alinearlos.
+ * No es thread-safe; la sincronización la hace {@link OffHeapUserStore}.
+ */
+final class OffHeapSegments {
+
+    private final int chunkBits;
+    private final int chunkSize;
+    private final long chunkMask;
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private boolean[] shared = new boolean[0];
+
+    OffHeapSegments(int chunkBits) {
+        if (chunkBits < 10 || chunkBits > 30) {
+            throw new IllegalArgumentException("chunkBits fuera de rango [10, 30]: " + chunkBits);
+        }
+        this.chunkBits = chunkBits;
+        this.chunkSize = 1 << chunkBits;
+        this.chunkMask = chunkSize - 1L;
+    }
+
+    /**
+     * Adopta bloques ya existentes (p. ej. regiones de un snapshot mapeado en memoria).
+     * Cada bloque debe medir exactamente {@code 1 << chunkBits} bytes.
+     */
+    OffHeapSegments(int chunkBits, ByteBuffer[] chunks) {
+        this(chunkBits);
+        for (ByteBuffer chunk : chunks) {
+            if (chunk.capacity() != chunkSize) {
+                throw new IllegalArgumentException("Bloque de " + chunk.capacity() + " bytes, se esperaban " + chunkSize);
+            }
+        }
+        this.chunks = chunks.clone();
+        this.shared = new boolean[chunks.length];
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    int chunkCount() {
+        return chunks.length;
+    }
+
+    /** Bytes reservados fuera del heap. */
+    long capacity() {
+        return (long) chunks.length * chunkSize;
+    }
+
+    /** Garantiza que las posiciones {@code [0, bytes)} estén reservadas. */
+    void ensureCapacity(long bytes) {
+        int needed = (int) ((bytes + chunkMask) >>> chunkBits);
+        if (needed <= chunks.length) {
+            return;
+        }
+        ByteBuffer[] grown = Arrays.copyOf(chunks, needed);
+        for (int i = chunks.length; i < needed; i++) {
+            grown[i] = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        chunks = grown;
+        shared = Arrays.copyOf(shared, needed);
+    }
+
+    /**
+     * Vista de los bloques actuales para una captura del directorio. Hasta {@link #unshare()},
+     * la primera escritura en cada bloque compartido lo copia antes, de modo que la vista no cambia.
+     */
+    OffHeapSegments share() {
+        Arrays.fill(shared, true);
+        return new OffHeapSegments(chunkBits, chunks);
+    }
+
+    /** Ninguna captura usa ya los bloques: las escrituras vuelven a hacerse en el sitio. */
+    void unshare() {
+        Arrays.fill(shared, false);
+    }
+
+    /** Primera posición del bloque siguiente al de {@code position}. */
+    long nextChunkStart(long position) {
+        return ((position >>> chunkBits) + 1) << chunkBits;
+    }
+
+    /** Bytes que quedan en el bloque de {@code position}. */
+    int remainingInChunk(long position) {
+        return chunkSize - offset(position);
+    }
+
+    /** Bloque completo de índice {@code index}, para volcarlo o cargarlo en bloque. */
+    ByteBuffer chunk(int index) {
+        return chunks[index];
+    }
+
+    long getLong(long position) {
+        return chunkOf(position).getLong(offset(position));
+    }
+
+    void putLong(long position, long value) {
+        writableChunkOf(position).putLong(offset(position), value);
+    }
+
+    int getInt(long position) {
+        return chunkOf(position).getInt(offset(position));
+    }
+
+    void putInt(long position, int value) {
+        writableChunkOf(position).putInt(offset(position), value);
+    }
+
+    byte get(long position) {
+        return chunkOf(position).get(offset(position));
+    }
+
+    void put(long position, byte value) {
+        writableChunkOf(position).put(offset(position), value);
+    }
+
+    void get(long position, byte[] target, int length) {
+        chunkOf(position).get(offset(position), target, 0, length);
+    }
+
+    void put(long position, byte[] source) {
+        writableChunkOf(position).put(offset(position), source);
+    }
+
+    private ByteBuffer chunkOf(long position) {
+        return chunks[(int) (position >>> chunkBits)];
+    }
+
+    private ByteBuffer writableChunkOf(long position) {
+        int index = (int) (position >>> chunkBits);
+        if (shared[index]) {
+            ByteBuffer copy = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+            copy.put(0, chunks[index], 0, chunkSize);
+            chunks[index] = copy;
+            shared[index] = false;
+        }
+        return chunks[index];
+    }
+
+    private int offset(long position) {
+        return (int) (position & chunkMask);
+    }
+}
@@ -0,0 +1,336 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.domain.model.UserVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Modelo de lectura del puerto UserRepository sobre {@link OffHeapUserStore}.
+ * Mantiene una réplica completa de los usuarios fuera del heap y responde desde ella todas las
+ * lecturas; las escrituras y las credenciales (que nunca se copian al directorio) van al
+ * repositorio decorado. Los cambios propios se aplican al confirmar la transacción y los de
+ * otros nodos se leen periódicamente con {@link #refresh()}.
+ * Hasta que termina la carga inicial, las lecturas también van al repositorio decorado.
+ * La carga inicial puede partir de un {@link UserDirectorySnapshot}, de modo que solo se leen
+ * de la base los cambios posteriores a él.
+ */
+@Slf4j
+public class OffHeapUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private volatile OffHeapUserStore store;
+    private final Duration catchUpOverlap;
+    private final int loadPageSize;
+    private volatile boolean ready;
+
+    /**
+     * Constructor con el repositorio decorado y el directorio, y páginas de carga de 1000 usuarios.
+     *
+     * @param delegate       Repositorio con acceso al almacenamiento.
+     * @param store          Directorio fuera del heap.
+     * @param catchUpOverlap Margen hacia atrás de cada lectura de cambios.
+     */
+    public OffHeapUserRepository(UserRepository delegate, OffHeapUserStore store, Duration catchUpOverlap) {
+        this(delegate, store, catchUpOverlap, 1000);
+    }
+
+    /**
+     * Constructor con el repositorio decorado, el directorio y el tamaño de página de la carga.
+     *
+     * @param delegate       Repositorio con acceso al almacenamiento.
+     * @param store          Directorio fuera del heap.
+     * @param catchUpOverlap Margen hacia atrás de cada lectura de cambios.
+     * @param loadPageSize   Usuarios leídos de la base por consulta en la carga y en cada lectura de cambios.
+     */
+    public OffHeapUserRepository(UserRepository delegate, OffHeapUserStore store, Duration catchUpOverlap, int loadPageSize) {
+        if (loadPageSize < 1) {
+            throw new IllegalArgumentException("El tamaño de página de la carga debe ser positivo: " + loadPageSize);
+        }
+        this.delegate = delegate;
+        this.store = store;
+        this.catchUpOverlap = catchUpOverlap;
+        this.loadPageSize = loadPageSize;
+    }
+
+    /**
+     * Copia todos los usuarios al directorio y empieza a responder lecturas desde él.
+     */
+    public void load() {
+        warmUp(null);
+    }
+
+    /**
+     * Carga el directorio y empieza a responder lecturas desde él. Si hay un snapshot válido
+     * lo mapea en memoria y lee de la base solo los usuarios modificados desde su watermark;
+     * si no lo hay, o es inválido, copia todos los usuarios.
+     *
+     * @param snapshot Fichero del snapshot (opcional).
+     */
+    public void warmUp(Path snapshot) {
+        long start = System.nanoTime();
+        OffHeapUserStore restored = snapshot != null ? restore(snapshot) : null;
+        if (restored != null) {
+            long loaded = System.nanoTime();
+            store = restored;
+            int changed = refresh();
+            ready = true;
+            log.info("Directorio de usuarios restaurado desde {}: {} usuarios en {} ms (+{} cambios en {} ms)",
+                    snapshot, restored.size(), (loaded - start) / 1_000_000, changed, (System.nanoTime() - loaded) / 1_000_000);
+            return;
+        }
+        OffHeapUserStore target = store;
+        copyPages(target, after -> delegate.findPage(after, loadPageSize));
+        ready = true;
+        log.info("Directorio de usuarios cargado: {} usuarios, {} KiB fuera del heap en {} ms",
+                target.size(), target.offHeapBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Escribe un snapshot del directorio.
+     *
+     * @param snapshot Fichero destino.
+     * @throws IOException si falla la escritura.
+     */
+    public void snapshot(Path snapshot) throws IOException {
+        if (!ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        OffHeapUserStore current = store;
+        UserDirectorySnapshot.write(current, snapshot);
+        log.info("Snapshot del directorio escrito en {}: {} usuarios en {} ms",
+                snapshot, current.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static OffHeapUserStore restore(Path snapshot) {
+        if (!Files.exists(snapshot)) {
+            log.info("No hay snapshot del directorio en {}, se carga desde la base", snapshot);
+            return null;
+        }
+        try {
+            return UserDirectorySnapshot.load(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Snapshot del directorio inválido en {}, se carga desde la base: {}", snapshot, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Aplica los usuarios modificados desde la última fecha de actualización vista (menos el margen).
+     *
+     * @return Número de usuarios leídos.
+     */
+    public int refresh() {
+        OffHeapUserStore target = store;
+        Instant watermark = target.maxUpdatedAt();
+        if (watermark == null) {
+            watermark = Instant.EPOCH;
+        }
+        Instant since = watermark.minus(catchUpOverlap);
+        return copyPages(target, after -> delegate.findUpdatedSince(since, after, loadPageSize));
+    }
+
+    /**
+     * Copia al directorio página a página (keyset por id), de modo que en el heap solo vive una
+     * página a la vez y la base no acumula todas las filas en una sola consulta.
+     *
+     * @return Número de usuarios copiados.
+     */
+    private int copyPages(OffHeapUserStore target, Function<UUID, List<User>> pageAfter) {
+        int copied = 0;
+        UUID after = null;
+        List<User> page;
+        do {
+            page = pageAfter.apply(after);
+            page.forEach(target::put);
+            copied += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == loadPageSize);
+        return copied;
+    }
+
+    /**
+     * Indica si el directorio ya responde las lecturas.
+     *
+     * @return true tras la carga inicial.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Directorio subyacente.
+     *
+     * @return El directorio fuera del heap.
+     */
+    public OffHeapUserStore store() {
+        return store;
+    }
+
+    @Override
+    public User save(User user, String password) {
+        User saved = delegate.save(user, password);
+        afterCommit(() -> store.put(saved));
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return ready ? store.findById(id) : delegate.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return ready ? store.findByEmail(email) : delegate.findByEmail(email);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return ready ? store.findByUsername(username) : delegate.findByUsername(username);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return ready ? store.findAll() : delegate.findAll();
+    }
+
+    @Override
+    public Optional<User> findById(UUID id, UserProjection projection) {
+        return ready ? store.findById(id, projection) : delegate.findById(id, projection);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email, UserProjection projection) {
+        return ready ? store.findByEmail(email, projection) : delegate.findByEmail(email, projection);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username, UserProjection projection) {
+        return ready ? store.findByUsername(username, projection) : delegate.findByUsername(username, projection);
+    }
+
+    @Override
+    public List<User> findAll(UserProjection projection) {
+        return ready ? store.findAll(projection) : delegate.findAll(projection);
+    }
+
+    @Override
+    public UserTableVersion tableVersion() {
+        if (!ready) {
+            return delegate.tableVersion();
+        }
+        OffHeapUserStore current = store;
+        return new UserTableVersion(current.size(), current.maxUpdatedAt());
+    }
+
+    @Override
+    public List<UserCount> countByProviderAndActive() {
+        return delegate.countByProviderAndActive();
+    }
+
+    @Override
+    public Map<LocalDate, Long> countSignupsPerDay(Instant since) {
+        return delegate.countSignupsPerDay(since);
+    }
+
+    @Override
+    public List<User> findUpdatedSince(Instant since) {
+        return delegate.findUpdatedSince(since);
+    }
+
+    @Override
+    public List<User> findPage(UUID after, int limit) {
+        return delegate.findPage(after, limit);
+    }
+
+    @Override
+    public List<User> findUpdatedSince(Instant since, UUID after, int limit) {
+        return delegate.findUpdatedSince(since, after, limit);
+    }
+
+    @Override
+    public void delete(UUID id) {
+        delegate.delete(id);
+        afterCommit(() -> store.remove(id));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return ready ? store.existsByEmail(email) : delegate.existsByEmail(email);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return ready ? store.existsByUsername(username) : delegate.existsByUsername(username);
+    }
+
+    @Override
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        return ready ? store.existingUsernames(usernames) : delegate.findExistingUsernames(usernames);
+    }
+
+    @Override
+    public Map<String, UUID> findIdsByEmailHashes(Collection<String> emailHashes) {
+        return ready ? store.idsByEmailHashes(emailHashes) : delegate.findIdsByEmailHashes(emailHashes);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionById(UUID id) {
+        return ready ? store.findVersionById(id) : delegate.findVersionById(id);
+    }
+
+    @Override
+    public Optional<UserVersion> findVersionByUsername(String username) {
+        return ready ? store.findVersionByUsername(username) : delegate.findVersionByUsername(username);
+    }
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return delegate.findCredentialsByEmail(email);
+    }
+
+    @Override
+    public boolean updatePasswordHash(UUID id, String currentHash, String newHash) {
+        return delegate.updatePasswordHash(id, currentHash, newHash);
+    }
+
+    /**
+     * Ejecuta la acción al confirmar la transacción en curso, o de inmediato si no hay ninguna,
+     * para que el directorio nunca refleje escrituras que terminan revirtiéndose.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,641 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserVersion;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Directorio compacto de usuarios fuera del heap.
+ *
+ * <p>Cada usuario ocupa un slot de {@value #SLOT_SIZE} bytes con el UUID, la fecha de nacimiento
+ * como día epoch, las de alta y actualización como milisegundos epoch, la versión, los flags y la referencia a un registro en el arena de
+ * textos (nombre, apellido, username, email y provider en UTF-8 precedidos de su longitud).
+ * Cuatro índices {@link OffHeapHashIndex} resuelven ID, email, username y hash del email
+ * ({@link EmailHash}) a su slot; el último permite cruzar agendas de contactos sin ir a la base. Frente a un
+ * {@code User} en el heap (once campos, UUID, fechas y String como objetos) el coste por usuario
+ * baja a unos cientos de bytes y no presiona al recolector.</p>
+ *
+ * <p>Una sola escritura a la vez; las lecturas son optimistas ({@link StampedLock}) y solo toman
+ * el bloqueo de lectura si coincidieron con una escritura. Las actualizaciones escriben un
+ * registro de textos nuevo; cuando el arena acumula más de la mitad de bytes huérfanos se compacta.</p>
+ */
+public final class OffHeapUserStore {
+
+    static final int SLOT_SIZE = 64;
+
+    private static final int ID_MSB = 0;
+    private static final int ID_LSB = 8;
+    private static final int BIRTH_DATE = 16;
+    private static final int CREATED_AT = 24;
+    private static final int UPDATED_AT = 32;
+    private static final int VERSION = 40;
+    private static final int STRINGS_REF = 48;
+    private static final int STRINGS_LENGTH = 56;
+    private static final int FLAGS = 60;
+
+    private static final byte LIVE = 1;
+    private static final byte ACTIVE = 2;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private static final int NAME = 0;
+    private static final int LASTNAME = 1;
+    private static final int USERNAME = 2;
+    private static final int EMAIL = 3;
+    private static final int PROVIDER = 4;
+    private static final int STRING_FIELDS = 5;
+    private static final UserField[] STRING_FIELD_NAMES =
+            {UserField.NAME, UserField.LASTNAME, UserField.USERNAME, UserField.EMAIL, UserField.PROVIDER};
+
+    private final StampedLock lock = new StampedLock();
+    private final int chunkBits;
+    private final OffHeapSegments slots;
+    private OffHeapSegments arena;
+    private final OffHeapHashIndex byId;
+    private final OffHeapHashIndex byEmail;
+    private final OffHeapHashIndex byUsername;
+    private final OffHeapHashIndex byEmailHash;
+
+    private int slotCount;
+    private int liveCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private long arenaTop;
+    private long garbageBytes;
+    private long maxUpdatedAt = NULL_LONG;
+    private int captures;
+
+    /**
+     * Crea un directorio vacío.
+     *
+     * @param chunkBits     log2 del tamaño de cada bloque de memoria (p. ej. 24 = 16 MiB).
+     * @param expectedUsers Usuarios esperados, para dimensionar los índices.
+     */
+    public OffHeapUserStore(int chunkBits, int expectedUsers) {
+        this.chunkBits = chunkBits;
+        this.slots = new OffHeapSegments(chunkBits);
+        this.arena = new OffHeapSegments(chunkBits);
+        this.byId = new OffHeapHashIndex(expectedUsers);
+        this.byEmail = new OffHeapHashIndex(expectedUsers);
+        this.byUsername = new OffHeapHashIndex(expectedUsers);
+        this.byEmailHash = new OffHeapHashIndex(expectedUsers);
+    }
+
+    /**
+     * Reconstruye un directorio a partir de su estado completo (ver {@link UserDirectorySnapshot}).
+     *
+     * @param state Estado capturado con {@link #readState}.
+     */
+    OffHeapUserStore(State state) {
+        this.chunkBits = state.chunkBits();
+        this.slots = state.slots();
+        this.arena = state.arena();
+        this.byId = state.byId();
+        this.byEmail = state.byEmail();
+        this.byUsername = state.byUsername();
+        this.byEmailHash = state.byEmailHash();
+        this.slotCount = state.slotCount();
+        this.liveCount = state.liveCount();
+        this.freeSlots = Arrays.copyOf(state.freeSlots(), Math.max(16, state.freeSlots().length));
+        this.freeCount = state.freeSlots().length;
+        this.arenaTop = state.arenaTop();
+        this.garbageBytes = state.garbageBytes();
+        this.maxUpdatedAt = state.maxUpdatedAt();
+    }
+
+    /**
+     * Estado interno completo del directorio.
+     *
+     * @param freeSlots Slots libres (exactamente los vigentes, sin capacidad sobrante).
+     */
+    record State(int chunkBits, OffHeapSegments slots, OffHeapSegments arena,
+                 OffHeapHashIndex byId, OffHeapHashIndex byEmail, OffHeapHashIndex byUsername, OffHeapHashIndex byEmailHash,
+                 int slotCount, int liveCount, int[] freeSlots, long arenaTop, long garbageBytes, long maxUpdatedAt) {
+    }
+
+    /**
+     * Ejecuta {@code reader} sobre una captura consistente del estado interno sin bloquear las
+     * escrituras mientras lee: la captura comparte los bloques y las tablas de los índices, y
+     * hasta que termina cada escritura copia antes lo que va a modificar (copy-on-write). El
+     * bloqueo de escritura solo se toma para marcar y desmarcar lo compartido.
+     *
+     * @param reader Función que lee (sin modificar) el estado.
+     * @return El resultado de la función.
+     */
+    <T> T readState(Function<State, T> reader) {
+        State state;
+        long stamp = lock.writeLock();
+        try {
+            captures++;
+            state = new State(chunkBits, slots.share(), arena.share(), byId.share(), byEmail.share(), byUsername.share(),
+                    byEmailHash.share(), slotCount, liveCount, Arrays.copyOf(freeSlots, freeCount), arenaTop, garbageBytes,
+                    maxUpdatedAt);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        try {
+            return reader.apply(state);
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                if (--captures == 0) {
+                    slots.unshare();
+                    arena.unshare();
+                    byId.unshare();
+                    byEmail.unshare();
+                    byUsername.unshare();
+                    byEmailHash.unshare();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Inserta o reemplaza un usuario. Si el directorio ya tiene una versión más nueva del
+     * usuario no lo modifica, de modo que los cambios que llegan fuera de orden no retroceden.
+     *
+     * @param user El usuario con ID asignado.
+     * @return true si se aplicó.
+     */
+    public boolean put(User user) {
+        long stamp = lock.writeLock();
+        try {
+            long msb = user.id().getMostSignificantBits();
+            long lsb = user.id().getLeastSignificantBits();
+            int slot = byId.find(idHash(msb, lsb), s -> idEquals(s, msb, lsb));
+            if (slot >= 0) {
+                long base = slotBase(slot);
+                long storedVersion = slots.getLong(base + VERSION);
+                if (user.version() != null && storedVersion != NULL_LONG && storedVersion > user.version()) {
+                    return false;
+                }
+                String[] previous = readStrings(slot);
+                unindexStrings(slot, previous);
+                garbageBytes += slots.getInt(base + STRINGS_LENGTH);
+            } else {
+                slot = allocateSlot();
+                byId.insert(idHash(msb, lsb), slot);
+                liveCount++;
+            }
+            writeSlot(slot, user);
+            if (user.email() != null) {
+                byEmail.insert(keyHash(user.email()), slot);
+                byEmailHash.insert(emailHashKey(EmailHash.digest(user.email())), slot);
+            }
+            if (user.username() != null) {
+                byUsername.insert(keyHash(user.username()), slot);
+            }
+            if (user.updatedAt() != null) {
+                maxUpdatedAt = Math.max(maxUpdatedAt, user.updatedAt().toEpochMilli());
+            }
+            if (garbageBytes > arenaTop / 2 && arenaTop > arena.chunkSize()) {
+                compactArena();
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Elimina un usuario.
+     *
+     * @param id El UUID del usuario.
+     * @return true si existía.
+     */
+    public boolean remove(UUID id) {
+        long stamp = lock.writeLock();
+        try {
+            long msb = id.getMostSignificantBits();
+            long lsb = id.getLeastSignificantBits();
+            int slot = byId.find(idHash(msb, lsb), s -> idEquals(s, msb, lsb));
+            if (slot < 0) {
+                return false;
+            }
+            long base = slotBase(slot);
+            unindexStrings(slot, readStrings(slot));
+            byId.remove(idHash(msb, lsb), slot);
+            garbageBytes += slots.getInt(base + STRINGS_LENGTH);
+            slots.put(base + FLAGS, (byte) 0);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+            liveCount--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Optional<User> findById(UUID id) {
+        return findById(id, UserProjection.ALL);
+    }
+
+    public Optional<User> findByEmail(String email) {
+        return findByEmail(email, UserProjection.ALL);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        return findByUsername(username, UserProjection.ALL);
+    }
+
+    /**
+     * Lecturas proyectadas: solo se decodifican los textos que la proyección incluye.
+     */
+    public Optional<User> findById(UUID id, UserProjection projection) {
+        return read(() -> {
+            int slot = slotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(readUser(slot, projection));
+        });
+    }
+
+    public Optional<User> findByEmail(String email, UserProjection projection) {
+        return read(() -> {
+            int slot = slotOfKey(byEmail, EMAIL, email);
+            return slot < 0 ? Optional.empty() : Optional.of(readUser(slot, projection));
+        });
+    }
+
+    public Optional<User> findByUsername(String username, UserProjection projection) {
+        return read(() -> {
+            int slot = slotOfKey(byUsername, USERNAME, username);
+            return slot < 0 ? Optional.empty() : Optional.of(readUser(slot, projection));
+        });
+    }
+
+    public boolean existsByEmail(String email) {
+        return read(() -> slotOfKey(byEmail, EMAIL, email) >= 0);
+    }
+
+    public boolean existsByUsername(String username) {
+        return read(() -> slotOfKey(byUsername, USERNAME, username) >= 0);
+    }
+
+    /**
+     * Usernames registrados de entre los dados, en una sola lectura del directorio.
+     *
+     * @param usernames Usernames a comprobar.
+     * @return Los que existen.
+     */
+    public Set<String> existingUsernames(Collection<String> usernames) {
+        return read(() -> {
+            Set<String> existing = new HashSet<>();
+            for (String username : usernames) {
+                if (slotOfKey(byUsername, USERNAME, username) >= 0) {
+                    existing.add(username);
+                }
+            }
+            return existing;
+        });
+    }
+
+    /**
+     * IDs de los usuarios cuyo email tiene alguno de los hashes, en una sola lectura del
+     * directorio: cada hash es una búsqueda en el índice y solo los aciertos leen el email del
+     * slot para confirmarlo.
+     *
+     * @param emailHashes Hashes válidos en hexadecimal (ver {@link EmailHash}).
+     * @return Los hashes encontrados, en minúsculas, con el ID de su usuario.
+     */
+    public Map<String, UUID> idsByEmailHashes(Collection<String> emailHashes) {
+        return read(() -> {
+            Map<String, UUID> ids = new HashMap<>();
+            for (String hash : emailHashes) {
+                byte[] digest = EmailHash.toBytes(hash);
+                int slot = byEmailHash.find(emailHashKey(digest), s -> {
+                    String email = readString(s, EMAIL);
+                    return email != null && Arrays.equals(EmailHash.digest(email), digest);
+                });
+                if (slot >= 0) {
+                    long base = slotBase(slot);
+                    ids.put(hash.toLowerCase(Locale.ROOT), new UUID(slots.getLong(base + ID_MSB), slots.getLong(base + ID_LSB)));
+                }
+            }
+            return ids;
+        });
+    }
+
+    public Optional<UserVersion> findVersionById(UUID id) {
+        return read(() -> {
+            int slot = slotOf(id);
+            return slot < 0 ? Optional.empty() : Optional.of(readVersion(slot));
+        });
+    }
+
+    public Optional<UserVersion> findVersionByUsername(String username) {
+        return read(() -> {
+            int slot = slotOfKey(byUsername, USERNAME, username);
+            return slot < 0 ? Optional.empty() : Optional.of(readVersion(slot));
+        });
+    }
+
+    /**
+     * Todos los usuarios en orden de slot.
+     *
+     * @return Lista de usuarios.
+     */
+    public List<User> findAll() {
+        return findAll(UserProjection.ALL);
+    }
+
+    /**
+     * Todos los usuarios en orden de slot, con solo los campos de la proyección.
+     *
+     * @param projection Campos a leer.
+     * @return Lista de usuarios.
+     */
+    public List<User> findAll(UserProjection projection) {
+        long stamp = lock.readLock();
+        try {
+            List<User> users = new ArrayList<>(liveCount);
+            for (int slot = 0; slot < slotCount; slot++) {
+                if ((slots.get(slotBase(slot) + FLAGS) & LIVE) != 0) {
+                    users.add(readUser(slot, projection));
+                }
+            }
+            return users;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /** Número de usuarios. */
+    public int size() {
+        return read(() -> liveCount);
+    }
+
+    /** Fecha de actualización más reciente vista, o null si el directorio está vacío. */
+    public Instant maxUpdatedAt() {
+        return read(() -> instant(maxUpdatedAt));
+    }
+
+    /** Bytes reservados fuera del heap (slots, arena e índices). */
+    public long offHeapBytes() {
+        return read(() -> slots.capacity() + arena.capacity() + byId.capacity() + byEmail.capacity() + byUsername.capacity()
+                + byEmailHash.capacity());
+    }
+
+    /** Bytes ocupados por los usuarios vigentes (slots, textos y entradas de índice). */
+    public long usedBytes() {
+        return read(() -> (long) liveCount * SLOT_SIZE + (arenaTop - garbageBytes)
+                + 8L * (byId.size() + byEmail.size() + byUsername.size() + byEmailHash.size()));
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Lectura solapada con una escritura: se repite con el bloqueo de lectura.
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private int slotOf(UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        return byId.find(idHash(msb, lsb), s -> idEquals(s, msb, lsb));
+    }
+
+    private int slotOfKey(OffHeapHashIndex index, int field, String key) {
+        if (key == null) {
+            return -1;
+        }
+        return index.find(keyHash(key), s -> key.equalsIgnoreCase(readString(s, field)));
+    }
+
+    private boolean idEquals(int slot, long msb, long lsb) {
+        long base = slotBase(slot);
+        return slots.getLong(base + ID_MSB) == msb && slots.getLong(base + ID_LSB) == lsb;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        slots.ensureCapacity((long) slotCount * SLOT_SIZE);
+        return slot;
+    }
+
+    private void writeSlot(int slot, User user) {
+        long base = slotBase(slot);
+        slots.putLong(base + ID_MSB, user.id().getMostSignificantBits());
+        slots.putLong(base + ID_LSB, user.id().getLeastSignificantBits());
+        slots.putLong(base + BIRTH_DATE, user.birthDate() != null ? user.birthDate().toEpochDay() : NULL_LONG);
+        slots.putLong(base + CREATED_AT, epochMilli(user.createdAt()));
+        slots.putLong(base + UPDATED_AT, epochMilli(user.updatedAt()));
+        slots.putLong(base + VERSION, user.version() != null ? user.version() : NULL_LONG);
+
+        byte[] record = encodeStrings(user.name(), user.lastname(), user.username(), user.email(), user.provider());
+        long ref = appendToArena(record);
+        slots.putLong(base + STRINGS_REF, ref);
+        slots.putInt(base + STRINGS_LENGTH, record.length);
+        slots.put(base + FLAGS, (byte) (LIVE | (user.active() ? ACTIVE : 0)));
+    }
+
+    private User readUser(int slot, UserProjection projection) {
+        long base = slotBase(slot);
+        String[] strings = readStrings(slot, projection);
+        return new User(
+                projection.includes(UserField.ID) ? new UUID(slots.getLong(base + ID_MSB), slots.getLong(base + ID_LSB)) : null,
+                strings[NAME],
+                strings[LASTNAME],
+                projection.includes(UserField.BIRTH_DATE) ? localDate(slots.getLong(base + BIRTH_DATE)) : null,
+                strings[USERNAME],
+                strings[EMAIL],
+                strings[PROVIDER],
+                projection.includes(UserField.ACTIVE) && (slots.get(base + FLAGS) & ACTIVE) != 0,
+                projection.includes(UserField.CREATED_AT) ? instant(slots.getLong(base + CREATED_AT)) : null,
+                projection.includes(UserField.UPDATED_AT) ? instant(slots.getLong(base + UPDATED_AT)) : null,
+                projection.includes(UserField.VERSION) ? version(slots.getLong(base + VERSION)) : null
+        );
+    }
+
+    private UserVersion readVersion(int slot) {
+        long base = slotBase(slot);
+        return new UserVersion(
+                new UUID(slots.getLong(base + ID_MSB), slots.getLong(base + ID_LSB)),
+                instant(slots.getLong(base + UPDATED_AT)),
+                version(slots.getLong(base + VERSION)));
+    }
+
+    private String[] readStrings(int slot) {
+        return readStrings(slot, UserProjection.ALL);
+    }
+
+    private String[] readStrings(int slot, UserProjection projection) {
+        long base = slotBase(slot);
+        long position = slots.getLong(base + STRINGS_REF);
+        int recordLength = slots.getInt(base + STRINGS_LENGTH);
+        String[] values = new String[STRING_FIELDS];
+        for (int field = 0; field < STRING_FIELDS; field++) {
+            int length = arena.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                if (projection.includes(STRING_FIELD_NAMES[field])) {
+                    values[field] = decode(position, length, recordLength);
+                }
+                position += length;
+            }
+        }
+        return values;
+    }
+
+    private String readString(int slot, int field) {
+        long base = slotBase(slot);
+        long position = slots.getLong(base + STRINGS_REF);
+        int recordLength = slots.getInt(base + STRINGS_LENGTH);
+        for (int i = 0; i < field; i++) {
+            position += 4 + Math.max(0, arena.getInt(position));
+        }
+        int length = arena.getInt(position);
+        return length < 0 ? null : decode(position + 4, length, recordLength);
+    }
+
+    private String decode(long position, int length, int recordLength) {
+        if (length > recordLength || length > arena.chunkSize()) {
+            // Solo ocurre si la lectura optimista se solapa con una escritura.
+            throw new IllegalStateException("Registro de textos inconsistente");
+        }
+        byte[] bytes = new byte[length];
+        arena.get(position, bytes, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void unindexStrings(int slot, String[] strings) {
+        if (strings[EMAIL] != null) {
+            byEmail.remove(keyHash(strings[EMAIL]), slot);
+            byEmailHash.remove(emailHashKey(EmailHash.digest(strings[EMAIL])), slot);
+        }
+        if (strings[USERNAME] != null) {
+            byUsername.remove(keyHash(strings[USERNAME]), slot);
+        }
+    }
+
+    private long appendToArena(byte[] record) {
+        if (record.length > arena.chunkSize()) {
+            throw new IllegalArgumentException("Los textos del usuario superan el tamaño de bloque del directorio");
+        }
+        if (arena.remainingInChunk(arenaTop) < record.length) {
+            garbageBytes += arena.remainingInChunk(arenaTop);
+            arenaTop = arena.nextChunkStart(arenaTop);
+        }
+        arena.ensureCapacity(arenaTop + record.length);
+        long ref = arenaTop;
+        arena.put(ref, record);
+        arenaTop += record.length;
+        return ref;
+    }
+
+    private void compactArena() {
+        OffHeapSegments previous = arena;
+        arena = new OffHeapSegments(chunkBits);
+        arenaTop = 0;
+        garbageBytes = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            long base = slotBase(slot);
+            if ((slots.get(base + FLAGS) & LIVE) == 0) {
+                continue;
+            }
+            int length = slots.getInt(base + STRINGS_LENGTH);
+            byte[] record = new byte[length];
+            previous.get(slots.getLong(base + STRINGS_REF), record, length);
+            slots.putLong(base + STRINGS_REF, appendToArena(record));
+        }
+    }
+
+    private static byte[] encodeStrings(String... values) {
+        byte[][] encoded = new byte[values.length][];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i] != null ? values[i].getBytes(StandardCharsets.UTF_8) : null;
+            size += 4 + (encoded[i] != null ? encoded[i].length : 0);
+        }
+        ByteBuffer record = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[] value : encoded) {
+            record.putInt(value != null ? value.length : -1);
+            if (value != null) {
+                record.put(value);
+            }
+        }
+        return record.array();
+    }
+
+    private static long slotBase(int slot) {
+        return (long) slot * SLOT_SIZE;
+    }
+
+    private static int idHash(long msb, long lsb) {
+        return mix(Long.hashCode(msb ^ lsb));
+    }
+
+    private static int keyHash(String key) {
+        return mix(key.toLowerCase(Locale.ROOT).hashCode());
+    }
+
+    /** Los primeros 4 bytes del SHA-256 ya están bien repartidos y no necesitan mezcla. */
+    private static int emailHashKey(byte[] digest) {
+        return (digest[0] & 0xFF) << 24 | (digest[1] & 0xFF) << 16 | (digest[2] & 0xFF) << 8 | (digest[3] & 0xFF);
+    }
+
+    /** Mezcla final de MurmurHash3, para repartir bien los hashes de String en el sondeo lineal. */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static long epochMilli(Instant instant) {
+        return instant != null ? instant.toEpochMilli() : NULL_LONG;
+    }
+
+    private static Instant instant(long epochMilli) {
+        return epochMilli == NULL_LONG ? null : Instant.ofEpochMilli(epochMilli);
+    }
+
+    private static LocalDate localDate(long epochDay) {
+        return epochDay == NULL_LONG ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static Long version(long value) {
+        return value == NULL_LONG ? null : value;
+    }
+}
@@ -0,0 +1,133 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuración del directorio de usuarios fuera del heap.
+ * Con {@code legendme.directory.enabled=true} el puerto UserRepository que reciben los servicios
+ * es {@link OffHeapUserRepository}, que envuelve la implementación JPA o particionada.
+ * Con {@code legendme.directory.snapshot-path} el directorio se restaura al arrancar desde el
+ * último snapshot y se vuelve a volcar periódicamente y al apagar el servicio.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(UserDirectoryProperties.class)
+@ConditionalOnProperty(prefix = "legendme.directory", name = "enabled", havingValue = "true")
+public class UserDirectoryConfig {
+
+    /**
+     * Crea el directorio vacío.
+     *
+     * @param properties Configuración del directorio.
+     * @return El directorio fuera del heap.
+     */
+    @Bean
+    OffHeapUserStore offHeapUserStore(UserDirectoryProperties properties) {
+        return new OffHeapUserStore(properties.chunkBits(), properties.expectedUsers());
+    }
+
+    /**
+     * Expone el directorio como implementación principal del puerto.
+     *
+     * @param store      Repositorio con acceso al almacenamiento.
+     * @param directory  Directorio fuera del heap.
+     * @param properties Configuración del directorio.
+     * @return El modelo de lectura.
+     */
+    @Bean
+    @Primary
+    OffHeapUserRepository offHeapUserRepository(@Qualifier(UserRepository.STORE) UserRepository store,
+                                                OffHeapUserStore directory, UserDirectoryProperties properties) {
+        return new OffHeapUserRepository(store, directory, properties.catchUpOverlap(), properties.loadPageSize());
+    }
+
+    /**
+     * Hilo que lee periódicamente los cambios hechos por otros nodos.
+     *
+     * @return El planificador.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    ScheduledExecutorService userDirectoryRefresher() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-directory-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Carga el directorio al arrancar (desde el snapshot si existe), después del mantenimiento de
+     * shards, y programa la lectura de cambios y los snapshots.
+     *
+     * @param repository Modelo de lectura.
+     * @param userDirectoryRefresher Planificador de la lectura de cambios.
+     * @param properties Configuración del directorio.
+     * @return El runner de carga.
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    ApplicationRunner userDirectoryLoader(OffHeapUserRepository repository, ScheduledExecutorService userDirectoryRefresher,
+                                          UserDirectoryProperties properties) {
+        return args -> {
+            Path snapshot = properties.snapshotFile();
+            repository.warmUp(snapshot);
+            long interval = properties.refreshInterval().toMillis();
+            userDirectoryRefresher.scheduleWithFixedDelay(() -> {
+                try {
+                    repository.refresh();
+                } catch (Exception e) {
+                    log.warn("No se pudieron leer los cambios de usuarios para el directorio: {}", e.getMessage());
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+            if (snapshot != null) {
+                long snapshotInterval = properties.snapshotInterval().toMillis();
+                userDirectoryRefresher.scheduleWithFixedDelay(() -> writeSnapshot(repository, snapshot),
+                        snapshotInterval, snapshotInterval, TimeUnit.MILLISECONDS);
+            }
+        };
+    }
+
+    /**
+     * Escribe un último snapshot al cerrar el contexto, antes de destruir los beans, para que
+     * el siguiente arranque solo tenga que leer los cambios hechos durante el despliegue.
+     *
+     * @param repository Modelo de lectura.
+     * @param properties Configuración del directorio.
+     * @return El listener de cierre.
+     */
+    @Bean
+    ApplicationListener<ContextClosedEvent> userDirectoryShutdownSnapshot(OffHeapUserRepository repository,
+                                                                         UserDirectoryProperties properties) {
+        return event -> {
+            Path snapshot = properties.snapshotFile();
+            if (snapshot != null) {
+                writeSnapshot(repository, snapshot);
+            }
+        };
+    }
+
+    private static void writeSnapshot(OffHeapUserRepository repository, Path snapshot) {
+        try {
+            repository.snapshot(snapshot);
+        } catch (Exception e) {
+            log.warn("No se pudo escribir el snapshot del directorio en {}: {}", snapshot, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuración del directorio de usuarios en memoria fuera del heap.
+ *
+ * @param enabled         activa el directorio como modelo de lectura delante del repositorio
+ * @param chunkSize       tamaño de cada bloque de memoria reservado (potencia de dos)
+ * @param expectedUsers   usuarios esperados, para dimensionar los índices desde el arranque
+ * @param refreshInterval cada cuánto se leen de la base los cambios hechos por otros nodos
+ * @param catchUpOverlap  margen hacia atrás sobre la última fecha de actualización vista, para
+ *                        no perder filas confirmadas con un updated_at anterior al de otras ya leídas
+ * @param snapshotPath     fichero del snapshot del directorio; vacío desactiva los snapshots
+ * @param snapshotInterval cada cuánto se escribe el snapshot (además de al apagar el servicio)
+ * @param loadPageSize     usuarios leídos de la base por consulta en la carga inicial y en cada
+ *                         lectura de cambios (paginadas por id)
+ */
+@ConfigurationProperties(prefix = "legendme.directory")
+public record UserDirectoryProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("16MB") DataSize chunkSize,
+        @DefaultValue("100000") int expectedUsers,
+        @DefaultValue("5s") Duration refreshInterval,
+        @DefaultValue("2s") Duration catchUpOverlap,
+        String snapshotPath,
+        @DefaultValue("5m") Duration snapshotInterval,
+        @DefaultValue("1000") int loadPageSize
+) {
+
+    /**
+     * Fichero del snapshot, si está configurado.
+     *
+     * @return La ruta del snapshot, o null si los snapshots están desactivados.
+     */
+    public Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    /**
+     * log2 del tamaño de bloque.
+     *
+     * @return Bits de desplazamiento del bloque.
+     * @throws IllegalArgumentException si el tamaño no es potencia de dos.
+     */
+    public int chunkBits() {
+        long bytes = chunkSize.toBytes();
+        if (Long.bitCount(bytes) != 1) {
+            throw new IllegalArgumentException("legendme.directory.chunk-size debe ser potencia de dos: " + chunkSize);
+        }
+        return Long.numberOfTrailingZeros(bytes);
+    }
+}
@@ -0,0 +1,268 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot binario de {@link OffHeapUserStore} en un fichero mapeado en memoria.
+ *
+ * <p>Formato (little-endian), versión {@value #FORMAT_VERSION}:</p>
+ * <pre>
+ * cabecera (4096 bytes)
+ *   0  int  magic "LMUD"           4  int  versión del formato
+ *   8  int  chunkBits             12  int  slots usados
+ *  16  int  usuarios vigentes     20  int  slots libres
+ *  24  long tope del arena        32  long bytes huérfanos del arena
+ *  40  long watermark (max updated_at, epoch ms)
+ *  48  long fecha de escritura    56  int[4] entradas de los índices id/email/username/hash del email
+ *  72  int  bloques de slots      76  int  bloques del arena     80  int nº de secciones
+ *  88  por sección: long longitud, int CRC32C, int reservado
+ * 200  int  CRC32C de los bytes [0, 200)
+ * secciones, cada una alineada a 4096 bytes:
+ *   slots (bloques completos), arena (bloques completos), slots libres (int[]),
+ *   tabla del índice por id, por email, por username y por hash del email
+ * </pre>
+ *
+ * <p>La escritura se hace en un fichero temporal que sustituye al anterior con un movimiento
+ * atómico. La carga mapea cada bloque en modo {@link FileChannel.MapMode#PRIVATE}: el directorio
+ * usa las páginas del fichero sin copiarlas y las escrituras posteriores solo copian las páginas
+ * que modifican. Un fichero con otra versión del formato o con un checksum incorrecto se rechaza.</p>
+ */
+public final class UserDirectorySnapshot {
+
+    static final int MAGIC = 0x44554D4C;
+    static final int FORMAT_VERSION = 3;
+
+    private static final int HEADER_SIZE = 4096;
+    private static final int SECTION_TABLE = 88;
+    private static final int SECTIONS = 7;
+    private static final int HEADER_CRC = SECTION_TABLE + SECTIONS * 16;
+    private static final int ALIGNMENT = 4096;
+
+    private UserDirectorySnapshot() {
+    }
+
+    /**
+     * Escribe el snapshot del directorio a partir de una captura de su estado; las escrituras del
+     * directorio no esperan al fichero ni a los checksums (ver {@link OffHeapUserStore#readState}).
+     *
+     * @param store Directorio a volcar.
+     * @param path  Fichero destino; se reemplaza de forma atómica.
+     * @throws IOException si falla la escritura.
+     */
+    public static void write(OffHeapUserStore store, Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try {
+            store.readState(state -> {
+                try {
+                    writeState(state, tmp);
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga un directorio desde un snapshot.
+     *
+     * @param path Fichero del snapshot.
+     * @return El directorio restaurado.
+     * @throws IOException           si falla la lectura.
+     * @throws IllegalStateException si el fichero no es un snapshot válido de esta versión.
+     */
+    public static OffHeapUserStore load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IllegalStateException("Snapshot truncado: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new IllegalStateException("El fichero no es un snapshot del directorio: " + path);
+            }
+            if (header.getInt(4) != FORMAT_VERSION) {
+                throw new IllegalStateException("Versión de snapshot no soportada: " + header.getInt(4));
+            }
+            if (header.getInt(HEADER_CRC) != crc(header.duplicate().position(0).limit(HEADER_CRC))) {
+                throw new IllegalStateException("Checksum de cabecera incorrecto: " + path);
+            }
+
+            int chunkBits = header.getInt(8);
+            int chunkSize = 1 << chunkBits;
+            int freeCount = header.getInt(20);
+            int slotChunks = header.getInt(72);
+            int arenaChunks = header.getInt(76);
+            if (header.getInt(80) != SECTIONS) {
+                throw new IllegalStateException("Número de secciones inesperado: " + header.getInt(80));
+            }
+
+            long position = HEADER_SIZE;
+            List<ByteBuffer> sections = new ArrayList<>();
+            ByteBuffer[] slotBuffers = new ByteBuffer[slotChunks];
+            ByteBuffer[] arenaBuffers = new ByteBuffer[arenaChunks];
+            long[] lengths = new long[SECTIONS];
+            for (int i = 0; i < SECTIONS; i++) {
+                lengths[i] = header.getLong(SECTION_TABLE + i * 16);
+            }
+            if (lengths[0] != (long) slotChunks * chunkSize || lengths[1] != (long) arenaChunks * chunkSize
+                    || lengths[2] != 4L * freeCount) {
+                throw new IllegalStateException("Longitudes de sección inconsistentes: " + path);
+            }
+            long end = HEADER_SIZE;
+            for (long length : lengths) {
+                end = align(end) + length;
+            }
+            if (channel.size() < end) {
+                throw new IllegalStateException("Snapshot truncado: " + path);
+            }
+
+            for (int section = 0; section < SECTIONS; section++) {
+                CRC32C crc = new CRC32C();
+                List<ByteBuffer> parts = new ArrayList<>();
+                if (section <= 1) {
+                    ByteBuffer[] target = section == 0 ? slotBuffers : arenaBuffers;
+                    for (int c = 0; c < target.length; c++) {
+                        target[c] = map(channel, position + (long) c * chunkSize, chunkSize);
+                        parts.add(target[c]);
+                    }
+                } else if (lengths[section] > 0) {
+                    parts.add(map(channel, position, lengths[section]));
+                }
+                for (ByteBuffer part : parts) {
+                    crc.update(part.duplicate().clear());
+                }
+                if ((int) crc.getValue() != header.getInt(SECTION_TABLE + section * 16 + 8)) {
+                    throw new IllegalStateException("Checksum incorrecto en la sección " + section + ": " + path);
+                }
+                sections.add(parts.isEmpty() ? ByteBuffer.allocate(0) : parts.get(0));
+                position = align(position + lengths[section]);
+            }
+
+            int[] freeSlots = new int[freeCount];
+            sections.get(2).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(freeSlots);
+
+            return new OffHeapUserStore(new OffHeapUserStore.State(
+                    chunkBits,
+                    new OffHeapSegments(chunkBits, slotBuffers),
+                    new OffHeapSegments(chunkBits, arenaBuffers),
+                    new OffHeapHashIndex(sections.get(3), header.getInt(56)),
+                    new OffHeapHashIndex(sections.get(4), header.getInt(60)),
+                    new OffHeapHashIndex(sections.get(5), header.getInt(64)),
+                    new OffHeapHashIndex(sections.get(6), header.getInt(68)),
+                    header.getInt(12),
+                    header.getInt(16),
+                    freeSlots,
+                    header.getLong(24),
+                    header.getLong(32),
+                    header.getLong(40)));
+        }
+    }
+
+    private static void writeState(OffHeapUserStore.State state, Path tmp) throws IOException {
+        List<List<ByteBuffer>> sections = List.of(
+                chunks(state.slots()),
+                chunks(state.arena()),
+                List.of(freeSlots(state.freeSlots())),
+                List.of(state.byId().table()),
+                List.of(state.byEmail().table()),
+                List.of(state.byUsername().table()),
+                List.of(state.byEmailHash().table()));
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long[] lengths = new long[SECTIONS];
+            int[] crcs = new int[SECTIONS];
+            long position = HEADER_SIZE;
+            for (int section = 0; section < SECTIONS; section++) {
+                CRC32C crc = new CRC32C();
+                long start = position;
+                for (ByteBuffer part : sections.get(section)) {
+                    ByteBuffer source = part.duplicate().clear();
+                    int length = source.remaining();
+                    if (length == 0) {
+                        continue;
+                    }
+                    crc.update(source.duplicate());
+                    MappedByteBuffer target = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+                    target.put(source);
+                    target.force();
+                    position += length;
+                }
+                lengths[section] = position - start;
+                crcs[section] = (int) crc.getValue();
+                position = align(position);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            ByteBuffer header = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(0, MAGIC);
+            header.putInt(4, FORMAT_VERSION);
+            header.putInt(8, state.chunkBits());
+            header.putInt(12, state.slotCount());
+            header.putInt(16, state.liveCount());
+            header.putInt(20, state.freeSlots().length);
+            header.putLong(24, state.arenaTop());
+            header.putLong(32, state.garbageBytes());
+            header.putLong(40, state.maxUpdatedAt());
+            header.putLong(48, System.currentTimeMillis());
+            header.putInt(56, state.byId().size());
+            header.putInt(60, state.byEmail().size());
+            header.putInt(64, state.byUsername().size());
+            header.putInt(68, state.byEmailHash().size());
+            header.putInt(72, state.slots().chunkCount());
+            header.putInt(76, state.arena().chunkCount());
+            header.putInt(80, SECTIONS);
+            for (int section = 0; section < SECTIONS; section++) {
+                header.putLong(SECTION_TABLE + section * 16, lengths[section]);
+                header.putInt(SECTION_TABLE + section * 16 + 8, crcs[section]);
+            }
+            header.putInt(HEADER_CRC, crc(header.duplicate().position(0).limit(HEADER_CRC)));
+            mapped.force();
+        }
+    }
+
+    private static List<ByteBuffer> chunks(OffHeapSegments segments) {
+        List<ByteBuffer> chunks = new ArrayList<>(segments.chunkCount());
+        for (int i = 0; i < segments.chunkCount(); i++) {
+            chunks.add(segments.chunk(i));
+        }
+        return chunks;
+    }
+
+    private static ByteBuffer freeSlots(int[] slots) {
+        ByteBuffer buffer = ByteBuffer.allocate(slots.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(slots);
+        return buffer;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.PRIVATE, position, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int crc(ByteBuffer bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    private static long align(long position) {
+        return (position + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
@@ -0,0 +1,214 @@
+package com.legendme.users.svc.application.hotusers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detector de claves más consultadas (heavy hitters) en memoria fija.
+ *
+ * <p>Cuenta las apariciones de cada clave en un Count-Min sketch de {@code depth} filas de
+ * {@code width} contadores y mantiene aparte las {@code capacity} claves con mayor estimación.
+ * El camino de cada lectura no toma locks: {@code depth} incrementos atómicos y, para las claves
+ * que ya están en el top-K, una consulta a un conjunto concurrente. Solo una clave que supera la
+ * estimación más baja del top-K intenta entrar, con un {@code tryLock} que se abandona si otro hilo
+ * está haciendo lo mismo (el resultado es aproximado de todas formas).</p>
+ *
+ * <p>{@link #decay()} divide todos los contadores entre dos, de modo que la estimación es un
+ * recuento con decaimiento exponencial y una clave que deja de consultarse sale del top-K. Los
+ * incrementos concurrentes con el decaimiento pueden perderse. La memoria es
+ * {@code 4 × width × depth} bytes más las {@code capacity} claves.</p>
+ *
+ * @param <K> Tipo de la clave; su {@code hashCode} se mezcla antes de elegir los contadores.
+ */
+public final class HeavyHitterSketch<K> {
+
+    /** Una clave del top-K y su recuento estimado. */
+    public record Entry<K>(K key, int count) {}
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final int capacity;
+    private final int minCount;
+    private final AtomicIntegerArray counters;
+    private final Set<K> candidates;
+    private final LongAdder total = new LongAdder();
+    private final ReentrantLock admission = new ReentrantLock();
+
+    /** Estimación más baja del top-K lleno; una clave nueva debe superarla para entrar. */
+    private volatile int threshold;
+
+    /**
+     * @param capacity Claves que se siguen (K).
+     * @param width    Contadores por fila (potencia de dos).
+     * @param depth    Filas; más filas reducen la sobreestimación por colisiones.
+     * @param minCount Recuento estimado mínimo para considerar caliente una clave del top-K.
+     */
+    public HeavyHitterSketch(int capacity, int width, int depth, int minCount) {
+        if (capacity < 1 || depth < 1 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch inválido: capacity=" + capacity + ", width=" + width + ", depth=" + depth);
+        }
+        this.capacity = capacity;
+        this.width = width;
+        this.mask = width - 1;
+        this.depth = depth;
+        this.minCount = minCount;
+        this.counters = new AtomicIntegerArray(width * depth);
+        this.candidates = ConcurrentHashMap.newKeySet(capacity * 2);
+    }
+
+    /**
+     * Registra una aparición de la clave.
+     *
+     * @param key Clave consultada.
+     * @return true si la clave está en el top-K con al menos {@code minCount} apariciones.
+     */
+    public boolean add(K key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int count = counters.incrementAndGet(row * width + ((h1 + row * h2) & mask));
+            if (count < estimate) {
+                estimate = count;
+            }
+        }
+        total.increment();
+        if (candidates.contains(key)) {
+            return estimate >= minCount;
+        }
+        if (estimate <= threshold) {
+            return false;
+        }
+        return admit(key, estimate);
+    }
+
+    /**
+     * Indica si la clave sigue caliente, sin registrar una aparición.
+     *
+     * @param key Clave.
+     * @return true si está en el top-K con al menos {@code minCount} apariciones estimadas.
+     */
+    public boolean isHot(K key) {
+        return candidates.contains(key) && estimate(key) >= minCount;
+    }
+
+    /**
+     * Recuento estimado de una clave (nunca menor que el real salvo por el decaimiento).
+     *
+     * @param key Clave.
+     * @return El mínimo de sus contadores.
+     */
+    public int estimate(K key) {
+        long hash = mix(key.hashCode());
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(row * width + ((h1 + row * h2) & mask)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Divide entre dos todos los contadores y el total, y recalcula el umbral de entrada.
+     * Las claves cuya estimación llega a cero salen del top-K.
+     */
+    public void decay() {
+        for (int i = 0, n = counters.length(); i < n; i++) {
+            int count = counters.get(i);
+            if (count != 0) {
+                counters.set(i, count >>> 1);
+            }
+        }
+        total.add(-((total.sum() + 1) >>> 1));
+        admission.lock();
+        try {
+            candidates.removeIf(key -> estimate(key) == 0);
+            threshold = lowest();
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    /**
+     * Top-K actual ordenado por recuento estimado descendente.
+     *
+     * @return Copia de las claves seguidas y sus estimaciones.
+     */
+    public List<Entry<K>> top() {
+        List<Entry<K>> top = new ArrayList<>(capacity);
+        for (K key : candidates) {
+            top.add(new Entry<>(key, estimate(key)));
+        }
+        top.sort(Comparator.comparingInt(Entry<K>::count).reversed());
+        return top;
+    }
+
+    /**
+     * Apariciones registradas, con el mismo decaimiento que los contadores.
+     *
+     * @return El total aproximado.
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    private boolean admit(K key, int estimate) {
+        if (!admission.tryLock()) {
+            return false;
+        }
+        try {
+            if (candidates.size() >= capacity) {
+                K victim = null;
+                int lowest = Integer.MAX_VALUE;
+                for (K candidate : candidates) {
+                    int count = estimate(candidate);
+                    if (count < lowest) {
+                        lowest = count;
+                        victim = candidate;
+                    }
+                }
+                if (estimate <= lowest) {
+                    threshold = lowest;
+                    return false;
+                }
+                candidates.remove(victim);
+            }
+            candidates.add(key);
+            threshold = candidates.size() >= capacity ? lowest() : 0;
+            return estimate >= minCount;
+        } finally {
+            admission.unlock();
+        }
+    }
+
+    private int lowest() {
+        if (candidates.size() < capacity) {
+            return 0;
+        }
+        int lowest = Integer.MAX_VALUE;
+        for (K candidate : candidates) {
+            lowest = Math.min(lowest, estimate(candidate));
+        }
+        return lowest;
+    }
+
+    /** Finalizador de MurmurHash3 sobre el hash de 32 bits de la clave. */
+    private static long mix(int hashCode) {
+        long h = hashCode * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
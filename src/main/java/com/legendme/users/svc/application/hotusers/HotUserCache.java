@@ -0,0 +1,177 @@
+package com.legendme.users.svc.application.hotusers;
+
+import com.legendme.users.svc.domain.model.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Usuarios calientes: los más leídos por ID y por username, y una caché que los mantiene fijados.
+ *
+ * <p>Cada lectura de {@code FindUserService} se registra en un {@link HeavyHitterSketch} por tipo
+ * de clave. Mientras una clave está en el top-K con al menos {@code minHits} lecturas recientes, su
+ * usuario completo se guarda aquí y las lecturas siguientes (con cualquier proyección) no llegan al
+ * repositorio. La caché no tiene otra política de expulsión: un usuario fijado solo sale cuando deja
+ * de estar caliente (en el decaimiento periódico), cuando este nodo lo modifica o cuando supera
+ * {@code pinTtl}, que acota la antigüedad frente a cambios hechos en otros nodos. Su tamaño lo
+ * limita el propio top-K.</p>
+ *
+ * <p>Una lectura que empezó antes de una invalidación no fija su resultado, para que un usuario
+ * leído justo antes de una escritura no vuelva a la caché después de ella.</p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(HotUserProperties.class)
+public class HotUserCache {
+
+    /** Estado del detector para el endpoint de actuator. */
+    public record Report(long idLookups, List<HeavyHitterSketch.Entry<UUID>> ids,
+                         long usernameLookups, List<HeavyHitterSketch.Entry<String>> usernames,
+                         int pinnedIds, int pinnedUsernames) {}
+
+    private record Pinned(User user, long loadedAt) {}
+
+    private final HotUserProperties properties;
+    private final HeavyHitterSketch<UUID> ids;
+    private final HeavyHitterSketch<String> usernames;
+    private final Map<UUID, Pinned> byId = new ConcurrentHashMap<>();
+    private final Map<String, Pinned> byUsername = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final long pinTtlNanos;
+    private final ScheduledExecutorService decay;
+
+    /**
+     * Constructor para la inyección de dependencias; programa el decaimiento si está activo.
+     *
+     * @param properties Configuración del detector y de la caché.
+     */
+    public HotUserCache(HotUserProperties properties) {
+        this.properties = properties;
+        this.ids = new HeavyHitterSketch<>(properties.capacity(), properties.width(), properties.depth(), properties.minHits());
+        this.usernames = new HeavyHitterSketch<>(properties.capacity(), properties.width(), properties.depth(), properties.minHits());
+        this.pinTtlNanos = properties.pinTtl().toNanos();
+        if (properties.enabled()) {
+            this.decay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "hot-users-decay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = properties.decayInterval().toMillis();
+            decay.scheduleWithFixedDelay(this::decay, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.decay = null;
+        }
+    }
+
+    /**
+     * Registra una lectura por ID.
+     *
+     * @param id UUID consultado.
+     * @return true si la clave está caliente y la lectura debe resolverse con {@link #byId}.
+     */
+    public boolean recordId(UUID id) {
+        return properties.enabled() && ids.add(id);
+    }
+
+    /**
+     * Registra una lectura por username.
+     *
+     * @param username Username consultado, ya en minúsculas.
+     * @return true si la clave está caliente y la lectura debe resolverse con {@link #byUsername}.
+     */
+    public boolean recordUsername(String username) {
+        return properties.enabled() && usernames.add(username);
+    }
+
+    /**
+     * Usuario caliente por ID: el fijado si está vigente, o el leído del repositorio (que queda fijado).
+     *
+     * @param id     UUID consultado.
+     * @param loader Lectura completa del usuario en el repositorio.
+     * @return El usuario completo, o vacío si no existe.
+     */
+    public Optional<User> byId(UUID id, Supplier<Optional<User>> loader) {
+        return lookup(byId, id, loader);
+    }
+
+    /**
+     * Usuario caliente por username: el fijado si está vigente, o el leído del repositorio (que queda fijado).
+     *
+     * @param username Username consultado, ya en minúsculas.
+     * @param loader   Lectura completa del usuario en el repositorio.
+     * @return El usuario completo, o vacío si no existe.
+     */
+    public Optional<User> byUsername(String username, Supplier<Optional<User>> loader) {
+        return lookup(byUsername, username, loader);
+    }
+
+    /**
+     * Quita de la caché un usuario modificado por este nodo.
+     *
+     * @param id UUID del usuario modificado.
+     */
+    public void invalidate(UUID id) {
+        if (id == null || !properties.enabled()) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        byId.remove(id);
+        byUsername.values().removeIf(pinned -> id.equals(pinned.user().id()));
+    }
+
+    /**
+     * Top-K de cada tipo de clave y usuarios fijados.
+     *
+     * @return Foto del estado actual.
+     */
+    public Report report() {
+        return new Report(ids.total(), ids.top(), usernames.total(), usernames.top(), byId.size(), byUsername.size());
+    }
+
+    private <K> Optional<User> lookup(Map<K, Pinned> pinned, K key, Supplier<Optional<User>> loader) {
+        Pinned entry = pinned.get(key);
+        if (entry != null && System.nanoTime() - entry.loadedAt() < pinTtlNanos) {
+            return Optional.of(entry.user());
+        }
+        long stamp = invalidations.get();
+        long loadedAt = System.nanoTime();
+        Optional<User> user = loader.get();
+        if (user.isPresent() && invalidations.get() == stamp) {
+            pinned.put(key, new Pinned(user.get(), loadedAt));
+        } else {
+            pinned.remove(key);
+        }
+        return user;
+    }
+
+    private void decay() {
+        try {
+            ids.decay();
+            usernames.decay();
+            byId.keySet().removeIf(id -> !ids.isHot(id));
+            byUsername.keySet().removeIf(username -> !usernames.isHot(username));
+        } catch (Exception e) {
+            log.warn("No se pudo aplicar el decaimiento de usuarios calientes: {}", e.getMessage());
+        }
+    }
+
+    /** Detiene el hilo de decaimiento al cerrar el contexto. */
+    @PreDestroy
+    void close() {
+        if (decay != null) {
+            decay.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.legendme.users.svc.application.hotusers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la detección de usuarios calientes y de su caché fijada.
+ *
+ * @param enabled       activa el recuento de lecturas por ID y por username
+ * @param capacity      usuarios calientes que se siguen por cada tipo de clave (top-K)
+ * @param width         contadores por fila del sketch (potencia de dos)
+ * @param depth         filas del sketch
+ * @param minHits       lecturas estimadas (con decaimiento) para fijar un usuario del top-K en la caché
+ * @param decayInterval cada cuánto se dividen los recuentos entre dos
+ * @param pinTtl        antigüedad máxima de un usuario fijado; acota cuánto tarda en verse un cambio
+ *                      hecho en otro nodo (los cambios de este nodo lo invalidan al momento)
+ */
+@ConfigurationProperties(prefix = "legendme.hot-users")
+public record HotUserProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("32") int capacity,
+        @DefaultValue("4096") int width,
+        @DefaultValue("4") int depth,
+        @DefaultValue("64") int minHits,
+        @DefaultValue("30s") Duration decayInterval,
+        @DefaultValue("1s") Duration pinTtl
+) {}
@@ -1,9 +1,19 @@
 package com.legendme.users.svc.application.port.out;
 
 import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.domain.model.UserVersion;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -18,14 +28,67 @@ import java.util.UUID;
  */
 
 public interface UserRepository {
+
+    /**
+     * Calificador de la implementación que accede al almacenamiento (JPA o particionada),
+     * para distinguirla de los decoradores que la envuelven.
+     */
+    String STORE = "userStore";
+
     User save(User user, String password);
     Optional<User>  findById(UUID id);
     Optional<User> findByEmail(String email);
     Optional<User> findByUsername(String username);
     List<User> findAll();
+    List<User> findUpdatedSince(Instant since);
+
+    /*
+     * Recorrido por páginas con keyset por id (en el orden de la base): hasta limit usuarios con
+     * id mayor que after (null para la primera página), todos o solo los actualizados desde since.
+     * Permiten copiar la tabla sin tenerla entera en memoria.
+     */
+    List<User> findPage(UUID after, int limit);
+    List<User> findUpdatedSince(Instant since, UUID after, int limit);
+
+    /*
+     * Lecturas que solo cargan los campos de la proyección; el resto llega a null (o false).
+     * Con UserProjection.ALL equivalen a las lecturas completas.
+     */
+    Optional<User> findById(UUID id, UserProjection projection);
+    Optional<User> findByEmail(String email, UserProjection projection);
+    Optional<User> findByUsername(String username, UserProjection projection);
+    List<User> findAll(UserProjection projection);
+
+    UserTableVersion tableVersion();
+
+    /*
+     * Recuentos para reconciliar las estadísticas: usuarios por proveedor y estado, y altas por
+     * día (en la zona horaria de la JVM, la de las fechas guardadas) desde una fecha.
+     */
+    List<UserCount> countByProviderAndActive();
+    Map<LocalDate, Long> countSignupsPerDay(Instant since);
+
     void delete(UUID id);
 
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
 
+    /*
+     * Cuáles de los usernames (ya en minúsculas) están registrados, en una sola consulta.
+     */
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    /*
+     * IDs de los usuarios cuyo email tiene alguno de los hashes (ver EmailHash), en una sola
+     * consulta; las claves del resultado son los hashes encontrados, en hexadecimal en minúsculas.
+     * El llamante limita el tamaño de cada lote.
+     */
+    Map<String, UUID> findIdsByEmailHashes(Collection<String> emailHashes);
+
+    Optional<UserVersion> findVersionById(UUID id);
+    Optional<UserVersion> findVersionByUsername(String username);
+
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+    boolean updatePasswordHash(UUID id, String currentHash, String newHash);
+
 }
@@ -0,0 +1,62 @@
+package com.legendme.users.svc.application.port.out;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Puerto de salida para los contadores persistidos de las estadísticas de usuarios.
+ * Cada contador se reparte en varias filas (slots) para que los nodos que suman a la vez no
+ * compitan por el mismo bloqueo de fila; su valor es la suma de sus slots.
+ *
+ * <p>Cada slot guarda además la última reconciliación. Una suma bloquea solo la marca de su
+ * slot y una reconciliación las de todos, de modo que ninguna suma se confirma mientras se
+ * recuenta y cada nodo sabe, al sumar, si hubo una reconciliación desde su suma anterior.</p>
+ */
+public interface UserStatsStore {
+
+    /**
+     * Reconciliación de los contadores.
+     *
+     * @param number    Número de la reconciliación (0 si nunca se reconciliaron).
+     * @param countedAt Instante en que empezó su recuento.
+     */
+    record Reconciliation(long number, Instant countedAt) {}
+
+    /**
+     * Crea la marca de reconciliación de los slots que no la tienen.
+     *
+     * @param slots Número de slots.
+     * @return La última reconciliación.
+     */
+    Reconciliation initialize(int slots);
+
+    /**
+     * Valor de cada contador.
+     *
+     * @return Suma de los slots de cada contador.
+     */
+    Map<String, Long> load();
+
+    /**
+     * Suma incrementos a los contadores en un slot, en un solo lote y con la marca del slot bloqueada.
+     *
+     * @param slot   Slot de este nodo.
+     * @param deltas Calcula el incremento (o decremento) de cada contador a partir de la última reconciliación.
+     * @return La última reconciliación.
+     */
+    Reconciliation add(int slot, Function<Reconciliation, Map<String, Long>> deltas);
+
+    /**
+     * Recuenta los contadores y suma a cada uno la corrección hasta el recuento, con las marcas
+     * de todos los slots bloqueadas. Los contadores que no aparecen en el recuento desaparecen.
+     *
+     * @param slot      Slot donde se suman las correcciones.
+     * @param notBefore No se reconcilia si la última reconciliación empezó en este instante o después.
+     * @param recount   Calcula el valor de cada contador.
+     * @return La nueva reconciliación, o vacío si no se hizo.
+     */
+    Optional<Reconciliation> reconcile(int slot, Instant notBefore, Supplier<Map<String, Long>> recount);
+}
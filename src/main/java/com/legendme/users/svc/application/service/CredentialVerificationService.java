@@ -0,0 +1,150 @@
+package com.legendme.users.svc.application.service;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.UserCredentials;
+import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Servicio para verificar las credenciales de usuarios locales en nombre del servicio de login.
+ * Solo lee el ID, el hash y el estado del usuario, y ejecuta la comparación del hash en un pool
+ * acotado al número de núcleos; si el pool está saturado responde 503 en lugar de acumular latencia.
+ * Cuando el hash almacenado usa un algoritmo o un coste anterior al configurado, se vuelve a
+ * calcular en segundo plano tras una verificación correcta.
+ *
+ * @see UserRepository
+ */
+@Slf4j
+@Service
+public class CredentialVerificationService {
+
+    /**
+     * Repositorio de usuarios para leer credenciales y guardar los nuevos hashes.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Codificador que compara y genera los hashes.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * Pool acotado a los núcleos donde se comparan los hashes.
+     */
+    private final ExecutorService verifyExecutor;
+
+    /**
+     * Pool de baja prioridad donde se recalculan los hashes antiguos.
+     */
+    private final ExecutorService rehashExecutor;
+
+    /**
+     * Hash de una contraseña aleatoria, comparado cuando el usuario no existe o no tiene contraseña
+     * para que el tiempo de respuesta no revele si el email está registrado.
+     */
+    private final String dummyHash;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param userRepository  Repositorio de usuarios.
+     * @param passwordEncoder Codificador de contraseñas.
+     * @param verifyExecutor  Pool de verificación.
+     * @param rehashExecutor  Pool de rehash.
+     */
+    public CredentialVerificationService(UserRepository userRepository,
+                                         PasswordEncoder passwordEncoder,
+                                         @Qualifier("passwordVerifyExecutor") ExecutorService verifyExecutor,
+                                         @Qualifier("passwordRehashExecutor") ExecutorService rehashExecutor) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.verifyExecutor = verifyExecutor;
+        this.rehashExecutor = rehashExecutor;
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Verifica el email y la contraseña de un usuario.
+     *
+     * @param email    Email del usuario.
+     * @param password Contraseña en texto plano.
+     * @return El ID del usuario si la contraseña es correcta y la cuenta está activa, o vacío en caso contrario.
+     */
+    public Optional<UUID> verify(String email, String password) {
+        if (email == null || email.isBlank()) {
+            throw UserErrors.VERIFY_EMAIL_REQUIRED;
+        }
+        if (password == null || password.isEmpty()) {
+            throw UserErrors.VERIFY_PASSWORD_REQUIRED;
+        }
+
+        Optional<UserCredentials> credentials;
+        try {
+            credentials = userRepository.findCredentialsByEmail(email.toLowerCase());
+        } catch (Exception e) {
+            log.error("Error al buscar credenciales en BD: {}", e.getMessage());
+            throw new ErrorException("Error al verificar credenciales", "USER-VERIFY-03", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+
+        String storedHash = credentials.map(UserCredentials::passwordHash).orElse(null);
+        boolean matches = matchesOnPool(password, storedHash != null ? storedHash : dummyHash) && storedHash != null;
+        if (!matches || !Boolean.TRUE.equals(credentials.get().active())) {
+            return Optional.empty();
+        }
+
+        UUID id = credentials.get().id();
+        if (passwordEncoder.upgradeEncoding(storedHash)) {
+            scheduleRehash(id, storedHash, password);
+        }
+        return Optional.of(id);
+    }
+
+    private boolean matchesOnPool(String password, String hash) {
+        Future<Boolean> result;
+        try {
+            result = verifyExecutor.submit(() -> passwordEncoder.matches(password, hash));
+        } catch (RejectedExecutionException e) {
+            throw UserErrors.VERIFY_OVERLOADED;
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new ErrorException("Verificación de credenciales interrumpida", "USER-VERIFY-05", HttpStatus.SERVICE_UNAVAILABLE, e);
+        } catch (ExecutionException e) {
+            log.error("Error al comparar el hash de la contraseña: {}", e.getCause().getMessage());
+            throw new ErrorException("Error al verificar credenciales", "USER-VERIFY-03", HttpStatus.INTERNAL_SERVER_ERROR, e.getCause());
+        }
+    }
+
+    private void scheduleRehash(UUID id, String storedHash, String password) {
+        try {
+            rehashExecutor.execute(() -> rehash(id, storedHash, password));
+        } catch (RejectedExecutionException e) {
+            log.debug("Cola de rehash llena, se reintentará en el próximo login del usuario {}", id);
+        }
+    }
+
+    private void rehash(UUID id, String storedHash, String password) {
+        try {
+            if (userRepository.updatePasswordHash(id, storedHash, passwordEncoder.encode(password))) {
+                log.info("Hash de contraseña actualizado al algoritmo vigente para el usuario {}", id);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo actualizar el hash de contraseña del usuario {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.legendme.users.svc.application.service;
 
+import com.legendme.users.svc.application.hotusers.HotUserCache;
 import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.EmailHash;
 import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.domain.model.UserTableVersion;
+import com.legendme.users.svc.domain.model.UserVersion;
+import com.legendme.users.svc.domain.model.UsernameAvailability;
+import com.legendme.users.svc.domain.model.UsernameCandidates;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Servicio para la búsqueda y verificación de usuarios.
@@ -18,26 +34,60 @@ import java.util.UUID;
  * por email o nombre de usuario.
  * Este servicio interactúa con el UserRepository para realizar las operaciones
  * necesarias en el almacenamiento de datos.
+ * Todas sus operaciones son transacciones de solo lectura, por lo que pueden
+ * enrutarse a una réplica cuando está configurada.
+ * Las lecturas por ID y por username se registran en {@link HotUserCache}; las de los
+ * usuarios calientes se resuelven desde su caché fijada.
  *
  * @see User
  * @see UserRepository
  */
 @Slf4j
 @Service
+@Transactional(readOnly = true)
 public class FindUserService {
 
+    /**
+     * Hashes de email que acepta una llamada a {@link #matchEmailHashes}.
+     */
+    public static final int MAX_EMAIL_HASHES = 5_000;
+
+    /**
+     * Hashes de email por consulta {@code IN}. Por debajo de {@code eq_range_index_dive_limit}
+     * (200 en MySQL), para que el optimizador siga estimando cada valor con el índice.
+     */
+    static final int EMAIL_HASH_BATCH = 200;
+
+    /**
+     * Alternativas de username que acepta una llamada a {@link #checkUsernameAvailability}.
+     */
+    public static final int MAX_USERNAME_SUGGESTIONS = 10;
+
+    /**
+     * Candidatos que se generan y comprueban por cada alternativa pedida, para que una sola
+     * consulta baste aunque los primeros estén ocupados.
+     */
+    static final int CANDIDATES_PER_SUGGESTION = 4;
+
     /**
      * Repositorio de usuarios para realizar operaciones de búsqueda y verificación.
      */
     private final UserRepository userRepository;
 
     /**
-     * Constructor para la inyección de dependencias del UserRepository.
+     * Detector de usuarios calientes y caché de los usuarios fijados.
+     */
+    private final HotUserCache hotUsers;
+
+    /**
+     * Constructor para la inyección de dependencias.
      *
      * @param userRepository Repositorio de usuarios.
+     * @param hotUsers       Detector y caché de usuarios calientes.
      */
-    public FindUserService(UserRepository userRepository) {
+    public FindUserService(UserRepository userRepository, HotUserCache hotUsers) {
         this.userRepository = userRepository;
+        this.hotUsers = hotUsers;
     }
 
     /**
@@ -47,15 +97,29 @@ public class FindUserService {
      * @return Optional que contiene el usuario si se encuentra, o vacío si no existe.
      */
     public Optional<User> findById(UUID id) {
+        return findById(id, UserProjection.ALL);
+    }
+
+    /**
+     * Buscar un usuario por su ID leyendo solo los campos de la proyección.
+     *
+     * @param id         UUID del usuario a buscar.
+     * @param projection Campos a leer.
+     * @return Optional que contiene el usuario proyectado si se encuentra, o vacío si no existe.
+     */
+    public Optional<User> findById(UUID id, UserProjection projection) {
         if (id == null) {
-            throw new ErrorException("El ID no puede ser nulo", "USER-FIND-ID-01", HttpStatus.BAD_REQUEST);
+            throw UserErrors.ID_REQUIRED;
         }
 
         try {
-            return userRepository.findById(id);
+            if (hotUsers.recordId(id)) {
+                return hotUsers.byId(id, () -> userRepository.findById(id)).map(projection::apply);
+            }
+            return userRepository.findById(id, projection);
         } catch (Exception e) {
             log.error("Error al buscar usuarios por ID en BD: {}", e.getMessage());
-            throw new ErrorException("Error al buscar usuario por ID", "USER-FIND-ID-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al buscar usuario por ID", "USER-FIND-ID-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -66,18 +130,29 @@ public class FindUserService {
      * @return Optional que contiene el usuario si se encuentra, o vacío si no existe.
      */
     public Optional<User> findByEmail(String email) {
+        return findByEmail(email, UserProjection.ALL);
+    }
+
+    /**
+     * Buscar un usuario por su email leyendo solo los campos de la proyección.
+     *
+     * @param email      Email del usuario a buscar.
+     * @param projection Campos a leer.
+     * @return Optional que contiene el usuario proyectado si se encuentra, o vacío si no existe.
+     */
+    public Optional<User> findByEmail(String email, UserProjection projection) {
         try {
 
             if (email == null || email.isBlank()) {
-                throw new ErrorException("El email no puede ser nulo o vacío", "USER-FIND-EMAIL-01", HttpStatus.BAD_REQUEST);
+                throw UserErrors.FIND_EMAIL_REQUIRED;
             }
-            return userRepository.findByEmail(email.toLowerCase());
+            return userRepository.findByEmail(email.toLowerCase(), projection);
 
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al buscar usuarios por EMAIL: {}", e.getMessage());
-            throw new ErrorException("Error al buscar usuario por email", "USER-FIND-EMAIL-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al buscar usuario por email", "USER-FIND-EMAIL-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -88,18 +163,33 @@ public class FindUserService {
      * @return Optional que contiene el usuario si se encuentra, o vacío si no existe.
      */
     public Optional<User> findByUsername(String username) {
+        return findByUsername(username, UserProjection.ALL);
+    }
+
+    /**
+     * Buscar un usuario por su nombre de usuario leyendo solo los campos de la proyección.
+     *
+     * @param username   Nombre de usuario a buscar.
+     * @param projection Campos a leer.
+     * @return Optional que contiene el usuario proyectado si se encuentra, o vacío si no existe.
+     */
+    public Optional<User> findByUsername(String username, UserProjection projection) {
         try {
 
             if (username == null || username.isBlank()) {
-                throw new ErrorException("El username no puede ser nulo o vacío", "USER-FIND-USERNAME-01", HttpStatus.BAD_REQUEST);
+                throw UserErrors.FIND_USERNAME_REQUIRED;
             }
-            return userRepository.findByUsername(username.toLowerCase());
+            String key = username.toLowerCase();
+            if (hotUsers.recordUsername(key)) {
+                return hotUsers.byUsername(key, () -> userRepository.findByUsername(key)).map(projection::apply);
+            }
+            return userRepository.findByUsername(key, projection);
 
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al buscar usuarios por USERNAME: {}", e.getMessage());
-            throw new ErrorException("Error al buscar usuario por username", "USER-FIND-USERNAME-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al buscar usuario por username", "USER-FIND-USERNAME-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -109,13 +199,38 @@ public class FindUserService {
      * @return Lista de todos los usuarios.
      */
     public List<User> findAll() {
+        return findAll(UserProjection.ALL);
+    }
+
+    /**
+     * Listar todos los usuarios leyendo solo los campos de la proyección.
+     *
+     * @param projection Campos a leer.
+     * @return Lista de todos los usuarios proyectados.
+     */
+    public List<User> findAll(UserProjection projection) {
         try {
-            return userRepository.findAll();
+            return userRepository.findAll(projection);
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al obtener todos los usuarios de BD: {}", e.getMessage());
-            throw new ErrorException("Error al obtener todos los usuarios", "USER-FIND-ALL-01", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al obtener todos los usuarios", "USER-FIND-ALL-01", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    /**
+     * Obtener la versión de la tabla de usuarios (número de usuarios y última actualización)
+     * sin cargar los usuarios. Se usa como clave de las respuestas masivas cacheadas.
+     *
+     * @return La versión actual de la tabla.
+     */
+    public UserTableVersion tableVersion() {
+        try {
+            return userRepository.tableVersion();
+        } catch (Exception e) {
+            log.error("Error al obtener la versión de la tabla de usuarios: {}", e.getMessage());
+            throw new ErrorException("Error al obtener todos los usuarios", "USER-FIND-ALL-01", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -127,14 +242,14 @@ public class FindUserService {
      */
     public boolean existsByEmail(String email) {
         if (email == null || email.isBlank()) {
-            throw new ErrorException("El email no puede ser nulo o vacío", "USER-EXISTS-EMAIL-01", HttpStatus.BAD_REQUEST);
+            throw UserErrors.EXISTS_EMAIL_REQUIRED;
         }
 
         try {
             return userRepository.existsByEmail(email.toLowerCase());
         } catch (Exception e) {
             log.error("Error al buscar usuario por EMAIL: {}", e.getMessage());
-            throw new ErrorException("Error al verificar existencia de usuario por email", "USER-EXISTS-EMAIL-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al verificar existencia de usuario por email", "USER-EXISTS-EMAIL-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
@@ -149,7 +264,7 @@ public class FindUserService {
         try {
 
             if (username == null || username.isBlank()) {
-                throw new ErrorException("El username no puede ser nulo o vacío", "USER-EXISTS-USERNAME-01", HttpStatus.BAD_REQUEST);
+                throw UserErrors.EXISTS_USERNAME_REQUIRED;
             }
             return userRepository.existsByUsername(username.toLowerCase());
 
@@ -157,7 +272,139 @@ public class FindUserService {
             throw e;
         } catch (Exception e) {
             log.error("Error al buscar usuario por USERNAME: {}", e.getMessage());
-            throw new ErrorException("Error al verificar existencia de usuario por username", "USER-EXISTS-USERNAME-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al verificar existencia de usuario por username", "USER-EXISTS-USERNAME-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    /**
+     * Comprobar si un username está libre y proponer alternativas libres. El username y todos
+     * los candidatos (ver {@link UsernameCandidates}) se comprueban juntos en una consulta; solo
+     * si quedan menos alternativas libres de las pedidas se hace una segunda con más sufijos
+     * aleatorios.
+     *
+     * @param username    Username pedido.
+     * @param suggestions Número de alternativas (entre 0 y {@value #MAX_USERNAME_SUGGESTIONS}).
+     * @return La disponibilidad y hasta {@code suggestions} alternativas libres.
+     */
+    public UsernameAvailability checkUsernameAvailability(String username, int suggestions) {
+
+        try {
+
+            if (username == null || username.isBlank()) {
+                throw UserErrors.EXISTS_USERNAME_REQUIRED;
+            }
+            if (suggestions < 0 || suggestions > MAX_USERNAME_SUGGESTIONS) {
+                throw UserErrors.USERNAME_SUGGESTIONS_INVALID;
+            }
+            String key = username.toLowerCase();
+            Set<String> checked = new LinkedHashSet<>();
+            checked.add(key);
+            checked.addAll(UsernameCandidates.of(key, suggestions * CANDIDATES_PER_SUGGESTION, ThreadLocalRandom.current()));
+            Set<String> taken = userRepository.findExistingUsernames(checked);
+
+            List<String> free = new ArrayList<>(suggestions);
+            collectFree(checked, taken, key, free, suggestions);
+            if (free.size() < suggestions) {
+                Set<String> retry = new LinkedHashSet<>(UsernameCandidates.of(key, 2 * suggestions * CANDIDATES_PER_SUGGESTION, ThreadLocalRandom.current()));
+                retry.removeAll(checked);
+                collectFree(retry, userRepository.findExistingUsernames(retry), key, free, suggestions);
+            }
+            return new UsernameAvailability(key, !taken.contains(key), List.copyOf(free));
+
+        } catch (ErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al comprobar la disponibilidad del username: {}", e.getMessage());
+            throw new ErrorException("Error al comprobar la disponibilidad del username", "USER-AVAILABILITY-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    private static void collectFree(Set<String> candidates, Set<String> taken, String requested, List<String> free, int limit) {
+        for (String candidate : candidates) {
+            if (free.size() == limit) {
+                return;
+            }
+            if (!candidate.equals(requested) && !taken.contains(candidate)) {
+                free.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Cruzar una lista de hashes de email (ver {@link EmailHash}) con los usuarios registrados,
+     * sin recibir los emails en claro. Los hashes repetidos se consultan una vez y la búsqueda se
+     * hace en lotes de {@value #EMAIL_HASH_BATCH}, de modo que {@value #MAX_EMAIL_HASHES} hashes son
+     * pocas consultas {@code IN} en lugar de una por contacto. Como {@link #existsByEmail}, incluye
+     * los usuarios desactivados.
+     *
+     * @param emailHashes Hashes SHA-256 en hexadecimal (entre 1 y {@value #MAX_EMAIL_HASHES}).
+     * @return Los hashes encontrados, en minúsculas, con el ID de su usuario.
+     */
+    public Map<String, UUID> matchEmailHashes(List<String> emailHashes) {
+        if (emailHashes == null || emailHashes.isEmpty() || emailHashes.size() > MAX_EMAIL_HASHES) {
+            throw UserErrors.EMAIL_HASHES_INVALID;
+        }
+        Set<String> distinct = new LinkedHashSet<>(emailHashes.size() * 2);
+        for (String hash : emailHashes) {
+            if (!EmailHash.isValid(hash)) {
+                throw UserErrors.EMAIL_HASHES_INVALID;
+            }
+            distinct.add(hash.toLowerCase(Locale.ROOT));
+        }
+
+        try {
+            List<String> hashes = List.copyOf(distinct);
+            Map<String, UUID> matches = new HashMap<>();
+            for (int from = 0; from < hashes.size(); from += EMAIL_HASH_BATCH) {
+                matches.putAll(userRepository.findIdsByEmailHashes(
+                        hashes.subList(from, Math.min(hashes.size(), from + EMAIL_HASH_BATCH))));
+            }
+            return matches;
+        } catch (Exception e) {
+            log.error("Error al cruzar hashes de email: {}", e.getMessage());
+            throw new ErrorException("Error al cruzar hashes de email", "USER-MATCH-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    /**
+     * Obtener la versión de un usuario por su ID sin cargar el resto de sus datos.
+     * Se usa para resolver peticiones condicionales (If-None-Match / If-Modified-Since).
+     *
+     * @param id UUID del usuario.
+     * @return Optional con la versión del usuario, o vacío si no existe.
+     */
+    public Optional<UserVersion> findVersionById(UUID id) {
+        if (id == null) {
+            throw UserErrors.ID_REQUIRED;
+        }
+
+        try {
+            return userRepository.findVersionById(id);
+        } catch (Exception e) {
+            log.error("Error al buscar la versión del usuario por ID en BD: {}", e.getMessage());
+            throw new ErrorException("Error al buscar usuario por ID", "USER-FIND-ID-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
+        }
+    }
+
+    /**
+     * Obtener la versión de un usuario por su nombre de usuario sin cargar el resto de sus datos.
+     *
+     * @param username Nombre de usuario.
+     * @return Optional con la versión del usuario, o vacío si no existe.
+     */
+    public Optional<UserVersion> findVersionByUsername(String username) {
+        try {
+
+            if (username == null || username.isBlank()) {
+                throw UserErrors.FIND_USERNAME_REQUIRED;
+            }
+            return userRepository.findVersionByUsername(username.toLowerCase());
+
+        } catch (ErrorException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al buscar la versión del usuario por USERNAME: {}", e.getMessage());
+            throw new ErrorException("Error al buscar usuario por username", "USER-FIND-USERNAME-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 }
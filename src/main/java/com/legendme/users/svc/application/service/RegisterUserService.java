@@ -2,17 +2,24 @@ package com.legendme.users.svc.application.service;
 
 import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
 import com.legendme.users.svc.adapter.in.rest.dto.UpdateUserRequest;
+import com.legendme.users.svc.application.hotusers.HotUserCache;
 import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.application.stats.UserStatsService;
 import com.legendme.users.svc.domain.model.User;
 import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 /**
  * Servicio para el registro y gestión de usuarios.
@@ -34,6 +41,27 @@ public class RegisterUserService {
      */
     private final UserRepository userRepository;
 
+    /**
+     * Plantilla transaccional: cada intento de escritura (lectura + validación + guardado)
+     * se ejecuta en su propia transacción para poder reintentarlo ante conflictos.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Caché de usuarios calientes, que se invalida tras cada escritura confirmada.
+     */
+    private final HotUserCache hotUsers;
+
+    /**
+     * Contadores de las estadísticas, que se actualizan con cada alta, upsert o desactivación.
+     */
+    private final UserStatsService stats;
+
+    /**
+     * Número máximo de intentos de una escritura ante conflictos de concurrencia optimista.
+     */
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     /**
      * Registrar usuario LOCAL
      * Registra un nuevo usuario con autenticación local.
@@ -49,31 +77,32 @@ public class RegisterUserService {
         try {
 
             if (!"LOCAL".equalsIgnoreCase(request.provider()))
-                throw new ErrorException("Provider debe ser LOCAL", "USER-CREATE-01", HttpStatus.BAD_REQUEST);
+                throw UserErrors.LOCAL_PROVIDER_REQUIRED;
 
             if (request.name() == null || request.name().isBlank())
-                throw new ErrorException("El nombre es obligatorio", "USER-CREATE-02", HttpStatus.BAD_REQUEST);
+                throw UserErrors.NAME_REQUIRED;
             if (request.lastname() == null || request.lastname().isBlank())
-                throw new ErrorException("El apellido es obligatorio", "USER-CREATE-03", HttpStatus.BAD_REQUEST);
+                throw UserErrors.LASTNAME_REQUIRED;
             if (request.username() == null || request.username().isBlank())
-                throw new ErrorException("El username es obligatorio", "USER-CREATE-04", HttpStatus.BAD_REQUEST);
+                throw UserErrors.USERNAME_REQUIRED;
             if (request.email() == null || request.email().isBlank())
-                throw new ErrorException("El email es obligatorio", "USER-CREATE-05", HttpStatus.BAD_REQUEST);
+                throw UserErrors.EMAIL_REQUIRED;
             if (request.password() == null || request.password().isBlank())
-                throw new ErrorException("El password es obligatorio", "USER-CREATE-06", HttpStatus.BAD_REQUEST);
+                throw UserErrors.PASSWORD_REQUIRED;
 
             if (!request.email().matches("^[A-Za-z0-9+_.-]+@(.+)$"))
-                throw new ErrorException("El email no es válido", "USER-CREATE-07", HttpStatus.BAD_REQUEST);
+                throw UserErrors.EMAIL_INVALID;
 
             // Validar que el email y username no existan
             if (userRepository.existsByEmail(request.email().toLowerCase())) {
-                throw new ErrorException("El email ya está en uso", "USER-CREATE-08", HttpStatus.BAD_REQUEST);
+                throw UserErrors.EMAIL_IN_USE;
             }
             // Validar que el username no exista
             if (userRepository.existsByUsername(request.username().toLowerCase())) {
-                throw new ErrorException("El username ya está en uso", "USER-CREATE-09", HttpStatus.BAD_REQUEST);
+                throw UserErrors.USERNAME_IN_USE;
             }
 
+            Instant now = now();
             User user = new User(
                     null,
                     request.name(),
@@ -83,17 +112,20 @@ public class RegisterUserService {
                     request.email().toLowerCase(),
                     "LOCAL",
                     true,
-                    new Date(),
-                    new Date()
+                    now,
+                    now,
+                    null
             );
 
 
-            return userRepository.save(user, request.password());
+            User saved = userRepository.save(user, request.password());
+            stats.recordChange(null, saved);
+            return saved;
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al registrar el usuario local en BD: {}", e.getMessage());
-            throw new ErrorException("Error al registrar el usuario", "USER-CREATE-10", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al registrar el usuario", "USER-CREATE-10", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
 
     }
@@ -108,96 +140,128 @@ public class RegisterUserService {
      * @throws ErrorException si el email ya está en uso con otro proveedor.
      */
     public User upsertGoogleUser(CreateUserRequest request) {
-        Optional<User> existingUserOpt;
-
         try {
 
             if (!"GOOGLE".equalsIgnoreCase(request.provider()))
-                throw new ErrorException("Provider debe ser GOOGLE", "USER-GOOGLE-01", HttpStatus.BAD_REQUEST);
-
-            existingUserOpt = userRepository.findByEmail(request.email().toLowerCase());
-
-            if (existingUserOpt.isPresent() &&
-                    !"GOOGLE".equalsIgnoreCase(existingUserOpt.get().provider())) {
-                throw new ErrorException("El email ya está en uso con otro proveedor", "USER-GOOGLE-02", HttpStatus.BAD_REQUEST);
-            }
-
-            User user = new User(
-                    existingUserOpt.map(User::id).orElse(null),
-                    request.name(),
-                    request.lastname(),
-                    request.birthDate(),
-                    request.username().toLowerCase(),
-                    request.email().toLowerCase(),
-                    "GOOGLE",
-                    true,
-                    new Date(),
-                    new Date()
-            );
+                throw UserErrors.GOOGLE_PROVIDER_REQUIRED;
 
-            return userRepository.save(user, null);
+            return written(retryOnConflict("upsertGoogleUser", () -> applyGoogleUpsert(request)));
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al crear/actualizar el usuario de Google en BD: {}", e.getMessage());
-            throw new ErrorException("Error al procesar el usuario de Google", "USER-GOOGLE-03", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al procesar el usuario de Google", "USER-GOOGLE-03", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
+    /**
+     * Un intento de upsert de usuario GOOGLE. La versión leída viaja en el usuario
+     * guardado, por lo que una escritura concurrente provoca un conflicto reintentable.
+     */
+    private User applyGoogleUpsert(CreateUserRequest request) {
+        Optional<User> existingUserOpt = userRepository.findByEmail(request.email().toLowerCase());
+
+        if (existingUserOpt.isPresent() &&
+                !"GOOGLE".equalsIgnoreCase(existingUserOpt.get().provider())) {
+            throw UserErrors.EMAIL_IN_USE_OTHER_PROVIDER;
+        }
+
+        Instant now = now();
+        User user = new User(
+                existingUserOpt.map(User::id).orElse(null),
+                request.name(),
+                request.lastname(),
+                request.birthDate(),
+                request.username().toLowerCase(),
+                request.email().toLowerCase(),
+                "GOOGLE",
+                true,
+                now,
+                now,
+                existingUserOpt.map(User::version).orElse(null)
+        );
+
+        User saved = userRepository.save(user, null);
+        stats.recordChange(existingUserOpt.orElse(null), saved);
+        return saved;
+    }
+
     /**
      * Actualizar usuario parcialmente
      * Actualiza los campos proporcionados en el usuario identificado por su ID.
      * Realiza validaciones para evitar conflictos con email y nombre de usuario.
+     * Si se indica una versión esperada (If-Match) y no es la vigente, responde 412.
+     * Sin versión esperada, los campos enviados se reaplican sobre una lectura fresca
+     * ante un conflicto de concurrencia, hasta un número acotado de intentos (luego 409).
      *
-     * @param id      UUID del usuario a actualizar.
-     * @param request DTO con los campos a actualizar (pueden ser nulos).
+     * @param id              UUID del usuario a actualizar.
+     * @param request         DTO con los campos a actualizar (pueden ser nulos).
+     * @param expectedVersion Versión que el cliente espera modificar (puede ser null).
      * @return El usuario actualizado.
      * @throws ErrorException si el usuario no es encontrado o si hay conflictos con email/username.
      */
-    public User updateUserPartial(UUID id, UpdateUserRequest request) {
-        User u;
-
+    public User updateUserPartial(UUID id, UpdateUserRequest request, Long expectedVersion) {
         try {
-            u = userRepository.findById(id)
-                    .orElseThrow(() -> new ErrorException("Usuario no encontrado", "USER-UPDATE-01", HttpStatus.NOT_FOUND));
-
-            if (request.email() != null && !request.email().equalsIgnoreCase(u.email())) {
-                if (userRepository.existsByEmail(request.email().toLowerCase())) {
-                    throw new ErrorException("El correo ya está en uso por otro usuario", "USER-UPDATE-EMAIL-02", HttpStatus.BAD_REQUEST);
+            if (expectedVersion != null) {
+                try {
+                    return written(transactionTemplate.execute(status -> applyPartialUpdate(id, request, expectedVersion)));
+                } catch (OptimisticLockingFailureException e) {
+                    throw UserErrors.IF_MATCH_MISMATCH;
                 }
             }
-
-            if (request.username() != null && !request.username().equalsIgnoreCase(u.username())) {
-                if (userRepository.existsByUsername(request.username().toLowerCase())) {
-                    throw new ErrorException("El nombre de usuario ya está en uso", "USER-UPDATE-USERNAME-03", HttpStatus.BAD_REQUEST);
-                }
-            }
-
-            User updated = new User(
-                    u.id(),
-                    request.name() != null ? request.name() : u.name(),
-                    request.lastname() != null ? request.lastname() : u.lastname(),
-                    request.birthDate() != null ? request.birthDate() : u.birthDate(),
-                    request.username() != null ? request.username().toLowerCase() : u.username(),
-                    request.email() != null ? request.email().toLowerCase() : u.email(),
-                    u.provider(),
-                    u.active(),
-                    u.createdAt(),
-                    new Date() // updatedAt
-            );
-
-            return userRepository.save(updated, null);
+            return written(retryOnConflict("updateUserPartial", () -> applyPartialUpdate(id, request, null)));
 
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al validar email en BD: {}", e.getMessage());
-            throw new ErrorException("Error al actualizar el usuario", "USER-UPDATE-04", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al actualizar el usuario", "USER-UPDATE-04", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
 
 
     }
 
+    /**
+     * Un intento de actualización parcial: lee el usuario, valida unicidad y guarda
+     * los campos enviados sobre la versión leída.
+     */
+    private User applyPartialUpdate(UUID id, UpdateUserRequest request, Long expectedVersion) {
+        User u = userRepository.findById(id)
+                .orElseThrow(() -> UserErrors.USER_TO_UPDATE_NOT_FOUND);
+
+        if (expectedVersion != null && !expectedVersion.equals(u.version())) {
+            throw UserErrors.IF_MATCH_MISMATCH;
+        }
+
+        if (request.email() != null && !request.email().equalsIgnoreCase(u.email())) {
+            if (userRepository.existsByEmail(request.email().toLowerCase())) {
+                throw UserErrors.UPDATE_EMAIL_IN_USE;
+            }
+        }
+
+        if (request.username() != null && !request.username().equalsIgnoreCase(u.username())) {
+            if (userRepository.existsByUsername(request.username().toLowerCase())) {
+                throw UserErrors.UPDATE_USERNAME_IN_USE;
+            }
+        }
+
+        User updated = new User(
+                u.id(),
+                request.name() != null ? request.name() : u.name(),
+                request.lastname() != null ? request.lastname() : u.lastname(),
+                request.birthDate() != null ? request.birthDate() : u.birthDate(),
+                request.username() != null ? request.username().toLowerCase() : u.username(),
+                request.email() != null ? request.email().toLowerCase() : u.email(),
+                u.provider(),
+                u.active(),
+                u.createdAt(),
+                now(), // updatedAt
+                u.version()
+        );
+
+        return userRepository.save(updated, null);
+    }
+
     /**
      * Desactivar usuario (soft delete)
      * Marca al usuario como inactivo sin eliminarlo de la base de datos.
@@ -206,35 +270,81 @@ public class RegisterUserService {
      * @throws ErrorException si el usuario no es encontrado.
      */
     public void deactivateUser(UUID id) {
-        User u;
-
         try {
-            u = userRepository.findById(id)
-                    .orElseThrow(() -> new ErrorException("Usuario no encontrado", "USER-DEACT-01", HttpStatus.NOT_FOUND));
-
-            User deleted = new User(
-                    u.id(),
-                    u.name(),
-                    u.lastname(),
-                    u.birthDate(),
-                    u.username(),
-                    u.email(),
-                    u.provider(),
-                    false,
-                    u.createdAt(),
-                    new Date()
-            );
-
-            userRepository.save(deleted, null);
+            written(retryOnConflict("deactivateUser", () -> {
+                User u = userRepository.findById(id)
+                        .orElseThrow(() -> UserErrors.USER_TO_DEACTIVATE_NOT_FOUND);
+
+                User deleted = new User(
+                        u.id(),
+                        u.name(),
+                        u.lastname(),
+                        u.birthDate(),
+                        u.username(),
+                        u.email(),
+                        u.provider(),
+                        false,
+                        u.createdAt(),
+                        now(),
+                        u.version()
+                );
+
+                User saved = userRepository.save(deleted, null);
+                stats.recordChange(u, saved);
+                return saved;
+            }));
 
         } catch (ErrorException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al desactivar el usuario en BD: {}", e.getMessage());
-            throw new ErrorException("Error al desactivar el usuario", "USER-DEACT-02", HttpStatus.INTERNAL_SERVER_ERROR);
+            throw new ErrorException("Error al desactivar el usuario", "USER-DEACT-02", HttpStatus.INTERNAL_SERVER_ERROR, e);
         }
     }
 
-}
+    /**
+     * Quita de la caché de usuarios calientes un usuario recién modificado. Se llama con la
+     * transacción ya confirmada, para que una lectura posterior no vuelva a fijar la versión anterior.
+     *
+     * @param user Usuario guardado.
+     * @return El mismo usuario.
+     */
+    private User written(User user) {
+        hotUsers.invalidate(user.id());
+        return user;
+    }
 
+    /**
+     * Ejecuta una escritura en su propia transacción y la reintenta ante conflictos de
+     * concurrencia optimista. Cada intento vuelve a leer el usuario, por lo que solo debe
+     * usarse con cambios que se pueden reaplicar sobre la versión más reciente.
+     *
+     * @param operation Nombre de la operación, para los logs.
+     * @param write     Intento de escritura (lectura + validación + guardado).
+     * @return El resultado del primer intento que no entra en conflicto.
+     * @throws ErrorException con estado 409 si se agotan los intentos.
+     */
+    private <T> T retryOnConflict(String operation, Supplier<T> write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+                    log.warn("Conflicto de concurrencia en {} tras {} intentos", operation, attempt);
+                    throw UserErrors.CONCURRENT_MODIFICATION;
+                }
+                log.info("Conflicto de concurrencia en {}, reintentando ({}/{})", operation, attempt, MAX_CONFLICT_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * Instante actual truncado a milisegundos, la precisión que conservan el directorio en
+     * memoria y Protobuf; así un usuario leído de cualquiera de ellos es igual al guardado.
+     */
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+}
 
@@ -0,0 +1,24 @@
+package com.legendme.users.svc.application.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las estadísticas de usuarios mantenidas con contadores.
+ *
+ * @param enabled           activa los contadores y su persistencia
+ * @param flushInterval     cada cuánto se escriben en la base los incrementos acumulados en memoria
+ * @param reconcileInterval cada cuánto se recuentan los usuarios en la base para corregir la deriva
+ * @param signupDays        días de altas por día que se mantienen y se devuelven
+ * @param slots             filas entre las que se reparte cada contador; cada nodo escribe en una al azar
+ */
+@ConfigurationProperties(prefix = "legendme.user-stats")
+public record UserStatsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5s") Duration flushInterval,
+        @DefaultValue("1h") Duration reconcileInterval,
+        @DefaultValue("90") int signupDays,
+        @DefaultValue("16") int slots
+) {}
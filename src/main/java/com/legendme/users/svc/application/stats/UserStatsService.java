@@ -0,0 +1,372 @@
+package com.legendme.users.svc.application.stats;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.application.port.out.UserStatsStore;
+import com.legendme.users.svc.application.port.out.UserStatsStore.Reconciliation;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas de usuarios (totales por proveedor y estado, altas por día) mantenidas con
+ * contadores en lugar de recorrer la tabla en cada consulta.
+ *
+ * <p>{@code RegisterUserService} informa de cada alta, upsert o desactivación confirmada con
+ * {@link #recordChange}, que solo incrementa {@link LongAdder} en memoria, agrupados por el
+ * instante del cambio en tramos de {@value #BUCKET_MILLIS} ms. Cada {@code flushInterval} los
+ * incrementos acumulados se suman en un lote a la tabla de contadores, en el slot de este nodo,
+ * y se vuelve a leer el total de todos los nodos. {@link #current()} es ese total más lo
+ * pendiente de este nodo, sin tocar la base; los cambios de otros nodos se ven con un retraso de
+ * hasta dos intervalos.</p>
+ *
+ * <p>Cada {@code reconcileInterval} (y al arrancar si la tabla está vacía) un solo nodo recuenta
+ * en la base y suma a cada contador la corrección hasta el recuento, lo que corrige la deriva de
+ * escrituras que no pasaron por aquí o de lotes perdidos; los demás nodos ven que hubo una
+ * reconciliación reciente y no recuentan. Los incrementos que otros nodos tenían pendientes al
+ * empezar el recuento ya están en él: al sumar, cada nodo ve la nueva reconciliación y descarta
+ * los tramos anteriores a su recuento en lugar de contarlos dos veces. Solo un cambio confirmado
+ * durante el propio recuento (o dentro del desfase de reloj entre nodos) puede quedar mal
+ * contado hasta la siguiente reconciliación.</p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(UserStatsProperties.class)
+public class UserStatsService {
+
+    private static final String ACTIVE = "active.";
+    private static final String INACTIVE = "inactive.";
+    private static final String SIGNUPS = "signups.";
+    private static final String UNKNOWN_PROVIDER = "UNKNOWN";
+    static final long BUCKET_MILLIS = 100;
+    /** Los tramos vacíos se eliminan cuando tienen más de un minuto. */
+    private static final long STALE_BUCKETS = 60_000 / BUCKET_MILLIS;
+
+    /** Contadores leídos de la base y los incrementos de este nodo que se están escribiendo. */
+    private record View(Map<String, Long> persisted, Map<String, Long> inFlight) {}
+
+    private final UserStatsProperties properties;
+    private final UserRepository userRepository;
+    private final UserStatsStore store;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final int slot;
+    private final Map<Long, Map<String, LongAdder>> pending = new ConcurrentHashMap<>();
+    private volatile View view = new View(Map.of(), Map.of());
+    private volatile Reconciliation reconciliation;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param properties     Configuración de los contadores.
+     * @param userRepository Repositorio de usuarios, para las reconciliaciones.
+     * @param store          Contadores persistidos.
+     */
+    public UserStatsService(UserStatsProperties properties, UserRepository userRepository, UserStatsStore store) {
+        this.properties = properties;
+        this.userRepository = userRepository;
+        this.store = store;
+        this.slot = ThreadLocalRandom.current().nextInt(properties.slots());
+    }
+
+    /** Lee los contadores y programa las escrituras y reconciliaciones al terminar el arranque. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.enabled() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(() -> run("leer", this::load));
+        long flush = properties.flushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> run("escribir", this::flush), flush, flush, TimeUnit.MILLISECONDS);
+        long reconcile = properties.reconcileInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> run("reconciliar", this::reconcileIfDue), reconcile, reconcile, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra el cambio de un usuario. Dentro de una transacción se aplica al confirmarla, de
+     * modo que un intento revertido (p. ej. por un conflicto que se reintenta) no cuenta.
+     *
+     * @param before El usuario antes del cambio, o null si es un alta.
+     * @param after  El usuario guardado.
+     */
+    public void recordChange(User before, User after) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(before, after);
+                }
+            });
+        } else {
+            apply(before, after);
+        }
+    }
+
+    /**
+     * Estadísticas actuales: los contadores persistidos más lo pendiente de este nodo.
+     *
+     * @return Totales por estado y proveedor, y altas de los últimos {@code signupDays} días.
+     */
+    public UserStats current() {
+        View current = view;
+        Map<String, Long> counters = new HashMap<>(current.persisted());
+        current.inFlight().forEach((key, delta) -> counters.merge(key, delta, Long::sum));
+        pending.values().forEach(bucket -> bucket.forEach((key, delta) -> counters.merge(key, delta.sum(), Long::sum)));
+
+        long active = 0;
+        long inactive = 0;
+        Map<String, Long> byProvider = new TreeMap<>();
+        SortedMap<LocalDate, Long> signups = new TreeMap<>();
+        LocalDate firstDay = firstSignupDay();
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            String key = counter.getKey();
+            long value = counter.getValue();
+            if (key.startsWith(ACTIVE)) {
+                active += value;
+                byProvider.merge(key.substring(ACTIVE.length()), value, Long::sum);
+            } else if (key.startsWith(INACTIVE)) {
+                inactive += value;
+                byProvider.merge(key.substring(INACTIVE.length()), value, Long::sum);
+            } else if (key.startsWith(SIGNUPS)) {
+                LocalDate day = LocalDate.parse(key.substring(SIGNUPS.length()));
+                if (!day.isBefore(firstDay) && value != 0) {
+                    signups.put(day, value);
+                }
+            }
+        }
+        byProvider.values().removeIf(count -> count == 0);
+        Reconciliation last = reconciliation;
+        Instant reconciledAt = last != null && last.number() > 0 ? last.countedAt() : null;
+        return new UserStats(active + inactive, active, inactive, byProvider, signups, reconciledAt);
+    }
+
+    /**
+     * Lee los contadores persistidos; si no hay ninguno (primer arranque) los calcula con una reconciliación.
+     */
+    synchronized void load() {
+        initialize();
+        Map<String, Long> persisted = store.load();
+        if (persisted.isEmpty()) {
+            reconcile();
+        } else {
+            View current = view;
+            view = new View(persisted, current.inFlight());
+        }
+    }
+
+    /**
+     * Suma a la tabla los incrementos pendientes de este nodo y relee los totales. Si hubo una
+     * reconciliación desde la suma anterior, los tramos anteriores a su recuento se descartan.
+     * Si la escritura falla, los incrementos vuelven a quedar pendientes.
+     */
+    synchronized void flush() {
+        initialize();
+        Map<Long, Map<String, Long>> drained = drain();
+        View previous = view;
+        Map<String, Long> written = new HashMap<>();
+        if (!drained.isEmpty()) {
+            view = new View(previous.persisted(), sum(drained, Long.MIN_VALUE));
+            try {
+                reconciliation = store.add(slot, latest -> {
+                    written.clear();
+                    written.putAll(sum(drained, latest.number() == reconciliation.number() ? Long.MIN_VALUE : bucketOf(latest.countedAt())));
+                    return written;
+                });
+            } catch (RuntimeException e) {
+                drained.forEach((bucket, deltas) -> deltas.forEach((key, delta) -> add(bucket, key, delta)));
+                view = previous;
+                throw e;
+            }
+        }
+        try {
+            view = new View(store.load(), Map.of());
+        } catch (RuntimeException e) {
+            Map<String, Long> merged = new HashMap<>(previous.persisted());
+            written.forEach((key, delta) -> merged.merge(key, delta, Long::sum));
+            view = new View(merged, Map.of());
+            throw e;
+        }
+    }
+
+    /**
+     * Reconcilia si ningún nodo lo ha hecho en la última mitad de {@code reconcileInterval}.
+     */
+    void reconcileIfDue() {
+        reconcile(Instant.now().minus(properties.reconcileInterval().dividedBy(2)));
+    }
+
+    /**
+     * Recuenta los usuarios en la base y corrige los contadores con el recuento.
+     */
+    synchronized void reconcile() {
+        reconcile(Instant.now());
+    }
+
+    private synchronized void reconcile(Instant notBefore) {
+        flush();
+        LocalDate firstDay = firstSignupDay();
+        Map<String, Long> previous = view.persisted();
+        Optional<Reconciliation> done = store.reconcile(slot, notBefore, () -> recount(firstDay));
+        if (done.isEmpty()) {
+            return;
+        }
+        reconciliation = done.get();
+        long counted = bucketOf(reconciliation.countedAt());
+        pending.forEach((bucket, adders) -> {
+            if (bucket <= counted) {
+                adders.values().forEach(LongAdder::reset);
+            }
+        });
+        view = new View(store.load(), Map.of());
+
+        Map<String, Long> current = view.persisted();
+        long drift = 0;
+        for (String key : union(previous, current)) {
+            if (!key.startsWith(SIGNUPS) || !LocalDate.parse(key.substring(SIGNUPS.length())).isBefore(firstDay)) {
+                drift += Math.abs(previous.getOrDefault(key, 0L) - current.getOrDefault(key, 0L));
+            }
+        }
+        if (drift > 0) {
+            log.info("Estadísticas de usuarios reconciliadas: corregida una deriva de {}", drift);
+        }
+    }
+
+    private Map<String, Long> recount(LocalDate firstDay) {
+        Map<String, Long> counted = new HashMap<>();
+        for (UserCount count : userRepository.countByProviderAndActive()) {
+            counted.merge(stateKey(count.provider(), count.active()), count.count(), Long::sum);
+        }
+        userRepository.countSignupsPerDay(firstDay.atStartOfDay(zone).toInstant())
+                .forEach((day, count) -> counted.put(SIGNUPS + day, count));
+        return counted;
+    }
+
+    /** Escribe los incrementos pendientes y detiene el hilo al cerrar el contexto. */
+    @PreDestroy
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            run("escribir", this::flush);
+        }
+    }
+
+    private void apply(User before, User after) {
+        String previousState = before != null ? stateKey(before.provider(), before.active()) : null;
+        String newState = stateKey(after.provider(), after.active());
+        if (!newState.equals(previousState)) {
+            add(newState, 1);
+            if (previousState != null) {
+                add(previousState, -1);
+            }
+        }
+        if (before == null) {
+            Instant createdAt = after.createdAt() != null ? after.createdAt() : Instant.now();
+            add(SIGNUPS + LocalDate.ofInstant(createdAt, zone), 1);
+        }
+    }
+
+    private void add(String key, long delta) {
+        add(System.currentTimeMillis() / BUCKET_MILLIS, key, delta);
+    }
+
+    private void add(long bucket, String key, long delta) {
+        pending.computeIfAbsent(bucket, b -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> new LongAdder())
+                .add(delta);
+    }
+
+    /** Vacía los contadores pendientes por tramo; los tramos antiguos se eliminan. */
+    private Map<Long, Map<String, Long>> drain() {
+        long stale = System.currentTimeMillis() / BUCKET_MILLIS - STALE_BUCKETS;
+        Map<Long, Map<String, Long>> drained = new HashMap<>();
+        pending.forEach((bucket, adders) -> {
+            adders.forEach((key, adder) -> {
+                long delta = adder.sumThenReset();
+                if (delta != 0) {
+                    drained.computeIfAbsent(bucket, b -> new HashMap<>()).put(key, delta);
+                }
+            });
+            if (bucket < stale) {
+                pending.remove(bucket);
+            }
+        });
+        return drained;
+    }
+
+    /** Suma de los tramos posteriores a {@code after}. */
+    private static Map<String, Long> sum(Map<Long, Map<String, Long>> buckets, long after) {
+        Map<String, Long> total = new HashMap<>();
+        buckets.forEach((bucket, deltas) -> {
+            if (bucket > after) {
+                deltas.forEach((key, delta) -> total.merge(key, delta, Long::sum));
+            }
+        });
+        total.values().removeIf(delta -> delta == 0);
+        return total;
+    }
+
+    private static long bucketOf(Instant instant) {
+        return instant.toEpochMilli() / BUCKET_MILLIS;
+    }
+
+    private void initialize() {
+        if (reconciliation == null) {
+            reconciliation = store.initialize(properties.slots());
+        }
+    }
+
+    private LocalDate firstSignupDay() {
+        return LocalDate.now(zone).minusDays(properties.signupDays() - 1L);
+    }
+
+    private static String stateKey(String provider, boolean active) {
+        return (active ? ACTIVE : INACTIVE) + Objects.requireNonNullElse(provider, UNKNOWN_PROVIDER);
+    }
+
+    private static Set<String> union(Map<String, Long> a, Map<String, Long> b) {
+        Set<String> keys = new HashSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        return keys;
+    }
+
+    private static void run(String action, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo {} las estadísticas de usuarios: {}", action, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.legendme.users.svc.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Hash de un email normalizado, para buscar usuarios por email sin recibir el email en claro
+ * (por ejemplo al cruzar la agenda de contactos de un usuario).
+ * El hash es el SHA-256 del email sin espacios alrededor y en minúsculas, y viaja como 64
+ * caracteres hexadecimales en minúsculas; los clientes deben calcularlo igual.
+ */
+public final class EmailHash {
+
+    /** Longitud del hash en bytes. */
+    public static final int BYTES = 32;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private EmailHash() {
+    }
+
+    /**
+     * Hash de un email.
+     *
+     * @param email Email tal como se guarda o se recibe.
+     * @return Los 32 bytes del SHA-256 del email normalizado.
+     */
+    public static byte[] digest(String email) {
+        try {
+            return MessageDigest.getInstance("SHA-256")
+                    .digest(email.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Hash de un email en hexadecimal.
+     *
+     * @param email Email tal como se guarda o se recibe.
+     * @return Los 64 caracteres hexadecimales del hash.
+     */
+    public static String of(String email) {
+        return HEX.formatHex(digest(email));
+    }
+
+    /**
+     * Indica si un texto es un hash válido (64 caracteres hexadecimales, en cualquier caso).
+     *
+     * @param hash Texto recibido.
+     * @return true si se puede convertir con {@link #toBytes}.
+     */
+    public static boolean isValid(String hash) {
+        if (hash == null || hash.length() != BYTES * 2) {
+            return false;
+        }
+        for (int i = 0; i < hash.length(); i++) {
+            if (Character.digit(hash.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convierte un hash hexadecimal a bytes.
+     *
+     * @param hash Hash válido según {@link #isValid}.
+     * @return Sus 32 bytes.
+     */
+    public static byte[] toBytes(String hash) {
+        return HEX.parseHex(hash);
+    }
+
+    /**
+     * Convierte un hash a hexadecimal en minúsculas.
+     *
+     * @param hash Los 32 bytes del hash.
+     * @return Sus 64 caracteres hexadecimales.
+     */
+    public static String toHex(byte[] hash) {
+        return HEX.formatHex(hash);
+    }
+}
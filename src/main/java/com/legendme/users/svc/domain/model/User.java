@@ -1,6 +1,7 @@
 package com.legendme.users.svc.domain.model;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -18,16 +19,18 @@ import java.util.UUID;
  * @param active Estado de la cuenta del usuario
  * @param createdAt Fecha de creación del usuario
  * @param updatedAt Fecha de la última actualización del usuario
+ * @param version Versión de la fila para control de concurrencia optimista (null si aún no existe)
  */
 public record User(
         UUID id,
         String name,
         String lastname,
-        Date birthDate,
+        LocalDate birthDate,
         String username,
         String email,
         String provider,
         boolean active,
-        Date createdAt,
-        Date updatedAt
+        Instant createdAt,
+        Instant updatedAt,
+        Long version
 ) {}
@@ -0,0 +1,14 @@
+package com.legendme.users.svc.domain.model;
+
+/**
+ * Número de usuarios con un proveedor y un estado.
+ *
+ * @param provider Proveedor de autenticación (LOCAL, GOOGLE...)
+ * @param active   Estado de la cuenta
+ * @param count    Usuarios
+ */
+public record UserCount(
+        String provider,
+        boolean active,
+        long count
+) {}
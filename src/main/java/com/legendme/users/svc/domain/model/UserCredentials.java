@@ -0,0 +1,18 @@
+package com.legendme.users.svc.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Datos mínimos de un usuario para verificar su contraseña.
+ * Se obtiene con una proyección que solo lee el ID, el hash y el estado,
+ * sin materializar el resto del registro.
+ *
+ * @param id Identificador único del usuario
+ * @param passwordHash Hash almacenado de la contraseña (puede ser null en cuentas sin contraseña)
+ * @param active Estado de la cuenta
+ */
+public record UserCredentials(
+        UUID id,
+        String passwordHash,
+        Boolean active
+) {}
@@ -0,0 +1,36 @@
+package com.legendme.users.svc.domain.model;
+
+/**
+ * Campos públicos de un {@link User} que se pueden pedir por separado en las lecturas.
+ * La contraseña no es un campo público y nunca forma parte de una proyección.
+ *
+ * @see UserProjection
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    LASTNAME("lastname"),
+    BIRTH_DATE("birthDate"),
+    USERNAME("username"),
+    EMAIL("email"),
+    PROVIDER("provider"),
+    ACTIVE("active"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    private final String property;
+
+    UserField(String property) {
+        this.property = property;
+    }
+
+    /**
+     * Nombre de la propiedad en {@link User} (y en la entidad y los DTOs).
+     *
+     * @return El nombre en camelCase, por ejemplo {@code birthDate}.
+     */
+    public String property() {
+        return property;
+    }
+}
@@ -0,0 +1,127 @@
+package com.legendme.users.svc.domain.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Subconjunto de {@link UserField} que una lectura necesita.
+ * Hay una única instancia por combinación de campos (como mucho 2^11), creadas al cargar la
+ * clase, de modo que los adaptadores pueden cachear su consulta o su serializador por proyección
+ * sin reconstruirlos en cada petición.
+ */
+public final class UserProjection {
+
+    private static final UserField[] FIELDS = UserField.values();
+    private static final UserProjection[] BY_MASK = new UserProjection[1 << FIELDS.length];
+
+    static {
+        for (int mask = 0; mask < BY_MASK.length; mask++) {
+            BY_MASK[mask] = new UserProjection(mask);
+        }
+    }
+
+    /** Proyección con todos los campos: la lectura completa. */
+    public static final UserProjection ALL = BY_MASK[BY_MASK.length - 1];
+
+    private final int mask;
+    private final Set<UserField> fields;
+
+    private UserProjection(int mask) {
+        this.mask = mask;
+        EnumSet<UserField> set = EnumSet.noneOf(UserField.class);
+        for (UserField field : FIELDS) {
+            if ((mask & bit(field)) != 0) {
+                set.add(field);
+            }
+        }
+        this.fields = Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * Proyección de una combinación de campos.
+     *
+     * @param fields Campos pedidos; vacío equivale a {@link #ALL}.
+     * @return La instancia compartida de esa combinación.
+     */
+    public static UserProjection of(Set<UserField> fields) {
+        int mask = 0;
+        for (UserField field : fields) {
+            mask |= bit(field);
+        }
+        return ofMask(mask);
+    }
+
+    /**
+     * Proyección a partir de su máscara de bits (bit {@code i} = {@code UserField.values()[i]}).
+     *
+     * @param mask Máscara de campos; 0 equivale a {@link #ALL}.
+     * @return La instancia compartida de esa combinación.
+     */
+    public static UserProjection ofMask(int mask) {
+        if (mask < 0 || mask >= BY_MASK.length) {
+            throw new IllegalArgumentException("Máscara de campos fuera de rango: " + mask);
+        }
+        return mask == 0 ? ALL : BY_MASK[mask];
+    }
+
+    /**
+     * Bit de un campo en la máscara.
+     *
+     * @param field Campo.
+     * @return {@code 1 << field.ordinal()}.
+     */
+    public static int bit(UserField field) {
+        return 1 << field.ordinal();
+    }
+
+    /** Máscara de bits de los campos incluidos. */
+    public int mask() {
+        return mask;
+    }
+
+    /** Campos incluidos, en el orden de {@link UserField}. */
+    public Set<UserField> fields() {
+        return fields;
+    }
+
+    /** Indica si la proyección incluye el campo. */
+    public boolean includes(UserField field) {
+        return (mask & bit(field)) != 0;
+    }
+
+    /** Indica si es la lectura completa. */
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Deja a null (o false) los campos que la proyección no incluye.
+     *
+     * @param user Usuario completo.
+     * @return El mismo usuario si la proyección es {@link #ALL}, o una copia recortada.
+     */
+    public User apply(User user) {
+        if (isAll()) {
+            return user;
+        }
+        return new User(
+                includes(UserField.ID) ? user.id() : null,
+                includes(UserField.NAME) ? user.name() : null,
+                includes(UserField.LASTNAME) ? user.lastname() : null,
+                includes(UserField.BIRTH_DATE) ? user.birthDate() : null,
+                includes(UserField.USERNAME) ? user.username() : null,
+                includes(UserField.EMAIL) ? user.email() : null,
+                includes(UserField.PROVIDER) ? user.provider() : null,
+                includes(UserField.ACTIVE) && user.active(),
+                includes(UserField.CREATED_AT) ? user.createdAt() : null,
+                includes(UserField.UPDATED_AT) ? user.updatedAt() : null,
+                includes(UserField.VERSION) ? user.version() : null
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "UserProjection" + fields;
+    }
+}
@@ -0,0 +1,25 @@
+package com.legendme.users.svc.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Estadísticas agregadas de los usuarios.
+ *
+ * @param total         Usuarios registrados
+ * @param active        Usuarios activos
+ * @param inactive      Usuarios desactivados
+ * @param byProvider    Usuarios por proveedor de autenticación
+ * @param signupsPerDay Altas por día de los últimos días configurados
+ * @param reconciledAt  Última vez que los contadores se contrastaron con la base (null si aún no)
+ */
+public record UserStats(
+        long total,
+        long active,
+        long inactive,
+        Map<String, Long> byProvider,
+        SortedMap<LocalDate, Long> signupsPerDay,
+        Instant reconciledAt
+) {}
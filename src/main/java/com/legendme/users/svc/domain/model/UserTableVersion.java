@@ -0,0 +1,15 @@
+package com.legendme.users.svc.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Versión de la tabla de usuarios completa: cambia con cualquier alta, baja o actualización.
+ * Se usa como clave de las respuestas masivas ya serializadas, sin leer los usuarios.
+ *
+ * @param count Número de usuarios
+ * @param maxUpdatedAt Fecha de actualización más reciente (null si no hay usuarios)
+ */
+public record UserTableVersion(
+        long count,
+        Instant maxUpdatedAt
+) {}
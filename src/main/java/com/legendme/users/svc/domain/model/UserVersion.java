@@ -0,0 +1,19 @@
+package com.legendme.users.svc.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Representa la versión de un usuario sin cargar el resto de sus datos.
+ * Se utiliza para responder validaciones condicionales (ETag / Last-Modified)
+ * sin materializar el registro completo del usuario.
+ *
+ * @param id Identificador único del usuario
+ * @param updatedAt Fecha de la última actualización del usuario
+ * @param version Versión de la fila usada para control de concurrencia optimista
+ */
+public record UserVersion(
+        UUID id,
+        Instant updatedAt,
+        Long version
+) {}
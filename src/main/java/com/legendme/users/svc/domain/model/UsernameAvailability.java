@@ -0,0 +1,16 @@
+package com.legendme.users.svc.domain.model;
+
+import java.util.List;
+
+/**
+ * Disponibilidad de un username y alternativas libres.
+ *
+ * @param username    Username consultado, en minúsculas
+ * @param available   true si nadie lo usa
+ * @param suggestions Alternativas libres (ver {@link UsernameCandidates}), en orden de preferencia
+ */
+public record UsernameAvailability(
+        String username,
+        boolean available,
+        List<String> suggestions
+) {}
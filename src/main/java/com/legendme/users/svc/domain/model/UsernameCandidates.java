@@ -0,0 +1,103 @@
+package com.legendme.users.svc.domain.model;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Alternativas a un username ocupado, para sugerirlas sin que el cliente pruebe una a una.
+ *
+ * <p>Las alternativas salen, por este orden, de transliterar el username (sin tildes ni
+ * caracteres fuera de {@code [a-z0-9._-]}), de cambiar o quitar sus separadores, y de añadirle
+ * sufijos numéricos: primero los cortos y luego números aleatorios, que casi nunca están ocupados
+ * aunque el nombre sea muy común. Todas van en minúsculas, como se guardan los usernames, y
+ * ninguna repite el original.</p>
+ */
+public final class UsernameCandidates {
+
+    /** Longitud máxima de un username (la de la columna). */
+    public static final int MAX_LENGTH = 255;
+
+    private static final char[] SEPARATORS = {'.', '_', '-'};
+
+    private UsernameCandidates() {
+    }
+
+    /**
+     * Username normalizado: sin espacios alrededor, en minúsculas y sin tildes ni caracteres
+     * fuera de {@code [a-z0-9._-]}.
+     *
+     * @param username Username recibido.
+     * @return El username normalizado; puede quedar vacío.
+     */
+    public static String transliterate(String username) {
+        String decomposed = Normalizer.normalize(username.strip().toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '_' || c == '-') {
+                result.append(c);
+            } else if (c == 'ß') {
+                result.append("ss");
+            } else if (c == 'ø') {
+                result.append('o');
+            } else if (c == 'æ') {
+                result.append("ae");
+            } else if (Character.isWhitespace(c)) {
+                result.append('.');
+            }
+        }
+        return result.length() > MAX_LENGTH ? result.substring(0, MAX_LENGTH) : result.toString();
+    }
+
+    /**
+     * Alternativas a un username.
+     *
+     * @param username Username pedido, ya en minúsculas.
+     * @param count    Número de alternativas.
+     * @param random   Origen de los sufijos aleatorios.
+     * @return Hasta {@code count} alternativas distintas, en orden de preferencia.
+     */
+    public static List<String> of(String username, int count, RandomGenerator random) {
+        Set<String> candidates = new LinkedHashSet<>(count * 2);
+        String base = transliterate(username);
+        if (base.isEmpty()) {
+            base = "user";
+        }
+        add(candidates, username, base, count);
+
+        String stem = base.replaceAll("[._-]+$", "");
+        if (!stem.equals(base)) {
+            add(candidates, username, stem, count);
+        }
+        for (char separator : SEPARATORS) {
+            add(candidates, username, base.replaceAll("[._-]+", String.valueOf(separator)), count);
+        }
+        add(candidates, username, base.replaceAll("[._-]+", ""), count);
+
+        String root = stem.isEmpty() ? "user" : stem;
+        for (int suffix = 1; suffix <= 9 && candidates.size() < count; suffix++) {
+            add(candidates, username, withSuffix(root, "", suffix), count);
+        }
+        for (int attempts = 0; candidates.size() < count && attempts < count * 4; attempts++) {
+            int suffix = random.nextInt(10, 10_000);
+            String separator = attempts % 2 == 0 ? "" : String.valueOf(SEPARATORS[attempts / 2 % SEPARATORS.length]);
+            add(candidates, username, withSuffix(root, separator, suffix), count);
+        }
+        return List.copyOf(candidates);
+    }
+
+    private static void add(Set<String> candidates, String original, String candidate, int count) {
+        if (candidates.size() < count && !candidate.isEmpty() && !candidate.equals(original)) {
+            candidates.add(candidate);
+        }
+    }
+
+    private static String withSuffix(String root, String separator, int suffix) {
+        String tail = separator + suffix;
+        return (root.length() + tail.length() > MAX_LENGTH ? root.substring(0, MAX_LENGTH - tail.length()) : root) + tail;
+    }
+}
@@ -0,0 +1,38 @@
+package com.legendme.users.svc.infrastructure.actuator;
+
+import com.legendme.users.svc.application.hotusers.HotUserCache;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint de actuator {@code /actuator/hotusers}: los usuarios más leídos por ID y por username
+ * con su recuento estimado (con decaimiento), el total de lecturas registradas y cuántos usuarios
+ * están fijados en la caché. Como el resto de {@code /actuator}, salvo health, solo es accesible
+ * con el token S2S.
+ */
+@Component
+@Endpoint(id = "hotusers")
+public class HotUsersEndpoint {
+
+    private final HotUserCache hotUsers;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param hotUsers Detector de usuarios calientes.
+     */
+    public HotUsersEndpoint(HotUserCache hotUsers) {
+        this.hotUsers = hotUsers;
+    }
+
+    /**
+     * Estado actual del detector.
+     *
+     * @return Top-K por tipo de clave y usuarios fijados.
+     */
+    @ReadOperation
+    public HotUserCache.Report hotUsers() {
+        return hotUsers.report();
+    }
+}
@@ -0,0 +1,116 @@
+package com.legendme.users.svc.infrastructure.actuator;
+
+import com.legendme.users.svc.infrastructure.profiling.JfrRecorder;
+import com.legendme.users.svc.infrastructure.profiling.RecordingPreset;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Endpoint de actuator {@code /actuator/profiling} para grabar con JFR sin redesplegar. Como el
+ * resto de {@code /actuator}, salvo health, solo es accesible con el token S2S.
+ * <ul>
+ *   <li>{@code GET /actuator/profiling}: estado del anillo, grabaciones en curso y ficheros.</li>
+ *   <li>{@code POST /actuator/profiling} con {@code {"preset":"cpu","duration":"2m"}}: inicia una
+ *       grabación ({@code cpu}, {@code allocation}, {@code locks} o {@code jdbc-io}).</li>
+ *   <li>{@code DELETE /actuator/profiling/{id}}: para la grabación y la escribe en su fichero.</li>
+ *   <li>{@code GET /actuator/profiling/{fichero}}: descarga un fichero; {@code ring} vuelca antes
+ *       el contenido actual de la grabación continua.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "profiling")
+@ConditionalOnProperty(prefix = "legendme.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ProfilingEndpoint {
+
+    /** Respuesta del estado general. */
+    public record Status(boolean ringRunning, List<String> presets, List<JfrRecorder.RecordingInfo> recordings,
+                         List<JfrRecorder.FileInfo> files) {}
+
+    private static final String RING = "ring";
+
+    private final JfrRecorder recorder;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param recorder Grabaciones JFR.
+     */
+    public ProfilingEndpoint(JfrRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Estado de las grabaciones.
+     *
+     * @return Anillo, configuraciones disponibles, grabaciones bajo demanda y ficheros.
+     */
+    @ReadOperation
+    public Status status() {
+        List<String> presets = Arrays.stream(RecordingPreset.values()).map(RecordingPreset::slug).toList();
+        return new Status(recorder.ringRunning(), presets, recorder.recordings(), recorder.files());
+    }
+
+    /**
+     * Inicia una grabación bajo demanda.
+     *
+     * @param preset   Configuración ({@code cpu}, {@code allocation}, {@code locks}, {@code jdbc-io}).
+     * @param duration Duración ({@code 30s}, {@code 2m}...); sin ella se usa la configurada por defecto.
+     * @return La grabación iniciada, con su ID para pararla.
+     */
+    @WriteOperation
+    public JfrRecorder.RecordingInfo start(String preset, @Nullable Duration duration) {
+        RecordingPreset parsed;
+        try {
+            parsed = RecordingPreset.of(preset);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException("Configuración de grabación desconocida: " + preset,
+                    "Configuración de grabación desconocida");
+        }
+        if (duration != null && (duration.isNegative() || duration.isZero())) {
+            throw new InvalidEndpointRequestException("Duración inválida: " + duration, "Duración inválida");
+        }
+        return recorder.start(parsed, duration);
+    }
+
+    /**
+     * Para una grabación bajo demanda.
+     *
+     * @param id ID devuelto al iniciarla.
+     * @return La grabación parada con su fichero, o 404 si no existe.
+     */
+    @DeleteOperation
+    public WebEndpointResponse<JfrRecorder.RecordingInfo> stop(@Selector long id) {
+        return recorder.stop(id)
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    /**
+     * Descarga un fichero de grabación.
+     *
+     * @param name Nombre del fichero, o {@code ring} para volcar y descargar la grabación continua.
+     * @return El fichero {@code .jfr}, o 404 si no existe.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String name) {
+        Optional<Path> file = RING.equals(name) ? recorder.dumpRing("manual") : recorder.file(name);
+        return file.<WebEndpointResponse<Resource>>map(path -> new WebEndpointResponse<>(new FileSystemResource(path)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+}
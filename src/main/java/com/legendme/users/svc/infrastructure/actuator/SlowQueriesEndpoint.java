@@ -0,0 +1,53 @@
+package com.legendme.users.svc.infrastructure.actuator;
+
+import com.legendme.users.svc.infrastructure.sql.SlowQueryLog;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Endpoint de actuator {@code /actuator/slowqueries}: las últimas consultas lentas (SQL, forma de
+ * los parámetros, duración, DataSource y endpoint) y el histograma de duraciones de cada forma de
+ * consulta, con su {@code EXPLAIN} si ya se obtuvo. {@code GET /actuator/slowqueries/{id}} devuelve
+ * una sola forma. Como el resto de {@code /actuator}, salvo health, solo es accesible con el token S2S.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private final SlowQueryLog slowQueries;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param slowQueries Registro de consultas lentas.
+     */
+    public SlowQueriesEndpoint(SlowQueryLog slowQueries) {
+        this.slowQueries = slowQueries;
+    }
+
+    /**
+     * Estado actual del registro.
+     *
+     * @return Umbral, consultas lentas recientes y formas.
+     */
+    @ReadOperation
+    public SlowQueryLog.Report slowQueries() {
+        return slowQueries.report();
+    }
+
+    /**
+     * Agregado de una forma de consulta.
+     *
+     * @param id Identificador de la forma (el {@code shape} de cada consulta lenta).
+     * @return La forma, o 404 si no existe.
+     */
+    @ReadOperation
+    public WebEndpointResponse<SlowQueryLog.ShapeReport> shape(@Selector String id) {
+        return slowQueries.shape(id)
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+}
@@ -0,0 +1,115 @@
+package com.legendme.users.svc.infrastructure.compression;
+
+import com.github.luben.zstd.Zstd;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codificaciones de contenido (cabecera Content-Encoding) que el servicio sabe producir,
+ * en orden de preferencia: zstd comprime más y más rápido que gzip, que queda para los
+ * clientes que no anuncian zstd.
+ */
+public enum ContentCoding {
+    ZSTD("zstd"),
+    GZIP("gzip"),
+    IDENTITY("identity");
+
+    private static final ContentCoding[] PREFERENCE = values();
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /** Valor de la cabecera Content-Encoding. */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Elige la codificación a partir de la cabecera Accept-Encoding (RFC 9110, sección 12.5.3).
+     * Gana la de mayor peso {@code q}; a igual peso, la de este enum que aparece antes.
+     * Una codificación con {@code q=0} queda excluida aunque el comodín {@code *} la admita.
+     *
+     * @param acceptEncoding Valor de la cabecera (puede ser null).
+     * @return La codificación elegida, o {@link #IDENTITY} si no hay ninguna aceptable.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        float[] weights = {-1f, -1f, -1f};
+        float wildcard = -1f;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].strip();
+            float q = 1f;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].strip();
+                if (param.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        q = Float.parseFloat(param.substring(2).strip());
+                    } catch (NumberFormatException e) {
+                        q = 0f;
+                    }
+                }
+            }
+            if (name.equals("*")) {
+                wildcard = q;
+                continue;
+            }
+            for (ContentCoding coding : PREFERENCE) {
+                if (coding != IDENTITY && coding.token.equalsIgnoreCase(name)) {
+                    weights[coding.ordinal()] = q;
+                }
+            }
+        }
+        ContentCoding best = IDENTITY;
+        float bestWeight = 0f;
+        for (ContentCoding coding : PREFERENCE) {
+            if (coding == IDENTITY) {
+                continue;
+            }
+            float weight = weights[coding.ordinal()] >= 0 ? weights[coding.ordinal()] : wildcard;
+            if (weight > bestWeight) {
+                best = coding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Codifica un cuerpo completo.
+     *
+     * @param body  Bytes sin comprimir.
+     * @param level Nivel de compresión (zstd 1-22, gzip 1-9); se ignora con {@link #IDENTITY}.
+     * @return Los bytes codificados.
+     */
+    public byte[] encode(byte[] body, int level) {
+        return switch (this) {
+            case ZSTD -> Zstd.compress(body, level);
+            case GZIP -> gzip(body, level);
+            case IDENTITY -> body;
+        };
+    }
+
+    private static byte[] gzip(byte[] body, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, level)));
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
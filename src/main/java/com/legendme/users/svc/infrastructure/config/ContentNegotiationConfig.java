@@ -0,0 +1,64 @@
+package com.legendme.users.svc.infrastructure.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.legendme.users.svc.adapter.in.rest.UserJsonHttpMessageConverter;
+import com.legendme.users.svc.adapter.in.rest.UserProtobufHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Formatos binarios para las llamadas S2S, elegidos por la cabecera {@code Accept}.
+ * JSON sigue siendo el formato por defecto: los convertidores binarios van al final de la
+ * lista, de modo que una petición sin {@code Accept} o con {@code *}{@code /*} recibe JSON.
+ *
+ * <ul>
+ *   <li>{@code application/cbor}: el mismo modelo que JSON, con la configuración de Jackson
+ *       de la aplicación ({@code spring.jackson.*}), salvo las fechas, que van como milisegundos
+ *       desde epoch en lugar de texto ISO-8601; los UUID van como 16 bytes.</li>
+ *   <li>{@code application/x-protobuf}: mensajes de {@code users.proto} para las respuestas
+ *       de lectura.</li>
+ * </ul>
+ *
+ * <p>Los DTOs de usuario y los errores en JSON los escribe y lee {@link UserJsonHttpMessageConverter},
+ * delante del convertidor Jackson y con su mismo ObjectMapper.</p>
+ *
+ * <p>Los errores se escriben siempre en JSON (ver {@code GlobalExceptionHandler}).</p>
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder jacksonBuilder;
+
+    /**
+     * Constructor para la inyección del builder de Jackson configurado por Spring Boot.
+     *
+     * @param jacksonBuilder Builder con la configuración {@code spring.jackson.*}.
+     */
+    public ContentNegotiationConfig(Jackson2ObjectMapperBuilder jacksonBuilder) {
+        this.jacksonBuilder = jacksonBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter json) {
+                converters.add(i, new UserJsonHttpMessageConverter(json.getObjectMapper()));
+                break;
+            }
+        }
+        // Sustituye al convertidor CBOR por defecto, que usa un ObjectMapper sin la configuración de Boot.
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                jacksonBuilder.factory(new CBORFactory())
+                        .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .build()));
+        converters.add(new UserProtobufHttpMessageConverter());
+    }
+}
@@ -1,14 +1,31 @@
 package com.legendme.users.svc.infrastructure.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
 /**
  * Configuración de JPA para la aplicación.
  * Habilita la auditoría JPA, que permite el seguimiento automático
  * de las fechas de creación y actualización de las entidades.
  */
 @Configuration
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "auditingDateTimeProvider")
 public class JpaConfig {
+
+    /**
+     * Fechas de auditoría como {@link Instant} truncado a milisegundos, la precisión del
+     * directorio en memoria y de Protobuf.
+     *
+     * @return Proveedor del instante actual.
+     */
+    @Bean
+    public DateTimeProvider auditingDateTimeProvider() {
+        return () -> Optional.of(Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
 }
@@ -0,0 +1,26 @@
+package com.legendme.users.svc.infrastructure.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.legendme.users.svc.infrastructure.json.IsoTimeModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de Jackson para las fechas: {@code Instant} y {@code LocalDate} se escriben con
+ * {@link IsoTimeModule} en los ObjectMapper de la aplicación; en JSON como texto ISO-8601 y en
+ * CBOR, que activa {@code WRITE_DATES_AS_TIMESTAMPS}, como milisegundos desde epoch.
+ */
+@Configuration
+public class JsonTimeConfig {
+
+    /**
+     * Spring Boot registra los módulos declarados como beans después de {@code JavaTimeModule},
+     * por lo que estos serializadores tienen prioridad.
+     *
+     * @return El módulo con los serializadores ISO.
+     */
+    @Bean
+    public Module isoTimeModule() {
+        return new IsoTimeModule();
+    }
+}
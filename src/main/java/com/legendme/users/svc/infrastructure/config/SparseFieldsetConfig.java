@@ -0,0 +1,30 @@
+package com.legendme.users.svc.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.legendme.users.svc.adapter.in.rest.UserFieldsResponseAdvice;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de Jackson para el parámetro {@code fields} de las lecturas de usuarios.
+ * Asocia {@link UserResponse} a un filtro de propiedades mediante un mix-in y registra un
+ * proveedor por defecto que no filtra nada, de modo que sin {@code fields} la respuesta es la
+ * completa y solo {@link UserFieldsResponseAdvice} aplica un filtro real.
+ */
+@Configuration
+public class SparseFieldsetConfig {
+
+    /**
+     * Personaliza el ObjectMapper de la aplicación (JSON y CBOR).
+     *
+     * @return Customizer con el mix-in y el proveedor de filtros por defecto.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+                .mixIn(UserResponse.class, UserFieldsResponseAdvice.FilterMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
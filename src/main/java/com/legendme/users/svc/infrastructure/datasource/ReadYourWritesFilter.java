@@ -0,0 +1,58 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que aplica lectura-de-tus-escrituras por cliente.
+ * Antes de la petición fija las lecturas al primario si el cliente escribió recientemente;
+ * al terminar, si la petición escribió en el primario, lo registra en el {@link ReadYourWritesTracker}.
+ * Se registra después de la cadena de seguridad para conocer al usuario autenticado.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWritesTracker tracker;
+
+    /**
+     * Constructor para la inyección del registro de escrituras.
+     *
+     * @param tracker Registro de la última escritura por cliente.
+     */
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String caller = callerOf(request);
+        try {
+            if (tracker.mustReadFromPrimary(caller)) {
+                ReplicaRoutingContext.pinPrimary();
+            }
+            filterChain.doFilter(request, response);
+            if (ReplicaRoutingContext.hasWritten()) {
+                tracker.recordWrite(caller);
+            }
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    /**
+     * El cliente es el principal autenticado (usuario del JWT o servicio interno)
+     * junto con su IP, para no fijar al primario a todos los servicios internos a la vez.
+     */
+    private static String callerOf(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String principal = auth != null && auth.isAuthenticated() ? auth.getName() : "anonymous";
+        return principal + "@" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,67 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra la última escritura de cada cliente para garantizar lectura-de-tus-escrituras:
+ * mientras no haya pasado la ventana configurada, sus lecturas se fijan al primario
+ * aunque la réplica aún no haya replicado el cambio.
+ *
+ * <p>Límites conocidos: la ventana es fija ({@code legendme.datasource.read-your-writes-window})
+ * y no comprueba la posición de la réplica (GTID), así que un retraso de replicación mayor que la
+ * ventana vuelve a servir datos anteriores a la escritura. El registro es local al nodo: si el
+ * balanceador envía la lectura a otro nodo, esa lectura puede ir a una réplica.</p>
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    /**
+     * Tamaño a partir del cual se purgan las entradas vencidas al registrar una escritura.
+     */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ConcurrentHashMap<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    /**
+     * Constructor para la inyección de la configuración de réplicas.
+     *
+     * @param properties Configuración del enrutamiento a réplicas.
+     */
+    public ReadYourWritesTracker(ReplicaRoutingProperties properties) {
+        this.windowNanos = properties.readYourWritesWindow().toNanos();
+    }
+
+    /**
+     * Registra que el cliente acaba de escribir en el primario.
+     *
+     * @param caller Identificador del cliente.
+     */
+    public void recordWrite(String caller) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(caller, now);
+        if (lastWriteNanos.size() > PURGE_THRESHOLD) {
+            lastWriteNanos.values().removeIf(written -> now - written > windowNanos);
+        }
+    }
+
+    /**
+     * Indica si las lecturas del cliente deben ir al primario.
+     *
+     * @param caller Identificador del cliente.
+     * @return true si el cliente escribió dentro de la ventana configurada.
+     */
+    public boolean mustReadFromPrimary(String caller) {
+        Long written = lastWriteNanos.get(caller);
+        if (written == null) {
+            return false;
+        }
+        if (System.nanoTime() - written > windowNanos) {
+            lastWriteNanos.remove(caller, written);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Configuración del enrutamiento de lecturas a réplicas.
+ * Con {@code legendme.datasource.enabled=true} reemplaza el DataSource autoconfigurado por
+ * un {@link ReplicaRoutingDataSource}: las transacciones de solo lectura van a las réplicas
+ * y las de escritura al primario. Sin esa propiedad, todo sigue yendo al primario.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    /**
+     * Crea el DataSource enrutador con el primario de {@code spring.datasource.*} y las réplicas configuradas.
+     *
+     * @param primaryProperties Propiedades del DataSource primario.
+     * @param properties        Configuración de las réplicas.
+     * @return El DataSource enrutador.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "legendme.datasource", name = "enabled", havingValue = "true")
+    ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties primaryProperties,
+                                                      ReplicaRoutingProperties properties) {
+        DataSource primary = primaryProperties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = properties.replicas().stream()
+                .map(replica -> (DataSource) DataSourceBuilder.create()
+                        .driverClassName(primaryProperties.getDriverClassName())
+                        .url(replica.url())
+                        .username(replica.username())
+                        .password(replica.password())
+                        .build())
+                .toList();
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * Expone el enrutador como DataSource principal detrás de un proxy perezoso, de modo que
+     * la conexión real se obtiene cuando la transacción ya está marcada como de solo lectura o no.
+     *
+     * @param routingDataSource El DataSource enrutador.
+     * @return El DataSource que usarán JPA y las transacciones.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "legendme.datasource", name = "enabled", havingValue = "true")
+    DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Registra el filtro de lectura-de-tus-escrituras después de la cadena de seguridad.
+     *
+     * @param tracker Registro de la última escritura por cliente.
+     * @return El registro del filtro en el contenedor de servlets.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "legendme.datasource", name = "enabled", havingValue = "true")
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+/**
+ * Estado de enrutamiento asociado al hilo de la petición actual.
+ * Indica si las lecturas deben fijarse al primario y registra si la petición
+ * usó el primario para una transacción de escritura.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<ReplicaRoutingContext> CURRENT = ThreadLocal.withInitial(ReplicaRoutingContext::new);
+
+    private boolean primaryPinned;
+    private boolean wrote;
+
+    private ReplicaRoutingContext() {
+    }
+
+    /** Fija todas las lecturas del hilo actual al primario. */
+    public static void pinPrimary() {
+        CURRENT.get().primaryPinned = true;
+    }
+
+    /** @return true si las lecturas del hilo actual deben ir al primario. */
+    public static boolean isPrimaryPinned() {
+        return CURRENT.get().primaryPinned;
+    }
+
+    /** Registra que el hilo actual abrió una transacción de escritura en el primario. */
+    public static void markWrite() {
+        CURRENT.get().wrote = true;
+    }
+
+    /** @return true si el hilo actual escribió en el primario. */
+    public static boolean hasWritten() {
+        return CURRENT.get().wrote;
+    }
+
+    /** Limpia el estado del hilo actual al terminar la petición. */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
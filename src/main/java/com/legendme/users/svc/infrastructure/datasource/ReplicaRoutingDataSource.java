@@ -0,0 +1,83 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a las réplicas (en round-robin)
+ * y todo lo demás al primario.
+ * Debe usarse detrás de un {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * para que la conexión se elija cuando la transacción ya conoce su flag de solo lectura.
+ * Las lecturas se fijan al primario cuando el hilo lo pide vía {@link ReplicaRoutingContext}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA_PREFIX = "replica-";
+
+    private final List<DataSource> targets = new ArrayList<>();
+    private final int replicaCount;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Constructor que registra el primario y las réplicas como destinos del enrutamiento.
+     *
+     * @param primary  DataSource del primario.
+     * @param replicas DataSources de las réplicas (puede estar vacía).
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(PRIMARY, primary);
+        targets.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targetDataSources.put(REPLICA_PREFIX + i, replicas.get(i));
+            targets.add(replicas.get(i));
+        }
+        this.replicaCount = replicas.size();
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Decide el destino de la conexión que se está abriendo.
+     *
+     * @return la clave del primario o de la réplica elegida.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReplicaRoutingContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (replicaCount == 0 || ReplicaRoutingContext.isPrimaryPinned()) {
+            return PRIMARY;
+        }
+        return REPLICA_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+
+    /**
+     * Cierra los pools de conexión del primario y las réplicas.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataSource target : targets) {
+            if (target instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuración del enrutamiento de lecturas hacia réplicas de MySQL.
+ * El primario sigue configurándose con {@code spring.datasource.*}; aquí solo se
+ * declaran las réplicas y la ventana de lectura-de-tus-escrituras.
+ *
+ * @param enabled              activa el enrutamiento (por defecto todo va al primario)
+ * @param replicas             réplicas de solo lectura, usadas en round-robin
+ * @param readYourWritesWindow tiempo durante el cual, tras una escritura, las lecturas
+ *                             del mismo cliente se fijan al primario. Es un plazo fijo, no la
+ *                             posición de la réplica: con un retraso de replicación mayor el
+ *                             cliente puede leer de la réplica una versión anterior a su escritura.
+ *                             Debe superar el retraso máximo tolerado (p. ej. el umbral de alerta de
+ *                             {@code Seconds_Behind_Source}).
+ */
+@ConfigurationProperties(prefix = "legendme.datasource")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration readYourWritesWindow
+) {
+
+    /**
+     * Conexión a una réplica.
+     *
+     * @param url      URL JDBC de la réplica
+     * @param username usuario de conexión
+     * @param password contraseña de conexión
+     */
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.legendme.users.svc.infrastructure.json;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escritura ISO-8601 de instantes y fechas directamente sobre un {@code char[]}, sin pasar por
+ * {@link DateTimeFormatter} (que crea un contexto, un {@code StringBuilder} y un {@code String}
+ * por valor) ni por la zona horaria por defecto.
+ *
+ * <p>Los instantes se escriben en UTC con milisegundos siempre presentes
+ * ({@code 2024-05-01T10:15:30.000Z}) y con 6 o 9 decimales solo si tienen precisión por debajo
+ * del milisegundo; las fechas, como {@code 2024-05-01}. Los años fuera de {@code 0000-9999}
+ * recurren al formateador estándar.</p>
+ */
+public final class IsoTime {
+
+    /** Longitud máxima de un instante escrito, incluidos los años de más de cuatro cifras. */
+    public static final int MAX_INSTANT_LENGTH = 40;
+
+    /** Longitud máxima de una fecha escrita, incluidos los años de más de cuatro cifras. */
+    public static final int MAX_DATE_LENGTH = 16;
+
+    private static final long MIN_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private IsoTime() {
+    }
+
+    /**
+     * Escribe un instante.
+     *
+     * @param instant Instante.
+     * @param buffer  Destino, con al menos {@link #MAX_INSTANT_LENGTH} posiciones libres desde {@code offset}.
+     * @param offset  Primera posición a escribir.
+     * @return La posición siguiente al último carácter escrito.
+     */
+    public static int write(Instant instant, char[] buffer, int offset) {
+        long seconds = instant.getEpochSecond();
+        long day = Math.floorDiv(seconds, SECONDS_PER_DAY);
+        if (day < MIN_DAY || day > MAX_DAY) {
+            return fallback(DateTimeFormatter.ISO_INSTANT.format(instant), buffer, offset);
+        }
+        int secondOfDay = (int) Math.floorMod(seconds, SECONDS_PER_DAY);
+        int pos = writeDay(day, buffer, offset);
+        buffer[pos++] = 'T';
+        pos = two(secondOfDay / 3600, buffer, pos);
+        buffer[pos++] = ':';
+        pos = two(secondOfDay / 60 % 60, buffer, pos);
+        buffer[pos++] = ':';
+        pos = two(secondOfDay % 60, buffer, pos);
+        buffer[pos++] = '.';
+        int nano = instant.getNano();
+        pos = digits(nano / 1_000_000, 3, buffer, pos);
+        if (nano % 1_000_000 != 0) {
+            pos = digits(nano / 1_000 % 1_000, 3, buffer, pos);
+            if (nano % 1_000 != 0) {
+                pos = digits(nano % 1_000, 3, buffer, pos);
+            }
+        }
+        buffer[pos++] = 'Z';
+        return pos;
+    }
+
+    /**
+     * Escribe una fecha.
+     *
+     * @param date   Fecha.
+     * @param buffer Destino, con al menos {@link #MAX_DATE_LENGTH} posiciones libres desde {@code offset}.
+     * @param offset Primera posición a escribir.
+     * @return La posición siguiente al último carácter escrito.
+     */
+    public static int write(LocalDate date, char[] buffer, int offset) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return fallback(date.toString(), buffer, offset);
+        }
+        int pos = digits(year, 4, buffer, offset);
+        buffer[pos++] = '-';
+        pos = two(date.getMonthValue(), buffer, pos);
+        buffer[pos++] = '-';
+        return two(date.getDayOfMonth(), buffer, pos);
+    }
+
+    /** Fecha civil de un día epoch (algoritmo {@code civil_from_days} de H. Hinnant). */
+    private static int writeDay(long epochDay, char[] buffer, int pos) {
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        pos = digits(year, 4, buffer, pos);
+        buffer[pos++] = '-';
+        pos = two(month, buffer, pos);
+        buffer[pos++] = '-';
+        return two(day, buffer, pos);
+    }
+
+    private static int two(int value, char[] buffer, int pos) {
+        buffer[pos] = (char) ('0' + value / 10);
+        buffer[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    private static int digits(int value, int width, char[] buffer, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static int fallback(String formatted, char[] buffer, int offset) {
+        formatted.getChars(0, formatted.length(), buffer, offset);
+        return offset + formatted.length();
+    }
+}
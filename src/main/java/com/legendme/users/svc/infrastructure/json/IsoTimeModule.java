@@ -0,0 +1,103 @@
+package com.legendme.users.svc.infrastructure.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.InstantDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Módulo de Jackson que escribe {@link Instant} y {@link LocalDate} con {@link IsoTime}.
+ * Sustituye a los serializadores de {@code JavaTimeModule} para esos dos tipos (se registra
+ * después).
+ *
+ * <p>Con {@code WRITE_DATES_AS_TIMESTAMPS} activo (el ObjectMapper de CBOR) ambos tipos se
+ * escriben como milisegundos desde epoch, las fechas a medianoche UTC, igual que Protobuf. Al
+ * leer, un entero se interpreta del mismo modo; el resto de valores los lee {@code JavaTimeModule}.</p>
+ */
+public class IsoTimeModule extends SimpleModule {
+
+    /** Crea el módulo con los serializadores y deserializadores. */
+    public IsoTimeModule() {
+        super("IsoTimeModule");
+        addSerializer(Instant.class, new InstantSerializer());
+        addSerializer(LocalDate.class, new LocalDateSerializer());
+        addDeserializer(Instant.class, new EpochMillisInstantDeserializer());
+        addDeserializer(LocalDate.class, new EpochMillisLocalDateDeserializer());
+    }
+
+    static final class InstantSerializer extends StdSerializer<Instant> {
+
+        InstantSerializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public void serialize(Instant value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                gen.writeNumber(value.toEpochMilli());
+                return;
+            }
+            char[] buffer = new char[IsoTime.MAX_INSTANT_LENGTH];
+            gen.writeString(buffer, 0, IsoTime.write(value, buffer, 0));
+        }
+    }
+
+    static final class LocalDateSerializer extends StdSerializer<LocalDate> {
+
+        LocalDateSerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                gen.writeNumber(value.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+                return;
+            }
+            char[] buffer = new char[IsoTime.MAX_DATE_LENGTH];
+            gen.writeString(buffer, 0, IsoTime.write(value, buffer, 0));
+        }
+    }
+
+    static final class EpochMillisInstantDeserializer extends StdDeserializer<Instant> {
+
+        EpochMillisInstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return Instant.ofEpochMilli(p.getLongValue());
+            }
+            return InstantDeserializer.INSTANT.deserialize(p, ctxt);
+        }
+    }
+
+    static final class EpochMillisLocalDateDeserializer extends StdDeserializer<LocalDate> {
+
+        EpochMillisLocalDateDeserializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return LocalDate.ofInstant(Instant.ofEpochMilli(p.getLongValue()), ZoneOffset.UTC);
+            }
+            return LocalDateDeserializer.INSTANCE.deserialize(p, ctxt);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia adaptativo por gradiente de latencia (al estilo de Gradient2 de
+ * Netflix concurrency-limits).
+ *
+ * <p>Compara la latencia reciente (media exponencial corta) con la de referencia (media
+ * exponencial larga). Mientras la reciente no supera la de referencia por más de la
+ * tolerancia, el límite crece en {@code sqrt(límite)}; cuando la supera, se reduce en
+ * proporción (como mucho a la mitad por muestra). Si hay menos de la mitad del límite en
+ * curso, la latencia no dice nada del límite y no se ajusta.</p>
+ *
+ * <p>El tráfico sin prioridad solo puede ocupar {@code 1 - priorityReserve} del límite; el
+ * resto queda para el tráfico con prioridad (S2S). Adquirir es un CAS sin bloqueo; el ajuste
+ * del límite se hace en cada muestra bajo el monitor del objeto.</p>
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double priorityReserve;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Crea el límite.
+     *
+     * @param initialLimit    Límite inicial.
+     * @param minLimit        Límite mínimo.
+     * @param maxLimit        Límite máximo.
+     * @param tolerance       Relación latencia reciente / referencia tolerada antes de reducir.
+     * @param smoothing       Peso de cada nuevo cálculo (0..1).
+     * @param priorityReserve Fracción del límite reservada al tráfico con prioridad.
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    double tolerance, double smoothing, double priorityReserve) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= min <= inicial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.priorityReserve = priorityReserve;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * Intenta ocupar una plaza.
+     *
+     * @param priority true para el tráfico con prioridad (S2S), que puede usar todo el límite.
+     * @return El número de peticiones en curso tras ocupar la plaza, o 0 si se supera el límite.
+     */
+    public int tryAcquire(boolean priority) {
+        int current = limit;
+        int allowed = priority ? current : Math.max(1, (int) (current * (1 - priorityReserve)));
+        while (true) {
+            int busy = inFlight.get();
+            if (busy >= allowed) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(busy, busy + 1)) {
+                return busy + 1;
+            }
+        }
+    }
+
+    /**
+     * Libera una plaza y ajusta el límite con la latencia de la petición.
+     *
+     * @param rttNanos        Duración de la petición.
+     * @param inFlightAtStart Peticiones en curso cuando empezó (devuelto por {@link #tryAcquire}).
+     */
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+
+    /**
+     * Libera una plaza sin usar la latencia (la petición falló antes de completarse).
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Límite actual.
+     *
+     * @return El número máximo de peticiones en curso.
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Peticiones en curso.
+     *
+     * @return Las plazas ocupadas.
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        double rtt = Math.max(1, rttNanos);
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) / SHORT_WINDOW;
+        longRtt = longRtt == 0 ? rtt : longRtt + (rtt - longRtt) / LONG_WINDOW;
+        // Tras una mejora fuerte la referencia baja antes, para no tolerar la latencia antigua.
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        if (inFlightAtStart < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double candidate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - smoothing) + candidate * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
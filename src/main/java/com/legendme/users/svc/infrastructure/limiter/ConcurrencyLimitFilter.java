@@ -0,0 +1,132 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.infrastructure.security.S2SAuthFilter;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Descarta con 503 las peticiones que superan el límite de concurrencia adaptativo de su clase
+ * de endpoint ({@link EndpointClass}), antes de que ocupen un hilo esperando a la base de datos.
+ *
+ * <p>Va en la cadena de seguridad justo después de {@link S2SAuthFilter}: el tráfico S2S ya está
+ * autenticado y tiene prioridad, y las peticiones descartadas no llegan a validar el JWT.
+ * Publica por clase el límite ({@code legendme.concurrency.limit}), las peticiones en curso
+ * ({@code legendme.concurrency.in-flight}) y las descartadas ({@code legendme.concurrency.shed},
+ * por tipo de cliente).</p>
+ *
+ * <p>Clasifica la ruta decodificada y normalizada, como la resuelve MVC, para que variantes como
+ * {@code /legendme/users/%63reate} no queden fuera de su clase.</p>
+ */
+@Component
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shedPriority = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shedOthers = new EnumMap<>(EndpointClass.class);
+    private final byte[] overloadedBody;
+
+    /**
+     * Crea los límites de cada clase de endpoint y registra sus métricas.
+     *
+     * @param properties    Configuración de los límites.
+     * @param meterRegistry Registro de métricas.
+     * @param objectMapper  Serializador del cuerpo de error, que se calcula una sola vez.
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        try {
+            this.overloadedBody = objectMapper.writeValueAsBytes(UserErrors.OVERLOADED.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!properties.enabled()) {
+            return;
+        }
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            ConcurrencyLimitProperties.Limit limit = properties.limits()
+                    .getOrDefault(endpointClass, new ConcurrencyLimitProperties.Limit(20, 1, 200));
+            AdaptiveConcurrencyLimit limiter = new AdaptiveConcurrencyLimit(limit.initial(), limit.min(), limit.max(),
+                    properties.tolerance(), properties.smoothing(), properties.priorityReserve());
+            limits.put(endpointClass, limiter);
+
+            String tag = endpointClass.name().toLowerCase();
+            Gauge.builder("legendme.concurrency.limit", limiter, AdaptiveConcurrencyLimit::limit)
+                    .tag("class", tag).register(meterRegistry);
+            Gauge.builder("legendme.concurrency.in-flight", limiter, AdaptiveConcurrencyLimit::inFlight)
+                    .tag("class", tag).register(meterRegistry);
+            shedPriority.put(endpointClass, Counter.builder("legendme.concurrency.shed")
+                    .tag("class", tag).tag("client", "s2s").register(meterRegistry));
+            shedOthers.put(endpointClass, Counter.builder("legendme.concurrency.shed")
+                    .tag("class", tag).tag("client", "user").register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = limits.isEmpty() ? null : EndpointClass.of(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        if (endpointClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limiter = limits.get(endpointClass);
+        boolean priority = S2SAuthFilter.isInternalRequest();
+        int inFlight = limiter.tryAcquire(priority);
+        if (inFlight == 0) {
+            (priority ? shedPriority : shedOthers).get(endpointClass).increment();
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed) {
+                limiter.release(System.nanoTime() - start, inFlight);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    /**
+     * Límite de una clase de endpoint.
+     *
+     * @param endpointClass Clase del endpoint.
+     * @return El límite, o null si el límite está desactivado.
+     */
+    public AdaptiveConcurrencyLimit limit(EndpointClass endpointClass) {
+        return limits.get(endpointClass);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(overloadedBody.length);
+        response.getOutputStream().write(overloadedBody);
+    }
+}
@@ -0,0 +1,39 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Configuración de los límites de concurrencia adaptativos por clase de endpoint.
+ *
+ * @param enabled         activa el límite; desactivado todas las peticiones pasan
+ * @param tolerance       cuánto puede crecer la latencia reciente sobre la de referencia antes de reducir el límite
+ * @param smoothing       peso (0..1) de cada nuevo cálculo en el límite
+ * @param priorityReserve fracción del límite reservada al tráfico S2S
+ * @param limits          límites inicial, mínimo y máximo por clase de endpoint
+ */
+@ConfigurationProperties(prefix = "legendme.concurrency")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1.5") double tolerance,
+        @DefaultValue("0.2") double smoothing,
+        @DefaultValue("0.2") double priorityReserve,
+        @DefaultValue Map<EndpointClass, Limit> limits
+) {
+
+    /**
+     * Límites de una clase de endpoint.
+     *
+     * @param initial límite con el que arranca
+     * @param min     límite mínimo
+     * @param max     límite máximo
+     */
+    public record Limit(
+            @DefaultValue("20") int initial,
+            @DefaultValue("1") int min,
+            @DefaultValue("200") int max
+    ) {
+    }
+}
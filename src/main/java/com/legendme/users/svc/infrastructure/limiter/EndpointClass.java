@@ -0,0 +1,43 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+/**
+ * Clases de endpoint con límite de concurrencia propio, para que una clase lenta (por ejemplo
+ * los listados cuando MySQL va lento) no consuma los hilos de las demás.
+ */
+public enum EndpointClass {
+
+    /** Búsquedas puntuales: {@code /search/*}, {@code /exists-by-email}, {@code /username-availability} y {@code /stats}. */
+    READ,
+
+    /** Altas y modificaciones: {@code /create}, {@code /update} y {@code /{id}/desactivate}. */
+    WRITE,
+
+    /** Listados y lotes: {@code /all}, {@code /search} y {@code /match-email-hashes}. */
+    BULK;
+
+    private static final String BASE = "/legendme/users";
+
+    /**
+     * Clasifica una petición por su ruta.
+     *
+     * @param path Ruta de la petición decodificada y normalizada, sin contexto.
+     * @return La clase del endpoint, o null si el endpoint no está limitado.
+     */
+    public static EndpointClass of(String path) {
+        if (path == null || !path.startsWith(BASE)) {
+            return null;
+        }
+        String endpoint = path.substring(BASE.length());
+        if (endpoint.equals("/all") || endpoint.equals("/search") || endpoint.equals("/match-email-hashes")) {
+            return BULK;
+        }
+        if (endpoint.startsWith("/search/") || endpoint.equals("/exists-by-email")
+                || endpoint.equals("/username-availability") || endpoint.equals("/stats")) {
+            return READ;
+        }
+        if (endpoint.startsWith("/create") || endpoint.equals("/update") || endpoint.endsWith("/desactivate")) {
+            return WRITE;
+        }
+        return null;
+    }
+}
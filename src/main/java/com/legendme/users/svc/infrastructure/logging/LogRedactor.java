@@ -0,0 +1,34 @@
+package com.legendme.users.svc.infrastructure.logging;
+
+import java.util.regex.Pattern;
+
+/**
+ * Enmascara datos sensibles en los mensajes de log antes de escribirlos.
+ * Los emails conservan el primer carácter y el dominio ({@code r***@example.com}) y las
+ * contraseñas, tanto en el {@code toString()} de los records como en JSON, y los JWT se
+ * reemplazan por {@code ***}.
+ */
+public final class LogRedactor {
+
+    private static final Pattern EMAIL = Pattern.compile("([A-Za-z0-9+_.-])[A-Za-z0-9+_.-]*@([A-Za-z0-9.-]+)");
+    private static final Pattern JSON_PASSWORD = Pattern.compile("(?i)(\"password\"\\s*:\\s*\")[^\"]*");
+    private static final Pattern PASSWORD = Pattern.compile("(?i)(password\\s*=\\s*)[^,\\s)}\\]]*");
+    private static final Pattern JWT = Pattern.compile("eyJ[A-Za-z0-9_-]*\\.[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]*");
+
+    private LogRedactor() {
+    }
+
+    /** Enmascara emails, contraseñas y JWT del texto.
+     * @param text El texto a enmascarar (puede ser null).
+     * @return El texto enmascarado.
+     */
+    public static String redact(String text) {
+        if (text == null || (text.indexOf('@') < 0 && text.indexOf("assword") < 0 && !text.contains("eyJ"))) {
+            return text;
+        }
+        String redacted = JWT.matcher(text).replaceAll("***");
+        redacted = JSON_PASSWORD.matcher(redacted).replaceAll("$1***");
+        redacted = PASSWORD.matcher(redacted).replaceAll("$1***");
+        return EMAIL.matcher(redacted).replaceAll("$1***@$2");
+    }
+}
@@ -0,0 +1,19 @@
+package com.legendme.users.svc.infrastructure.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Configuración del muestreo de los logs con el contenido de peticiones y respuestas.
+ *
+ * @param defaultSampleRate fracción (0..1) de peticiones cuyo contenido se registra
+ * @param sampleRates       fracción por endpoint (nombre del método del controlador)
+ */
+@ConfigurationProperties(prefix = "legendme.logging.payload")
+public record PayloadLogProperties(
+        @DefaultValue("0.01") double defaultSampleRate,
+        @DefaultValue Map<String, Double> sampleRates
+) {
+}
@@ -0,0 +1,41 @@
+package com.legendme.users.svc.infrastructure.logging;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide, por endpoint, si se registra el contenido de la petición y la respuesta.
+ * Los logs de contenido son los más costosos (formatean records completos), por lo que
+ * solo se escriben para una muestra configurable de las peticiones.
+ */
+@Component
+@EnableConfigurationProperties(PayloadLogProperties.class)
+public class PayloadLogSampler {
+
+    private final double defaultSampleRate;
+    private final Map<String, Double> sampleRates;
+
+    /**
+     * Constructor para la inyección de la configuración de muestreo.
+     *
+     * @param properties Configuración del muestreo.
+     */
+    public PayloadLogSampler(PayloadLogProperties properties) {
+        this.defaultSampleRate = properties.defaultSampleRate();
+        this.sampleRates = Map.copyOf(properties.sampleRates());
+    }
+
+    /**
+     * Indica si la petición actual del endpoint debe registrar su contenido.
+     *
+     * @param endpoint Nombre del endpoint (método del controlador).
+     * @return true si la petición entra en la muestra.
+     */
+    public boolean sample(String endpoint) {
+        double rate = sampleRates.getOrDefault(endpoint, defaultSampleRate);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
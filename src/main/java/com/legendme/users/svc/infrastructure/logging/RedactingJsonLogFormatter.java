@@ -0,0 +1,52 @@
+package com.legendme.users.svc.infrastructure.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import org.springframework.boot.logging.structured.JsonWriterStructuredLogFormatter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Formato JSON de una línea por evento para los logs del servicio.
+ * Se usa desde {@code logback-spring.xml} con el {@code StructuredLogEncoder} de Spring Boot
+ * y aplica {@link LogRedactor} a todos los campos de texto (mensaje, hilo, logger, valores del
+ * MDC y traza de la excepción, cuyos mensajes suelen llevar el email o el token de la petición)
+ * para no escribir emails, contraseñas ni tokens.
+ */
+public class RedactingJsonLogFormatter extends JsonWriterStructuredLogFormatter<ILoggingEvent> {
+
+    /**
+     * Constructor usado por Spring Boot al instanciar el formato configurado en el encoder.
+     */
+    public RedactingJsonLogFormatter() {
+        super(members -> {
+            members.add("@timestamp", event -> Instant.ofEpochMilli(event.getTimeStamp()));
+            members.add("level", event -> event.getLevel().toString());
+            members.add("thread", event -> LogRedactor.redact(event.getThreadName()));
+            members.add("logger", event -> LogRedactor.redact(event.getLoggerName()));
+            members.add("message", event -> LogRedactor.redact(event.getFormattedMessage()));
+            members.addMapEntries(event -> redact(event.getMDCPropertyMap()));
+            members.add("stack_trace", ILoggingEvent::getThrowableProxy)
+                    .whenNotNull()
+                    .as(proxy -> LogRedactor.redact(ThrowableProxyUtil.asString(proxy)));
+        }, null);
+    }
+
+    /** Copia el MDC con los valores enmascarados, o lo devuelve tal cual si no hay nada que enmascarar. */
+    private static Map<String, String> redact(Map<String, String> mdc) {
+        Map<String, String> redacted = null;
+        for (Map.Entry<String, String> entry : mdc.entrySet()) {
+            String value = LogRedactor.redact(entry.getValue());
+            if (redacted == null && !Objects.equals(value, entry.getValue())) {
+                redacted = new LinkedHashMap<>(mdc);
+            }
+            if (redacted != null) {
+                redacted.put(entry.getKey(), value);
+            }
+        }
+        return redacted != null ? redacted : mdc;
+    }
+}
@@ -0,0 +1,292 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Grabaciones JFR del servicio: las bajo demanda de {@code /actuator/profiling} y la grabación
+ * continua en anillo.
+ *
+ * <p>Una grabación bajo demanda usa una {@link RecordingPreset}, se escribe en disco al pararla o
+ * al cumplir su duración (como mucho {@code maxDuration}) y queda en la carpeta de grabaciones.
+ * El anillo arranca al terminar el arranque con la configuración {@code default} y guarda solo los
+ * últimos {@code ring.maxAge} / {@code ring.maxSize}; {@link #dumpRing} escribe su contenido, a
+ * petición o desde {@link LatencySpikeTrigger}. La carpeta conserva los {@code maxFiles} ficheros
+ * más recientes.</p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ProfilingProperties.class)
+@ConditionalOnProperty(prefix = "legendme.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrRecorder {
+
+    /** Estado de una grabación bajo demanda. */
+    public record RecordingInfo(long id, String preset, String state, Instant startTime, Duration duration, String file) {}
+
+    /** Fichero de la carpeta de grabaciones. */
+    public record FileInfo(String name, long size, Instant modified) {}
+
+    private static final String NAME_PREFIX = "legendme-";
+    private static final Pattern FILE_NAME = Pattern.compile("[a-z0-9-]+\\.jfr");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final ProfilingProperties properties;
+    private final Path directory;
+    private final Map<Long, RecordingPreset> presets = new ConcurrentHashMap<>();
+    private volatile Recording ring;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param properties Configuración de las grabaciones.
+     */
+    public JfrRecorder(ProfilingProperties properties) {
+        this.properties = properties;
+        this.directory = properties.directoryPath();
+    }
+
+    /** Arranca el anillo al terminar el arranque, para no cargar el arranque con JFR. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRing() {
+        if (!properties.ring().enabled() || ring != null) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("JFR no está disponible en esta JVM; no se inicia la grabación continua");
+            return;
+        }
+        ProfilingProperties.Ring config = properties.ring();
+        Recording recording = new Recording(RecordingPreset.withDomainEvents(config.eventThreshold().toNanos() + " ns"));
+        recording.setName(NAME_PREFIX + "ring");
+        recording.setToDisk(true);
+        recording.setMaxAge(config.maxAge());
+        recording.setMaxSize(config.maxSize().toBytes());
+        recording.start();
+        ring = recording;
+        log.info("Grabación JFR continua iniciada (últimos {} / {})", config.maxAge(), config.maxSize());
+    }
+
+    /**
+     * Indica si el anillo está grabando.
+     *
+     * @return true si hay grabación continua.
+     */
+    public boolean ringRunning() {
+        Recording recording = ring;
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    /**
+     * Escribe el contenido actual del anillo en la carpeta de grabaciones.
+     *
+     * @param reason Motivo, que forma parte del nombre del fichero ({@code ring-<motivo>-<fecha>.jfr}).
+     * @return El fichero escrito, o vacío si el anillo no está grabando.
+     */
+    public Optional<Path> dumpRing(String reason) {
+        Recording recording = ring;
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        Path file = newFile("ring-" + reason);
+        try {
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        prune();
+        return Optional.of(file);
+    }
+
+    /**
+     * Inicia una grabación bajo demanda.
+     *
+     * @param preset   Configuración de la grabación.
+     * @param duration Duración pedida (null para la por defecto); se limita a {@code maxDuration}.
+     * @return La grabación iniciada.
+     */
+    public RecordingInfo start(RecordingPreset preset, Duration duration) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("JFR no está disponible en esta JVM");
+        }
+        Duration requested = duration == null ? properties.defaultDuration() : duration;
+        Duration limited = requested.compareTo(properties.maxDuration()) > 0 ? properties.maxDuration() : requested;
+        Recording recording = new Recording(preset.settings());
+        recording.setName(NAME_PREFIX + preset.slug());
+        recording.setToDisk(true);
+        recording.setDuration(limited);
+        try {
+            recording.setDestination(newFile(preset.slug()));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        presets.put(recording.getId(), preset);
+        prune();
+        log.info("Grabación JFR {} iniciada ({}): {}", preset.slug(), limited, recording.getDestination());
+        return info(recording, preset);
+    }
+
+    /**
+     * Para una grabación bajo demanda y la escribe en su fichero.
+     *
+     * @param id Identificador de la grabación.
+     * @return La grabación parada, o vacío si no existe.
+     */
+    public Optional<RecordingInfo> stop(long id) {
+        RecordingPreset preset = presets.remove(id);
+        if (preset == null) {
+            return Optional.empty();
+        }
+        return find(id).map(recording -> {
+            if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+                recording.stop();
+            }
+            RecordingInfo info = info(recording, preset);
+            recording.close();
+            log.info("Grabación JFR {} parada: {}", preset.slug(), info.file());
+            return info;
+        });
+    }
+
+    /**
+     * Grabaciones bajo demanda. Las que ya terminaron por duración se cierran al listarlas.
+     *
+     * @return Su estado actual.
+     */
+    public List<RecordingInfo> recordings() {
+        List<RecordingInfo> result = new ArrayList<>();
+        presets.forEach((id, preset) -> find(id).ifPresentOrElse(recording -> {
+            result.add(info(recording, preset));
+            if (recording.getState() == RecordingState.STOPPED) {
+                presets.remove(id);
+                recording.close();
+            }
+        }, () -> presets.remove(id)));
+        return result;
+    }
+
+    /**
+     * Ficheros de la carpeta de grabaciones, del más reciente al más antiguo.
+     *
+     * @return Nombre, tamaño y fecha de cada fichero.
+     */
+    public List<FileInfo> files() {
+        return listFiles().stream()
+                .map(file -> {
+                    try {
+                        return new FileInfo(file.getFileName().toString(), Files.size(file), Files.getLastModifiedTime(file).toInstant());
+                    } catch (IOException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Resuelve un fichero de la carpeta de grabaciones por su nombre.
+     *
+     * @param name Nombre del fichero ({@code [a-z0-9-]+.jfr}).
+     * @return El fichero, o vacío si el nombre no es válido o no existe.
+     */
+    public Optional<Path> file(String name) {
+        if (name == null || !FILE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /** Para el anillo y las grabaciones bajo demanda al cerrar el contexto. */
+    @PreDestroy
+    void close() {
+        presets.keySet().forEach(this::stop);
+        Recording recording = ring;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    private Optional<Recording> find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst();
+    }
+
+    private RecordingInfo info(Recording recording, RecordingPreset preset) {
+        Path destination = recording.getDestination();
+        return new RecordingInfo(recording.getId(), preset.slug(), recording.getState().name(),
+                recording.getStartTime(), recording.getDuration(),
+                destination == null ? null : destination.getFileName().toString());
+    }
+
+    private Path newFile(String kind) {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return directory.resolve(kind + "-" + TIMESTAMP.format(Instant.now()) + ".jfr");
+    }
+
+    private List<Path> listFiles() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(JfrRecorder::modified).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("No se pudo listar la carpeta de grabaciones {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /** Borra los ficheros más antiguos por encima de {@code maxFiles}. */
+    private void prune() {
+        List<Path> files = listFiles();
+        for (Path file : files.subList(Math.min(files.size(), properties.maxFiles()), files.size())) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar la grabación antigua {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private static long modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vuelca la grabación continua cuando el p99 de algún endpoint supera el umbral.
+ *
+ * <p>Lee el percentil 99 que Micrometer calcula para {@code http.server.requests} (ventana
+ * deslizante, ver {@link ProfilingConfig}) de cada combinación de ruta, método y estado, salvo las
+ * de {@code /actuator}. Solo evalúa un endpoint cuando acumula {@code minRequests} peticiones desde
+ * su última evaluación, para que una petición lenta aislada no dispare un volcado. Tras un volcado
+ * espera {@code cooldown} antes del siguiente; cada volcado suma a {@code legendme.profiling.dumps}.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "legendme.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LatencySpikeTrigger {
+
+    static final String METRIC = "http.server.requests";
+
+    private final JfrRecorder recorder;
+    private final MeterRegistry meterRegistry;
+    private final ProfilingProperties.Trigger config;
+    private final Counter dumps;
+    private final Map<Meter.Id, Long> evaluatedCounts = new HashMap<>();
+    private long lastDumpNanos;
+    private boolean dumped;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param recorder      Grabaciones JFR.
+     * @param meterRegistry Registro con los tiempos de las peticiones.
+     * @param properties    Configuración de las grabaciones.
+     */
+    public LatencySpikeTrigger(JfrRecorder recorder, MeterRegistry meterRegistry, ProfilingProperties properties) {
+        this.recorder = recorder;
+        this.meterRegistry = meterRegistry;
+        this.config = properties.trigger();
+        this.dumps = Counter.builder("legendme.profiling.dumps")
+                .description("Volcados automáticos de la grabación JFR continua por p99")
+                .register(meterRegistry);
+    }
+
+    /** Programa la evaluación una vez arrancado el servicio, si el anillo está grabando. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedule() {
+        if (!config.enabled() || !recorder.ringRunning() || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jfr-latency-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.checkInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                check();
+            } catch (Exception e) {
+                log.warn("No se pudo evaluar el p99 para la grabación JFR: {}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Evalúa el p99 de los endpoints y vuelca el anillo si alguno supera el umbral.
+     * Solo se llama desde el hilo del planificador.
+     */
+    void check() {
+        double thresholdMs = config.p99Threshold().toNanos() / 1e6;
+        Timer slowest = null;
+        double slowestP99 = 0;
+        for (Timer timer : meterRegistry.find(METRIC).timers()) {
+            String uri = timer.getId().getTag("uri");
+            if (uri == null || uri.startsWith("/actuator")) {
+                continue;
+            }
+            long count = timer.count();
+            long evaluated = evaluatedCounts.getOrDefault(timer.getId(), 0L);
+            if (count - evaluated < config.minRequests()) {
+                continue;
+            }
+            evaluatedCounts.put(timer.getId(), count);
+            double p99 = p99Millis(timer);
+            if (p99 > thresholdMs && p99 > slowestP99) {
+                slowest = timer;
+                slowestP99 = p99;
+            }
+        }
+        if (slowest == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (dumped && now - lastDumpNanos < config.cooldown().toNanos()) {
+            return;
+        }
+        Optional<Path> file = recorder.dumpRing("p99");
+        if (file.isPresent()) {
+            dumped = true;
+            lastDumpNanos = now;
+            dumps.increment();
+            log.warn("p99 de {} {} = {} ms (umbral {} ms): grabación JFR volcada en {}", slowest.getId().getTag("method"),
+                    slowest.getId().getTag("uri"), Math.round(slowestP99), Math.round(thresholdMs), file.get());
+        }
+    }
+
+    private static double p99Millis(Timer timer) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == 0.99) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+
+    /** Detiene la evaluación al cerrar el contexto. */
+    @PreDestroy
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
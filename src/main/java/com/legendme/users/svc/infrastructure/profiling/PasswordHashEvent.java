@@ -0,0 +1,31 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de un cálculo de hash de contraseña (BCrypt o Argon2), al generarlo o al compararlo,
+ * con su duración.
+ */
+@Name(PasswordHashEvent.NAME)
+@Label("Password Hash")
+@Category({"LegendMe", "Users"})
+@Description("Hash de contraseña calculado al guardarla o al verificarla")
+@StackTrace(false)
+class PasswordHashEvent extends Event {
+
+    static final String NAME = "com.legendme.users.PasswordHash";
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Matched")
+    boolean matched;
+}
@@ -0,0 +1,62 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Envuelve un codificador de contraseñas para emitir un {@link PasswordHashEvent} por cada hash
+ * calculado. Sin una grabación JFR que incluya el evento solo añade la comprobación de si está activo.
+ */
+public class ProfiledPasswordEncoder implements PasswordEncoder {
+
+    private final String algorithm;
+    private final PasswordEncoder delegate;
+
+    /**
+     * @param algorithm Identificador del algoritmo ({@code bcrypt}, {@code argon2}) que se anota en el evento.
+     * @param delegate  Codificador real.
+     */
+    public ProfiledPasswordEncoder(String algorithm, PasswordEncoder delegate) {
+        this.algorithm = algorithm;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        if (!event.isEnabled()) {
+            return delegate.encode(rawPassword);
+        }
+        event.begin();
+        String hash = delegate.encode(rawPassword);
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.operation = "encode";
+            event.commit();
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        if (!event.isEnabled()) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        event.begin();
+        boolean matched = delegate.matches(rawPassword, encodedPassword);
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.operation = "matches";
+            event.matched = matched;
+            event.commit();
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,88 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+
+/**
+ * Instrumentación para JFR: un {@link RepositoryCallEvent} por cada llamada a cualquier bean
+ * {@link UserRepository} (el adaptador JPA o particionado y el directorio, si está activo) y el
+ * percentil 99 de {@code http.server.requests} que necesita {@link LatencySpikeTrigger}.
+ * Los hashes de contraseña se instrumentan en {@code PasswordHashingConfig}.
+ */
+@Configuration
+public class ProfilingConfig {
+
+    /**
+     * Añade el interceptor de eventos a los beans del puerto. Si el bean ya es un proxy de Spring
+     * (por ejemplo transaccional) el interceptor se añade el primero, para medir también la
+     * transacción; si no, se crea un proxy de clase para que las inyecciones por tipo concreto sigan
+     * funcionando. Solo se interceptan los métodos declarados en el puerto.
+     *
+     * @return El post-procesador.
+     */
+    @Bean
+    static BeanPostProcessor repositoryCallEvents() {
+        Advisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return ReflectionUtils.findMethod(UserRepository.class, method.getName(), method.getParameterTypes()) != null;
+            }
+        }, new RepositoryCallInterceptor());
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof UserRepository)) {
+                    return bean;
+                }
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvisor(0, advisor);
+                    return bean;
+                }
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvisor(advisor);
+                return factory.getProxy(bean.getClass().getClassLoader());
+            }
+        };
+    }
+
+    /**
+     * Publica el p99 de {@code http.server.requests} sobre una ventana de un minuto, que es lo que
+     * evalúa {@link LatencySpikeTrigger}.
+     *
+     * @return El filtro de métricas.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "legendme.profiling", name = "enabled", havingValue = "true", matchIfMissing = true)
+    MeterFilter httpServerRequestsP99() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals(LatencySpikeTrigger.METRIC)) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.99)
+                        .expiry(Duration.ofMinutes(1))
+                        .bufferLength(3)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
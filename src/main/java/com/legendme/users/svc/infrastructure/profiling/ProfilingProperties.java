@@ -0,0 +1,76 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuración de las grabaciones JFR.
+ *
+ * @param enabled         activa el endpoint {@code /actuator/profiling}, la grabación en anillo y su disparo
+ * @param directory       carpeta de los ficheros {@code .jfr}; vacío usa {@code java.io.tmpdir/legendme-jfr}
+ * @param maxFiles        ficheros que se conservan en la carpeta (se borran los más antiguos)
+ * @param defaultDuration duración de una grabación bajo demanda sin duración explícita
+ * @param maxDuration     duración máxima de una grabación bajo demanda
+ * @param ring            grabación continua de bajo coste
+ * @param trigger         volcado automático del anillo cuando el p99 de un endpoint supera un umbral
+ */
+@ConfigurationProperties(prefix = "legendme.profiling")
+public record ProfilingProperties(
+        @DefaultValue("true") boolean enabled,
+        String directory,
+        @DefaultValue("20") int maxFiles,
+        @DefaultValue("1m") Duration defaultDuration,
+        @DefaultValue("10m") Duration maxDuration,
+        @DefaultValue Ring ring,
+        @DefaultValue Trigger trigger
+) {
+
+    /**
+     * Carpeta de los ficheros.
+     *
+     * @return La configurada o la temporal por defecto.
+     */
+    public Path directoryPath() {
+        return directory == null || directory.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "legendme-jfr")
+                : Path.of(directory);
+    }
+
+    /**
+     * Grabación continua con la configuración {@code default} de JFR (alrededor del 1% de CPU).
+     *
+     * @param enabled        arranca la grabación al terminar el arranque del servicio
+     * @param maxAge         antigüedad máxima de los datos que se conservan
+     * @param maxSize        tamaño máximo en disco de los datos que se conservan
+     * @param eventThreshold duración mínima de las llamadas al repositorio y hashes que se guardan
+     */
+    public record Ring(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("5m") Duration maxAge,
+            @DefaultValue("64MB") DataSize maxSize,
+            @DefaultValue("1ms") Duration eventThreshold
+    ) {}
+
+    /**
+     * Disparo por latencia: cada {@code checkInterval} se lee el p99 de {@code http.server.requests}
+     * por endpoint y, si alguno lo supera con al menos {@code minRequests} peticiones nuevas, se
+     * vuelca el anillo (como mucho una vez por {@code cooldown}).
+     *
+     * @param enabled       activa el disparo
+     * @param p99Threshold  p99 a partir del cual se vuelca
+     * @param minRequests   peticiones nuevas del endpoint necesarias para evaluar su p99
+     * @param checkInterval cada cuánto se evalúa
+     * @param cooldown      tiempo mínimo entre dos volcados automáticos
+     */
+    public record Trigger(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("1s") Duration p99Threshold,
+            @DefaultValue("50") int minRequests,
+            @DefaultValue("15s") Duration checkInterval,
+            @DefaultValue("10m") Duration cooldown
+    ) {}
+}
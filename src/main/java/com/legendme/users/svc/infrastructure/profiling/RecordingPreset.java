@@ -0,0 +1,109 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import jdk.jfr.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Configuraciones de grabación bajo demanda. Todas parten de la configuración {@code default} de
+ * JFR (la de menor coste) con los eventos propios sin umbral y suben el detalle de un área concreta.
+ */
+public enum RecordingPreset {
+
+    /** Muestreo de CPU cada 10 ms (Java) y 20 ms (nativo). */
+    CPU(Map.of(
+            "jdk.ExecutionSample#enabled", "true",
+            "jdk.ExecutionSample#period", "10 ms",
+            "jdk.NativeMethodSample#enabled", "true",
+            "jdk.NativeMethodSample#period", "20 ms")),
+
+    /** Muestras de asignación con más frecuencia y objetos que sobreviven (candidatos a fuga). */
+    ALLOCATION(Map.of(
+            "jdk.ObjectAllocationSample#enabled", "true",
+            "jdk.ObjectAllocationSample#throttle", "1000/s",
+            "jdk.OldObjectSample#enabled", "true",
+            "jdk.OldObjectSample#cutoff", "0 ns",
+            "jdk.GCPhasePause#enabled", "true")),
+
+    /** Esperas en monitores, parks y virtual threads fijados a su portador de más de 1 ms. */
+    LOCKS(Map.of(
+            "jdk.JavaMonitorEnter#enabled", "true",
+            "jdk.JavaMonitorEnter#threshold", "1 ms",
+            "jdk.JavaMonitorWait#enabled", "true",
+            "jdk.JavaMonitorWait#threshold", "1 ms",
+            "jdk.ThreadPark#enabled", "true",
+            "jdk.ThreadPark#threshold", "1 ms",
+            "jdk.VirtualThreadPinned#enabled", "true",
+            "jdk.VirtualThreadPinned#threshold", "1 ms")),
+
+    /** Lecturas y escrituras de sockets (JDBC) y ficheros de más de 1 ms, con su traza. */
+    JDBC_IO(Map.of(
+            "jdk.SocketRead#enabled", "true",
+            "jdk.SocketRead#threshold", "1 ms",
+            "jdk.SocketWrite#enabled", "true",
+            "jdk.SocketWrite#threshold", "1 ms",
+            "jdk.FileRead#enabled", "true",
+            "jdk.FileRead#threshold", "1 ms",
+            "jdk.FileWrite#enabled", "true",
+            "jdk.FileWrite#threshold", "1 ms"));
+
+    private final Map<String, String> overrides;
+
+    RecordingPreset(Map<String, String> overrides) {
+        this.overrides = overrides;
+    }
+
+    /**
+     * Busca una configuración por nombre, sin distinguir mayúsculas ni entre {@code -} y {@code _}.
+     *
+     * @param name Nombre pedido (por ejemplo {@code jdbc-io}).
+     * @return La configuración.
+     * @throws IllegalArgumentException si no existe.
+     */
+    public static RecordingPreset of(String name) {
+        return valueOf(name.strip().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /** Nombre en minúsculas para los ficheros y las grabaciones. */
+    public String slug() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * Ajustes JFR de la grabación.
+     *
+     * @return La configuración {@code default} con los eventos propios y los de esta configuración.
+     */
+    public Map<String, String> settings() {
+        Map<String, String> settings = withDomainEvents("0 ms");
+        settings.putAll(overrides);
+        return settings;
+    }
+
+    /**
+     * Configuración {@code default} de JFR con los eventos propios activos.
+     *
+     * @param threshold Duración mínima de los eventos propios que se guardan.
+     * @return Ajustes modificables.
+     */
+    static Map<String, String> withDomainEvents(String threshold) {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Configuración JFR default inválida", e);
+        }
+        for (String event : new String[]{RepositoryCallEvent.NAME, PasswordHashEvent.NAME}) {
+            settings.put(event + "#enabled", "true");
+            settings.put(event + "#threshold", threshold);
+        }
+        return settings;
+    }
+}
@@ -0,0 +1,34 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de una llamada al puerto {@code UserRepository}: implementación, operación y clave
+ * consultada, con la duración de la llamada. Los emails de la clave se enmascaran como en los logs.
+ */
+@Name(RepositoryCallEvent.NAME)
+@Label("User Repository Call")
+@Category({"LegendMe", "Users"})
+@Description("Llamada al puerto UserRepository con su clave y su latencia")
+@StackTrace(false)
+class RepositoryCallEvent extends Event {
+
+    static final String NAME = "com.legendme.users.RepositoryCall";
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Key")
+    String key;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,54 @@
+package com.legendme.users.svc.infrastructure.profiling;
+
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.infrastructure.logging.LogRedactor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Emite un {@link RepositoryCallEvent} por cada llamada a un método del puerto. La clave es el
+ * primer argumento (el ID del usuario cuando es un {@link User}, o su username si aún no tiene ID) y solo se formatea si el evento
+ * supera el umbral de la grabación, de modo que las llamadas rápidas no pagan el formateo.
+ */
+class RepositoryCallInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object target = invocation.getThis();
+                event.implementation = target == null ? null : ClassUtils.getUserClass(target).getSimpleName();
+                event.operation = invocation.getMethod().getName();
+                event.key = key(invocation.getArguments());
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static String key(Object[] arguments) {
+        if (arguments.length == 0 || arguments[0] == null) {
+            return null;
+        }
+        Object first = arguments[0];
+        if (first instanceof User user) {
+            return user.id() != null ? user.id().toString() : user.username();
+        }
+        if (first instanceof String text) {
+            return LogRedactor.redact(text);
+        }
+        return first.toString();
+    }
+}
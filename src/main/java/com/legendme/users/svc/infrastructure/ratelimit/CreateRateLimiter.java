@@ -0,0 +1,101 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Límite de peticiones de {@code /create} y {@code /create/google-user}: cada alta cuesta un
+ * hash de contraseña y dos consultas, así que sin límite una avalancha anónima se amplifica en
+ * CPU y base de datos. Se limita por IP ({@link RateLimitFilter}, antes de leer el cuerpo) y por
+ * email normalizado ({@code CreateRateLimitAdvice}, al leer el cuerpo). El tráfico S2S no se limita.
+ *
+ * <p>Los buckets se guardan en el {@link RateLimitStore} del contexto si hay uno; si no, en un
+ * {@link LocalRateLimitStore}. Publica los rechazos en {@code legendme.ratelimit.rejected}.</p>
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class CreateRateLimiter {
+
+    private static final String CREATE_PATH = "/legendme/users/create";
+    private static final String GOOGLE_PATH = "/legendme/users/create/google-user";
+
+    private final boolean enabled;
+    private final RateLimitStore store;
+    private final TokenBucket ipBucket;
+    private final TokenBucket emailBucket;
+    private final Counter ipRejected;
+    private final Counter emailRejected;
+
+    /**
+     * Constructor para la inyección de la configuración y del almacén.
+     *
+     * @param properties    Configuración del límite.
+     * @param stores        Almacén compartido opcional.
+     * @param meterRegistry Registro de métricas.
+     */
+    public CreateRateLimiter(RateLimitProperties properties, ObjectProvider<RateLimitStore> stores,
+                             MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.store = stores.getIfAvailable(() -> new LocalRateLimitStore(properties.maxKeys()));
+        this.ipBucket = properties.ip().toTokenBucket();
+        this.emailBucket = properties.email().toTokenBucket();
+        this.ipRejected = Counter.builder("legendme.ratelimit.rejected").tag("key", "ip").register(meterRegistry);
+        this.emailRejected = Counter.builder("legendme.ratelimit.rejected").tag("key", "email").register(meterRegistry);
+        if (store instanceof LocalRateLimitStore local) {
+            Gauge.builder("legendme.ratelimit.evictions", local, LocalRateLimitStore::evictions).register(meterRegistry);
+        }
+    }
+
+    /**
+     * Indica si la ruta es un endpoint de alta limitado.
+     *
+     * @param path Ruta de la petición.
+     * @return true para {@code /create} y {@code /create/google-user} con el límite activo.
+     */
+    public boolean appliesTo(String path) {
+        return enabled && (CREATE_PATH.equals(path) || GOOGLE_PATH.equals(path));
+    }
+
+    /**
+     * Consume un token del bucket de la IP.
+     *
+     * @param ip IP del cliente.
+     * @return 0 si se admite; si no, los segundos para el header Retry-After.
+     */
+    public long checkIp(String ip) {
+        long wait = store.tryAcquire(RateLimitKeys.ip(ip), ipBucket);
+        if (wait == 0) {
+            return 0;
+        }
+        ipRejected.increment();
+        return retryAfterSeconds(wait);
+    }
+
+    /**
+     * Consume un token del bucket del email.
+     *
+     * @param email Email de la petición (se normaliza).
+     * @return 0 si se admite; si no, los segundos para el header Retry-After.
+     */
+    public long checkEmail(String email) {
+        if (!enabled || email == null || email.isBlank()) {
+            return 0;
+        }
+        long wait = store.tryAcquire(RateLimitKeys.email(email), emailBucket);
+        if (wait == 0) {
+            return 0;
+        }
+        emailRejected.increment();
+        return retryAfterSeconds(wait);
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
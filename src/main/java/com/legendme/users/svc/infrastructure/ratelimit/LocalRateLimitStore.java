@@ -0,0 +1,112 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buckets en memoria, sin bloqueos y con memoria acotada.
+ *
+ * <p>Cada bucket es un único {@code long} con su TAT (theoretical arrival time de GCRA, el
+ * equivalente de un token bucket): consumir un token es leerlo y hacer un CAS. Las claves y
+ * los TAT viven en dos {@link AtomicLongArray} de tamaño fijo con direccionamiento abierto
+ * (16 bytes por entrada), así que comprobar no crea objetos y la memoria no crece.</p>
+ *
+ * <p>Un bucket cuyo TAT ya pasó está lleno y no se distingue de uno nuevo, por lo que su
+ * entrada se reutiliza para otra clave: esa es la expulsión automática. Si las
+ * {@value #MAX_PROBE} entradas candidatas tienen buckets activos se sustituye el más lleno
+ * y se cuenta como expulsión anticipada.</p>
+ */
+public final class LocalRateLimitStore implements RateLimitStore {
+
+    private static final int MAX_PROBE = 8;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray tats;
+    private final int mask;
+    private final long origin = System.nanoTime();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea el almacén.
+     *
+     * @param maxKeys Número de claves a mantener; se redondea a la potencia de dos siguiente.
+     */
+    public LocalRateLimitStore(int maxKeys) {
+        int size = Integer.highestOneBit(Math.max(MAX_PROBE, maxKeys - 1)) << 1;
+        this.keys = new AtomicLongArray(size);
+        this.tats = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public long tryAcquire(long key, TokenBucket bucket) {
+        long k = key == 0 ? 1 : key;
+        long now = System.nanoTime() - origin;
+        int slot = slotOf(k, now);
+        while (true) {
+            long stored = tats.get(slot);
+            long next = Math.max(stored, now) + bucket.intervalNanos();
+            long wait = next - now - bucket.burstNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (tats.compareAndSet(slot, stored, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Buckets activos sustituidos por falta de espacio desde el arranque.
+     *
+     * @return Número de expulsiones anticipadas.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private int slotOf(long key, long now) {
+        int start = (int) mix(key) & mask;
+        while (true) {
+            for (int probe = 0; probe < MAX_PROBE; probe++) {
+                int i = (start + probe) & mask;
+                long current = keys.get(i);
+                if (current == key) {
+                    return i;
+                }
+                // Las entradas no vuelven a quedar vacías: tras una vacía no hay más de la clave.
+                if (current == 0) {
+                    if (keys.compareAndSet(i, 0, key) || keys.get(i) == key) {
+                        return i;
+                    }
+                }
+            }
+            int victim = start;
+            long victimTat = Long.MAX_VALUE;
+            for (int probe = 0; probe < MAX_PROBE; probe++) {
+                int i = (start + probe) & mask;
+                long tat = tats.get(i);
+                if (tat < victimTat) {
+                    victim = i;
+                    victimTat = tat;
+                }
+            }
+            long previous = keys.get(victim);
+            if (previous != 0 && keys.compareAndSet(victim, previous, key)) {
+                // Un TAT pasado ya es un bucket lleno; uno activo se reinicia lleno para la nueva clave.
+                if (victimTat > now) {
+                    tats.compareAndSet(victim, victimTat, 0);
+                    evictions.increment();
+                }
+                return victim;
+            }
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
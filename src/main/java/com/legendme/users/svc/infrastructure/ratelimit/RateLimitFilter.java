@@ -0,0 +1,66 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.infrastructure.security.S2SAuthFilter;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Limita por IP los endpoints públicos de alta antes de leer el cuerpo o validar nada,
+ * respondiendo 429 con {@code Retry-After}. La IP es {@code getRemoteAddr()}, que detrás de un
+ * proxy respeta {@code server.forward-headers-strategy}. Va en la cadena de seguridad después
+ * de {@link S2SAuthFilter} para no limitar el tráfico S2S.
+ *
+ * <p>La ruta se compara decodificada y normalizada, como la resuelve MVC, para que variantes como
+ * {@code /legendme/users/%63reate} o {@code /legendme/users//create;x=1} no eviten el límite.</p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final CreateRateLimiter limiter;
+    private final byte[] rateLimitedBody;
+
+    /**
+     * Constructor para la inyección del limitador.
+     *
+     * @param limiter      Límite de los endpoints de alta.
+     * @param objectMapper Serializador del cuerpo de error, que se calcula una sola vez.
+     */
+    public RateLimitFilter(CreateRateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        try {
+            this.rateLimitedBody = objectMapper.writeValueAsBytes(UserErrors.RATE_LIMITED.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (limiter.appliesTo(UrlPathHelper.defaultInstance.getPathWithinApplication(request)) && !S2SAuthFilter.isInternalRequest()) {
+            long retryAfter = limiter.checkIp(request.getRemoteAddr());
+            if (retryAfter > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setContentLength(rateLimitedBody.length);
+                response.getOutputStream().write(rateLimitedBody);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
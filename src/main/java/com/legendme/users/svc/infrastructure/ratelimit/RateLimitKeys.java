@@ -0,0 +1,49 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import java.util.Locale;
+
+/**
+ * Claves de 64 bits del límite de peticiones. IP y email usan semillas distintas para no
+ * compartir bucket aunque coincidan los textos; el email se normaliza (sin espacios y en
+ * minúsculas) y solo se guarda su hash.
+ */
+public final class RateLimitKeys {
+
+    private static final long IP_SEED = 0x49502d6b6579L;
+    private static final long EMAIL_SEED = 0x656d61696c2dL;
+
+    private RateLimitKeys() {
+    }
+
+    /**
+     * Clave de una IP de cliente.
+     *
+     * @param ip Dirección IP.
+     * @return El hash de la IP.
+     */
+    public static long ip(String ip) {
+        return hash(IP_SEED, ip);
+    }
+
+    /**
+     * Clave de un email, normalizado antes de calcular el hash.
+     *
+     * @param email Email tal como llega en la petición.
+     * @return El hash del email normalizado.
+     */
+    public static long email(String email) {
+        return hash(EMAIL_SEED, email.strip().toLowerCase(Locale.ROOT));
+    }
+
+    private static long hash(long seed, String value) {
+        // FNV-1a sobre los caracteres y mezcla final de MurmurHash3.
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
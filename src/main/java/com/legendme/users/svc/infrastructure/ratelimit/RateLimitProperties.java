@@ -0,0 +1,39 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del límite de peticiones de los endpoints públicos de alta.
+ *
+ * @param enabled activa el límite
+ * @param maxKeys claves (IPs y emails) que se mantienen a la vez en el almacén local
+ * @param ip      bucket por IP de cliente
+ * @param email   bucket por email normalizado
+ */
+@ConfigurationProperties(prefix = "legendme.ratelimit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("262144") int maxKeys,
+        @DefaultValue Bucket ip,
+        @DefaultValue Bucket email
+) {
+
+    /**
+     * Capacidad y recarga de un bucket.
+     *
+     * @param capacity peticiones admitidas en ráfaga
+     * @param period   tiempo en recargar el bucket vacío
+     */
+    public record Bucket(
+            @DefaultValue("20") int capacity,
+            @DefaultValue("1m") Duration period
+    ) {
+
+        TokenBucket toTokenBucket() {
+            return TokenBucket.of(capacity, period);
+        }
+    }
+}
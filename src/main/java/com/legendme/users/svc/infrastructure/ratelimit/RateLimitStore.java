@@ -0,0 +1,20 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+/**
+ * Almacén de los buckets del límite de peticiones.
+ *
+ * <p>La implementación por defecto es {@link LocalRateLimitStore}, en memoria de cada nodo.
+ * Un bean propio de este tipo (por ejemplo sobre Redis) la sustituye para compartir los
+ * buckets entre nodos; las claves ya llegan como hash de 64 bits, sin datos personales.</p>
+ */
+public interface RateLimitStore {
+
+    /**
+     * Consume un token del bucket de la clave si hay alguno disponible.
+     *
+     * @param key    Hash de la clave (IP o email normalizado).
+     * @param bucket Capacidad y ritmo de recarga del bucket.
+     * @return 0 si se concede la petición; si no, los nanosegundos hasta el siguiente token.
+     */
+    long tryAcquire(long key, TokenBucket bucket);
+}
@@ -0,0 +1,29 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Parámetros de un token bucket: admite ráfagas de {@code capacity} peticiones y recarga
+ * {@code capacity} tokens cada {@code period}. Se guarda en la forma que usa GCRA (intervalo
+ * entre tokens y tolerancia de ráfaga) para no dividir en cada comprobación.
+ *
+ * @param intervalNanos tiempo entre dos tokens
+ * @param burstNanos    tolerancia de ráfaga: {@code capacity * intervalNanos}
+ */
+public record TokenBucket(long intervalNanos, long burstNanos) {
+
+    /**
+     * Crea el bucket a partir de su capacidad y su periodo de recarga completa.
+     *
+     * @param capacity Tokens del bucket (ráfaga máxima).
+     * @param period   Tiempo en recargar el bucket vacío.
+     * @return Los parámetros del bucket.
+     */
+    public static TokenBucket of(int capacity, Duration period) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("El bucket necesita capacidad y periodo positivos");
+        }
+        long interval = Math.max(1, period.toNanos() / capacity);
+        return new TokenBucket(interval, interval * capacity);
+    }
+}
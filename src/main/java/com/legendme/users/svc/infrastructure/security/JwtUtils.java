@@ -1,6 +1,7 @@
 package com.legendme.users.svc.infrastructure.security;
 
 import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -40,7 +41,7 @@ public class JwtUtils {
     public String getUserIdFromRequest(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (header == null || !header.startsWith("Bearer ")) {
-            throw new ErrorException("Token no encontrado o inválido");
+            throw UserErrors.TOKEN_MISSING;
         }
         String token = header.substring(7);
         Jwt jwt = jwtDecoder.decode(token);
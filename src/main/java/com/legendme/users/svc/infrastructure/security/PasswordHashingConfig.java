@@ -0,0 +1,94 @@
+package com.legendme.users.svc.infrastructure.security;
+
+import com.legendme.users.svc.infrastructure.profiling.ProfiledPasswordEncoder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration of password hashing.
+ *
+ * <p>Exposes a {@link DelegatingPasswordEncoder} that writes {@code {argon2}} or {@code {bcrypt}}
+ * prefixed hashes and still matches the legacy unprefixed BCrypt hashes, plus the two bounded
+ * pools used by {@link com.legendme.users.svc.application.service.CredentialVerificationService}:
+ * one sized to the CPU for verifications and a single low-priority thread for rehashes.
+ * Each algorithm is wrapped in a {@link ProfiledPasswordEncoder} so every hash shows up in JFR
+ * recordings.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(PasswordHashingProperties.class)
+public class PasswordHashingConfig {
+
+    /**
+     * Creates the password encoder shared by the persistence adapters and the verification service.
+     *
+     * @param properties the hashing settings
+     * @return the delegating password encoder
+     */
+    @Bean
+    PasswordEncoder passwordEncoder(PasswordHashingProperties properties) {
+        PasswordEncoder bcrypt = new ProfiledPasswordEncoder("bcrypt", new BCryptPasswordEncoder(properties.bcryptStrength()));
+        PasswordEncoder argon2 = new ProfiledPasswordEncoder("argon2", new Argon2PasswordEncoder(16, 32,
+                properties.argon2Parallelism(), properties.argon2MemoryKib(), properties.argon2Iterations()));
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(properties.algorithm(),
+                Map.of("bcrypt", bcrypt, "argon2", argon2));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Creates the pool that runs password verifications. It never has more threads than cores,
+     * so a burst of logins queues up instead of starving the request threads of CPU, and the
+     * queue is bounded so an overload is rejected instead of piling up latency.
+     *
+     * @param properties the hashing settings
+     * @return the verification pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService passwordVerifyExecutor(PasswordHashingProperties properties) {
+        int threads = properties.verifyThreads() > 0
+                ? properties.verifyThreads()
+                : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.verifyQueueCapacity()),
+                threadFactory("password-verify", Thread.NORM_PRIORITY),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Creates the single-threaded pool that rehashes outdated hashes after a successful login.
+     *
+     * @param properties the hashing settings
+     * @return the rehash pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService passwordRehashExecutor(PasswordHashingProperties properties) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.rehashQueueCapacity()),
+                threadFactory("password-rehash", Thread.MIN_PRIORITY),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ThreadFactory threadFactory(String prefix, int priority) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(priority);
+            return thread;
+        };
+    }
+}
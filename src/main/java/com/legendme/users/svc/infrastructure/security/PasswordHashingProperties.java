@@ -0,0 +1,32 @@
+package com.legendme.users.svc.infrastructure.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Password hashing settings.
+ *
+ * <p>New hashes are written with {@code algorithm}; stored hashes produced with another
+ * algorithm or a lower cost are transparently rehashed after the next successful verification.</p>
+ *
+ * @param algorithm           algorithm used to encode new hashes: {@code argon2} or {@code bcrypt}
+ * @param bcryptStrength      BCrypt log2 rounds
+ * @param argon2MemoryKib     Argon2id memory cost in KiB
+ * @param argon2Iterations    Argon2id time cost
+ * @param argon2Parallelism   Argon2id lanes
+ * @param verifyThreads       threads of the verification pool; 0 means one per available core
+ * @param verifyQueueCapacity verifications allowed to wait for a free thread before rejecting with 503
+ * @param rehashQueueCapacity pending rehashes kept in memory; extra ones are dropped and retried on the next login
+ */
+@ConfigurationProperties(prefix = "legendme.security.password")
+public record PasswordHashingProperties(
+        @DefaultValue("argon2") String algorithm,
+        @DefaultValue("10") int bcryptStrength,
+        @DefaultValue("16384") int argon2MemoryKib,
+        @DefaultValue("2") int argon2Iterations,
+        @DefaultValue("1") int argon2Parallelism,
+        @DefaultValue("0") int verifyThreads,
+        @DefaultValue("256") int verifyQueueCapacity,
+        @DefaultValue("1000") int rehashQueueCapacity
+) {
+}
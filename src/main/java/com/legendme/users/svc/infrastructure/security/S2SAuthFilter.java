@@ -6,6 +6,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,9 +25,19 @@ import java.util.List;
  * This filter decodes and compares the provided token with a pre-configured
  * internal token. If the tokens match, it sets an authentication object in the
  * SecurityContext, allowing the request to proceed as an authenticated internal service.
+ * Internal services are granted {@link #INTERNAL_AUTHORITY}, required by the S2S-only endpoints.
+ * The authority has no {@code ROLE_} prefix on purpose: every authority mapped from a user JWT
+ * carries that prefix, so no token claim can produce it.
  */
 @Component
 public class S2SAuthFilter extends OncePerRequestFilter {
+
+    /**
+     * Authority granted to requests authenticated with the internal token.
+     * Check it with {@code hasAuthority}, never {@code hasRole}.
+     */
+    public static final String INTERNAL_AUTHORITY = "S2S_INTERNAL";
+
     /**
      * The base64-encoded internal token used for authentication.
      * This value is injected from the application properties.
@@ -56,7 +69,7 @@ public class S2SAuthFilter extends OncePerRequestFilter {
 
             if (decodedProvidedToken.equals(decodedToken)) {
                 var auth = new UsernamePasswordAuthenticationToken(
-                        "internal-service", null, List.of()
+                        "internal-service", null, List.of(new SimpleGrantedAuthority(INTERNAL_AUTHORITY))
                 );
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
@@ -65,4 +78,23 @@ public class S2SAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
+
+    /**
+     * Tells whether the current request was authenticated with the internal token.
+     * Only meaningful for filters running after this one in the security chain.
+     *
+     * @return true if the current authentication holds {@link #INTERNAL_AUTHORITY}
+     */
+    public static boolean isInternalRequest() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            if (INTERNAL_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
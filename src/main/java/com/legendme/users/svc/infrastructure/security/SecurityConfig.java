@@ -1,5 +1,7 @@
 package com.legendme.users.svc.infrastructure.security;
 
+import com.legendme.users.svc.infrastructure.limiter.ConcurrencyLimitFilter;
+import com.legendme.users.svc.infrastructure.ratelimit.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -32,12 +34,16 @@ import java.time.Duration;
 public class SecurityConfig {
 
     private final S2SAuthFilter s2SAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
 
     /**
      * Configures the security filter chain for the application.
      *
      * <p>This method disables CSRF, sets up authorization rules for specific endpoints,
-     * adds the custom S2SAuthFilter, and configures the OAuth2 resource server with JWT support.</p>
+     * adds the custom S2SAuthFilter followed by the per-IP rate limiter of the public create
+     * endpoints and the concurrency limiter (so S2S traffic is already identified when limiting),
+     * and configures the OAuth2 resource server with JWT support.</p>
      *
      * @param http the {@link HttpSecurity} object to configure
      * @param jwtAuthConverter the {@link JwtAuthenticationConverter} for converting JWT claims to authorities
@@ -53,12 +59,17 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority(S2SAuthFilter.INTERNAL_AUTHORITY)
                         .requestMatchers("/legendme/users/create/google-user").permitAll()
                         .requestMatchers("/legendme/users/create").permitAll()
+                        .requestMatchers("/legendme/users/verify-credentials").hasAuthority(S2SAuthFilter.INTERNAL_AUTHORITY)
+                        .requestMatchers("/legendme/users/match-email-hashes").hasAuthority(S2SAuthFilter.INTERNAL_AUTHORITY)
 
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(s2SAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, S2SAuthFilter.class)
+                .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class)
                 .oauth2ResourceServer(oauth2 -> oauth2
                         .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthConverter))
                 );
@@ -0,0 +1,368 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de consultas lentas de los DataSource envueltos por {@link SqlStatementCounter#proxy}.
+ *
+ * <p>Cada sentencia suma a un histograma de su forma (el SQL con literales y listas {@code IN}
+ * normalizados), que cuesta una búsqueda en un mapa por sentencia. Las que tardan al menos
+ * {@code threshold} entran además en un anillo con las últimas {@code capacity}: SQL, forma de los
+ * parámetros (solo su tipo, nunca su valor), duración, DataSource y endpoint que la lanzó (el del
+ * ámbito de {@link SqlStatementFilter}; las de otros hilos no tienen endpoint).</p>
+ *
+ * <p>La primera vez que una forma de SELECT es lenta se encola su {@code EXPLAIN}, que un hilo en
+ * segundo plano ejecuta con los mismos parámetros sobre el DataSource real (sin envolver, para no
+ * medirse a sí mismo). Los valores solo se retienen hasta ejecutar el EXPLAIN.</p>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SlowQueryProperties.class)
+public class SlowQueryLog {
+
+    /** Una consulta lenta. */
+    public record Entry(Instant at, String shape, String sql, List<String> parameters, long durationMs,
+                        int batchSize, String dataSource, String endpoint) {}
+
+    /** Agregado de una forma de consulta. */
+    public record ShapeReport(String id, String sql, long count, long slow, double meanMs, long maxMs,
+                              long p50Ms, long p99Ms, Map<String, Long> histogram, String plan) {}
+
+    /** Estado completo para el endpoint de actuator. */
+    public record Report(long thresholdMs, List<Entry> recent, List<ShapeReport> shapes) {}
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int BUCKETS = 16;
+    private static final int MAX_PLAN_LENGTH = 4000;
+
+    private final SlowQueryProperties properties;
+    private final long thresholdMs;
+    private final AtomicReferenceArray<Entry> recent;
+    private final AtomicLong written = new AtomicLong();
+    private final Map<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final Map<String, Shape> byRawSql = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor explainer;
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param properties Configuración del registro.
+     */
+    public SlowQueryLog(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.thresholdMs = properties.threshold().toMillis();
+        this.recent = new AtomicReferenceArray<>(properties.capacity());
+        this.explainer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.explainQueue()), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Listener de datasource-proxy para un DataSource.
+     *
+     * @param dataSource DataSource real, sobre el que se ejecutan los EXPLAIN.
+     * @param name       Nombre con el que aparece en el registro.
+     * @return El listener, o null si el registro está desactivado.
+     */
+    public QueryExecutionListener listener(DataSource dataSource, String name) {
+        return properties.enabled() ? new Listener(dataSource, name) : null;
+    }
+
+    /**
+     * Consultas lentas recientes y formas ordenadas por número de ejecuciones lentas y tiempo total.
+     *
+     * @return Foto del estado actual.
+     */
+    public Report report() {
+        List<ShapeReport> shapeReports = shapes.values().stream()
+                .sorted(Comparator.comparingLong((Shape shape) -> shape.slow.sum())
+                        .thenComparingLong(shape -> shape.totalMs.sum()).reversed())
+                .map(Shape::report)
+                .toList();
+        return new Report(thresholdMs, recentEntries(), shapeReports);
+    }
+
+    /**
+     * Agregado de una forma.
+     *
+     * @param id Identificador de la forma.
+     * @return La forma, o vacío si no existe.
+     */
+    public Optional<ShapeReport> shape(String id) {
+        return shapes.values().stream().filter(shape -> shape.id.equals(id)).findFirst().map(Shape::report);
+    }
+
+    /**
+     * Normaliza una sentencia a su forma: literales a {@code ?}, listas {@code IN (?, ?, ...)} a
+     * {@code (?...)} y espacios colapsados.
+     *
+     * @param sql Sentencia tal como se ejecutó.
+     * @return Su forma.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").strip();
+    }
+
+    private List<Entry> recentEntries() {
+        long end = written.get();
+        int capacity = recent.length();
+        List<Entry> entries = new ArrayList<>(capacity);
+        for (long sequence = end - 1; sequence >= Math.max(0, end - capacity); sequence--) {
+            Entry entry = recent.get((int) (sequence % capacity));
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void record(Listener source, ExecutionInfo execution, List<QueryInfo> queries) {
+        String sql = queries.get(0).getQuery();
+        long elapsed = execution.getElapsedTime();
+        Shape shape = shapeFor(sql);
+        if (shape != null) {
+            shape.record(elapsed, elapsed >= thresholdMs);
+        }
+        if (elapsed < thresholdMs) {
+            return;
+        }
+        String shapeSql = shape != null ? shape.sql : truncate(shapeOf(sql));
+        String shapeId = shape != null ? shape.id : idOf(shapeSql);
+        SqlStatementCounter.Scope scope = SqlStatementCounter.current();
+        List<ParameterSetOperation> parameters = queries.get(0).getParametersList().isEmpty()
+                ? List.of() : queries.get(0).getParametersList().get(0);
+        Entry entry = new Entry(Instant.now(), shapeId, truncate(sql), parameterShapes(parameters), elapsed,
+                execution.isBatch() ? execution.getBatchSize() : 1, source.name,
+                scope != null ? scope.endpoint() : null);
+        long sequence = written.getAndIncrement();
+        recent.set((int) (sequence % recent.length()), entry);
+        if (shape != null && shape.explainRequested.compareAndSet(false, true)) {
+            log.warn("Consulta lenta ({} ms, forma {}) en {}: {}", elapsed, shapeId, entry.endpoint(), shapeSql);
+            explain(shape, source, sql, parameters);
+        }
+    }
+
+    private Shape shapeFor(String sql) {
+        Shape shape = byRawSql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = truncate(shapeOf(sql));
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            if (shapes.size() >= properties.maxShapes()) {
+                return null;
+            }
+            shape = shapes.computeIfAbsent(normalized, key -> new Shape(idOf(key), key,
+                    QueryUtils.getQueryType(sql) == QueryType.SELECT));
+        }
+        if (byRawSql.size() < properties.maxShapes() * 4) {
+            byRawSql.put(sql, shape);
+        }
+        return shape;
+    }
+
+    private void explain(Shape shape, Listener source, String sql, List<ParameterSetOperation> parameters) {
+        if (!properties.explain() || !shape.select) {
+            shape.plan = "sin EXPLAIN (" + (shape.select ? "desactivado" : "no es un SELECT") + ")";
+            return;
+        }
+        List<ParameterSetOperation> bindings = List.copyOf(parameters);
+        try {
+            explainer.execute(() -> shape.plan = runExplain(source.dataSource, sql, bindings));
+        } catch (RejectedExecutionException e) {
+            shape.explainRequested.set(false);
+        }
+    }
+
+    private static String runExplain(DataSource dataSource, String sql, List<ParameterSetOperation> parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation parameter : parameters) {
+                parameter.getMethod().invoke(statement, parameter.getArgs());
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                ResultSetMetaData columns = rows.getMetaData();
+                while (rows.next() && plan.length() < MAX_PLAN_LENGTH) {
+                    for (int column = 1; column <= columns.getColumnCount(); column++) {
+                        if (column > 1) {
+                            plan.append(" | ");
+                        }
+                        if (columns.getColumnCount() > 1) {
+                            plan.append(columns.getColumnLabel(column)).append('=');
+                        }
+                        plan.append(rows.getString(column));
+                    }
+                    plan.append('\n');
+                }
+            }
+            return plan.length() > MAX_PLAN_LENGTH ? plan.substring(0, MAX_PLAN_LENGTH) : plan.toString().strip();
+        } catch (Exception e) {
+            log.debug("No se pudo obtener el EXPLAIN de {}: {}", sql, e.getMessage());
+            return "EXPLAIN fallido: " + e.getMessage();
+        }
+    }
+
+    /** Tipo de cada parámetro del primer juego, en orden ({@code 1:String}, {@code 2:null}...). */
+    private static List<String> parameterShapes(List<ParameterSetOperation> parameters) {
+        List<String> shapes = new ArrayList<>(parameters.size());
+        for (ParameterSetOperation parameter : parameters) {
+            Object[] args = parameter.getArgs();
+            Object value = args.length > 1 && !parameter.getMethod().getName().equals("setNull") ? args[1] : null;
+            shapes.add(args[0] + ":" + (value == null ? "null" : value.getClass().getSimpleName()));
+        }
+        return shapes;
+    }
+
+    private String truncate(String sql) {
+        return sql.length() > properties.maxSqlLength() ? sql.substring(0, properties.maxSqlLength()) + "..." : sql;
+    }
+
+    private static String idOf(String shape) {
+        return String.format("%08x", shape.hashCode());
+    }
+
+    /** Detiene el hilo de EXPLAIN al cerrar el contexto. */
+    @PreDestroy
+    void close() {
+        explainer.shutdownNow();
+    }
+
+    /** Histograma de una forma en cubos de potencias de dos en milisegundos. */
+    private static final class Shape {
+
+        private final String id;
+        private final String sql;
+        private final boolean select;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicBoolean explainRequested = new AtomicBoolean();
+        private volatile String plan;
+
+        Shape(String id, String sql, boolean select) {
+            this.id = id;
+            this.sql = sql;
+            this.select = select;
+        }
+
+        void record(long elapsedMs, boolean isSlow) {
+            count.increment();
+            totalMs.add(elapsedMs);
+            if (isSlow) {
+                slow.increment();
+            }
+            if (elapsedMs > maxMs.get()) {
+                maxMs.accumulateAndGet(elapsedMs, Math::max);
+            }
+            buckets.incrementAndGet(bucket(elapsedMs));
+        }
+
+        ShapeReport report() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            Map<String, Long> histogram = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+                if (counts[i] > 0) {
+                    histogram.put(i == BUCKETS - 1 ? ">=" + (1L << (i - 1)) + "ms" : "<" + (1L << i) + "ms", counts[i]);
+                }
+            }
+            long executions = count.sum();
+            double mean = executions == 0 ? 0 : (double) totalMs.sum() / executions;
+            return new ShapeReport(id, sql, executions, slow.sum(), Math.round(mean * 10) / 10.0, maxMs.get(),
+                    percentile(counts, total, 0.50), percentile(counts, total, 0.99), histogram, plan);
+        }
+
+        /** Cubo {@code i} cubre [2^(i-1), 2^i) ms; el 0 las de menos de 1 ms. */
+        private static int bucket(long elapsedMs) {
+            return elapsedMs <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(elapsedMs));
+        }
+
+        /** Límite superior del cubo que contiene el percentil. */
+        private static long percentile(long[] counts, long total, double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (BUCKETS - 1);
+        }
+    }
+
+    /** Listener de un DataSource concreto. */
+    private final class Listener implements QueryExecutionListener {
+
+        private final DataSource dataSource;
+        private final String name;
+
+        Listener(DataSource dataSource, String name) {
+            this.dataSource = dataSource;
+            this.name = name;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!queryInfoList.isEmpty()) {
+                record(this, execInfo, queryInfoList);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del registro de consultas lentas.
+ *
+ * @param enabled       mide las sentencias de los DataSource envueltos y guarda las lentas
+ * @param threshold     duración a partir de la cual una sentencia es lenta
+ * @param capacity      consultas lentas que se conservan (las más recientes)
+ * @param maxShapes     formas de consulta distintas con histograma; las demás solo cuentan en el anillo
+ * @param explain       captura en segundo plano el {@code EXPLAIN} de cada forma la primera vez que es lenta
+ * @param explainQueue  EXPLAIN pendientes como máximo; si la cola está llena se reintenta en la siguiente lenta
+ * @param maxSqlLength  caracteres del SQL que se guardan
+ */
+@ConfigurationProperties(prefix = "legendme.sql.slow-queries")
+public record SlowQueryProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200ms") Duration threshold,
+        @DefaultValue("200") int capacity,
+        @DefaultValue("256") int maxShapes,
+        @DefaultValue("true") boolean explain,
+        @DefaultValue("16") int explainQueue,
+        @DefaultValue("2000") int maxSqlLength
+) {}
@@ -0,0 +1,61 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Inspección de las sentencias SQL: envuelve el DataSource principal con datasource-proxy (conteo
+ * por petición y {@link SlowQueryLog}) y registra {@link SqlStatementFilter}. Los DataSource de los shards se envuelven al crearlos
+ * (ver {@code ShardingConfig}). Sin {@code legendme.sql.statements.enabled} no se abre ningún
+ * ámbito y el proxy solo delega.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatementProperties.class)
+public class SqlStatementConfig {
+
+    /**
+     * Envuelve el bean {@code dataSource} (el autoconfigurado o el enrutador de réplicas), que es
+     * el que usan JPA y las transacciones. Solo ese: envolver también los DataSource internos
+     * contaría dos veces la misma sentencia. El registro de consultas lentas se resuelve al
+     * envolverlo, no al crear el post-procesador.
+     *
+     * @param slowQueries Registro de consultas lentas.
+     * @return El post-procesador.
+     */
+    @Bean
+    static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SlowQueryLog> slowQueries) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return SqlStatementCounter.proxy(dataSource, "primary", slowQueries.getIfAvailable());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Registra el filtro de conteo antes que cualquier otro.
+     *
+     * @param properties    Configuración del conteo.
+     * @param meterRegistry Registro de métricas.
+     * @return El registro del filtro en el contenedor de servlets.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "legendme.sql.statements", name = "enabled", havingValue = "true", matchIfMissing = true)
+    FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(SqlStatementProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementFilter> registration = new FilterRegistrationBean<>(new SqlStatementFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
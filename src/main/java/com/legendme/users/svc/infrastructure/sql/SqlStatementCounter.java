@@ -0,0 +1,168 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cuenta las sentencias SQL que ejecuta el hilo actual mientras hay un {@link Scope} abierto
+ * (lo abre {@link SqlStatementFilter} para cada petición).
+ * Cada ejecución contra la base cuenta una vez, sea una sentencia suelta o un lote: lo que se
+ * mide son los viajes de ida y vuelta. Sin ámbito abierto el listener no hace nada, de modo que
+ * los DataSource se pueden envolver siempre. Las consultas que se lanzan en otros hilos (por
+ * ejemplo el scatter-gather de los shards) no cuentan para la petición.
+ * El mismo proxy alimenta {@link SlowQueryLog}, que usa el endpoint del ámbito para situar cada
+ * consulta lenta.
+ */
+public final class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final SqlStatementCounter INSTANCE = new SqlStatementCounter();
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Envuelve un DataSource para que sus sentencias se cuenten en el ámbito del hilo que las ejecuta.
+     *
+     * @param dataSource DataSource real.
+     * @param name       Nombre con el que se identifica (por ejemplo {@code primary} o {@code shard-0}).
+     * @return El DataSource envuelto.
+     */
+    public static DataSource proxy(DataSource dataSource, String name) {
+        return proxy(dataSource, name, null);
+    }
+
+    /**
+     * Envuelve un DataSource para contar sus sentencias y registrar las lentas.
+     *
+     * @param dataSource  DataSource real.
+     * @param name        Nombre con el que se identifica (por ejemplo {@code primary} o {@code shard-0}).
+     * @param slowQueries Registro de consultas lentas (puede ser null).
+     * @return El DataSource envuelto.
+     */
+    public static DataSource proxy(DataSource dataSource, String name, SlowQueryLog slowQueries) {
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                .name(name)
+                .listener(INSTANCE);
+        QueryExecutionListener slow = slowQueries == null ? null : slowQueries.listener(dataSource, name);
+        if (slow != null) {
+            builder.listener(slow);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Abre un ámbito de conteo en el hilo actual.
+     *
+     * @param capture Guarda también el texto de las sentencias (para diagnóstico y pruebas).
+     * @return El ámbito, que hay que cerrar al terminar.
+     */
+    public static Scope open(boolean capture) {
+        return open(capture, () -> null);
+    }
+
+    /**
+     * Abre un ámbito de conteo en el hilo actual.
+     *
+     * @param capture  Guarda también el texto de las sentencias (para diagnóstico y pruebas).
+     * @param endpoint Endpoint que ejecuta las sentencias (método y patrón de ruta); se resuelve al pedirlo.
+     * @return El ámbito, que hay que cerrar al terminar.
+     */
+    public static Scope open(boolean capture, Supplier<String> endpoint) {
+        Scope scope = new Scope(capture, endpoint);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * Ámbito abierto en el hilo actual.
+     *
+     * @return El ámbito, o null si no hay ninguno.
+     */
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = CURRENT.get();
+        if (scope != null && !queryInfoList.isEmpty()) {
+            scope.record(queryInfoList.get(0).getQuery(), execInfo.isBatch() ? execInfo.getBatchSize() : 1);
+        }
+    }
+
+    /** Sentencias de una petición, por tipo. */
+    public static final class Scope implements AutoCloseable {
+
+        private final List<String> statements;
+        private final Supplier<String> endpoint;
+        private final int[] byType = new int[QueryType.values().length];
+        private int total;
+
+        private Scope(boolean capture, Supplier<String> endpoint) {
+            this.statements = capture ? new ArrayList<>() : null;
+            this.endpoint = endpoint;
+        }
+
+        private void record(String query, int batchSize) {
+            total++;
+            byType[QueryUtils.getQueryType(query).ordinal()]++;
+            if (statements != null) {
+                statements.add(batchSize > 1 ? query + " [lote de " + batchSize + "]" : query);
+            }
+        }
+
+        /** Sentencias ejecutadas (viajes a la base). */
+        public int total() {
+            return total;
+        }
+
+        /**
+         * Sentencias de un tipo.
+         *
+         * @param type SELECT, INSERT, UPDATE, DELETE u OTHER.
+         * @return Cuántas se ejecutaron.
+         */
+        public int count(QueryType type) {
+            return byType[type.ordinal()];
+        }
+
+        /** Endpoint que abrió el ámbito ({@code GET /legendme/users/...}), o null si no se conoce. */
+        public String endpoint() {
+            return endpoint.get();
+        }
+
+        /** Texto de las sentencias, en orden, si el ámbito se abrió con captura; si no, vacío. */
+        public List<String> statements() {
+            return statements == null ? List.of() : Collections.unmodifiableList(statements);
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "SqlStatements[total=" + total + ", select=" + count(QueryType.SELECT)
+                    + ", insert=" + count(QueryType.INSERT) + ", update=" + count(QueryType.UPDATE)
+                    + ", delete=" + count(QueryType.DELETE) + ", other=" + count(QueryType.OTHER) + "]";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Cuenta las sentencias SQL de cada petición con {@link SqlStatementCounter}.
+ * Al terminar publica el total en la métrica {@code legendme.sql.statements} (por método y
+ * patrón de URI) y deja el ámbito en el atributo {@link #ATTRIBUTE} de la petición.
+ * Con la cabecera activada, {@code X-SQL-Statement-Count} se añade justo antes de que la
+ * respuesta se confirme, de modo que incluye todas las sentencias previas a escribir el cuerpo.
+ * Se registra el primero de la cadena, antes que la seguridad.
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    /** Atributo de la petición con el {@link SqlStatementCounter.Scope} de la petición. */
+    public static final String ATTRIBUTE = SqlStatementFilter.class.getName() + ".scope";
+
+    /** Cabecera de depuración con el número de sentencias. */
+    public static final String HEADER = "X-SQL-Statement-Count";
+
+    private final SqlStatementProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor para la inyección de la configuración y el registro de métricas.
+     *
+     * @param properties    Configuración del conteo.
+     * @param meterRegistry Registro donde se publica la distribución de sentencias por petición.
+     */
+    public SqlStatementFilter(SqlStatementProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(properties.capture(),
+                () -> request.getMethod() + " " + uriOf(request))) {
+            request.setAttribute(ATTRIBUTE, scope);
+            HttpServletResponse target = response;
+            if (properties.header()) {
+                target = new OnCommittedResponseWrapper(response) {
+                    @Override
+                    protected void onResponseCommitted() {
+                        response.setHeader(HEADER, Integer.toString(scope.total()));
+                    }
+                };
+            }
+            filterChain.doFilter(request, target);
+            if (properties.header() && !response.isCommitted()) {
+                response.setHeader(HEADER, Integer.toString(scope.total()));
+            }
+            DistributionSummary.builder("legendme.sql.statements")
+                    .description("Sentencias SQL ejecutadas por petición")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uriOf(request))
+                    .register(meterRegistry)
+                    .record(scope.total());
+        }
+    }
+
+    /** Patrón de la ruta (acotado), no la URI real, para no crear una serie por usuario. */
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,18 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración del conteo de sentencias SQL por petición.
+ *
+ * @param enabled cuenta las sentencias de cada petición y las publica en la métrica {@code legendme.sql.statements}
+ * @param header  añade la cabecera {@code X-SQL-Statement-Count} a las respuestas (depuración)
+ * @param capture guarda el texto de las sentencias de cada petición (solo pruebas y diagnóstico)
+ */
+@ConfigurationProperties(prefix = "legendme.sql.statements")
+public record SqlStatementProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean header,
+        @DefaultValue("false") boolean capture
+) {}
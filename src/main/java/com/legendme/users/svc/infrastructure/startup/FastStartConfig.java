@@ -0,0 +1,35 @@
+package com.legendme.users.svc.infrastructure.startup;
+
+import com.legendme.users.svc.application.port.out.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuración del perfil {@code fast-start} (autoescalado).
+ *
+ * <p>El perfil activa {@code spring.main.lazy-initialization}: los beans se crean al usarse por
+ * primera vez. La capa de persistencia queda fuera de esa regla porque la primera petición no
+ * debe pagar el arranque de Hibernate; el resto (hash de contraseñas, muestreo de logs,
+ * manejadores de error...) se difiere.</p>
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    /**
+     * Beans que se crean durante el arranque aunque la inicialización diferida esté activa.
+     *
+     * @return El filtro de exclusión.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter persistenceEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class, UserRepository.class);
+    }
+}
@@ -0,0 +1,31 @@
+package com.legendme.users.svc.infrastructure.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.Arrays;
+
+/**
+ * Registra cuánto tarda el servicio en estar listo: desde el arranque de la JVM y desde el
+ * inicio de {@code SpringApplication.run}, junto con las optimizaciones de arranque activas
+ * (perfiles, artefactos AOT y archivo CDS).
+ */
+@Slf4j
+@Component
+public class StartupTimingListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        boolean cds = runtime.getInputArguments().stream().anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        log.info("Servicio listo en {} ms desde el arranque de la JVM ({} ms de Spring); perfiles {}, AOT {}, CDS {}",
+                runtime.getUptime(), event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis(),
+                Arrays.toString(event.getApplicationContext().getEnvironment().getActiveProfiles()),
+                AotDetector.useGeneratedArtifacts(), cds);
+    }
+}
@@ -1,20 +1,66 @@
 package com.legendme.users.svc.shared;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import com.legendme.users.svc.shared.dto.Error;
+import com.legendme.users.svc.shared.exceptions.BusinessException;
 import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.RateLimitExceededException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
 
 /**
  * Manejador global de excepciones para la aplicación.
  * Captura excepciones específicas y devuelve respuestas HTTP adecuadas.
+ * Es el único punto donde se registran los errores: los de negocio sin stack trace
+ * y a nivel debug, los 5xx inesperados con su stack trace completo.
+ * Los errores siempre se escriben en JSON, como los de los filtros, aunque el cliente
+ * haya negociado CBOR o Protobuf para las respuestas correctas.
  */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Maneja los errores de negocio esperados.
+     * Devuelve el cuerpo precalculado del error, sin formatear nada por petición.
+     *
+     * @param ex  La excepción capturada.
+     * @param req La solicitud HTTP que causó la excepción.
+     * @return Una respuesta HTTP con el estado y mensaje del error.
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Error> handleBusinessException(BusinessException ex, HttpServletRequest req) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} {} -> {}", req.getMethod(), req.getRequestURI(), ex.errorCode());
+        }
+        return ResponseEntity.status(ex.body().status()).contentType(MediaType.APPLICATION_JSON).body(ex.body());
+    }
+
+    /**
+     * Maneja las peticiones rechazadas por el límite de peticiones.
+     * Devuelve 429 con la cabecera Retry-After y el cuerpo precalculado del error.
+     *
+     * @param ex  La excepción capturada.
+     * @param req La solicitud HTTP que causó la excepción.
+     * @return Una respuesta HTTP 429.
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Error> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest req) {
+        if (log.isDebugEnabled()) {
+            log.debug("{} {} -> {}", req.getMethod(), req.getRequestURI(), UserErrors.RATE_LIMITED.errorCode());
+        }
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.retryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(UserErrors.RATE_LIMITED.body());
+    }
+
     /**
      * Maneja las excepciones de tipo ErrorException.
      * Devuelve una respuesta HTTP con el estado y mensaje del error.
@@ -25,14 +71,12 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ErrorException.class)
     public ResponseEntity<Error> handleErrorException(ErrorException ex, HttpServletRequest req) {
-        HttpStatus status = ex.status() != null ? ex.status() : HttpStatus.BAD_REQUEST;
-        String errorCode = ex.errorCode() != null ? ex.errorCode() : "error.generic";
-        Error body = new Error(
-                status.value(),
-                ex.getMessage(),
-                errorCode
-        );
-        return ResponseEntity.status(status).body(body);
+        if (ex.body().status() >= 500) {
+            log.error("Error en {} {}: {}", req.getMethod(), req.getRequestURI(), ex.getMessage(), ex);
+        } else {
+            log.warn("Error en {} {}: {} ({})", req.getMethod(), req.getRequestURI(), ex.getMessage(), ex.errorCode());
+        }
+        return ResponseEntity.status(ex.body().status()).contentType(MediaType.APPLICATION_JSON).body(ex.body());
     }
 
     /**
@@ -45,12 +89,13 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Error> handleIllegalArgument(IllegalArgumentException ex, HttpServletRequest req) {
+        log.error("Error en {} {}: {}", req.getMethod(), req.getRequestURI(), ex.getMessage(), ex);
         HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
         Error body = new Error(
                 status.value(),
                 ex.getMessage(),
                 "999"
         );
-        return ResponseEntity.status(status).body(body);
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
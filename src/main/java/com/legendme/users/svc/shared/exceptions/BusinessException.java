@@ -0,0 +1,23 @@
+package com.legendme.users.svc.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error de negocio esperado (validaciones, usuario no encontrado, datos en uso...).
+ * No captura stack trace ni admite excepciones suprimidas, por lo que es inmutable y
+ * una misma instancia se puede lanzar desde varios hilos. Las instancias del servicio
+ * están en {@link UserErrors}.
+ */
+public class BusinessException extends ErrorException {
+
+    /**
+     * Constructor que crea un error de negocio sin stack trace.
+     *
+     * @param message   Mensaje descriptivo del error.
+     * @param errorCode Código de error específico.
+     * @param status    Estado HTTP asociado al error.
+     */
+    public BusinessException(String message, String errorCode, HttpStatus status) {
+        super(message, errorCode, status, false);
+    }
+}
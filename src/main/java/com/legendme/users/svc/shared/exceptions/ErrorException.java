@@ -1,13 +1,16 @@
 package com.legendme.users.svc.shared.exceptions;
 
+import com.legendme.users.svc.shared.dto.Error;
 import org.springframework.http.HttpStatus;
 /**
  * Excepción personalizada para manejar errores en la aplicación.
  * Contiene un código de error y un estado HTTP asociado.
+ * El cuerpo {@link Error} de la respuesta se construye una sola vez, al crear la excepción.
  */
 public class ErrorException extends RuntimeException {
     private final String errorCode;
     private final HttpStatus status;
+    private final Error body;
 
     /**
      * Constructor que crea una excepción con un mensaje, un código de error y un estado HTTP específicos.
@@ -17,9 +20,38 @@ public class ErrorException extends RuntimeException {
      * @param status    Estado HTTP asociado al error.
      */
     public ErrorException(String message, String errorCode, HttpStatus status) {
-        super(message);
+        this(message, errorCode, status, null);
+    }
+
+    /**
+     * Constructor para fallos inesperados: conserva la causa original para que su stack trace
+     * quede registrado.
+     *
+     * @param message   Mensaje descriptivo del error.
+     * @param errorCode Código de error específico.
+     * @param status    Estado HTTP asociado al error.
+     * @param cause     Excepción que originó el error.
+     */
+    public ErrorException(String message, String errorCode, HttpStatus status, Throwable cause) {
+        super(message, cause);
         this.errorCode = errorCode;
         this.status = status;
+        this.body = bodyOf(message, errorCode, status);
+    }
+
+    /**
+     * Constructor para subclases que no necesitan stack trace ni excepciones suprimidas.
+     *
+     * @param message   Mensaje descriptivo del error.
+     * @param errorCode Código de error específico.
+     * @param status    Estado HTTP asociado al error.
+     * @param writableStackTrace false para no capturar la pila al crear la excepción.
+     */
+    protected ErrorException(String message, String errorCode, HttpStatus status, boolean writableStackTrace) {
+        super(message, null, writableStackTrace, writableStackTrace);
+        this.errorCode = errorCode;
+        this.status = status;
+        this.body = bodyOf(message, errorCode, status);
     }
 
     /**
@@ -39,4 +71,21 @@ public class ErrorException extends RuntimeException {
     public HttpStatus status() {
         return status;
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el cuerpo de respuesta del error, con los valores por defecto ya aplicados.
+     *
+     * @return Cuerpo del error.
+     */
+    public Error body() {
+        return body;
+    }
+
+    private static Error bodyOf(String message, String errorCode, HttpStatus status) {
+        return new Error(
+                (status != null ? status : HttpStatus.BAD_REQUEST).value(),
+                message,
+                errorCode != null ? errorCode : "error.generic"
+        );
+    }
+}
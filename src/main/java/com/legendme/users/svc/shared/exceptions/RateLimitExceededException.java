@@ -0,0 +1,30 @@
+package com.legendme.users.svc.shared.exceptions;
+
+/**
+ * Petición rechazada por el límite de peticiones. Lleva los segundos que el cliente debe
+ * esperar, que se devuelven en la cabecera {@code Retry-After}; el cuerpo es el de
+ * {@link UserErrors#RATE_LIMITED}. Como los errores de negocio, no captura stack trace.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor que crea la excepción sin stack trace.
+     *
+     * @param retryAfterSeconds Segundos hasta que el cliente puede reintentar.
+     */
+    public RateLimitExceededException(long retryAfterSeconds) {
+        super(UserErrors.RATE_LIMITED.getMessage(), null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Obtiene los segundos hasta que el cliente puede reintentar.
+     *
+     * @return Valor de la cabecera Retry-After.
+     */
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,153 @@
+package com.legendme.users.svc.shared.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Catálogo de los errores de negocio esperados del servicio de usuarios.
+ * Cada error es una única instancia inmutable y sin stack trace que se lanza tantas veces
+ * como haga falta, por lo que los caminos 4xx más frecuentes (usuario no encontrado,
+ * email en uso, validaciones) no crean objetos ni recorren la pila.
+ *
+ * @see BusinessException
+ */
+public final class UserErrors {
+
+    private UserErrors() {
+    }
+
+    /** La petición no trae un token Bearer. */
+    public static final BusinessException TOKEN_MISSING =
+            new BusinessException("Token no encontrado o inválido", "USER-AUTH-01", HttpStatus.UNAUTHORIZED);
+
+    /** El ID de búsqueda es nulo. */
+    public static final BusinessException ID_REQUIRED =
+            new BusinessException("El ID no puede ser nulo", "USER-FIND-ID-01", HttpStatus.BAD_REQUEST);
+
+    /** No existe un usuario con el ID buscado. */
+    public static final BusinessException USER_NOT_FOUND_BY_ID =
+            new BusinessException("Usuario no encontrado", "USER-FIND-ID-01", HttpStatus.BAD_REQUEST);
+
+    /** El email de búsqueda es nulo o vacío. */
+    public static final BusinessException FIND_EMAIL_REQUIRED =
+            new BusinessException("El email no puede ser nulo o vacío", "USER-FIND-EMAIL-01", HttpStatus.BAD_REQUEST);
+
+    /** No existe un usuario con el email buscado. */
+    public static final BusinessException USER_NOT_FOUND_BY_EMAIL =
+            new BusinessException("Usuario no encontrado", "USER-FIND-EMAIL-03", HttpStatus.BAD_REQUEST);
+
+    /** El username de búsqueda es nulo o vacío. */
+    public static final BusinessException FIND_USERNAME_REQUIRED =
+            new BusinessException("El username no puede ser nulo o vacío", "USER-FIND-USERNAME-01", HttpStatus.BAD_REQUEST);
+
+    /** No existe un usuario con el username buscado. */
+    public static final BusinessException USER_NOT_FOUND_BY_USERNAME =
+            new BusinessException("Usuario no encontrado", "USER-FIND-USERNAME-03", HttpStatus.BAD_REQUEST);
+
+    /** El email a verificar es nulo o vacío. */
+    public static final BusinessException EXISTS_EMAIL_REQUIRED =
+            new BusinessException("El email no puede ser nulo o vacío", "USER-EXISTS-EMAIL-01", HttpStatus.BAD_REQUEST);
+
+    /** El username a verificar es nulo o vacío. */
+    public static final BusinessException EXISTS_USERNAME_REQUIRED =
+            new BusinessException("El username no puede ser nulo o vacío", "USER-EXISTS-USERNAME-01", HttpStatus.BAD_REQUEST);
+
+    /** El registro local no trae provider LOCAL. */
+    public static final BusinessException LOCAL_PROVIDER_REQUIRED =
+            new BusinessException("Provider debe ser LOCAL", "USER-CREATE-01", HttpStatus.BAD_REQUEST);
+
+    /** Falta el nombre en el registro. */
+    public static final BusinessException NAME_REQUIRED =
+            new BusinessException("El nombre es obligatorio", "USER-CREATE-02", HttpStatus.BAD_REQUEST);
+
+    /** Falta el apellido en el registro. */
+    public static final BusinessException LASTNAME_REQUIRED =
+            new BusinessException("El apellido es obligatorio", "USER-CREATE-03", HttpStatus.BAD_REQUEST);
+
+    /** Falta el username en el registro. */
+    public static final BusinessException USERNAME_REQUIRED =
+            new BusinessException("El username es obligatorio", "USER-CREATE-04", HttpStatus.BAD_REQUEST);
+
+    /** Falta el email en el registro. */
+    public static final BusinessException EMAIL_REQUIRED =
+            new BusinessException("El email es obligatorio", "USER-CREATE-05", HttpStatus.BAD_REQUEST);
+
+    /** Falta el password en el registro. */
+    public static final BusinessException PASSWORD_REQUIRED =
+            new BusinessException("El password es obligatorio", "USER-CREATE-06", HttpStatus.BAD_REQUEST);
+
+    /** El email del registro no tiene un formato válido. */
+    public static final BusinessException EMAIL_INVALID =
+            new BusinessException("El email no es válido", "USER-CREATE-07", HttpStatus.BAD_REQUEST);
+
+    /** El email del registro ya pertenece a otro usuario. */
+    public static final BusinessException EMAIL_IN_USE =
+            new BusinessException("El email ya está en uso", "USER-CREATE-08", HttpStatus.BAD_REQUEST);
+
+    /** El username del registro ya pertenece a otro usuario. */
+    public static final BusinessException USERNAME_IN_USE =
+            new BusinessException("El username ya está en uso", "USER-CREATE-09", HttpStatus.BAD_REQUEST);
+
+    /** El upsert de Google no trae provider GOOGLE. */
+    public static final BusinessException GOOGLE_PROVIDER_REQUIRED =
+            new BusinessException("Provider debe ser GOOGLE", "USER-GOOGLE-01", HttpStatus.BAD_REQUEST);
+
+    /** El email ya está registrado con otro proveedor. */
+    public static final BusinessException EMAIL_IN_USE_OTHER_PROVIDER =
+            new BusinessException("El email ya está en uso con otro proveedor", "USER-GOOGLE-02", HttpStatus.BAD_REQUEST);
+
+    /** El usuario a actualizar no existe. */
+    public static final BusinessException USER_TO_UPDATE_NOT_FOUND =
+            new BusinessException("Usuario no encontrado", "USER-UPDATE-01", HttpStatus.NOT_FOUND);
+
+    /** El nuevo email ya pertenece a otro usuario. */
+    public static final BusinessException UPDATE_EMAIL_IN_USE =
+            new BusinessException("El correo ya está en uso por otro usuario", "USER-UPDATE-EMAIL-02", HttpStatus.BAD_REQUEST);
+
+    /** El nuevo username ya pertenece a otro usuario. */
+    public static final BusinessException UPDATE_USERNAME_IN_USE =
+            new BusinessException("El nombre de usuario ya está en uso", "USER-UPDATE-USERNAME-03", HttpStatus.BAD_REQUEST);
+
+    /** La versión enviada en If-Match no es la vigente. */
+    public static final BusinessException IF_MATCH_MISMATCH =
+            new BusinessException("If-Match no corresponde al usuario", "USER-UPDATE-05", HttpStatus.PRECONDITION_FAILED);
+
+    /** El usuario a desactivar no existe. */
+    public static final BusinessException USER_TO_DEACTIVATE_NOT_FOUND =
+            new BusinessException("Usuario no encontrado", "USER-DEACT-01", HttpStatus.NOT_FOUND);
+
+    /** Se agotaron los reintentos ante escrituras concurrentes. */
+    public static final BusinessException CONCURRENT_MODIFICATION =
+            new BusinessException("El usuario fue modificado concurrentemente, intente de nuevo", "USER-CONFLICT-01", HttpStatus.CONFLICT);
+
+    /** El email de la verificación de credenciales es nulo o vacío. */
+    public static final BusinessException VERIFY_EMAIL_REQUIRED =
+            new BusinessException("El email no puede ser nulo o vacío", "USER-VERIFY-01", HttpStatus.BAD_REQUEST);
+
+    /** El password de la verificación de credenciales es nulo o vacío. */
+    public static final BusinessException VERIFY_PASSWORD_REQUIRED =
+            new BusinessException("El password no puede ser nulo o vacío", "USER-VERIFY-02", HttpStatus.BAD_REQUEST);
+
+    /** El pool de verificación de contraseñas está saturado. */
+    public static final BusinessException VERIFY_OVERLOADED =
+            new BusinessException("Servicio de verificación saturado, intente de nuevo", "USER-VERIFY-04", HttpStatus.SERVICE_UNAVAILABLE);
+
+    /** Se superó el límite de concurrencia de la clase del endpoint; la petición se descarta sin procesarla. */
+    public static final BusinessException OVERLOADED =
+            new BusinessException("Servicio saturado, intente de nuevo", "USER-LIMIT-01", HttpStatus.SERVICE_UNAVAILABLE);
+
+    /** Se superó el límite de peticiones de alta para la IP o el email; se devuelve con Retry-After. */
+    public static final BusinessException RATE_LIMITED =
+            new BusinessException("Demasiadas peticiones, intente más tarde", "USER-RATE-01", HttpStatus.TOO_MANY_REQUESTS);
+
+    /** La lista de hashes de email es nula, vacía, supera el máximo o contiene un hash mal formado. */
+    public static final BusinessException EMAIL_HASHES_INVALID =
+            new BusinessException("Se esperan entre 1 y 5000 hashes SHA-256 en hexadecimal", "USER-MATCH-01", HttpStatus.BAD_REQUEST);
+
+    /** Se piden más alternativas de username de las permitidas (o un número negativo). */
+    public static final BusinessException USERNAME_SUGGESTIONS_INVALID =
+            new BusinessException("Se pueden pedir entre 0 y 10 alternativas de username", "USER-AVAILABILITY-01", HttpStatus.BAD_REQUEST);
+
+    /** El parámetro fields pide un campo que no existe en UserResponse. */
+    public static final BusinessException FIELDS_INVALID =
+            new BusinessException("El parámetro fields contiene campos no soportados", "USER-FIELDS-01", HttpStatus.BAD_REQUEST);
+}
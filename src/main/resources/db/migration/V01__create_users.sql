@@ -0,0 +1,14 @@
+-- Tabla de usuarios tal como la creaba Hibernate (ddl-auto=update) antes de las migraciones.
+CREATE TABLE users (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    lastname VARCHAR(255),
+    birth_date DATETIME(6),
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    provider VARCHAR(255),
+    active BIT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6)
+);
@@ -0,0 +1,2 @@
+-- Bloqueo optimista e If-Match en las actualizaciones parciales.
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
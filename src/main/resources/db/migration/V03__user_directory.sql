@@ -0,0 +1,9 @@
+-- Directorio global del sharding: email e username → ID del usuario.
+CREATE TABLE user_email_index (
+    email VARCHAR(255) NOT NULL PRIMARY KEY,
+    user_id BINARY(16) NOT NULL
+);
+CREATE TABLE user_username_index (
+    username VARCHAR(255) NOT NULL PRIMARY KEY,
+    user_id BINARY(16) NOT NULL
+);
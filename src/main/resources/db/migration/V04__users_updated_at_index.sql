@@ -0,0 +1,2 @@
+-- Puesta al día del directorio en memoria por fecha de modificación.
+CREATE INDEX idx_users_updated_at ON users (updated_at);
@@ -0,0 +1,7 @@
+-- Búsqueda de contactos por hash del email. EmailHashBackfill completa las filas anteriores al arrancar.
+ALTER TABLE users ADD COLUMN email_hash BINARY(32);
+CREATE INDEX idx_users_email_hash ON users (email_hash);
+CREATE TABLE user_email_hash_index (
+    email_hash BINARY(32) NOT NULL PRIMARY KEY,
+    user_id BINARY(16) NOT NULL
+);
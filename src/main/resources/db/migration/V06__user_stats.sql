@@ -0,0 +1,12 @@
+-- Contadores de /stats repartidos en slots y marca de la última reconciliación por slot.
+CREATE TABLE user_stats (
+    stat_key VARCHAR(64) NOT NULL,
+    slot INT NOT NULL,
+    stat_value BIGINT NOT NULL,
+    PRIMARY KEY (stat_key, slot)
+);
+CREATE TABLE user_stats_reconciliation (
+    slot INT NOT NULL PRIMARY KEY,
+    reconciliation BIGINT NOT NULL,
+    counted_at BIGINT NOT NULL
+);
@@ -0,0 +1,2 @@
+-- birthDate pasa a LocalDate: la columna guarda solo la fecha.
+ALTER TABLE users MODIFY birth_date DATE;
@@ -0,0 +1,15 @@
+-- Tabla de usuarios de cada shard.
+CREATE TABLE users (
+    id BINARY(16) NOT NULL PRIMARY KEY,
+    name VARCHAR(255),
+    lastname VARCHAR(255),
+    birth_date DATETIME(6),
+    username VARCHAR(255),
+    email VARCHAR(255),
+    password VARCHAR(255),
+    provider VARCHAR(255),
+    active BOOLEAN NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    version BIGINT DEFAULT 0 NOT NULL
+);
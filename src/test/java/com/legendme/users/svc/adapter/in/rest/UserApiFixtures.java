@@ -0,0 +1,89 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.core.env.Environment;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Credenciales y cuerpos de las pruebas de la API con el perfil {@code test}: el token S2S, JWTs
+ * de usuario firmados con {@code jwt.secret} y el JSON de alta de un usuario.
+ */
+public final class UserApiFixtures {
+
+    /** Valor de {@code spring.security.s2s-token} en el perfil {@code test}. */
+    public static final String INTERNAL_TOKEN = "dGVzdC10b2tlbg==";
+
+    private final NimbusJwtEncoder encoder;
+    private final String issuer;
+
+    public UserApiFixtures(Environment environment) {
+        byte[] secret = environment.getRequiredProperty("jwt.secret").getBytes(StandardCharsets.UTF_8);
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(new SecretKeySpec(secret, "HmacSHA384")));
+        this.issuer = environment.getRequiredProperty("jwt.issuer");
+    }
+
+    /**
+     * Añade el token S2S a la petición.
+     *
+     * @param request Petición de MockMvc.
+     * @return La misma petición.
+     */
+    public static MockHttpServletRequestBuilder s2s(MockHttpServletRequestBuilder request) {
+        return request.header("X-Internal-Token", INTERNAL_TOKEN);
+    }
+
+    /**
+     * JSON de {@code /create} con email {@code <username>@legendme.test} y contraseña {@code secreto}.
+     *
+     * @param username Username del usuario.
+     * @param provider Proveedor (LOCAL o GOOGLE).
+     * @return El cuerpo de la petición.
+     */
+    public static String userJson(String username, String provider) {
+        return "{\"name\":\"Ana\",\"lastname\":\"Prueba\",\"username\":\"" + username + "\",\"email\":\"" + username
+                + "@legendme.test\",\"provider\":\"" + provider + "\",\"password\":\"secreto\"}";
+    }
+
+    /**
+     * JWT de usuario válido durante cinco minutos.
+     *
+     * @param id ID del usuario (claim {@code user_id}).
+     * @return El token firmado.
+     */
+    public String jwtFor(UUID id) {
+        return jwtFor(id, List.of());
+    }
+
+    /**
+     * JWT de usuario válido durante cinco minutos con el claim {@code roles}.
+     *
+     * @param id    ID del usuario (claim {@code user_id}).
+     * @param roles Roles del claim; vacío para omitirlo.
+     * @return El token firmado.
+     */
+    public String jwtFor(UUID id, List<String> roles) {
+        Instant now = Instant.now();
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .claim("user_id", id.toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofMinutes(5)));
+        if (!roles.isEmpty()) {
+            claims.claim("roles", roles);
+        }
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS384).build(), claims.build()))
+                .getTokenValue();
+    }
+}
@@ -0,0 +1,223 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.application.service.FindUserService;
+import com.legendme.users.svc.domain.model.UserVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.legendme.users.svc.adapter.in.rest.UserApiFixtures.s2s;
+import static com.legendme.users.svc.adapter.in.rest.UserApiFixtures.userJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Peticiones condicionales de {@link UserController}: ETag fuerte por formato en las lecturas por
+ * ID y por username, 304 con If-None-Match vigente, ETag de la fila devuelta cuando no coincide
+ * y 412 con If-Match obsoleto o débil en {@code PATCH /update}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerConditionalTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private FindUserService findUserService;
+
+    @Autowired
+    private Environment environment;
+
+    private UserApiFixtures api;
+    private String username;
+    private UUID userId;
+
+    @BeforeEach
+    void createUser() throws Exception {
+        api = new UserApiFixtures(environment);
+        username = "etag-" + UUID.randomUUID().toString().substring(0, 8);
+        MvcResult created = mvc.perform(post("/legendme/users/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(userJson(username, "LOCAL")))
+                .andExpect(status().isOk())
+                .andReturn();
+        userId = UUID.fromString(json(created).get("id").asText());
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() throws Exception {
+        MvcResult first = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(userId.toString()))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isEqualTo("\"" + userId + "-" + json(first).get("version").asLong() + "-json\"");
+
+        MvcResult notModified = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andReturn();
+        assertThat(notModified.getResponse().getContentAsByteArray()).isEmpty();
+
+        mvc.perform(s2s(get("/legendme/users/search/by-username/{username}", username))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void changedVersionReturnsBodyWithNewETag() throws Exception {
+        String etag = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(patch("/legendme/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Actualizada\"}"))
+                .andExpect(status().isOk());
+
+        MvcResult changed = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Actualizada"))
+                .andReturn();
+        String newEtag = changed.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag)
+                .isEqualTo("\"" + userId + "-" + json(changed).get("version").asLong() + "-json\"");
+    }
+
+    @Test
+    void eachFormatHasItsOwnStrongETag() throws Exception {
+        String json = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        MvcResult cborResult = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andReturn();
+        String cbor = cborResult.getResponse().getHeader(HttpHeaders.ETAG);
+        String protobuf = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .header(HttpHeaders.ACCEPT, "application/json;q=0.5, application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-protobuf"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(json).doesNotStartWith("W/").endsWith("-json\"");
+        assertThat(cbor).doesNotStartWith("W/").endsWith("-cbor\"");
+        assertThat(protobuf).doesNotStartWith("W/").endsWith("-protobuf\"");
+
+        // El ETag de un formato no valida otro.
+        mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk());
+        mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .header(HttpHeaders.ACCEPT, "*/*, application/cbor")
+                        .header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified());
+        mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId))
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void weakIfMatchIsRejected() throws Exception {
+        String etag = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(patch("/legendme/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                        .header(HttpHeaders.IF_MATCH, "W/" + etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Debil\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value("USER-UPDATE-05"));
+
+        String cbor = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)).accept(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(patch("/legendme/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                        .header(HttpHeaders.IF_MATCH, cbor)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Fuerte\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fuerte"));
+    }
+
+    @Test
+    void conditionalMissTakesETagFromTheReturnedRow() throws Exception {
+        // La consulta de versión ve una fila distinta de la que se devuelve (caché o réplica desfasadas).
+        doReturn(Optional.of(new UserVersion(userId, Instant.parse("2030-01-01T00:00:00Z"), 41L)))
+                .when(findUserService).findVersionById(userId);
+        doReturn(Optional.of(new UserVersion(userId, Instant.parse("2030-01-01T00:00:00Z"), 41L)))
+                .when(findUserService).findVersionByUsername(username);
+
+        for (MockHttpServletRequestBuilder request : List.of(get("/legendme/users/search/by-id/{id}", userId),
+                get("/legendme/users/search/by-username/{username}", username))) {
+            MvcResult result = mvc.perform(s2s(request).header(HttpHeaders.IF_NONE_MATCH, "W/\"" + userId + "-40\""))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            assertThat(result.getResponse().getHeader(HttpHeaders.ETAG))
+                    .isEqualTo("\"" + userId + "-" + json(result).get("version").asLong() + "-json\"");
+            assertThat(result.getResponse().getDateHeader(HttpHeaders.LAST_MODIFIED))
+                    .isEqualTo(Instant.parse(json(result).get("updatedAt").asText()).toEpochMilli() / 1000 * 1000);
+        }
+    }
+
+    @Test
+    void staleIfMatchOnUpdateReturnsPreconditionFailed() throws Exception {
+        String etag = mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mvc.perform(patch("/legendme/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastname\":\"Primera\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(patch("/legendme/users/update")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lastname\":\"Segunda\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value("USER-UPDATE-05"));
+
+        mvc.perform(s2s(get("/legendme/users/search/by-id/{id}", userId)))
+                .andExpect(jsonPath("$.lastname").value("Primera"));
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.infrastructure.sql.SqlStatementBudget;
+import com.legendme.users.svc.infrastructure.sql.SqlStatementFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static com.legendme.users.svc.adapter.in.rest.UserApiFixtures.s2s;
+import static com.legendme.users.svc.adapter.in.rest.UserApiFixtures.userJson;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Presupuesto de sentencias SQL de cada endpoint de {@link UserController} (camino JPA).
+ * Los valores son los medidos hoy: una sentencia de más (un N+1, un SELECT previo a un merge...)
+ * hace fallar el build y lista las sentencias ejecutadas. Si un cambio reduce el número, baja el presupuesto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerSqlBudgetTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private UserApiFixtures api;
+    private SqlStatementBudget budget;
+    private String suffix;
+    private UUID userId;
+
+    @BeforeEach
+    void createUser() throws Exception {
+        api = new UserApiFixtures(environment);
+        budget = new SqlStatementBudget(mvc);
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        MvcResult created = mvc.perform(post("/legendme/users/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(userJson("budget-" + suffix, "LOCAL")))
+                .andReturn();
+        userId = UUID.fromString(objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asText());
+    }
+
+    @Test
+    void createEndpointsStayWithinBudget() throws Exception {
+        budget.assertQueries(post("/legendme/users/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("local-" + suffix, "LOCAL"))).atMost(3);
+        budget.assertQueries(post("/legendme/users/create/google-user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("google-" + suffix, "GOOGLE"))).atMost(2);
+        budget.assertQueries(post("/legendme/users/create/google-user")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("google-" + suffix, "GOOGLE"))).atMost(2);
+    }
+
+    @Test
+    void readEndpointsStayWithinBudget() throws Exception {
+        budget.assertQueries(s2s(get("/legendme/users/search/by-id/{id}", userId))).atMost(1);
+        budget.assertQueries(s2s(get("/legendme/users/search/by-username/{username}", "budget-" + suffix))).atMost(1);
+        budget.assertQueries(s2s(post("/legendme/users/search/by-email")).contentType(MediaType.APPLICATION_JSON)
+                .content(emailJson())).atMost(1);
+        budget.assertQueries(s2s(post("/legendme/users/exists-by-email")).contentType(MediaType.APPLICATION_JSON)
+                .content(emailJson())).atMost(1);
+        // El username y todos los candidatos se comprueban en una sola consulta IN.
+        MvcResult availability = budget.assertQueries(s2s(get("/legendme/users/username-availability")
+                .param("u", "Budget-" + suffix).param("n", "5"))).atMost(1);
+        assertThat(objectMapper.readTree(availability.getResponse().getContentAsString()).get("available").asBoolean()).isFalse();
+        assertThat(objectMapper.readTree(availability.getResponse().getContentAsString()).get("suggestions")).hasSize(5);
+        // Las estadísticas salen de los contadores en memoria.
+        budget.assertQueries(s2s(get("/legendme/users/stats"))).atMost(0);
+        budget.assertQueries(s2s(post("/legendme/users/verify-credentials")).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"budget-" + suffix + "@legendme.test\",\"password\":\"secreto\"}")).atMost(1);
+    }
+
+    @Test
+    void bulkEndpointsStayWithinBudget() throws Exception {
+        budget.assertQueries(s2s(get("/legendme/users/all"))).atMost(2);
+        budget.assertQueries(s2s(post("/legendme/users/search"))).atMost(2);
+        // Sin cambios en la tabla, la respuesta cacheada solo cuesta la consulta de la versión.
+        budget.assertQueries(s2s(get("/legendme/users/all"))).atMost(1);
+        // Un lote de hashes (hasta 200) es una sola consulta IN.
+        MvcResult matched = budget.assertQueries(s2s(post("/legendme/users/match-email-hashes"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"hashes\":[\"" + EmailHash.of("Budget-" + suffix + "@legendme.test ") + "\",\""
+                        + EmailHash.of("missing-" + suffix + "@legendme.test") + "\"]}")).atMost(1);
+        assertThat(matched.getResponse().getContentAsString()).contains(userId.toString());
+    }
+
+    @Test
+    void writeEndpointsStayWithinBudget() throws Exception {
+        budget.assertQueries(patch("/legendme/users/update")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + api.jwtFor(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Actualizado\"}")).atMost(2);
+        budget.assertQueries(s2s(patch("/legendme/users/{id}/desactivate", userId))).atMost(2);
+    }
+
+    @Test
+    void debugHeaderReportsTheCount() throws Exception {
+        SqlStatementBudget.QueryAssert read = budget.assertQueries(s2s(get("/legendme/users/search/by-id/{id}", userId)));
+        MvcResult result = read.atMost(1);
+
+        assertThat(result.getResponse().getHeader(SqlStatementFilter.HEADER)).isEqualTo(Integer.toString(read.count()));
+    }
+
+    private String emailJson() {
+        return "{\"email\":\"budget-" + suffix + "@legendme.test\"}";
+    }
+}
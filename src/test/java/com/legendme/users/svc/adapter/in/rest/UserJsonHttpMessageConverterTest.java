@@ -0,0 +1,194 @@
+package com.legendme.users.svc.adapter.in.rest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.EmailRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.ExistsResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UpdateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.shared.dto.Error;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link UserJsonHttpMessageConverter} frente a {@link MappingJackson2HttpMessageConverter} con el
+ * ObjectMapper de la aplicación: los bytes escritos y los DTOs leídos deben ser idénticos para
+ * cada tipo soportado, cada proyección de {@code fields}, nulls, escapes y texto no ASCII, y los
+ * casos que el convertidor no atiende deben quedar para Jackson.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserJsonHttpMessageConverterTest {
+
+    private static final Type USER_LIST = new ParameterizedTypeReference<List<UserResponse>>() {}.getType();
+    private static final MediaType LATIN_1 = new MediaType("application", "json", StandardCharsets.ISO_8859_1);
+    private static final MediaType UTF_16 = new MediaType("application", "json", StandardCharsets.UTF_16BE);
+
+    private static final UserResponse FULL = new UserResponse(
+            UUID.fromString("0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0"), "José \"Pepe\"", "Ñúñez\\O'Brien\t\n\u0001</script>",
+            LocalDate.of(1990, 2, 28), "josé😀", "jose@legendme.test", "LOCAL", true,
+            Instant.parse("2026-10-19T10:15:30.123456789Z"), Instant.parse("1999-12-31T23:59:59.100Z"), 7L);
+    private static final UserResponse NULLS = new UserResponse(null, null, null, null, null, null, null, false, null, null, null);
+    private static final UserResponse EPOCH = new UserResponse(
+            UUID.randomUUID(), "漢字", "", LocalDate.EPOCH, "u", "u@legendme.test", "GOOGLE", false,
+            Instant.EPOCH, Instant.parse("2026-01-01T00:00:00Z"), 0L);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void writesEverySupportedTypeLikeJackson() throws IOException {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(objectMapper);
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        List<UserResponse> users = List.of(FULL, NULLS, EPOCH);
+
+        for (UserResponse user : users) {
+            assertSameBytes(converter, jackson, user, UserResponse.class);
+        }
+        assertSameBytes(converter, jackson, new UserSearchResponse(users, 3), UserSearchResponse.class);
+        assertSameBytes(converter, jackson, new UserSearchResponse(List.of(), 0), UserSearchResponse.class);
+        assertSameBytes(converter, jackson, new UserSearchResponse(null, 0), UserSearchResponse.class);
+        assertSameBytes(converter, jackson, users, USER_LIST);
+        assertSameBytes(converter, jackson, List.of(), USER_LIST);
+        assertSameBytes(converter, jackson, new ExistsResponse(true), ExistsResponse.class);
+        assertSameBytes(converter, jackson, new ExistsResponse(false), ExistsResponse.class);
+        assertSameBytes(converter, jackson, new Error(404, "Usuario \"ñ\" no encontrado 😀", "USER-FIND-01"), Error.class);
+        assertSameBytes(converter, jackson, new Error(500, null, null), Error.class);
+    }
+
+    @Test
+    void writesEveryProjectionLikeTheJacksonFilter() throws IOException {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(objectMapper);
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+        List<UserResponse> users = List.of(FULL, NULLS);
+        UserSearchResponse search = new UserSearchResponse(users, 2);
+
+        for (int mask = 1; mask < 1 << UserField.values().length; mask++) {
+            UserProjection projection = UserProjection.ofMask(mask);
+            assertSameBytes(converter, jackson, FULL, UserResponse.class, projection);
+            assertSameBytes(converter, jackson, NULLS, UserResponse.class, projection);
+            assertSameBytes(converter, jackson, search, UserSearchResponse.class, projection);
+            assertSameBytes(converter, jackson, users, USER_LIST, projection);
+        }
+    }
+
+    @Test
+    void readsRequestsLikeJackson() throws IOException {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(objectMapper);
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+
+        String create = """
+                {"name":"José \\"Pepe\\"","lastname":"Ñúñez\\u0041\\n","username":"josé\\ud83d\\ude00",
+                 "birthDate":"1990-02-28","email":"jose@legendme.test","provider":"LOCAL","active":false,
+                 "password":"s3cr3t","unknown":{"nested":[1,{"a":null}]},"other":12.5}""";
+        assertSameRead(converter, jackson, create, CreateUserRequest.class);
+        assertSameRead(converter, jackson, """
+                {"name":null,"birthDate":null,"active":null,"password":null}""", CreateUserRequest.class);
+        // Valores que no son del tipo habitual: el codec delega en el ObjectMapper.
+        assertSameRead(converter, jackson, """
+                {"name":42,"active":"true","birthDate":[1990,2,28]}""", CreateUserRequest.class);
+        assertSameRead(converter, jackson, "{}", CreateUserRequest.class);
+
+        assertSameRead(converter, jackson, """
+                {"name":"漢字","lastname":"","username":"u","email":"u@legendme.test","birthDate":"2000-01-01","x":true}""",
+                UpdateUserRequest.class);
+        assertSameRead(converter, jackson, """
+                {"name":null,"email":null,"birthDate":null}""", UpdateUserRequest.class);
+
+        assertSameRead(converter, jackson, """
+                {"email":"ñandú@legendme.test","extra":["a"]}""", EmailRequest.class);
+        assertSameRead(converter, jackson, """
+                {"email":null}""", EmailRequest.class);
+
+        assertThatThrownBy(() -> converter.read(EmailRequest.class, null, input("{\"email\":")))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageStartingWith("JSON parse error: ");
+        assertThatThrownBy(() -> converter.read(CreateUserRequest.class, null, input("{\"birthDate\":\"28/02/1990\"}")))
+                .isInstanceOf(HttpMessageNotReadableException.class);
+    }
+
+    @Test
+    void leavesOtherCharsetsAndStrictReadsToJackson() {
+        UserJsonHttpMessageConverter converter = new UserJsonHttpMessageConverter(objectMapper);
+        MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(objectMapper);
+
+        assertThat(converter.canWrite(UserResponse.class, UserResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(USER_LIST, List.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canRead(CreateUserRequest.class, null, MediaType.APPLICATION_JSON)).isTrue();
+
+        // Jackson escribe UTF-16 y lee cualquier charset; el convertidor solo UTF-8.
+        assertThat(converter.canWrite(UserResponse.class, UserResponse.class, UTF_16)).isFalse();
+        assertThat(converter.canWrite(USER_LIST, List.class, UTF_16)).isFalse();
+        assertThat(converter.canRead(CreateUserRequest.class, null, UTF_16)).isFalse();
+        assertThat(converter.canRead(CreateUserRequest.class, null, LATIN_1)).isFalse();
+        assertThat(jackson.canWrite(UserResponse.class, UserResponse.class, UTF_16)).isTrue();
+        assertThat(jackson.canRead(CreateUserRequest.class, null, UTF_16)).isTrue();
+        assertThat(jackson.canRead(CreateUserRequest.class, null, LATIN_1)).isTrue();
+
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), List.class,
+                MediaType.APPLICATION_JSON)).isFalse();
+
+        UserJsonHttpMessageConverter strict = new UserJsonHttpMessageConverter(
+                objectMapper.copy().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        assertThat(strict.canRead(CreateUserRequest.class, null, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(strict.canRead(UpdateUserRequest.class, null, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(strict.canRead(EmailRequest.class, null, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(strict.canWrite(UserResponse.class, UserResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+    }
+
+    private static void assertSameBytes(UserJsonHttpMessageConverter converter, MappingJackson2HttpMessageConverter jackson,
+                                        Object body, Type type) throws IOException {
+        assertThat(converter.canWrite(type, body.getClass(), MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(written(converter, body, type)).isEqualTo(written(jackson, body, type));
+    }
+
+    private static void assertSameBytes(UserJsonHttpMessageConverter converter, MappingJackson2HttpMessageConverter jackson,
+                                        Object body, Type type, UserProjection projection) throws IOException {
+        MappingJacksonValue filtered = new MappingJacksonValue(body);
+        filtered.setFilters(UserFields.filters(projection));
+        assertThat(written(converter, new UserJsonHttpMessageConverter.Projected(body, projection), type))
+                .as("fields=%s", projection.fields())
+                .isEqualTo(written(jackson, filtered, type));
+    }
+
+    private static <T> void assertSameRead(UserJsonHttpMessageConverter converter, MappingJackson2HttpMessageConverter jackson,
+                                           String json, Class<T> type) throws IOException {
+        assertThat(converter.canRead(type, null, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.read(type, null, input(json))).isEqualTo(jackson.read(type, null, input(json)));
+    }
+
+    private static String written(GenericHttpMessageConverter<Object> converter, Object body, Type type) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, type, MediaType.APPLICATION_JSON, output);
+        return new String(output.getBodyAsBytes(), StandardCharsets.ISO_8859_1);
+    }
+
+    private static MockHttpInputMessage input(String json) {
+        return new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,45 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Aplica las migraciones a las bases H2 de las pruebas y benchmarks del sharding, en orden de
+ * versión, como lo haría la herramienta de migraciones en un despliegue.
+ */
+public final class ShardSchema {
+
+    private ShardSchema() {
+    }
+
+    /** Aplica {@code db/shard-migration} a un shard.
+     * @param shard DataSource del shard.
+     */
+    public static void initShard(DataSource shard) {
+        migrate(shard, "db/shard-migration");
+    }
+
+    /** Aplica {@code db/migration} a la base principal, donde vive el directorio.
+     * @param directory DataSource del directorio.
+     */
+    public static void initDirectory(DataSource directory) {
+        migrate(directory, "db/migration");
+    }
+
+    private static void migrate(DataSource dataSource, String location) {
+        try {
+            Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:" + location + "/V*.sql");
+            Arrays.sort(scripts, Comparator.comparing(Resource::getFilename));
+            new ResourceDatabasePopulator(scripts).execute(dataSource);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.legendme.users.svc.adapter.out.db.shard;
+
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserStore;
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserCount;
+import com.legendme.users.svc.domain.model.UserField;
+import com.legendme.users.svc.domain.model.UserProjection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Prueba de integración del repositorio particionado contra varias bases H2 embebidas:
+ * tres shards, un cuarto shard para el reparticionado y una base de directorio.
+ */
+class ShardedUserRepositoryTest {
+
+    private static final int USERS = 60;
+
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private List<JdbcTemplate> shards;
+    private JdbcTemplate directory;
+    private ShardedUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        shards = IntStream.range(0, 3).mapToObj(i -> shard("shard" + i)).toList();
+        DataSource directoryDataSource = embedded("directory");
+        ShardSchema.initDirectory(directoryDataSource);
+        directory = new JdbcTemplate(directoryDataSource);
+        repository = new ShardedUserRepository(shards, directory, new BCryptPasswordEncoder(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void usersAreSpreadAcrossShardsAndFoundThroughTheDirectory() {
+        List<User> saved = saveUsers();
+
+        for (JdbcTemplate shard : shards) {
+            assertThat(count(shard)).isPositive();
+        }
+        assertThat(shards.stream().mapToLong(this::count).sum()).isEqualTo(USERS);
+
+        User sample = saved.get(7);
+        assertThat(repository.findById(sample.id())).contains(sample);
+        assertThat(repository.findByEmail(sample.email())).contains(sample);
+        assertThat(repository.findByUsername(sample.username())).contains(sample);
+        assertThat(repository.existsByEmail(sample.email().toUpperCase())).isTrue();
+        assertThat(repository.existsByUsername("missing")).isFalse();
+        assertThat(repository.findIdsByEmailHashes(List.of(EmailHash.of(sample.email()), EmailHash.of("missing@legendme.test"))))
+                .containsExactly(Map.entry(EmailHash.of(sample.email()), sample.id()));
+        assertThat(repository.findExistingUsernames(List.of(sample.username(), saved.get(8).username(), "missing")))
+                .containsExactlyInAnyOrder(sample.username(), saved.get(8).username());
+        assertThat(repository.findVersionByUsername(sample.username()).orElseThrow().version()).isZero();
+
+        assertThat(repository.countByProviderAndActive().stream().mapToLong(UserCount::count).sum()).isEqualTo(USERS);
+        assertThat(repository.countSignupsPerDay(Instant.EPOCH).values().stream().mapToLong(Long::longValue).sum()).isEqualTo(USERS);
+
+        List<User> all = repository.findAll();
+        assertThat(all).hasSize(USERS).containsExactlyInAnyOrderElementsOf(saved);
+        assertThat(all).isSortedAccordingTo((a, b) -> a.createdAt().compareTo(b.createdAt()));
+    }
+
+    @Test
+    void projectedReadsOnlyLoadTheRequestedFields() {
+        List<User> saved = saveUsers();
+        UserProjection projection = UserProjection.of(EnumSet.of(UserField.USERNAME, UserField.ACTIVE));
+
+        User sample = saved.get(7);
+        assertThat(repository.findByEmail(sample.email(), projection)).contains(projection.apply(sample));
+        assertThat(repository.findById(sample.id(), UserProjection.ALL)).contains(sample);
+
+        List<User> all = repository.findAll(projection);
+        assertThat(all).hasSize(USERS)
+                .containsExactlyElementsOf(saved.stream()
+                        .sorted(Comparator.comparing(User::createdAt).thenComparing(User::id))
+                        .map(projection::apply)
+                        .toList());
+    }
+
+    @Test
+    void pagesWalkEveryShardInIdOrder() {
+        List<User> saved = saveUsers();
+
+        List<User> walked = new ArrayList<>();
+        List<User> page = repository.findPage(null, 7);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            page = repository.findPage(page.get(page.size() - 1).id(), 7);
+        }
+        assertThat(walked).containsExactlyInAnyOrderElementsOf(saved);
+        assertThat(walked).isSortedAccordingTo(Comparator.comparing(user -> UuidBytes.toBytes(user.id()), Arrays::compareUnsigned));
+
+        User renamed = repository.save(withEmail(saved.get(3), "paged-" + run + "@legendme.test"), null);
+        assertThat(repository.findUpdatedSince(renamed.updatedAt(), null, 7)).contains(renamed);
+        assertThat(repository.findUpdatedSince(Instant.now().plusSeconds(60), null, 7)).isEmpty();
+
+        // La carga del directorio lee por páginas y termina con todos los usuarios.
+        OffHeapUserRepository offHeap = new OffHeapUserRepository(repository, new OffHeapUserStore(16, USERS),
+                Duration.ofSeconds(2), 7);
+        offHeap.load();
+        assertThat(offHeap.store().size()).isEqualTo(USERS);
+        assertThat(offHeap.findById(renamed.id())).contains(renamed);
+        assertThat(offHeap.refresh()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void updatesCheckVersionAndMoveDirectoryEntries() {
+        User user = saveUsers().get(0);
+
+        User renamed = repository.save(withEmail(user, "renamed-" + run + "@legendme.test"), null);
+        assertThat(renamed.version()).isEqualTo(user.version() + 1);
+        assertThat(repository.existsByEmail(user.email())).isFalse();
+        assertThat(repository.findByEmail(renamed.email())).contains(renamed);
+        assertThat(repository.findIdsByEmailHashes(List.of(EmailHash.of(user.email()), EmailHash.of(renamed.email()))))
+                .containsOnlyKeys(EmailHash.of(renamed.email()));
+
+        assertThatThrownBy(() -> repository.save(withEmail(user, "stale-" + run + "@legendme.test"), null))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(repository.existsByEmail("stale-" + run + "@legendme.test")).isFalse();
+
+        repository.delete(user.id());
+        assertThat(repository.findById(user.id())).isEmpty();
+        assertThat(repository.existsByUsername(user.username())).isFalse();
+    }
+
+    @Test
+    void failedClaimsReleaseWhatWasAlreadyClaimed() {
+        List<User> saved = saveUsers();
+        User taken = saved.get(0);
+        String email = "orphan-" + run + "@legendme.test";
+
+        // El email se reserva y el username falla: la reserva del email no debe quedar huérfana.
+        assertThatThrownBy(() -> repository.save(new User(null, "Otro", "Usuario", null, taken.username(), email,
+                "LOCAL", true, null, null, null), null))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(repository.existsByEmail(email)).isFalse();
+        assertThat(repository.findIdsByEmailHashes(List.of(EmailHash.of(email)))).isEmpty();
+        assertThat(repository.findByUsername(taken.username())).contains(taken);
+
+        User other = saved.get(1);
+        User renamed = new User(other.id(), other.name(), other.lastname(), other.birthDate(), taken.username(), email,
+                other.provider(), other.active(), other.createdAt(), other.updatedAt(), other.version());
+        assertThatThrownBy(() -> repository.save(renamed, null)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(repository.existsByEmail(email)).isFalse();
+        assertThat(repository.findByEmail(other.email())).contains(other);
+        assertThat(repository.findByUsername(taken.username())).contains(taken);
+    }
+
+    @Test
+    void reshardMovesOnlyUsersWhoseShardChanges() {
+        List<User> saved = saveUsers();
+        List<JdbcTemplate> target = new ArrayList<>(shards);
+        target.add(shard("shard3"));
+
+        ShardRebalancer.Report report = new ShardRebalancer(directory).reshard(shards, target);
+
+        assertThat(report.scanned()).isEqualTo(USERS);
+        assertThat(report.moved()).isPositive().isLessThan(USERS);
+        assertThat(target.stream().mapToLong(this::count).sum()).isEqualTo(USERS);
+
+        try (ShardedUserRepository resharded = new ShardedUserRepository(target, directory, new BCryptPasswordEncoder(4))) {
+            for (User user : saved) {
+                assertThat(resharded.findById(user.id())).contains(user);
+                assertThat(resharded.findByUsername(user.username())).contains(user);
+            }
+        }
+    }
+
+    @Test
+    void backfillCopiesLegacyTableIntoShards() {
+        JdbcTemplate legacy = shard("legacy");
+        UUID id = UUID.randomUUID();
+        legacy.update("insert into users (id, name, lastname, username, email, password, provider, active, created_at, updated_at, version) "
+                        + "values (?, 'Ada', 'Lovelace', ?, ?, 'hash', 'LOCAL', true, ?, ?, 3)",
+                UuidBytes.toBytes(id), "ada" + run, "ada" + run + "@legendme.test", Timestamp.from(Instant.now()), Timestamp.from(Instant.now()));
+
+        ShardRebalancer.Report report = new ShardRebalancer(directory).backfill(legacy, shards);
+
+        assertThat(report.moved()).isEqualTo(1);
+        User user = repository.findByEmail("ada" + run + "@legendme.test").orElseThrow();
+        assertThat(user.id()).isEqualTo(id);
+        assertThat(user.version()).isEqualTo(3);
+
+        // Un directorio anterior a la tabla de hashes se completa desde la tabla email→id.
+        directory.update("delete from user_email_hash_index");
+        assertThat(new ShardRebalancer(directory).indexEmailHashes()).isPositive();
+        assertThat(repository.findIdsByEmailHashes(List.of(EmailHash.of(user.email())))).containsValue(id);
+    }
+
+    private List<User> saveUsers() {
+        return IntStream.range(0, USERS)
+                .mapToObj(i -> repository.save(new User(null, "name" + i, "lastname" + i, null,
+                        "user" + i + "-" + run, "user" + i + "-" + run + "@legendme.test", "LOCAL", true,
+                        null, null, null), null))
+                .toList();
+    }
+
+    private static User withEmail(User user, String email) {
+        return new User(user.id(), user.name(), user.lastname(), user.birthDate(), user.username(), email,
+                user.provider(), user.active(), user.createdAt(), user.updatedAt(), user.version());
+    }
+
+    private long count(JdbcTemplate shard) {
+        return shard.queryForObject("select count(*) from users", Long.class);
+    }
+
+    private JdbcTemplate shard(String name) {
+        DataSource dataSource = embedded(name);
+        ShardSchema.initShard(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private DataSource embedded(String name) {
+        return DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:" + name + "-" + run + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+    }
+}
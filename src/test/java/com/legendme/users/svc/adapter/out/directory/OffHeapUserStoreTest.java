@@ -0,0 +1,134 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del directorio fuera del heap: búsquedas por los cuatro índices, reemplazo de
+ * claves, borrado, crecimiento de índices y bloques, compactación del arena de textos y
+ * capturas del estado que no bloquean las escrituras.
+ */
+class OffHeapUserStoreTest {
+
+    @Test
+    void storesAndFindsUsersByIdEmailAndUsername() {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        User user = user("ana", 0L);
+        store.put(user);
+
+        assertThat(store.findById(user.id())).contains(user);
+        assertThat(store.findByEmail("ANA@legendme.test")).contains(user);
+        assertThat(store.findByUsername("ana")).contains(user);
+        assertThat(store.existsByEmail("nadie@legendme.test")).isFalse();
+        assertThat(store.idsByEmailHashes(List.of(EmailHash.of(" Ana@LegendMe.test"), EmailHash.of("nadie@legendme.test"))))
+                .isEqualTo(Map.of(EmailHash.of("ana@legendme.test"), user.id()));
+        assertThat(store.findVersionByUsername("ana")).get()
+                .satisfies(version -> assertThat(version.version()).isZero());
+    }
+
+    @Test
+    void updatesReplaceKeysAndIgnoreOlderVersions() {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        User original = user("luis", 1L);
+        store.put(original);
+
+        User renamed = new User(original.id(), "Luis", null, null, "luis2", "luis2@legendme.test",
+                "LOCAL", false, original.createdAt(), Instant.ofEpochMilli(System.currentTimeMillis()), 2L);
+        assertThat(store.put(renamed)).isTrue();
+        assertThat(store.put(original)).isFalse();
+
+        assertThat(store.findByUsername("luis")).isEmpty();
+        assertThat(store.findByEmail("luis@legendme.test")).isEmpty();
+        assertThat(store.idsByEmailHashes(List.of(EmailHash.of("luis@legendme.test"), EmailHash.of("luis2@legendme.test"))))
+                .isEqualTo(Map.of(EmailHash.of("luis2@legendme.test"), original.id()));
+        assertThat(store.findByUsername("luis2")).contains(renamed);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void growsRemovesAndCompactsAcrossManyUsers() {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            User user = user("u" + i, 0L);
+            users.add(user);
+            store.put(user);
+        }
+        for (int i = 0; i < users.size(); i += 2) {
+            assertThat(store.remove(users.get(i).id())).isTrue();
+        }
+        for (int round = 1; round <= 3; round++) {
+            for (int i = 1; i < users.size(); i += 2) {
+                User user = users.get(i);
+                store.put(new User(user.id(), "name" + round, user.lastname(), user.birthDate(), user.username(),
+                        user.email(), user.provider(), user.active(), user.createdAt(), user.updatedAt(), (long) round));
+            }
+        }
+
+        assertThat(store.size()).isEqualTo(2_500);
+        assertThat(store.findAll()).hasSize(2_500).allSatisfy(user -> assertThat(user.name()).isEqualTo("name3"));
+        for (int i = 0; i < users.size(); i++) {
+            assertThat(store.existsByUsername("u" + i)).isEqualTo(i % 2 == 1);
+            assertThat(store.findById(users.get(i).id()).isPresent()).isEqualTo(i % 2 == 1);
+            assertThat(store.idsByEmailHashes(List.of(EmailHash.of(users.get(i).email())))).hasSize(i % 2);
+        }
+        // Tras la compactación los textos huérfanos no superan la mitad del arena.
+        assertThat(store.usedBytes()).isLessThan(store.offHeapBytes());
+    }
+
+    @Test
+    void capturedStateDoesNotBlockNorSeeLaterWrites() throws Exception {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            User user = user("c" + i, 0L);
+            users.add(user);
+            store.put(user);
+        }
+        User first = users.get(0);
+        User renamed = new User(first.id(), "Otro", null, null, "renamed", "renamed@legendme.test",
+                "LOCAL", true, first.createdAt(), first.updatedAt(), 1L);
+
+        OffHeapUserStore captured = store.readState(state -> {
+            // Las escrituras terminan mientras la captura sigue abierta.
+            CompletableFuture<Void> writes = CompletableFuture.runAsync(() -> {
+                store.put(renamed);
+                store.remove(users.get(1).id());
+                for (int i = 0; i < 2_000; i++) {
+                    store.put(user("n" + i, 0L));
+                }
+            });
+            assertThat(writes).succeedsWithin(Duration.ofSeconds(10));
+            return new OffHeapUserStore(state);
+        });
+
+        assertThat(captured.size()).isEqualTo(200);
+        assertThat(captured.findById(first.id())).contains(first);
+        assertThat(captured.findByUsername("renamed")).isEmpty();
+        assertThat(captured.findById(users.get(1).id())).contains(users.get(1));
+        assertThat(captured.existsByUsername("n0")).isFalse();
+
+        assertThat(store.size()).isEqualTo(2_199);
+        assertThat(store.findByUsername("renamed")).contains(renamed);
+        assertThat(store.findById(users.get(1).id())).isEmpty();
+        assertThat(store.findByUsername("c199")).contains(users.get(199));
+    }
+
+    private static User user(String username, Long version) {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        return new User(UUID.randomUUID(), "Name " + username, "Lastname", LocalDate.EPOCH, username,
+                username + "@legendme.test", "LOCAL", true, now, now, version);
+    }
+}
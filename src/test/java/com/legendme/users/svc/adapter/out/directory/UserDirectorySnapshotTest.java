@@ -0,0 +1,82 @@
+package com.legendme.users.svc.adapter.out.directory;
+
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas del snapshot del directorio: ida y vuelta con índices, slots libres y escrituras
+ * posteriores sobre el fichero mapeado, y rechazo de ficheros corruptos.
+ */
+class UserDirectorySnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restoresUsersIndexesAndFreeSlots() throws Exception {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            User user = user("u" + i);
+            users.add(user);
+            store.put(user);
+        }
+        store.remove(users.get(0).id());
+        Path file = dir.resolve("directory.snap");
+        UserDirectorySnapshot.write(store, file);
+
+        OffHeapUserStore restored = UserDirectorySnapshot.load(file);
+
+        assertThat(restored.size()).isEqualTo(1_999);
+        assertThat(restored.maxUpdatedAt()).isEqualTo(store.maxUpdatedAt());
+        assertThat(restored.findById(users.get(0).id())).isEmpty();
+        assertThat(restored.findByEmail("u1999@legendme.test")).contains(users.get(1_999));
+        assertThat(restored.findByUsername("u42")).contains(users.get(42));
+        assertThat(restored.idsByEmailHashes(List.of(EmailHash.of("u0@legendme.test"), EmailHash.of("u7@legendme.test"))))
+                .isEqualTo(Map.of(EmailHash.of("u7@legendme.test"), users.get(7).id()));
+
+        // El fichero está mapeado en modo privado: el directorio restaurado admite escrituras.
+        User added = user("nuevo");
+        restored.put(added);
+        assertThat(restored.findByUsername("nuevo")).contains(added);
+        assertThat(UserDirectorySnapshot.load(file).existsByUsername("nuevo")).isFalse();
+    }
+
+    @Test
+    void rejectsCorruptedSnapshots() throws Exception {
+        OffHeapUserStore store = new OffHeapUserStore(12, 4);
+        store.put(user("ana"));
+        Path file = dir.resolve("directory.snap");
+        UserDirectorySnapshot.write(store, file);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), 4096 + 20);
+        }
+
+        assertThatThrownBy(() -> UserDirectorySnapshot.load(file))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Checksum");
+    }
+
+    private static User user(String username) {
+        Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+        return new User(UUID.randomUUID(), "Name " + username, "Lastname", LocalDate.EPOCH, username,
+                username + "@legendme.test", "LOCAL", true, now, now, 0L);
+    }
+}
@@ -0,0 +1,55 @@
+package com.legendme.users.svc.application.hotusers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del detector de heavy hitters: las claves frecuentes entran en el top-K entre muchas
+ * claves de una sola lectura y salen cuando el decaimiento las deja sin lecturas.
+ */
+class HeavyHitterSketchTest {
+
+    @Test
+    void frequentKeysReachTheTopAmongNoise() {
+        HeavyHitterSketch<String> sketch = new HeavyHitterSketch<>(4, 1024, 4, 50);
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            sketch.add("ruido-" + random.nextInt(100_000));
+            if (i % 10 == 0) {
+                sketch.add("famosa");
+            }
+            if (i % 40 == 0) {
+                sketch.add("popular");
+            }
+        }
+
+        assertThat(sketch.top()).extracting(HeavyHitterSketch.Entry::key).startsWith("famosa", "popular");
+        assertThat(sketch.estimate("famosa")).isGreaterThanOrEqualTo(2_000);
+        assertThat(sketch.isHot("famosa")).isTrue();
+        assertThat(sketch.add("ruido-nueva")).isFalse();
+    }
+
+    @Test
+    void decayRemovesKeysThatStopBeingRead() {
+        HeavyHitterSketch<String> sketch = new HeavyHitterSketch<>(4, 1024, 4, 8);
+        for (int i = 0; i < 100; i++) {
+            sketch.add("famosa");
+        }
+        assertThat(sketch.isHot("famosa")).isTrue();
+
+        for (int i = 0; i < 4; i++) {
+            sketch.decay();
+        }
+        assertThat(sketch.estimate("famosa")).isEqualTo(6);
+        assertThat(sketch.isHot("famosa")).isFalse();
+
+        for (int i = 0; i < 3; i++) {
+            sketch.decay();
+        }
+        assertThat(sketch.top()).isEmpty();
+        assertThat(sketch.total()).isZero();
+    }
+}
@@ -0,0 +1,106 @@
+package com.legendme.users.svc.application.service;
+
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.domain.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pruebas de la verificación de credenciales: hashes BCrypt heredados, rehash a Argon2id
+ * tras un login correcto y acceso restringido a servicios internos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CredentialVerificationServiceTest {
+
+    private static final String S2S_TOKEN = "dGVzdC10b2tlbg==";
+
+    @Autowired
+    private CredentialVerificationService credentialVerificationService;
+
+    @Autowired
+    private RegisterUserService registerUserService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void legacyBcryptHashIsVerifiedAndRehashedToArgon2() throws Exception {
+        User user = createUser("legacy", "secret");
+        jdbcTemplate.update("update users set password = ? where email = ?",
+                new BCryptPasswordEncoder(4).encode("secret"), user.email());
+
+        assertThat(credentialVerificationService.verify(user.email().toUpperCase(), "wrong")).isEmpty();
+        assertThat(credentialVerificationService.verify(user.email().toUpperCase(), "secret")).contains(user.id());
+
+        String rehashed = awaitHash(user.email(), "{argon2}");
+        assertThat(rehashed).startsWith("{argon2}");
+        assertThat(credentialVerificationService.verify(user.email(), "secret")).contains(user.id());
+    }
+
+    @Test
+    void unknownOrInactiveUsersAreNotVerified() {
+        User user = createUser("inactive", "secret");
+        registerUserService.deactivateUser(user.id());
+
+        assertThat(credentialVerificationService.verify(user.email(), "secret")).isEmpty();
+        assertThat(credentialVerificationService.verify("nobody@legendme.test", "secret")).isEmpty();
+    }
+
+    @Test
+    void endpointRequiresInternalToken() throws Exception {
+        User user = createUser("s2s", "secret");
+        String body = "{\"email\":\"" + user.email() + "\",\"password\":\"secret\"}";
+
+        mockMvc.perform(post("/legendme/users/verify-credentials")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/legendme/users/verify-credentials")
+                        .header("X-Internal-Token", S2S_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valid").value(true))
+                .andExpect(jsonPath("$.userId").value(user.id().toString()));
+    }
+
+    private String awaitHash(String email, String prefix) throws InterruptedException {
+        String hash = null;
+        for (int i = 0; i < 100; i++) {
+            hash = userRepository.findCredentialsByEmail(email).orElseThrow().passwordHash();
+            if (hash.startsWith(prefix)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return hash;
+    }
+
+    private User createUser(String prefix, String password) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return registerUserService.registerLocalUser(new CreateUserRequest(
+                "name", "lastname", prefix + suffix, null, prefix + suffix + "@legendme.test",
+                "LOCAL", true, password));
+    }
+}
@@ -0,0 +1,111 @@
+package com.legendme.users.svc.application.service;
+
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UpdateUserRequest;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.shared.exceptions.ErrorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pruebas de concurrencia sobre las actualizaciones de usuario: verifican que las
+ * escrituras simultáneas no se pisen entre sí gracias al control de versión optimista.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RegisterUserServiceConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int UPDATES_PER_WRITER = 25;
+
+    @Autowired
+    private RegisterUserService registerUserService;
+
+    @Autowired
+    private FindUserService findUserService;
+
+    @Test
+    void concurrentPartialUpdatesDoNotLoseWrites() throws Exception {
+        User user = createUser("stress");
+        long initialVersion = user.version();
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            boolean touchesName = w % 2 == 0;
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                    String value = "w" + writer + "-" + i;
+                    UpdateUserRequest request = touchesName
+                            ? new UpdateUserRequest(value, null, null, null, null)
+                            : new UpdateUserRequest(null, value, null, null, null);
+                    try {
+                        registerUserService.updateUserPartial(user.id(), request, null);
+                        applied.incrementAndGet();
+                    } catch (ErrorException e) {
+                        assertThat(e.status()).isEqualTo(HttpStatus.CONFLICT);
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        User stored = findUserService.findById(user.id()).orElseThrow();
+        assertThat(applied.get() + conflicts.get()).isEqualTo(WRITERS * UPDATES_PER_WRITER);
+        assertThat(applied.get()).isPositive();
+        // Cada actualización aplicada incrementa la versión exactamente una vez: ninguna se perdió.
+        assertThat(stored.version()).isEqualTo(initialVersion + applied.get());
+        assertThat(stored.name()).startsWith("w");
+        assertThat(stored.lastname()).startsWith("w");
+    }
+
+    @Test
+    void staleIfMatchVersionIsRejected() {
+        User user = createUser("ifmatch");
+
+        User updated = registerUserService.updateUserPartial(user.id(),
+                new UpdateUserRequest("first", null, null, null, null), user.version());
+        assertThat(updated.version()).isEqualTo(user.version() + 1);
+
+        assertThatThrownBy(() -> registerUserService.updateUserPartial(user.id(),
+                new UpdateUserRequest("second", null, null, null, null), user.version()))
+                .isInstanceOfSatisfying(ErrorException.class,
+                        e -> assertThat(e.status()).isEqualTo(HttpStatus.PRECONDITION_FAILED));
+
+        assertThat(findUserService.findById(user.id()).orElseThrow().name()).isEqualTo("first");
+    }
+
+    private User createUser(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        return registerUserService.registerLocalUser(new CreateUserRequest(
+                "name", "lastname", prefix + suffix, null, prefix + suffix + "@legendme.test",
+                "LOCAL", true, "secret"));
+    }
+}
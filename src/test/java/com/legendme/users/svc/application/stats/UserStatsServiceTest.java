@@ -0,0 +1,110 @@
+package com.legendme.users.svc.application.stats;
+
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.application.port.out.UserRepository;
+import com.legendme.users.svc.application.port.out.UserStatsStore;
+import com.legendme.users.svc.application.service.RegisterUserService;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UserStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contadores de estadísticas: las escrituras de {@link RegisterUserService} se reflejan sin
+ * consultar la base, se persisten por lotes y la reconciliación corrige la deriva sin contar dos
+ * veces lo que otros nodos tenían pendiente. Usa su propia base, porque los totales dependen de
+ * todos los usuarios que contiene.
+ */
+@SpringBootTest(properties = {"legendme.user-stats.flush-interval=1h", "legendme.user-stats.reconcile-interval=1h",
+        "spring.datasource.url=jdbc:h2:mem:user-stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+@ActiveProfiles("test")
+class UserStatsServiceTest {
+
+    @Autowired
+    private UserStatsService stats;
+
+    @Autowired
+    private UserStatsStore store;
+
+    @Autowired
+    private RegisterUserService registerUserService;
+
+    @Autowired
+    private UserStatsProperties properties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void reconcile() {
+        stats.reconcile();
+    }
+
+    @Test
+    void writesUpdateTheCountersAndReconciliationCorrectsDrift() {
+        UserStats before = stats.current();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        User local = registerUserService.registerLocalUser(request("local-" + suffix, "LOCAL"));
+        registerUserService.upsertGoogleUser(request("google-" + suffix, "GOOGLE"));
+        registerUserService.upsertGoogleUser(request("google-" + suffix, "GOOGLE"));
+        registerUserService.deactivateUser(local.id());
+
+        UserStats after = stats.current();
+        assertThat(after.total()).isEqualTo(before.total() + 2);
+        assertThat(after.active()).isEqualTo(before.active() + 1);
+        assertThat(after.inactive()).isEqualTo(before.inactive() + 1);
+        assertThat(after.byProvider().get("GOOGLE")).isEqualTo(before.byProvider().getOrDefault("GOOGLE", 0L) + 1);
+        assertThat(after.signupsPerDay().get(LocalDate.now())).isEqualTo(before.signupsPerDay().getOrDefault(LocalDate.now(), 0L) + 2);
+
+        stats.flush();
+        assertThat(stats.current()).isEqualTo(after);
+
+        store.add(3, reconciliation -> Map.of("active.LOCAL", 1_000L));
+        stats.flush();
+        assertThat(stats.current().active()).isEqualTo(after.active() + 1_000);
+
+        stats.reconcile();
+        UserStats reconciled = stats.current();
+        assertThat(reconciled.total()).isEqualTo(after.total());
+        assertThat(reconciled.active()).isEqualTo(after.active());
+        assertThat(reconciled.signupsPerDay()).isEqualTo(after.signupsPerDay());
+        assertThat(reconciled.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    void reconciliationOnAnotherNodeDoesNotCountPendingChangesTwice() {
+        stats.flush();
+        long total = stats.current().total();
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        registerUserService.registerLocalUser(request("pending-" + suffix, "LOCAL"));
+        UserStatsService otherNode = new UserStatsService(properties, userRepository, store);
+        otherNode.reconcile();
+        stats.flush();
+        assertThat(stats.current().total()).isEqualTo(total + 1);
+        assertThat(stats.current().reconciledAt()).isNotNull();
+
+        registerUserService.registerLocalUser(request("after-" + suffix, "LOCAL"));
+        stats.flush();
+        assertThat(stats.current().total()).isEqualTo(total + 2);
+
+        // Otro nodo acaba de reconciliar: la reconciliación programada no vuelve a recontar.
+        store.add(3, reconciliation -> Map.of("active.LOCAL", 1_000L));
+        stats.reconcileIfDue();
+        assertThat(stats.current().total()).isEqualTo(total + 1_002);
+    }
+
+    private static CreateUserRequest request(String username, String provider) {
+        return new CreateUserRequest("Nombre", "Apellido", username, null, username + "@legendme.test", provider, true, "secreto");
+    }
+}
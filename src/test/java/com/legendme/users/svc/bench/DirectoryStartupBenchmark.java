@@ -0,0 +1,129 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.adapter.out.db.shard.ShardSchema;
+import com.legendme.users.svc.adapter.out.db.shard.ShardedUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Tiempo desde el arranque hasta tener el directorio caliente: carga completa desde la base
+ * ({@code findAll} sobre dos shards H2) frente a restaurar el snapshot mapeado en memoria y
+ * leer solo los usuarios modificados después de escribirlo (el 1 %).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class DirectoryStartupBenchmark {
+
+    private static final long BASE_TIME = 1_700_000_000_000L;
+
+    @Param({"200000"})
+    public int users;
+
+    private ShardedUserRepository database;
+    private Path snapshot;
+
+    @Setup
+    public void setup() throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<JdbcTemplate> shards = IntStream.range(0, 2).mapToObj(i -> shard(run, "shard" + i)).toList();
+        DataSource directory = embedded(run, "directory");
+        ShardSchema.initDirectory(directory);
+        database = new ShardedUserRepository(shards, new JdbcTemplate(directory), new BCryptPasswordEncoder(4));
+
+        List<List<Object[]>> rows = List.of(new ArrayList<>(), new ArrayList<>());
+        for (int i = 0; i < users; i++) {
+            Timestamp created = new Timestamp(BASE_TIME + i);
+            rows.get(i & 1).add(new Object[]{bytes(UUID.randomUUID()), "Nombre" + i, "Apellido" + i,
+                    "user" + i, "user" + i + "@legendme.test", created, created});
+        }
+        for (int s = 0; s < shards.size(); s++) {
+            shards.get(s).batchUpdate("insert into users (id, name, lastname, username, email, password, provider, active, "
+                    + "created_at, updated_at, version) values (?, ?, ?, ?, ?, 'hash', 'LOCAL', true, ?, ?, 0)", rows.get(s));
+        }
+
+        OffHeapUserRepository writer = directory();
+        writer.load();
+        snapshot = Files.createTempDirectory("directory-bench").resolve("directory.snap");
+        writer.snapshot(snapshot);
+
+        Timestamp later = new Timestamp(BASE_TIME + users + 60_000L);
+        for (JdbcTemplate shard : shards) {
+            shard.update("update users set name = 'Cambiado', version = 1, updated_at = ? where username like '%00'", later);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        database.close();
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(snapshot.getParent());
+    }
+
+    @Benchmark
+    public OffHeapUserStore coldLoad() {
+        OffHeapUserRepository repository = directory();
+        repository.warmUp(null);
+        return repository.store();
+    }
+
+    @Benchmark
+    public OffHeapUserStore snapshotRestore() {
+        OffHeapUserRepository repository = directory();
+        repository.warmUp(snapshot);
+        return repository.store();
+    }
+
+    private OffHeapUserRepository directory() {
+        return new OffHeapUserRepository(database, new OffHeapUserStore(24, users), Duration.ofSeconds(2));
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static JdbcTemplate shard(String run, String name) {
+        DataSource dataSource = embedded(run, name);
+        ShardSchema.initShard(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static DataSource embedded(String run, String name) {
+        return DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:" + name + "-" + run + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+    }
+}
@@ -0,0 +1,192 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.adapter.out.db.shard.ShardSchema;
+import com.legendme.users.svc.adapter.out.db.shard.ShardedUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserStore;
+import com.legendme.users.svc.application.hotusers.HotUserCache;
+import com.legendme.users.svc.application.hotusers.HotUserProperties;
+import com.legendme.users.svc.application.service.FindUserService;
+import com.legendme.users.svc.domain.model.EmailHash;
+import com.legendme.users.svc.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cruce de una agenda de {@code contacts} contactos (el 20 % registrados) contra
+ * {@code users} usuarios: una llamada a {@code existsByEmail} por contacto frente a una llamada
+ * a {@code matchEmailHashes} con todos los hashes.
+ *
+ * <p>Con {@code source=sql} las lecturas van al directorio de un repositorio particionado en H2
+ * ({@code contacts / 200} consultas {@code IN} al cruzar) y cada sentencia espera
+ * {@code rttMicros} antes de ejecutarse, para simular la ida y vuelta de red que una H2 en
+ * memoria no tiene. Con {@code source=directory} las responde el directorio fuera del heap,
+ * sin consultas.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class EmailHashMatchBenchmark {
+
+    @Param({"200000"})
+    public int users;
+
+    @Param({"5000"})
+    public int contacts;
+
+    @Param({"sql", "directory"})
+    public String source;
+
+    @Param({"0", "250"})
+    public int rttMicros;
+
+    private ShardedUserRepository repository;
+    private HotUserCache hotUsers;
+    private FindUserService service;
+    private List<String> emails;
+    private List<String> hashes;
+
+    @Setup
+    public void setup() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        DataSource shard = embedded(run, "shard");
+        ShardSchema.initShard(shard);
+        DataSource directory = embedded(run, "directory");
+        ShardSchema.initDirectory(directory);
+        OffHeapUserStore store = new OffHeapUserStore(24, users);
+        JdbcTemplate directoryJdbc = new JdbcTemplate(directory);
+
+        List<Object[]> byEmail = new ArrayList<>(users);
+        List<Object[]> byHash = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            UUID uuid = UUID.randomUUID();
+            byte[] id = bytes(uuid);
+            String email = "user" + i + "@legendme.test";
+            byEmail.add(new Object[]{email, id});
+            byHash.add(new Object[]{EmailHash.digest(email), id});
+            if (source.equals("directory")) {
+                Instant now = Instant.now();
+                store.put(new User(uuid, "User", "Bench", LocalDate.EPOCH, "user" + i, email, "LOCAL", true, now, now, 0L));
+            }
+        }
+        directoryJdbc.batchUpdate("insert into user_email_index (email, user_id) values (?, ?)", byEmail);
+        directoryJdbc.batchUpdate("insert into user_email_hash_index (email_hash, user_id) values (?, ?)", byHash);
+
+        repository = new ShardedUserRepository(List.of(new JdbcTemplate(withRoundTrip(shard, rttMicros))),
+                new JdbcTemplate(withRoundTrip(directory, rttMicros)), new BCryptPasswordEncoder(4));
+        hotUsers = new HotUserCache(new HotUserProperties(false, 32, 4096, 4, 64, Duration.ofSeconds(30), Duration.ofSeconds(1)));
+        if (source.equals("directory")) {
+            // Los usuarios ya están en el directorio; la carga solo lo marca como listo.
+            OffHeapUserRepository offHeap = new OffHeapUserRepository(repository, store, Duration.ofSeconds(2));
+            offHeap.load();
+            service = new FindUserService(offHeap, hotUsers);
+        } else {
+            service = new FindUserService(repository, hotUsers);
+        }
+
+        emails = new ArrayList<>(contacts);
+        for (int i = 0; i < contacts; i++) {
+            emails.add(i % 5 == 0 ? "user" + (i * 37 % users) + "@legendme.test" : "contact" + i + "@example.test");
+        }
+        hashes = emails.stream().map(EmailHash::of).toList();
+        System.out.printf("%nContactos registrados: %d de %d%n", service.matchEmailHashes(hashes).size(), contacts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.close();
+    }
+
+    @Benchmark
+    public int perContactExists() {
+        int found = 0;
+        for (String email : emails) {
+            if (service.existsByEmail(email)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<String, UUID> batchedHashMatch() {
+        return service.matchEmailHashes(hashes);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    /**
+     * Envuelve el DataSource para que cada sentencia preparada espere {@code micros} antes de
+     * crearse, como la ida y vuelta a una base remota.
+     */
+    private static DataSource withRoundTrip(DataSource target, int micros) {
+        if (micros == 0) {
+            return target;
+        }
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof Connection connection) {
+                        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("prepare") || m.getName().equals("createStatement")) {
+                                        LockSupport.parkNanos(micros * 1_000L);
+                                    }
+                                    return invoke(connection, m, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static DataSource embedded(String run, String name) {
+        return DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:" + name + "-" + run + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+    }
+}
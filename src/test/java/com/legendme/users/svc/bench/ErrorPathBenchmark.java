@@ -0,0 +1,67 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.shared.dto.Error;
+import com.legendme.users.svc.shared.exceptions.ErrorException;
+import com.legendme.users.svc.shared.exceptions.UserErrors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput del camino 4xx "usuario no encontrado": excepción con stack trace creada por
+ * petición y cuerpo de error construido en el handler (antes) frente a la excepción de negocio
+ * compartida y sin stack trace con cuerpo precalculado (después).
+ * La profundidad simula la pila de Tomcat + filtros de seguridad + Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"100"})
+    public int stackDepth;
+
+    @Benchmark
+    public ResponseEntity<Error> stackfulErrorException() {
+        try {
+            return throwAt(stackDepth, true);
+        } catch (ErrorException e) {
+            HttpStatus status = e.status() != null ? e.status() : HttpStatus.BAD_REQUEST;
+            String errorCode = e.errorCode() != null ? e.errorCode() : "error.generic";
+            return ResponseEntity.status(status).body(new Error(status.value(), e.getMessage(), errorCode));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Error> stacklessBusinessException() {
+        try {
+            return throwAt(stackDepth, false);
+        } catch (ErrorException e) {
+            return ResponseEntity.status(e.body().status()).body(e.body());
+        }
+    }
+
+    private static ResponseEntity<Error> throwAt(int depth, boolean stackful) {
+        if (depth > 0) {
+            return throwAt(depth - 1, stackful);
+        }
+        if (stackful) {
+            throw new ErrorException("Usuario no encontrado", "USER-FIND-EMAIL-03", HttpStatus.BAD_REQUEST);
+        }
+        throw UserErrors.USER_NOT_FOUND_BY_EMAIL;
+    }
+}
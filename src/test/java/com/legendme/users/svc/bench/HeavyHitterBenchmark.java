@@ -0,0 +1,76 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.application.hotusers.HeavyHitterSketch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de registrar una lectura en el detector de usuarios calientes con la configuración por
+ * defecto (top-32, 4 × 4096 contadores): una clave que ya está en el top-K, IDs con una
+ * distribución sesgada (el 10% de los IDs recibe el 90% de las lecturas) y la misma mezcla desde
+ * cuatro hilos, que comparten los contadores de las claves calientes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeavyHitterBenchmark {
+
+    private static final int IDS = 100_000;
+    private static final int HOT_IDS = IDS / 10;
+
+    private HeavyHitterSketch<UUID> sketch;
+    private UUID[] ids;
+    private UUID celebrity;
+
+    @Setup
+    public void setup() {
+        sketch = new HeavyHitterSketch<>(32, 4096, 4, 64);
+        Random random = new Random(42);
+        ids = new UUID[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong());
+        }
+        celebrity = ids[0];
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(celebrity);
+        }
+    }
+
+    @Benchmark
+    public boolean hotKey() {
+        return sketch.add(celebrity);
+    }
+
+    @Benchmark
+    public boolean skewedIds() {
+        return sketch.add(nextSkewed());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean skewedIdsContended() {
+        return sketch.add(nextSkewed());
+    }
+
+    private UUID nextSkewed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return ids[random.nextInt(10) == 0 ? random.nextInt(IDS) : random.nextInt(HOT_IDS)];
+    }
+}
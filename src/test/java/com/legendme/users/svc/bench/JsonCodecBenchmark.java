@@ -0,0 +1,126 @@
+package com.legendme.users.svc.bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.adapter.in.rest.mapper.UserJsonCodec;
+import com.legendme.users.svc.domain.model.UserProjection;
+import com.legendme.users.svc.infrastructure.json.IsoTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON de los DTOs con {@link UserJsonCodec} frente a {@code ObjectMapper} (lo que hace
+ * {@code MappingJackson2HttpMessageConverter}), con la misma configuración de Jackson: escritura
+ * de un {@link UserResponse} y de un {@link UserSearchResponse} de 100 usuarios sobre un stream,
+ * y lectura del cuerpo de un alta. La salida de ambos se compara al preparar el estado.
+ *
+ * <p>{@code -Dbench.opts=-prof=gc} añade los bytes por operación.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"jackson", "codec"})
+    public String codec;
+
+    @Param({"user", "search100"})
+    public String payload;
+
+    private static final byte[] CREATE_REQUEST = """
+            {"name":"Nombre","lastname":"Apellido Apellido","username":"usuario_0","birthDate":"1990-05-17",\
+            "email":"usuario0@legendme.test","provider":"LOCAL","active":true,"password":"Secreto123!"}\
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper mapper;
+    private Object response;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new IsoTimeModule())
+                .build();
+        response = switch (payload) {
+            case "user" -> user(0);
+            case "search100" -> {
+                List<UserResponse> users = new ArrayList<>(100);
+                for (int i = 0; i < 100; i++) {
+                    users.add(user(i));
+                }
+                yield new UserSearchResponse(users, users.size());
+            }
+            default -> throw new IllegalArgumentException(payload);
+        };
+        byte[] written = write().toByteArray();
+        if (!Arrays.equals(written, mapper.writeValueAsBytes(response))
+                || !String.valueOf(readCreateRequest()).equals(String.valueOf(mapper.readValue(CREATE_REQUEST, CreateUserRequest.class)))) {
+            throw new IllegalStateException("El codec no produce lo mismo que Jackson");
+        }
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream write() throws IOException {
+        out.reset();
+        if (codec.equals("jackson")) {
+            mapper.writeValue(out, response);
+            return out;
+        }
+        try (JsonGenerator gen = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            if (response instanceof UserResponse user) {
+                UserJsonCodec.write(user, UserProjection.ALL, gen);
+            } else {
+                UserJsonCodec.write((UserSearchResponse) response, UserProjection.ALL, gen);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public CreateUserRequest readCreateRequest() throws IOException {
+        if (codec.equals("jackson")) {
+            return mapper.readValue(CREATE_REQUEST, CreateUserRequest.class);
+        }
+        try (JsonParser parser = mapper.getFactory().createParser(CREATE_REQUEST)) {
+            return UserJsonCodec.readCreateUserRequest(parser, mapper);
+        }
+    }
+
+    private static UserResponse user(int i) {
+        Instant created = Instant.ofEpochMilli(1_700_000_000_000L + i * 60_000L);
+        return new UserResponse(UUID.nameUUIDFromBytes(("user-" + i).getBytes()), "Nombre" + i, "Apellido Apellido" + i,
+                LocalDate.ofEpochDay(7_305 + i), "usuario_" + i, "usuario" + i + "@legendme.test",
+                "LOCAL", true, created, created, (long) i);
+    }
+}
@@ -0,0 +1,57 @@
+package com.legendme.users.svc.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificaciones por segundo y por núcleo (un hilo) de {@code matches} para cada coste
+ * configurable: BCrypt por rondas y Argon2id por memoria (KiB) e iteraciones.
+ * Sirve para elegir {@code legendme.security.password.*} según la capacidad de login deseada:
+ * capacidad ≈ resultado × núcleos del pool de verificación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Threads(1)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"bcrypt-10", "bcrypt-12", "argon2-16384-2", "argon2-19456-2", "argon2-65536-3"})
+    public String cost;
+
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        String[] parts = cost.split("-");
+        encoder = switch (parts[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(parts[1]));
+            case "argon2" -> new Argon2PasswordEncoder(16, 32, 1, Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            default -> throw new IllegalArgumentException(cost);
+        };
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+}
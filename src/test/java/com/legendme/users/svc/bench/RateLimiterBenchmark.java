@@ -0,0 +1,71 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.infrastructure.ratelimit.LocalRateLimitStore;
+import com.legendme.users.svc.infrastructure.ratelimit.RateLimitKeys;
+import com.legendme.users.svc.infrastructure.ratelimit.TokenBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de una comprobación del límite de peticiones en el almacén local, incluido el hash de
+ * la clave: una IP caliente (bucket existente, se concede), emails rotando entre 100k claves
+ * (normalización + hash + búsqueda) y una avalancha de claves nuevas sobre un almacén pequeño
+ * lleno de buckets activos (expulsión en cada comprobación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int EMAILS = 100_000;
+
+    private final TokenBucket generous = TokenBucket.of(1_000_000, Duration.ofMillis(1));
+    private final TokenBucket strict = TokenBucket.of(5, Duration.ofMinutes(10));
+
+    private LocalRateLimitStore store;
+    private LocalRateLimitStore small;
+    private String[] emails;
+    private int cursor;
+    private long floodKey;
+
+    @Setup
+    public void setup() {
+        store = new LocalRateLimitStore(262_144);
+        small = new LocalRateLimitStore(4_096);
+        emails = new String[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            emails[i] = "User" + i + "@LegendMe.test";
+        }
+    }
+
+    @Benchmark
+    public long hotIp() {
+        return store.tryAcquire(RateLimitKeys.ip("203.0.113.7"), generous);
+    }
+
+    @Benchmark
+    public long rotatingEmails() {
+        int i = cursor + 1;
+        cursor = i == EMAILS ? 0 : i;
+        return store.tryAcquire(RateLimitKeys.email(emails[cursor]), strict);
+    }
+
+    @Benchmark
+    public long floodOfNewKeys() {
+        return small.tryAcquire(++floodKey * 0x9e3779b97f4a7c15L, strict);
+    }
+}
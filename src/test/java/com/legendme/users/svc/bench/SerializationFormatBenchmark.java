@@ -0,0 +1,111 @@
+package com.legendme.users.svc.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.dto.UserSearchResponse;
+import com.legendme.users.svc.adapter.in.rest.mapper.UserProtoMapper;
+import com.legendme.users.svc.adapter.in.rest.proto.UsersProto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de codificar y decodificar las respuestas de lectura en cada formato negociable:
+ * un {@link UserResponse} y un {@link UserSearchResponse} de 100 usuarios. JSON y CBOR usan
+ * Jackson con la misma configuración que los convertidores del servicio; Protobuf incluye la
+ * conversión entre DTO y mensaje. El tamaño de cada payload se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationFormatBenchmark {
+
+    @Param({"json", "cbor", "protobuf"})
+    public String format;
+
+    @Param({"user", "search100"})
+    public String payload;
+
+    private ObjectMapper mapper;
+    private Object response;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json()
+                    .factory(new CBORFactory())
+                    .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "protobuf" -> null;
+            default -> throw new IllegalArgumentException(format);
+        };
+        response = switch (payload) {
+            case "user" -> user(0);
+            case "search100" -> {
+                List<UserResponse> users = new ArrayList<>(100);
+                for (int i = 0; i < 100; i++) {
+                    users.add(user(i));
+                }
+                yield new UserSearchResponse(users, users.size());
+            }
+            default -> throw new IllegalArgumentException(payload);
+        };
+        encoded = encode();
+        System.out.printf("%n%s/%s: %d bytes%n", format, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (mapper != null) {
+            return mapper.writeValueAsBytes(response);
+        }
+        return switch (response) {
+            case UserResponse user -> UserProtoMapper.toProto(user).toByteArray();
+            case UserSearchResponse search -> UserProtoMapper.toProto(search).toByteArray();
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        if (mapper != null) {
+            return mapper.readValue(encoded, response.getClass());
+        }
+        return response instanceof UserResponse
+                ? UserProtoMapper.toUserResponse(UsersProto.UserResponse.parseFrom(encoded))
+                : UserProtoMapper.toUserSearchResponse(UsersProto.UserSearchResponse.parseFrom(encoded));
+    }
+
+    private static UserResponse user(int i) {
+        Instant created = Instant.ofEpochMilli(1_700_000_000_000L + i * 60_000L);
+        return new UserResponse(UUID.nameUUIDFromBytes(("user-" + i).getBytes()), "Nombre" + i, "Apellido Apellido" + i,
+                LocalDate.ofEpochDay(7_305 + i), "usuario_" + i, "usuario" + i + "@legendme.test",
+                "LOCAL", true, created, created, (long) i);
+    }
+}
@@ -0,0 +1,161 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.LegendmeUsersSvcApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo hasta la primera petición atendida: cada medida lanza una JVM nueva con el servicio
+ * (H2 en memoria) y sondea {@code POST /legendme/users/verify-credentials}, que recorre
+ * seguridad S2S, controlador, servicio y JPA, hasta recibir un 200.
+ *
+ * <ul>
+ *   <li>{@code default}: classpath de desarrollo, sin perfil de arranque rápido.</li>
+ *   <li>{@code fast-start}: el mismo classpath con el perfil {@code fast-start}.</li>
+ *   <li>{@code fast-start-aot-cds}: jar extraído con artefactos AOT y archivo CDS; requiere
+ *       {@code mvn -Pfast-start package} antes de ejecutar el benchmark.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final Path FAST_START = Path.of("target", "fast-start");
+    private static final String VERIFY_BODY = "{\"email\":\"nadie@legendme.test\",\"password\":\"secreto\"}";
+
+    @Param({"default", "fast-start", "fast-start-aot-cds"})
+    public String variant;
+
+    private List<String> jvm;
+    private String profiles;
+    private File workingDirectory;
+
+    @Setup
+    public void setup() throws IOException {
+        String classpath = System.getProperty("java.class.path");
+        jvm = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        switch (variant) {
+            // DevTools está en el classpath de desarrollo pero no en el jar: su reinicio no se mide.
+            case "default" -> {
+                jvm.addAll(List.of("-Dspring.devtools.restart.enabled=false", "-cp", classpath));
+                profiles = "default";
+            }
+            case "fast-start" -> {
+                jvm.addAll(List.of("-Dspring.devtools.restart.enabled=false", "-cp", classpath));
+                profiles = "fast-start";
+            }
+            case "fast-start-aot-cds" -> {
+                Path archive = FAST_START.resolve("application.jsa");
+                Path jar;
+                try (var files = Files.list(FAST_START)) {
+                    jar = files.filter(file -> file.toString().endsWith(".jar")).findFirst().orElseThrow();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Falta " + FAST_START + ": ejecuta antes mvn -Pfast-start package", e);
+                }
+                if (!Files.exists(archive)) {
+                    throw new IllegalStateException("Falta " + archive + ": ejecuta antes mvn -Pfast-start package");
+                }
+                // Misma ruta relativa del jar y mismo directorio que en el entrenamiento CDS; H2 va detrás.
+                jvm.addAll(List.of("-XX:SharedArchiveFile=" + archive.getFileName(), "-Xlog:cds=error",
+                        "-Dspring.aot.enabled=true", "-cp", jar.getFileName() + File.pathSeparator + h2(classpath)));
+                profiles = "fast-start";
+                workingDirectory = FAST_START.toFile();
+            }
+            default -> throw new IllegalArgumentException(variant);
+        }
+    }
+
+    @Benchmark
+    public long timeToFirstRequest() throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(jvm);
+        command.add(LegendmeUsersSvcApplication.class.getName());
+        command.addAll(Arrays.asList(
+                "--server.port=" + port,
+                "--spring.profiles.active=" + profiles,
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.security.s2s-token=dGVzdC10b2tlbg==",
+                "--legendme.security.password.argon2-memory-kib=1024"));
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/legendme/users/verify-credentials"))
+                .header("Content-Type", "application/json")
+                .header("X-Internal-Token", "dGVzdC10b2tlbg==")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(VERIFY_BODY))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("El servicio terminó durante el arranque: " + process.exitValue());
+                }
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Respuesta inesperada " + response.statusCode() + ": " + response.body());
+                    }
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (ConnectException e) {
+                    Thread.sleep(10);
+                }
+            }
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static String h2(String classpath) {
+        return Arrays.stream(classpath.split(File.pathSeparator))
+                .filter(entry -> Path.of(entry).getFileName().toString().startsWith("h2-"))
+                .map(entry -> Path.of(entry).toAbsolutePath().toString())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 no está en el classpath de pruebas"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
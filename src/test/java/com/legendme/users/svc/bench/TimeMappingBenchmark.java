@@ -0,0 +1,89 @@
+package com.legendme.users.svc.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import com.legendme.users.svc.adapter.in.rest.mapper.UserRestMapper;
+import com.legendme.users.svc.adapter.out.db.UserJpaEntity;
+import com.legendme.users.svc.adapter.out.db.mapper.UserPersistenceMapper;
+import com.legendme.users.svc.infrastructure.json.IsoTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino de lectura de un usuario desde la entidad JPA hasta el JSON de la respuesta: entidad →
+ * {@code User} → {@code UserResponse} → bytes. Se compara con el modelo anterior, que llevaba
+ * {@link Date} (copias defensivas y el formato de {@code StdDateFormat}), y con los mismos tipos
+ * de {@code java.time} escritos por {@code JavaTimeModule} en lugar de {@link IsoTimeModule}.
+ *
+ * <p>Lo interesante son los bytes por operación: {@code -Dbench.opts=-prof=gc} añade
+ * {@code gc.alloc.rate.norm} al resultado.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeMappingBenchmark {
+
+    /** {@code date}: modelo anterior; {@code java-time}: JavaTimeModule; {@code iso}: IsoTimeModule. */
+    @Param({"date", "java-time", "iso"})
+    public String model;
+
+    /** La respuesta tal y como era con {@link Date}. */
+    record LegacyUserResponse(UUID id, String name, String lastname, Date birthDate, String username, String email,
+                              String provider, boolean active, Date createdAt, Date updatedAt, Long version) {}
+
+    private ObjectMapper mapper;
+    private UserJpaEntity entity;
+    private Date birthDate;
+    private Date createdAt;
+    private Date updatedAt;
+
+    @Setup
+    public void setup() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (model.equals("iso")) {
+            builder.modulesToInstall(new IsoTimeModule());
+        }
+        mapper = builder.build();
+
+        Instant created = Instant.ofEpochMilli(1_700_000_000_123L);
+        entity = new UserJpaEntity(UUID.nameUUIDFromBytes("user-0".getBytes()), "Nombre", "Apellido Apellido",
+                LocalDate.of(1990, 5, 17), "usuario_0", "usuario0@legendme.test", null, "hash", "LOCAL", true,
+                created, created.plusSeconds(3_600), 3L);
+        birthDate = new Date(LocalDate.of(1990, 5, 17).toEpochDay() * 86_400_000L);
+        createdAt = Date.from(created);
+        updatedAt = Date.from(created.plusSeconds(3_600));
+    }
+
+    @Benchmark
+    public byte[] mapAndWrite() throws IOException {
+        if (model.equals("date")) {
+            return mapper.writeValueAsBytes(new LegacyUserResponse(entity.getId(), entity.getName(), entity.getLastname(),
+                    new Date(birthDate.getTime()), entity.getUsername(), entity.getEmail(), entity.getProvider(),
+                    entity.isActive(), new Date(createdAt.getTime()), new Date(updatedAt.getTime()), entity.getVersion()));
+        }
+        UserResponse response = UserRestMapper.toUserResponse(UserPersistenceMapper.toDomainModel(entity));
+        return mapper.writeValueAsBytes(response);
+    }
+}
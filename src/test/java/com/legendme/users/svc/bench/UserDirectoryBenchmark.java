@@ -0,0 +1,119 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserStore;
+import com.legendme.users.svc.domain.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoria por usuario y latencia de búsqueda del directorio fuera del heap frente a una caché
+ * en el heap equivalente (tres {@link ConcurrentHashMap} por ID, email y username con los
+ * {@code User} completos). La memoria se imprime al preparar el benchmark: la del heap es la
+ * diferencia de heap usado tras un GC, la del directorio sus bytes ocupados y reservados.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class UserDirectoryBenchmark {
+
+    @Param({"500000"})
+    public int users;
+
+    private UUID[] ids;
+    private String[] emails;
+    private int cursor;
+
+    private Map<UUID, User> heapById;
+    private Map<String, User> heapByEmail;
+    private Map<String, User> heapByUsername;
+    private OffHeapUserStore offHeap;
+
+    @Setup
+    public void setup() {
+        ids = new UUID[users];
+        emails = new String[users];
+        for (int i = 0; i < users; i++) {
+            ids[i] = UUID.randomUUID();
+            emails[i] = "user" + i + "@legendme.test";
+        }
+
+        long before = usedHeap();
+        heapById = new ConcurrentHashMap<>(users);
+        heapByEmail = new ConcurrentHashMap<>(users);
+        heapByUsername = new ConcurrentHashMap<>(users);
+        for (int i = 0; i < users; i++) {
+            User user = user(i);
+            heapById.put(user.id(), user);
+            heapByEmail.put(user.email(), user);
+            heapByUsername.put(user.username(), user);
+        }
+        long heapBytes = usedHeap() - before;
+
+        offHeap = new OffHeapUserStore(24, users);
+        for (int i = 0; i < users; i++) {
+            offHeap.put(user(i));
+        }
+        System.out.printf("%nCaché en heap: %d bytes/usuario; directorio fuera del heap: %d bytes/usuario ocupados, %d reservados%n",
+                heapBytes / users, offHeap.usedBytes() / users, offHeap.offHeapBytes() / users);
+    }
+
+    @Benchmark
+    public User heapFindById() {
+        return heapById.get(ids[next()]);
+    }
+
+    @Benchmark
+    public Optional<User> offHeapFindById() {
+        return offHeap.findById(ids[next()]);
+    }
+
+    @Benchmark
+    public User heapFindByEmail() {
+        return heapByEmail.get(emails[next()]);
+    }
+
+    @Benchmark
+    public Optional<User> offHeapFindByEmail() {
+        return offHeap.findByEmail(emails[next()]);
+    }
+
+    private int next() {
+        int i = cursor + 1;
+        cursor = i == users ? 0 : i;
+        return cursor;
+    }
+
+    private User user(int i) {
+        Instant created = Instant.ofEpochMilli(1_700_000_000_000L + i);
+        return new User(ids[i], "Nombre" + i, "Apellido" + i, LocalDate.of(2000, 1, 1), "user" + i, emails[i],
+                "LOCAL", true, created, created, 0L);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,141 @@
+package com.legendme.users.svc.bench;
+
+import com.legendme.users.svc.adapter.out.db.shard.ShardSchema;
+import com.legendme.users.svc.adapter.out.db.shard.ShardedUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserRepository;
+import com.legendme.users.svc.adapter.out.directory.OffHeapUserStore;
+import com.legendme.users.svc.application.hotusers.HotUserCache;
+import com.legendme.users.svc.application.hotusers.HotUserProperties;
+import com.legendme.users.svc.application.service.FindUserService;
+import com.legendme.users.svc.domain.model.User;
+import com.legendme.users.svc.domain.model.UsernameAvailability;
+import com.legendme.users.svc.domain.model.UsernameCandidates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia (con percentiles) de {@code checkUsernameAvailability} con 5 alternativas sobre
+ * {@code users} usernames de la forma {@code userN}, pidiendo usernames ocupados (de modo que
+ * muchos sufijos cortos también lo están): contra el directorio de un repositorio particionado
+ * en H2 (una consulta {@code IN}), contra el directorio fuera del heap, y el cliente que prueba
+ * el username y los 20 candidatos con una llamada a {@code existsByUsername} cada uno.
+ * Para 10M usernames: {@code -Dbench=UsernameAvailabilityBenchmark -p users=10000000} con más heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class UsernameAvailabilityBenchmark {
+
+    private static final int SUGGESTIONS = 5;
+
+    @Param({"1000000"})
+    public int users;
+
+    private ShardedUserRepository database;
+    private FindUserService databaseService;
+    private FindUserService directoryService;
+
+    @Setup
+    public void setup() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        DataSource shard = embedded(run, "shard");
+        ShardSchema.initShard(shard);
+        DataSource directory = embedded(run, "directory");
+        ShardSchema.initDirectory(directory);
+        JdbcTemplate directoryJdbc = new JdbcTemplate(directory);
+
+        OffHeapUserStore store = new OffHeapUserStore(24, users);
+        Instant created = Instant.ofEpochMilli(1_700_000_000_000L);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < users; i++) {
+            UUID id = UUID.randomUUID();
+            rows.add(new Object[]{"user" + i, bytes(id)});
+            if (rows.size() == 10_000) {
+                directoryJdbc.batchUpdate("insert into user_username_index (username, user_id) values (?, ?)", rows);
+                rows.clear();
+            }
+            store.put(new User(id, "Nombre", "Apellido", null, "user" + i, "user" + i + "@legendme.test",
+                    "LOCAL", true, created, created, 0L));
+        }
+        directoryJdbc.batchUpdate("insert into user_username_index (username, user_id) values (?, ?)", rows);
+
+        database = new ShardedUserRepository(List.of(new JdbcTemplate(shard)), directoryJdbc, new BCryptPasswordEncoder(4));
+        // El shard está vacío: la carga solo marca el directorio como listo, con los usuarios ya copiados.
+        OffHeapUserRepository offHeap = new OffHeapUserRepository(database, store, Duration.ofSeconds(2));
+        offHeap.load();
+
+        HotUserProperties disabled = new HotUserProperties(false, 32, 4096, 4, 64, Duration.ofSeconds(30), Duration.ofSeconds(1));
+        databaseService = new FindUserService(database, new HotUserCache(disabled));
+        directoryService = new FindUserService(offHeap, new HotUserCache(disabled));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public UsernameAvailability batchedDatabase() {
+        return databaseService.checkUsernameAvailability(takenUsername(), SUGGESTIONS);
+    }
+
+    @Benchmark
+    public UsernameAvailability offHeapDirectory() {
+        return directoryService.checkUsernameAvailability(takenUsername(), SUGGESTIONS);
+    }
+
+    @Benchmark
+    public int perCandidateExists() {
+        String username = takenUsername();
+        int free = databaseService.existsByUsername(username) ? 0 : 1;
+        for (String candidate : UsernameCandidates.of(username, SUGGESTIONS * 4, ThreadLocalRandom.current())) {
+            if (!databaseService.existsByUsername(candidate)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    private String takenUsername() {
+        return "user" + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    private static DataSource embedded(String run, String name) {
+        return DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:" + name + "-" + run + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.legendme.users.svc.infrastructure.compression;
+
+import com.github.luben.zstd.Zstd;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la negociación de Accept-Encoding (preferencia, pesos, comodín y exclusión con q=0)
+ * y de la codificación de ida y vuelta de gzip y zstd.
+ */
+class ContentCodingTest {
+
+    @Test
+    void prefersZstdAndHonoursWeightsAndExclusions() {
+        assertThat(ContentCoding.negotiate(null)).isEqualTo(ContentCoding.IDENTITY);
+        assertThat(ContentCoding.negotiate("gzip, deflate, br")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("gzip, zstd")).isEqualTo(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("zstd;q=0.5, gzip")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*")).isEqualTo(ContentCoding.ZSTD);
+        assertThat(ContentCoding.negotiate("*, zstd;q=0")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("GZIP;Q=0.8, identity")).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("br, identity;q=1")).isEqualTo(ContentCoding.IDENTITY);
+    }
+
+    @Test
+    void encodedBodiesDecodeBackToTheOriginal() throws IOException {
+        byte[] body = "{\"username\":\"ana\",\"active\":true}".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+        byte[] gzip = ContentCoding.GZIP.encode(body, 6);
+        byte[] zstd = ContentCoding.ZSTD.encode(body, 3);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(body);
+        }
+        assertThat(Zstd.decompress(zstd, body.length)).isEqualTo(body);
+        assertThat(gzip.length).isLessThan(body.length / 10);
+        assertThat(zstd.length).isLessThan(body.length / 10);
+        assertThat(ContentCoding.IDENTITY.encode(body, 0)).isSameAs(body);
+    }
+}
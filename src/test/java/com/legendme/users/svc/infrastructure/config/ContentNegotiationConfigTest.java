@@ -0,0 +1,79 @@
+package com.legendme.users.svc.infrastructure.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.legendme.users.svc.adapter.in.rest.dto.CreateUserRequest;
+import com.legendme.users.svc.adapter.in.rest.dto.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ida y vuelta de un usuario por el convertidor CBOR registrado en MVC: las fechas viajan como
+ * milisegundos desde epoch (no como el texto ISO-8601 de JSON) y se leen de vuelta sin cambios.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ContentNegotiationConfigTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-10-19T10:15:30.123Z");
+    private static final Instant UPDATED_AT = Instant.parse("1969-07-20T20:17:40.001Z");
+    private static final LocalDate BIRTH_DATE = LocalDate.of(1992, 2, 29);
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cborWritesDatesAsEpochMillisAndReadsThemBack() throws IOException {
+        MappingJackson2CborHttpMessageConverter cbor = handlerAdapter.getMessageConverters().stream()
+                .filter(MappingJackson2CborHttpMessageConverter.class::isInstance)
+                .map(MappingJackson2CborHttpMessageConverter.class::cast)
+                .findFirst()
+                .orElseThrow();
+        UserResponse user = new UserResponse(UUID.randomUUID(), "Ana", "Pérez", BIRTH_DATE, "ana", "ana@legendme.test",
+                "LOCAL", true, CREATED_AT, UPDATED_AT, 3L);
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        cbor.write(user, MediaType.APPLICATION_CBOR, output);
+        byte[] body = output.getBodyAsBytes();
+
+        JsonNode tree = cbor.getObjectMapper().readTree(body);
+        assertThat(tree.get("createdAt").isIntegralNumber()).isTrue();
+        assertThat(tree.get("createdAt").longValue()).isEqualTo(CREATED_AT.toEpochMilli());
+        assertThat(tree.get("updatedAt").longValue()).isEqualTo(UPDATED_AT.toEpochMilli());
+        assertThat(tree.get("birthDate").longValue())
+                .isEqualTo(BIRTH_DATE.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+        assertThat(tree.get("id").isBinary()).isTrue();
+
+        assertThat(cbor.read(UserResponse.class, new MockHttpInputMessage(body))).isEqualTo(user);
+
+        byte[] request = cbor.getObjectMapper().writeValueAsBytes(Map.of(
+                "username", "ana", "birthDate", BIRTH_DATE.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli()));
+        assertThat(((CreateUserRequest) cbor.read(CreateUserRequest.class, new MockHttpInputMessage(request))).birthDate())
+                .isEqualTo(BIRTH_DATE);
+
+        // JSON sigue escribiendo texto ISO-8601.
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(user));
+        assertThat(json.get("createdAt").textValue()).isEqualTo("2026-10-19T10:15:30.123Z");
+        assertThat(json.get("birthDate").textValue()).isEqualTo("1992-02-29");
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsBytes(user), UserResponse.class)).isEqualTo(user);
+    }
+}
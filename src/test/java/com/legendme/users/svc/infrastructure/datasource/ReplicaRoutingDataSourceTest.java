@@ -0,0 +1,107 @@
+package com.legendme.users.svc.infrastructure.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el enrutamiento primario/réplica con dos bases H2 embebidas que
+ * contienen un marcador distinto cada una.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate readWriteTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = embedded("primary");
+        DataSource replica = embedded("replica");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica));
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+        readWriteTx = new TransactionTemplate(txManager);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ReplicaRoutingContext.clear();
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertThat(readOnly(this::marker)).isEqualTo("replica");
+        assertThat(ReplicaRoutingContext.hasWritten()).isFalse();
+    }
+
+    @Test
+    void readWriteTransactionsGoToPrimaryAndAreRecorded() {
+        assertThat(readWrite(this::marker)).isEqualTo("primary");
+        assertThat(ReplicaRoutingContext.hasWritten()).isTrue();
+    }
+
+    @Test
+    void pinnedReadsGoToPrimary() {
+        ReplicaRoutingContext.pinPrimary();
+        assertThat(readOnly(this::marker)).isEqualTo("primary");
+    }
+
+    @Test
+    void callerReadsItsWritesWithinTheWindow() throws Exception {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(
+                new ReplicaRoutingProperties(true, List.of(), Duration.ofMillis(200)));
+
+        tracker.recordWrite("user-1@127.0.0.1");
+        assertThat(tracker.mustReadFromPrimary("user-1@127.0.0.1")).isTrue();
+        assertThat(tracker.mustReadFromPrimary("user-2@127.0.0.1")).isFalse();
+
+        Thread.sleep(300);
+        assertThat(tracker.mustReadFromPrimary("user-1@127.0.0.1")).isFalse();
+    }
+
+    private String readOnly(Supplier<String> query) {
+        return readOnlyTx.execute(status -> query.get());
+    }
+
+    private String readWrite(Supplier<String> query) {
+        return readWriteTx.execute(status -> query.get());
+    }
+
+    private String marker() {
+        return jdbc.queryForObject("select name from marker", String.class);
+    }
+
+    private static DataSource embedded(String name) {
+        DataSource dataSource = DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:" + name + "-routing;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists marker(name varchar(16))");
+        jdbc.execute("delete from marker");
+        jdbc.update("insert into marker(name) values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,110 @@
+package com.legendme.users.svc.infrastructure.json;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link IsoTime} frente a {@link DateTimeFormatter#ISO_INSTANT} y {@link LocalDate#toString()}:
+ * días bisiestos, cambios de año y de siglo, instantes anteriores a 1970, precisión por debajo
+ * del milisegundo y los extremos 0000/9999 donde empieza el formateador estándar.
+ */
+class IsoTimeTest {
+
+    private static final long FIRST_SECOND = LocalDate.of(0, 1, 1).toEpochDay() * 86_400;
+    private static final long LAST_SECOND = LocalDate.of(9999, 12, 31).toEpochDay() * 86_400 + 86_399;
+
+    @Test
+    void writesInstantsLikeIsoInstantWithMillisecondsAlwaysPresent() {
+        List<String> instants = List.of(
+                "1970-01-01T00:00:00Z", "1969-12-31T23:59:59.999Z", "1969-12-31T23:59:59.999999999Z",
+                "1960-02-29T06:30:00.5Z", "1900-02-28T23:59:59Z", "1900-03-01T00:00:00Z",
+                "1600-02-29T12:00:00Z", "2000-02-29T23:59:59.999Z", "2000-03-01T00:00:00Z",
+                "2024-02-29T10:15:30.123Z", "1999-12-31T23:59:59.999999Z", "2000-01-01T00:00:00Z",
+                "2099-12-31T23:59:59Z", "2100-02-28T00:00:00Z", "2100-03-01T00:00:00Z",
+                "2026-10-19T10:15:30.000000001Z", "2026-10-19T10:15:30.000001Z", "2026-10-19T10:15:30.1234567Z",
+                "2026-10-19T10:15:30.100200300Z", "0000-01-01T00:00:00Z", "0000-02-29T00:00:00Z",
+                "9999-12-31T23:59:59.999999999Z");
+        for (String text : instants) {
+            Instant instant = Instant.parse(text);
+            assertThat(written(instant)).as(text).isEqualTo(expected(instant));
+        }
+        assertThat(written(Instant.parse("2024-02-29T10:15:30Z"))).isEqualTo("2024-02-29T10:15:30.000Z");
+        assertThat(written(Instant.parse("2024-02-29T10:15:30.000001Z"))).isEqualTo("2024-02-29T10:15:30.000001Z");
+    }
+
+    @Test
+    void fallsBackToIsoInstantOutsideYears0000To9999() {
+        Instant first = Instant.ofEpochSecond(FIRST_SECOND);
+        Instant last = Instant.ofEpochSecond(LAST_SECOND, 999_999_999);
+        List<Instant> outside = List.of(first.minusNanos(1), first.minusSeconds(86_400), last.plusNanos(1),
+                Instant.parse("+10000-01-01T00:00:00Z"), Instant.MIN, Instant.MAX);
+        for (Instant instant : outside) {
+            assertThat(written(instant)).as(instant.toString()).isEqualTo(DateTimeFormatter.ISO_INSTANT.format(instant));
+        }
+        assertThat(written(first)).isEqualTo("0000-01-01T00:00:00.000Z");
+        assertThat(written(last)).isEqualTo("9999-12-31T23:59:59.999999999Z");
+    }
+
+    @Test
+    void writesRandomInstantsAcrossTheWholeFastRange() {
+        Random random = new Random(49);
+        int[] precisions = {1_000_000_000, 1_000_000, 1_000, 1};
+        for (int i = 0; i < 200_000; i++) {
+            long second = FIRST_SECOND + (long) (random.nextDouble() * (LAST_SECOND - FIRST_SECOND + 1));
+            int unit = precisions[random.nextInt(precisions.length)];
+            int nano = unit == 1_000_000_000 ? 0 : random.nextInt(1_000_000_000 / unit) * unit;
+            Instant instant = Instant.ofEpochSecond(second, nano);
+            assertThat(written(instant)).as(instant.toString()).isEqualTo(expected(instant));
+        }
+    }
+
+    @Test
+    void writesDatesLikeLocalDateToString() {
+        for (LocalDate date = LocalDate.of(1595, 1, 1); date.isBefore(LocalDate.of(2105, 1, 1)); date = date.plusDays(1)) {
+            assertThat(written(date)).isEqualTo(date.toString());
+        }
+        List<LocalDate> edges = List.of(LocalDate.of(0, 1, 1), LocalDate.of(0, 2, 29), LocalDate.of(9999, 12, 31),
+                LocalDate.of(-1, 12, 31), LocalDate.of(10_000, 1, 1), LocalDate.MIN, LocalDate.MAX, LocalDate.EPOCH);
+        for (LocalDate date : edges) {
+            assertThat(written(date)).isEqualTo(date.toString());
+        }
+    }
+
+    @Test
+    void writesAtTheGivenOffsetWithoutTouchingTheRest() {
+        char[] buffer = new char[5 + IsoTime.MAX_INSTANT_LENGTH];
+        Arrays.fill(buffer, '#');
+        int end = IsoTime.write(Instant.parse("1969-07-20T20:17:40Z"), buffer, 5);
+        assertThat(new String(buffer, 0, 5)).isEqualTo("#####");
+        assertThat(new String(buffer, 5, end - 5)).isEqualTo("1969-07-20T20:17:40.000Z");
+        assertThat(buffer[end]).isEqualTo('#');
+
+        end = IsoTime.write(LocalDate.MIN, buffer, 5);
+        assertThat(end - 5).isEqualTo(IsoTime.MAX_DATE_LENGTH);
+        assertThat(new String(buffer, 5, end - 5)).isEqualTo(LocalDate.MIN.toString());
+    }
+
+    /** ISO_INSTANT omite la fracción cuando es cero; IsoTime siempre escribe los milisegundos. */
+    private static String expected(Instant instant) {
+        String iso = DateTimeFormatter.ISO_INSTANT.format(instant);
+        return instant.getNano() == 0 ? iso.substring(0, iso.length() - 1) + ".000Z" : iso;
+    }
+
+    private static String written(Instant instant) {
+        char[] buffer = new char[IsoTime.MAX_INSTANT_LENGTH];
+        return new String(buffer, 0, IsoTime.write(instant, buffer, 0));
+    }
+
+    private static String written(LocalDate date) {
+        char[] buffer = new char[IsoTime.MAX_DATE_LENGTH];
+        return new String(buffer, 0, IsoTime.write(date, buffer, 0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del límite adaptativo: reserva para el tráfico con prioridad, crecimiento con
+ * latencia estable, recorte cuando la latencia sube y clasificación de endpoints.
+ */
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void reservesPartOfTheLimitForPriorityTraffic() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 10, 1.5, 0.2, 0.2);
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(limit.tryAcquire(false)).isPositive();
+        }
+        assertThat(limit.tryAcquire(false)).isZero();
+        assertThat(limit.tryAcquire(true)).isPositive();
+        assertThat(limit.tryAcquire(true)).isPositive();
+        assertThat(limit.tryAcquire(true)).isZero();
+
+        limit.release();
+        assertThat(limit.inFlight()).isEqualTo(9);
+    }
+
+    @Test
+    void growsWithStableLatencyAndShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 200, 1.5, 0.2, 0.2);
+
+        for (int i = 0; i < 200; i++) {
+            limit.release(10 * MS, limit.limit());
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(20);
+
+        for (int i = 0; i < 100; i++) {
+            limit.release(200 * MS, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(grown / 2).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void ignoresLatencyWhenMostOfTheLimitIsUnused() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 200, 1.5, 0.2, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            limit.release(i < 50 ? MS : 500 * MS, 1);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    void classifiesEndpoints() {
+        assertThat(EndpointClass.of("/legendme/users/search/by-email")).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of("/legendme/users/exists-by-email")).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of("/legendme/users/username-availability")).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of("/legendme/users/stats")).isEqualTo(EndpointClass.READ);
+        assertThat(EndpointClass.of("/legendme/users/create/google-user")).isEqualTo(EndpointClass.WRITE);
+        assertThat(EndpointClass.of("/legendme/users/6f1c/desactivate")).isEqualTo(EndpointClass.WRITE);
+        assertThat(EndpointClass.of("/legendme/users/search")).isEqualTo(EndpointClass.BULK);
+        assertThat(EndpointClass.of("/legendme/users/match-email-hashes")).isEqualTo(EndpointClass.BULK);
+        assertThat(EndpointClass.of("/legendme/users/all")).isEqualTo(EndpointClass.BULK);
+        assertThat(EndpointClass.of("/legendme/users/verify-credentials")).isNull();
+        assertThat(EndpointClass.of("/actuator/health")).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+package com.legendme.users.svc.infrastructure.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del filtro de concurrencia: las variantes codificadas o sin normalizar de una ruta
+ * ocupan el límite de la misma clase que la ruta canónica.
+ */
+class ConcurrencyLimitFilterTest {
+
+    @Test
+    void classifiesEncodedAndUnnormalizedPaths() throws Exception {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(
+                new ConcurrencyLimitProperties(true, 1.5, 0.2, 0.2, Map.of()), new SimpleMeterRegistry(), new ObjectMapper());
+
+        assertThat(classOf(filter, "/legendme/users/%63reate")).isEqualTo(EndpointClass.WRITE);
+        assertThat(classOf(filter, "/legendme/users//update;jsessionid=1")).isEqualTo(EndpointClass.WRITE);
+        assertThat(classOf(filter, "/legendme/users/%61ll")).isEqualTo(EndpointClass.BULK);
+        assertThat(classOf(filter, "/legendme/users/search/by-%65mail")).isEqualTo(EndpointClass.READ);
+        assertThat(classOf(filter, "/legendme/users/verify-credentials")).isNull();
+    }
+
+    /** Clase cuyo límite tiene la petición en curso mientras la atiende la cadena. */
+    private static EndpointClass classOf(ConcurrencyLimitFilter filter, String uri) throws Exception {
+        AtomicReference<EndpointClass> held = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest("POST", uri), new MockHttpServletResponse(), (request, response) -> {
+            for (EndpointClass endpointClass : EndpointClass.values()) {
+                if (filter.limit(endpointClass).inFlight() == 1) {
+                    held.set(endpointClass);
+                }
+            }
+        });
+        return held.get();
+    }
+}
@@ -0,0 +1,52 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del almacén local de buckets: ráfaga y espera hasta el siguiente token, claves
+ * independientes, normalización del email y memoria acotada con muchas claves.
+ */
+class LocalRateLimitStoreTest {
+
+    @Test
+    void allowsTheBurstThenReportsTheWaitForTheNextToken() {
+        LocalRateLimitStore store = new LocalRateLimitStore(1024);
+        TokenBucket bucket = TokenBucket.of(3, Duration.ofMinutes(1));
+        long key = RateLimitKeys.ip("10.0.0.1");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire(key, bucket)).isZero();
+        }
+        long wait = store.tryAcquire(key, bucket);
+
+        assertThat(wait).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(20).toNanos());
+        assertThat(store.tryAcquire(RateLimitKeys.ip("10.0.0.2"), bucket)).isZero();
+    }
+
+    @Test
+    void emailKeysIgnoreCaseAndSurroundingSpaces() {
+        LocalRateLimitStore store = new LocalRateLimitStore(1024);
+        TokenBucket bucket = TokenBucket.of(1, Duration.ofMinutes(10));
+
+        assertThat(store.tryAcquire(RateLimitKeys.email("Ana@LegendMe.test"), bucket)).isZero();
+        assertThat(store.tryAcquire(RateLimitKeys.email("  ana@legendme.test "), bucket)).isPositive();
+        assertThat(RateLimitKeys.email("ana@legendme.test")).isNotEqualTo(RateLimitKeys.ip("ana@legendme.test"));
+    }
+
+    @Test
+    void staysBoundedWithManyMoreKeysThanSlots() {
+        LocalRateLimitStore store = new LocalRateLimitStore(64);
+        TokenBucket bucket = TokenBucket.of(1, Duration.ofHours(1));
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(store.tryAcquire(RateLimitKeys.ip("192.168.0." + i), bucket)).isZero();
+        }
+
+        // Las 64 entradas tienen buckets activos: las claves nuevas sustituyen a las más llenas.
+        assertThat(store.evictions()).isGreaterThan(9_000);
+    }
+}
@@ -0,0 +1,46 @@
+package com.legendme.users.svc.infrastructure.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del filtro de límite por IP: las variantes codificadas o sin normalizar de la ruta de
+ * alta consumen el mismo bucket que la ruta canónica.
+ */
+class RateLimitFilterTest {
+
+    @Test
+    void limitsEncodedAndUnnormalizedCreatePaths() throws Exception {
+        RateLimitFilter filter = filter();
+
+        assertThat(post(filter, "/legendme/users/%63reate").getStatus()).isEqualTo(200);
+        assertThat(post(filter, "/legendme/users/create").getStatus()).isEqualTo(429);
+        assertThat(post(filter, "/legendme/users//create;jsessionid=1").getStatus()).isEqualTo(429);
+        assertThat(post(filter, "/legendme/users/verify-credentials").getStatus()).isEqualTo(200);
+    }
+
+    private static RateLimitFilter filter() {
+        RateLimitProperties.Bucket ip = new RateLimitProperties.Bucket(1, Duration.ofMinutes(1));
+        RateLimitProperties.Bucket email = new RateLimitProperties.Bucket(20, Duration.ofMinutes(1));
+        CreateRateLimiter limiter = new CreateRateLimiter(new RateLimitProperties(true, 1024, ip, email),
+                new DefaultListableBeanFactory().getBeanProvider(RateLimitStore.class), new SimpleMeterRegistry());
+        return new RateLimitFilter(limiter, new ObjectMapper());
+    }
+
+    private static MockHttpServletResponse post(RateLimitFilter filter, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,60 @@
+package com.legendme.users.svc.infrastructure.security;
+
+import com.legendme.users.svc.adapter.in.rest.UserApiFixtures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.legendme.users.svc.adapter.in.rest.UserApiFixtures.s2s;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los endpoints solo S2S exigen el token interno: un JWT de usuario con {@code "roles":["INTERNAL"]}
+ * (o cualquier otro rol) no obtiene la autoridad de {@link S2SAuthFilter}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class S2SAuthorizationTest {
+
+    private static final String CREDENTIALS = "{\"email\":\"nadie@legendme.test\",\"password\":\"secreto\"}";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void userTokensCannotReachInternalEndpoints() throws Exception {
+        String bearer = "Bearer " + new UserApiFixtures(environment)
+                .jwtFor(UUID.randomUUID(), List.of("INTERNAL", "S2S_INTERNAL", "ROLE_INTERNAL"));
+
+        mvc.perform(post("/legendme/users/verify-credentials").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content(CREDENTIALS))
+                .andExpect(status().isForbidden());
+        mvc.perform(post("/legendme/users/match-email-hashes").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"hashes\":[]}"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void internalTokenReachesInternalEndpoints() throws Exception {
+        mvc.perform(s2s(post("/legendme/users/verify-credentials"))
+                        .contentType(MediaType.APPLICATION_JSON).content(CREDENTIALS))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,70 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Verifica la normalización de las formas de consulta y el registro de consultas lentas sobre una
+ * base H2 embebida, con umbral cero para que todas las sentencias cuenten como lentas.
+ */
+class SlowQueryLogTest {
+
+    private final SlowQueryLog slowQueries = new SlowQueryLog(
+            new SlowQueryProperties(true, Duration.ZERO, 4, 16, true, 4, 2000));
+
+    @AfterEach
+    void tearDown() {
+        slowQueries.close();
+    }
+
+    @Test
+    void shapeOf_normalizesLiteralsAndInLists() {
+        assertThat(SlowQueryLog.shapeOf("select * from users where email = 'ana@x.com'  and age > 30"))
+                .isEqualTo("select * from users where email = ? and age > ?");
+        assertThat(SlowQueryLog.shapeOf("select id from users where id in (?, ?, ?)"))
+                .isEqualTo(SlowQueryLog.shapeOf("select id from users where id in (?,?)"))
+                .isEqualTo("select id from users where id in (?...)");
+        assertThat(SlowQueryLog.shapeOf("select v2 from t where name = 'o''brien'"))
+                .isEqualTo("select v2 from t where name = ?");
+    }
+
+    @Test
+    void slowQueries_recordShapeWithoutValuesAndExplainOnce() {
+        DataSource raw = DataSourceBuilder.create()
+                .driverClassName("org.h2.Driver")
+                .url("jdbc:h2:mem:slow-queries;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(SqlStatementCounter.proxy(raw, "test", slowQueries));
+        jdbc.execute("create table if not exists people(id int primary key, email varchar(64))");
+        jdbc.update("merge into people(id, email) key(id) values (1, 'ana@x.com')");
+        for (int i = 0; i < 6; i++) {
+            jdbc.queryForList("select id from people where email = ?", "ana@x.com");
+        }
+
+        SlowQueryLog.Report report = slowQueries.report();
+        assertThat(report.recent()).hasSize(4);
+        SlowQueryLog.Entry latest = report.recent().get(0);
+        assertThat(latest.sql()).isEqualTo("select id from people where email = ?");
+        assertThat(latest.parameters()).containsExactly("1:String");
+        assertThat(latest.toString()).doesNotContain("ana@x.com");
+        assertThat(latest.endpoint()).isNull();
+
+        SlowQueryLog.ShapeReport shape = slowQueries.shape(latest.shape()).orElseThrow();
+        assertThat(shape.count()).isEqualTo(6);
+        assertThat(shape.slow()).isEqualTo(6);
+        assertThat(shape.histogram().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(6);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> slowQueries.shape(latest.shape()).orElseThrow().plan() != null);
+        assertThat(slowQueries.shape(latest.shape()).orElseThrow().plan()).containsIgnoringCase("people");
+    }
+}
@@ -0,0 +1,74 @@
+package com.legendme.users.svc.infrastructure.sql;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * API de pruebas para fijar cuántas sentencias SQL puede ejecutar un endpoint:
+ * {@code budget.assertQueries(get("/...")).atMost(2)}.
+ * Requiere el contexto con {@code legendme.sql.statements.capture=true} (perfil {@code test}),
+ * de modo que al fallar se listan las sentencias ejecutadas.
+ */
+public final class SqlStatementBudget {
+
+    private final MockMvc mvc;
+
+    public SqlStatementBudget(MockMvc mvc) {
+        this.mvc = mvc;
+    }
+
+    /**
+     * Ejecuta la petición y devuelve sus sentencias para comprobar el presupuesto.
+     * La petición tiene que responder sin error: un 4xx/5xx suele cortar el camino antes de la base.
+     *
+     * @param endpoint Petición de MockMvc.
+     * @return Aserción sobre las sentencias de esa petición.
+     */
+    public QueryAssert assertQueries(RequestBuilder endpoint) throws Exception {
+        MvcResult result = mvc.perform(endpoint).andReturn();
+        String description = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+        assertThat(result.getResponse().getStatus())
+                .as("%s respondió %d: %s", description, result.getResponse().getStatus(), result.getResponse().getContentAsString())
+                .isLessThan(400);
+        Object scope = result.getRequest().getAttribute(SqlStatementFilter.ATTRIBUTE);
+        assertThat(scope).as("%s no pasó por SqlStatementFilter", description).isInstanceOf(SqlStatementCounter.Scope.class);
+        return new QueryAssert(description, result, (SqlStatementCounter.Scope) scope);
+    }
+
+    /** Presupuesto de sentencias de una petición ya ejecutada. */
+    public static final class QueryAssert {
+
+        private final String description;
+        private final MvcResult result;
+        private final SqlStatementCounter.Scope scope;
+
+        private QueryAssert(String description, MvcResult result, SqlStatementCounter.Scope scope) {
+            this.description = description;
+            this.result = result;
+            this.scope = scope;
+        }
+
+        /**
+         * Falla si la petición ejecutó más de {@code budget} sentencias.
+         *
+         * @param budget Sentencias permitidas.
+         * @return El resultado de la petición, para seguir comprobándolo.
+         */
+        public MvcResult atMost(int budget) {
+            if (scope.total() > budget) {
+                fail("%s ejecutó %d sentencias SQL (presupuesto %d):%n  %s", description, scope.total(), budget,
+                        String.join(System.lineSeparator() + "  ", scope.statements()));
+            }
+            return result;
+        }
+
+        /** Número de sentencias ejecutadas. */
+        public int count() {
+            return scope.total();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.legendme.users.svc.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parámetros de una ejecución de {@link LoadTest}, leídos de argumentos {@code clave=valor}
+ * (el perfil Maven {@code load} los rellena a partir de {@code -Dload.*}).
+ *
+ * @param users       usuarios sintéticos que se insertan antes de medir (1k a 10M)
+ * @param rate        llegadas por segundo (modelo abierto: no dependen de las respuestas)
+ * @param arrival     {@code poisson} (intervalos exponenciales) o {@code constant}
+ * @param warmup      tiempo de carga inicial que no se mide
+ * @param duration    tiempo de carga medido
+ * @param mix         mezcla de operaciones, por ejemplo {@code by-id:70,by-email:15,exists:5,create:5,update:5}
+ * @param seed        semilla de los datos y de la secuencia de peticiones
+ * @param maxInFlight peticiones en curso a partir de las cuales las llegadas se descartan (y se cuentan)
+ * @param dbUrl       JDBC de la base; por defecto H2 en memoria en modo MySQL
+ * @param allowNonEmpty inserta los usuarios aunque la tabla ya tenga filas (por defecto se rechaza)
+ * @param output      fichero JSON con el resultado
+ * @param label       etiqueta libre del resultado (por ejemplo el commit)
+ * @param spring      argumentos {@code --clave=valor} adicionales para la aplicación
+ */
+record LoadConfig(
+        int users,
+        double rate,
+        String arrival,
+        Duration warmup,
+        Duration duration,
+        String mix,
+        long seed,
+        int maxInFlight,
+        String dbUrl,
+        boolean allowNonEmpty,
+        Path output,
+        String label,
+        List<String> spring
+) {
+
+    static final String H2_URL = "jdbc:h2:mem:load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> spring = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (arg.startsWith("--")) {
+                spring.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Argumento sin valor (se espera clave=valor): " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        for (String extra : values.getOrDefault("spring", "").trim().split("\\s+")) {
+            if (!extra.isEmpty()) {
+                spring.add(extra);
+            }
+        }
+        LoadConfig config = new LoadConfig(
+                Integer.parseInt(values.getOrDefault("users", "100000")),
+                Double.parseDouble(values.getOrDefault("rate", "500")),
+                values.getOrDefault("arrival", "poisson"),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "15s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                values.getOrDefault("mix", "by-id:70,by-email:15,exists:5,create:5,update:5"),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("maxInFlight", "10000")),
+                blankToDefault(values.get("dbUrl"), H2_URL),
+                Boolean.parseBoolean(blankToDefault(values.get("allowNonEmpty"), "false")),
+                Path.of(values.getOrDefault("output", "target/load-result.json")),
+                values.getOrDefault("label", ""),
+                List.copyOf(spring));
+        if (config.users < 1 || config.rate <= 0 || config.duration.isZero() || config.maxInFlight < 1) {
+            throw new IllegalArgumentException("users, rate, duration y maxInFlight deben ser positivos: " + config);
+        }
+        if (!config.arrival.equals("poisson") && !config.arrival.equals("constant")) {
+            throw new IllegalArgumentException("arrival debe ser poisson o constant: " + config.arrival);
+        }
+        return config;
+    }
+
+    boolean embedded() {
+        return dbUrl.startsWith("jdbc:h2:");
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("users", users);
+        out.put("rate", rate);
+        out.put("arrival", arrival);
+        out.put("warmupSeconds", warmup.toMillis() / 1000.0);
+        out.put("durationSeconds", duration.toMillis() / 1000.0);
+        out.put("mix", mix);
+        out.put("seed", seed);
+        out.put("maxInFlight", maxInFlight);
+        out.put("database", embedded() ? "h2-mysql-mode" : dbUrl.replaceAll("//[^/@]*@", "//"));
+        out.put("spring", spring);
+        return out;
+    }
+
+    private static String blankToDefault(String value, String fallback) {
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
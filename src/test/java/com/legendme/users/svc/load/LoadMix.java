@@ -0,0 +1,64 @@
+package com.legendme.users.svc.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Mezcla ponderada de operaciones ({@code by-id:70,by-email:15,...}). Los pesos no tienen que sumar 100.
+ */
+final class LoadMix {
+
+    private final Operation[] operations;
+    private final double[] cumulative;
+
+    private LoadMix(Operation[] operations, double[] cumulative) {
+        this.operations = operations;
+        this.cumulative = cumulative;
+    }
+
+    static LoadMix parse(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        double total = 0;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.strip().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrada de mix inválida (se espera operación:peso): " + entry);
+            }
+            double weight = Double.parseDouble(parts[1].strip());
+            if (weight <= 0) {
+                continue;
+            }
+            Operation operation = Operation.byKey(parts[0].strip());
+            if (operations.contains(operation)) {
+                throw new IllegalArgumentException("Operación repetida en mix: " + operation.key());
+            }
+            operations.add(operation);
+            total += weight;
+            weights.add(total);
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación con peso: " + mix);
+        }
+        double[] cumulative = new double[weights.size()];
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] = weights.get(i) / total;
+        }
+        return new LoadMix(operations.toArray(Operation[]::new), cumulative);
+    }
+
+    Operation pick(SplittableRandom random) {
+        double point = random.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (point < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    List<Operation> operations() {
+        return List.of(operations);
+    }
+}
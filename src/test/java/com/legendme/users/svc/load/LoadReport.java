@@ -0,0 +1,143 @@
+package com.legendme.users.svc.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados medidos por operación: latencia en un histograma HDR (3 dígitos significativos, hasta
+ * un minuto), códigos de estado y llegadas descartadas. La latencia se mide desde el instante en que
+ * la petición debía salir según el ritmo de llegadas, no desde que salió, de modo que las esperas
+ * del propio generador cuentan (sin omisión coordinada).
+ */
+final class LoadReport {
+
+    private static final long HIGHEST = TimeUnit.MINUTES.toNanos(1);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    LoadReport(List<Operation> operations) {
+        for (Operation operation : operations) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, int status) {
+        Stats target = stats.get(operation);
+        target.latency.recordValue(Math.min(latencyNanos, HIGHEST));
+        target.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    void dropped(Operation operation) {
+        stats.get(operation).dropped.increment();
+    }
+
+    /**
+     * Resultado en un mapa listo para serializar a JSON.
+     *
+     * @param config   Parámetros de la ejecución.
+     * @param label    Etiqueta libre.
+     * @param measured Duración real de la ventana medida, en segundos.
+     */
+    Map<String, Object> toMap(LoadConfig config, String label, double measured) {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Histogram total = new Histogram(HIGHEST, 3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats value = entry.getValue();
+            Histogram histogram = value.latency.copy();
+            total.add(histogram);
+            long errors = value.errors();
+            totalErrors += errors;
+            totalDropped += value.dropped.sum();
+            Map<String, Object> endpoint = summary(histogram, errors, value.dropped.sum(), measured);
+            Map<String, Long> statuses = new LinkedHashMap<>();
+            value.statuses.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(status -> statuses.put(status.getKey() < 0 ? "io-error" : status.getKey().toString(),
+                            status.getValue().sum()));
+            endpoint.put("statuses", statuses);
+            endpoint.put("hdr", encode(histogram));
+            endpoints.put(entry.getKey().key(), endpoint);
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("label", label);
+        out.put("timestamp", Instant.now().toString());
+        out.put("config", config.describe());
+        out.put("measuredSeconds", measured);
+        out.put("total", summary(total, totalErrors, totalDropped, measured));
+        out.put("endpoints", endpoints);
+        return out;
+    }
+
+    /** Tabla legible con las mismas cifras. */
+    String toTable(double measured) {
+        StringBuilder table = new StringBuilder(String.format("%-12s %9s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().latency.copy();
+            table.append(String.format("%-12s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey().key(), histogram.getTotalCount(), histogram.getTotalCount() / measured,
+                    entry.getValue().errors(), entry.getValue().dropped.sum(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        }
+        return table.toString();
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, long dropped, double measured) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughput", histogram.getTotalCount() / measured);
+        summary.put("errors", errors);
+        summary.put("dropped", dropped);
+        Map<String, Double> latency = new LinkedHashMap<>();
+        latency.put("mean", millis(histogram.getMean()));
+        latency.put("min", millis(histogram.getMinValue()));
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    millis(histogram.getValueAtPercentile(percentile)));
+        }
+        latency.put("max", millis(histogram.getMaxValue()));
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    /** Histograma comprimido en base64, para combinar o comparar ejecuciones con las herramientas de HdrHistogram. */
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class Stats {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(HIGHEST, 3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(status -> status.getKey() < 200 || status.getKey() >= 300)
+                    .mapToLong(status -> status.getValue().sum())
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.legendme.users.svc.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.legendme.users.svc.LegendmeUsersSvcApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga local y reproducible: arranca el servicio completo (Tomcat, seguridad, JPA)
+ * contra H2 en modo MySQL, inserta {@code users} usuarios sintéticos y genera llegadas a ritmo
+ * fijo ({@code rate} por segundo, Poisson o constantes) con la mezcla de operaciones de {@code mix}.
+ * Es un modelo abierto: las llegadas no esperan a las respuestas, y si hay más de {@code maxInFlight}
+ * peticiones en curso la llegada se descarta y se cuenta.
+ *
+ * <p>Escribe el resultado por operación (rendimiento, errores y percentiles HDR) en {@code output}
+ * como JSON y una tabla en la salida estándar. Se ejecuta con el perfil Maven {@code load}:</p>
+ *
+ * <pre>
+ * mvn -Pload test -DskipTests -Dload.users=1000000 -Dload.rate=2000 -Dload.duration=120s
+ * </pre>
+ *
+ * <p>Los argumentos {@code --clave=valor} se pasan a la aplicación (por ejemplo
+ * {@code -Dload.spring="--legendme.directory.enabled=true"}); con {@code dbUrl} se puede usar una
+ * base MySQL real, aportando también {@code --spring.datasource.username/password}. Esa base debe
+ * tener ya el esquema (solo se valida) y la tabla {@code users} vacía, salvo {@code allowNonEmpty=true}.</p>
+ */
+public final class LoadTest {
+
+    private static final String INTERNAL_TOKEN = Base64.getEncoder().encodeToString("load-test-token".getBytes(StandardCharsets.UTF_8));
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        LoadMix mix = LoadMix.parse(config.mix());
+        // DevTools está en el classpath de pruebas: su reinicio arrancaría la aplicación dos veces.
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LegendmeUsersSvcApplication.class)
+                .run(applicationArgs(config))) {
+            Environment environment = context.getEnvironment();
+            long seeding = System.nanoTime();
+            UserSeeder users = UserSeeder.seed(context.getBean(DataSource.class), context.getBean(PasswordEncoder.class),
+                    config.users(), config.seed(), config.allowNonEmpty());
+            System.out.printf("%d usuarios insertados en %.1f s%n", config.users(), (System.nanoTime() - seeding) / 1e9);
+
+            Workload workload = new Workload("http://localhost:" + environment.getProperty("local.server.port") + "/legendme/users",
+                    INTERNAL_TOKEN, users, environment.getRequiredProperty("jwt.secret"), environment.getRequiredProperty("jwt.issuer"));
+            LoadReport report = new LoadReport(mix.operations());
+            double measured = drive(config, mix, workload, report);
+
+            Map<String, Object> result = report.toMap(config, config.label(), measured);
+            Files.createDirectories(config.output().toAbsolutePath().getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(config.output().toFile(), result);
+            System.out.print(report.toTable(measured));
+            System.out.println("Resultado: " + config.output().toAbsolutePath());
+        }
+    }
+
+    /**
+     * Programa las llegadas desde un único hilo y envía cada petición en un hilo virtual.
+     * Solo se miden las que debían salir después del calentamiento.
+     *
+     * @return Duración de la ventana medida en segundos.
+     */
+    private static double drive(LoadConfig config, LoadMix mix, Workload workload, LoadReport report) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed() ^ 0x5DEECE66DL);
+        double meanGapNanos = 1e9 / config.rate();
+        long warmup = config.warmup().toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        long start = System.nanoTime();
+        long end = start + warmup + config.duration().toNanos();
+        double next = start;
+        long sequence = 0;
+        System.out.printf("Carga: %.0f llegadas/s (%s) durante %s + %s de calentamiento, mezcla %s%n",
+                config.rate(), config.arrival(), config.duration(), config.warmup(), config.mix());
+        while (next < end) {
+            long intended = (long) next;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.pick(random);
+            HttpRequest request = operation.build(workload, random, sequence++);
+            boolean measuredArrival = intended - start >= warmup;
+            if (inFlight.incrementAndGet() > config.maxInFlight()) {
+                inFlight.decrementAndGet();
+                if (measuredArrival) {
+                    report.dropped(operation);
+                }
+            } else {
+                executor.execute(() -> {
+                    int status;
+                    try {
+                        status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    if (measuredArrival) {
+                        report.record(operation, System.nanoTime() - intended, status);
+                    }
+                    inFlight.decrementAndGet();
+                });
+            }
+            next += config.arrival().equals("poisson") ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            System.out.printf("%d peticiones sin respuesta al terminar%n", inFlight.get());
+            executor.shutdownNow();
+        }
+        return config.duration().toNanos() / 1e9;
+    }
+
+    /** Propiedades de la aplicación para la prueba; las {@code --clave=valor} del usuario tienen prioridad. */
+    private static String[] applicationArgs(LoadConfig config) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", config.dbUrl());
+        if (config.embedded()) {
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        }
+        // La base embebida nace vacía y recibe las migraciones al arrancar; una externa nunca se toca: solo se valida su esquema.
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate");
+        properties.put("spring.security.s2s-token", INTERNAL_TOKEN);
+        // Todas las altas salen de la misma IP: el límite por IP mediría el generador, no el servicio.
+        properties.put("legendme.ratelimit.enabled", "false");
+        // Los logs INFO por petición saturarían la consola antes que el servicio.
+        properties.put("logging.level.com.legendme", "WARN");
+        for (String arg : config.spring()) {
+            int eq = arg.indexOf('=');
+            properties.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return args.toArray(String[]::new);
+    }
+}
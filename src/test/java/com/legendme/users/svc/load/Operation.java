@@ -0,0 +1,84 @@
+package com.legendme.users.svc.load;
+
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Operaciones que puede incluir la mezcla de carga, con el nombre que se usa en {@code mix}
+ * y en el resultado. Las lecturas van con el token S2S; {@code update} con el JWT del usuario.
+ */
+enum Operation {
+    BY_ID("by-id") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            return workload.s2s("/search/by-id/" + workload.seededId(random)).GET().build();
+        }
+    },
+    BY_EMAIL("by-email") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            return workload.s2sPost("/search/by-email", "{\"email\":\"" + workload.seededEmail(random) + "\"}");
+        }
+    },
+    BY_USERNAME("by-username") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            return workload.s2s("/search/by-username/" + workload.seededUsername(random)).GET().build();
+        }
+    },
+    /** La mitad de los emails consultados no existe. */
+    EXISTS("exists") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            String email = random.nextBoolean() ? workload.seededEmail(random) : "missing-" + sequence + "@load.test";
+            return workload.s2sPost("/exists-by-email", "{\"email\":\"" + email + "\"}");
+        }
+    },
+    VERIFY("verify") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            return workload.s2sPost("/verify-credentials", "{\"email\":\"" + workload.seededEmail(random)
+                    + "\",\"password\":\"" + UserSeeder.PASSWORD + "\"}");
+        }
+    },
+    CREATE("create") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            String username = "load-new-" + sequence;
+            return workload.publicPost("/create", "{\"name\":\"Load\",\"lastname\":\"New\",\"username\":\"" + username
+                    + "\",\"email\":\"" + username + "@load.test\",\"provider\":\"LOCAL\",\"password\":\""
+                    + UserSeeder.PASSWORD + "\"}");
+        }
+    },
+    UPDATE("update") {
+        @Override
+        HttpRequest build(Workload workload, SplittableRandom random, long sequence) {
+            return workload.userPatch(random, "/update", "{\"name\":\"Load " + sequence + "\"}");
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String key() {
+        return key;
+    }
+
+    /**
+     * Construye la petición; se llama desde el hilo que programa las llegadas, de modo que la
+     * secuencia de peticiones solo depende de la semilla.
+     */
+    abstract HttpRequest build(Workload workload, SplittableRandom random, long sequence);
+
+    static Operation byKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operación desconocida en mix: " + key
+                        + " (válidas: " + Arrays.stream(values()).map(Operation::key).toList() + ")"));
+    }
+}
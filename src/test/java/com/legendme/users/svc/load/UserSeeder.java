@@ -0,0 +1,109 @@
+package com.legendme.users.svc.load;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Inserta los usuarios sintéticos con JDBC por lotes, sin pasar por la API: el usuario {@code i}
+ * es {@code load-i} / {@code load-i@load.test}, y todos comparten la contraseña {@link #PASSWORD}
+ * (se calcula un único hash con el encoder de la aplicación). Los ids salen de la semilla, de modo
+ * que dos ejecuciones con la misma semilla consultan los mismos usuarios. Una tabla con filas se
+ * rechaza salvo que se pida expresamente: los usuarios de la semilla chocarían con los de una
+ * ejecución anterior y las consultas medirían datos que no son los sintéticos.
+ */
+final class UserSeeder {
+
+    static final String PASSWORD = "load-password";
+
+    private static final int BATCH = 5_000;
+    private static final String INSERT = "insert into users (id, name, lastname, birth_date, username, email, password,"
+            + " provider, active, created_at, updated_at, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final long[] mostSignificant;
+    private final long[] leastSignificant;
+
+    private UserSeeder(int users) {
+        this.mostSignificant = new long[users];
+        this.leastSignificant = new long[users];
+    }
+
+    static UserSeeder seed(DataSource dataSource, PasswordEncoder passwordEncoder, int users, long seed,
+                           boolean allowNonEmpty) throws SQLException {
+        long existing = count(dataSource);
+        if (existing > 0 && !allowNonEmpty) {
+            throw new IllegalStateException("La tabla users ya tiene " + existing
+                    + " filas; usa una base vacía o allowNonEmpty=true para insertar igualmente");
+        }
+        UserSeeder seeder = new UserSeeder(users);
+        SplittableRandom random = new SplittableRandom(seed);
+        String hash = passwordEncoder.encode(PASSWORD);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        int step = Math.max(1, users / 10);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < users; i++) {
+                long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+                long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+                seeder.mostSignificant[i] = msb;
+                seeder.leastSignificant[i] = lsb;
+                insert.setBytes(1, ByteBuffer.allocate(16).putLong(msb).putLong(lsb).array());
+                insert.setString(2, "Load");
+                insert.setString(3, "User " + i);
+                insert.setTimestamp(4, null);
+                insert.setString(5, username(i));
+                insert.setString(6, email(i));
+                insert.setString(7, hash);
+                insert.setString(8, "LOCAL");
+                insert.setBoolean(9, true);
+                insert.setTimestamp(10, now);
+                insert.setTimestamp(11, now);
+                insert.setLong(12, 0);
+                insert.addBatch();
+                if ((i + 1) % BATCH == 0 || i == users - 1) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+                if ((i + 1) % step == 0) {
+                    System.out.printf("Usuarios insertados: %d / %d%n", i + 1, users);
+                }
+            }
+        }
+        return seeder;
+    }
+
+    private static long count(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select count(*) from users")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    static String username(int index) {
+        return "load-" + index;
+    }
+
+    static String email(int index) {
+        return username(index) + "@load.test";
+    }
+
+    int size() {
+        return mostSignificant.length;
+    }
+
+    UUID id(int index) {
+        return new UUID(mostSignificant[index], leastSignificant[index]);
+    }
+}
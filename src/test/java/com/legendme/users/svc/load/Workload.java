@@ -0,0 +1,96 @@
+package com.legendme.users.svc.load;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Lo que las operaciones necesitan para construir sus peticiones: la URL base, el token S2S,
+ * los usuarios sembrados y un emisor de JWT con el mismo secreto y emisor que la aplicación.
+ */
+final class Workload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final String internalToken;
+    private final UserSeeder users;
+    private final JwtEncoder jwtEncoder;
+    private final String issuer;
+
+    Workload(String baseUrl, String internalToken, UserSeeder users, String jwtSecret, String issuer) {
+        this.baseUrl = baseUrl;
+        this.internalToken = internalToken;
+        this.users = users;
+        this.jwtEncoder = new NimbusJwtEncoder(new ImmutableSecret<>(
+                new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA384")));
+        this.issuer = issuer;
+    }
+
+    UUID seededId(SplittableRandom random) {
+        return users.id(random.nextInt(users.size()));
+    }
+
+    String seededEmail(SplittableRandom random) {
+        return UserSeeder.email(random.nextInt(users.size()));
+    }
+
+    String seededUsername(SplittableRandom random) {
+        return UserSeeder.username(random.nextInt(users.size()));
+    }
+
+    HttpRequest.Builder s2s(String path) {
+        return request(path).header("X-Internal-Token", internalToken);
+    }
+
+    HttpRequest s2sPost(String path, String json) {
+        return s2s(path).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest publicPost(String path, String json) {
+        return request(path).header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    HttpRequest userPatch(SplittableRandom random, String path, String json) {
+        return request(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + token(seededId(random)))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+    }
+
+    private String token(UUID userId) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(userId.toString())
+                .claim("user_id", userId.toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS384).build(), claims))
+                .getTokenValue();
+    }
+}